@@ -0,0 +1,46 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules;
+
+import org.opensearch.common.io.PathUtils;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.util.PrepackagedRules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bundled Sigma rule corpus the benchmarks run over. The rules folder can be overridden with the
+ * {@code sigma.rules.dir} system property, it defaults to the sources of the project the benchmarks are run from.
+ */
+final class RuleCorpus {
+
+    private static final String RULES_DIR = System.getProperty("sigma.rules.dir", "src/main/resources/rules");
+
+    private RuleCorpus() {}
+
+    static Map<String, List<String>> ruleSources() throws IOException {
+        return PrepackagedRules.readRuleSources(PathUtils.get(RULES_DIR));
+    }
+
+    static List<String> ruleSources(String category) throws IOException {
+        List<String> rules = ruleSources().get(category);
+        if (rules == null) {
+            throw new IllegalArgumentException("No rules found for category [" + category + "] in [" + RULES_DIR + "]");
+        }
+        return rules;
+    }
+
+    static List<SigmaRule> parse(List<String> ruleSources) throws SigmaError {
+        List<SigmaRule> rules = new ArrayList<>(ruleSources.size());
+        for (String ruleSource: ruleSources) {
+            rules.add(SigmaRule.fromYaml(ruleSource, true));
+        }
+        return rules;
+    }
+}
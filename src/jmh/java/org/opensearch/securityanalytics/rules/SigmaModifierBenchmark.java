@@ -0,0 +1,126 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
+import org.opensearch.securityanalytics.rules.utils.Either;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Sigma value modifiers, over every detection item of the bundled corpus which uses the modifier.
+ *
+ * Modifiers are applied in chains while a detection item is built from its {@code field|modifier|...} key, so every
+ * op rebuilds the detection items which use the modifier with their complete modifier chain. Modifiers which the
+ * corpus does not use are applied to a fixed set of representative command lines, networks or numbers instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SigmaModifierBenchmark {
+
+    private static final List<String> STRING_MODIFIERS = List.of("base64", "base64offset", "wide", "windash");
+
+    private static final List<Object> COMMAND_LINES = List.of("-NoProfile -ExecutionPolicy Bypass -EncodedCommand",
+            "vssadmin delete shadows /all /quiet", "rundll32.exe javascript:", "Invoke-Mimikatz", "certutil -urlcache -split -f",
+            "reg save HKLM\\SAM", "schtasks /create /sc minute /mo 1", "/c whoami /priv");
+
+    private static final List<Object> NETWORKS = List.of("10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "127.0.0.0/8");
+
+    private static final List<Object> NUMBERS = List.of(0, 22, 443, 1024, 4624, 65535);
+
+    @Param({"contains", "startswith", "endswith", "base64", "base64offset", "wide", "windash", "re", "cidr", "all",
+            "lt", "lte", "gt", "gte"})
+    public String modifier;
+
+    private List<Pair<String, Either<Object, List<Object>>>> detectionItems;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        detectionItems = new ArrayList<>();
+        for (List<String> ruleSources: RuleCorpus.ruleSources().values()) {
+            for (String ruleSource: ruleSources) {
+                Map<String, Object> rule = new Yaml().load(ruleSource);
+                Map<String, Object> detections = (Map<String, Object>) rule.get("detection");
+                for (Map.Entry<String, Object> detection: detections.entrySet()) {
+                    if (!"condition".equals(detection.getKey())) {
+                        collectDetectionItems(detection.getValue(), detectionItems);
+                    }
+                }
+            }
+        }
+
+        if (detectionItems.isEmpty()) {
+            detectionItems = representativeDetectionItems();
+        }
+    }
+
+    @Benchmark
+    public void applyModifier(Blackhole bh) throws SigmaError {
+        for (Pair<String, Either<Object, List<Object>>> detectionItem: detectionItems) {
+            bh.consume(SigmaDetectionItem.fromMapping(detectionItem.getLeft(), detectionItem.getRight()));
+        }
+    }
+
+    private List<Pair<String, Either<Object, List<Object>>>> representativeDetectionItems() {
+        List<Pair<String, Either<Object, List<Object>>>> detectionItems = new ArrayList<>();
+        if (STRING_MODIFIERS.contains(modifier)) {
+            detectionItems.add(Pair.of("CommandLine|" + modifier, Either.right(COMMAND_LINES)));
+        } else if ("cidr".equals(modifier)) {
+            detectionItems.add(Pair.of("SourceIp|cidr", Either.right(NETWORKS)));
+        } else {
+            for (Object number: NUMBERS) {
+                detectionItems.add(Pair.of("DestinationPort|" + modifier, Either.left(number)));
+            }
+        }
+        return detectionItems;
+    }
+
+    /**
+     * Walks a detection definition the way {@code SigmaDetection.fromDefinition} does.
+     */
+    @SuppressWarnings("unchecked")
+    private void collectDetectionItems(Object definition, List<Pair<String, Either<Object, List<Object>>>> detectionItems) {
+        if (definition instanceof Map) {
+            for (Map.Entry<String, Object> entry: ((Map<String, Object>) definition).entrySet()) {
+                String[] tokens = entry.getKey().split("\\|");
+                if (Arrays.asList(tokens).subList(1, tokens.length).contains(modifier)) {
+                    Object value = entry.getValue();
+                    detectionItems.add(Pair.of(entry.getKey(),
+                            value instanceof List? Either.<Object, List<Object>>right((List<Object>) value): Either.<Object, List<Object>>left(value)));
+                }
+            }
+        } else if (definition instanceof List) {
+            for (Object element: (List<Object>) definition) {
+                collectDetectionItems(element, detectionItems);
+            }
+        }
+    }
+}
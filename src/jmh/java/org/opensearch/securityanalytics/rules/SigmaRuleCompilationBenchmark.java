@@ -0,0 +1,154 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetection;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetections;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every stage of the Sigma rule compilation pipeline, per rule category of the bundled corpus.
+ * Every benchmark op processes the whole category, so ops/s is the rate at which a category can be (re)compiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SigmaRuleCompilationBenchmark {
+
+    // same escaping as OSQueryBackend uses for query_string values
+    private static final String ESCAPE_CHAR = "\\";
+    private static final String WILDCARD_MULTI = "*";
+    private static final String WILDCARD_SINGLE = "?";
+    private static final String ADD_ESCAPED = "/:\\+-=><!(){}[]^\"~*?";
+    private static final String ADD_RESERVED = "&& ||";
+
+    @Param({"ad_ldap", "apache_access", "cloudtrail", "dns", "linux", "network", "others_application", "others_apt",
+            "others_cloud", "others_compliance", "others_macos", "others_proxy", "others_web", "s3", "windows"})
+    public String category;
+
+    private List<String> ruleSources;
+
+    private List<SigmaRule> rules;
+
+    private List<Pair<String, SigmaDetections>> conditions;
+
+    private List<SigmaString> values;
+
+    private List<AggregationItem> aggregations;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SigmaError {
+        ruleSources = RuleCorpus.ruleSources(category);
+        rules = RuleCorpus.parse(ruleSources);
+
+        conditions = new ArrayList<>();
+        values = new ArrayList<>();
+        aggregations = new ArrayList<>();
+        for (SigmaRule rule: rules) {
+            SigmaDetections detections = rule.getDetection();
+            for (String condition: detections.getCondition()) {
+                conditions.add(Pair.of(condition, detections));
+            }
+            for (SigmaCondition condition: detections.getParsedCondition()) {
+                AggregationItem aggregation = condition.parsed().getRight();
+                if (aggregation != null) {
+                    aggregations.add(aggregation);
+                }
+            }
+            for (SigmaDetection detection: detections.getDetections().values()) {
+                collectValues(detection, values);
+            }
+        }
+    }
+
+    @Benchmark
+    public void fromYaml(Blackhole bh) throws SigmaError {
+        for (String ruleSource: ruleSources) {
+            bh.consume(SigmaRule.fromYaml(ruleSource, true));
+        }
+    }
+
+    /**
+     * A fresh {@link SigmaCondition} per rule, as parsed conditions are memoized per instance.
+     */
+    @Benchmark
+    public void parseCondition(Blackhole bh) throws SigmaError {
+        for (Pair<String, SigmaDetections> condition: conditions) {
+            Pair<ConditionItem, AggregationItem> parsed = new SigmaCondition(condition.getLeft(), condition.getRight()).parsed();
+            bh.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public void convertString(Blackhole bh) throws SigmaError {
+        for (SigmaString value: values) {
+            bh.consume(value.convert(ESCAPE_CHAR, WILDCARD_MULTI, WILDCARD_SINGLE, ADD_ESCAPED, ADD_RESERVED, ""));
+        }
+    }
+
+    /**
+     * Query backends collect the fields of the rules they convert, so every op starts from a new backend.
+     */
+    @Benchmark
+    public void convertRule(Blackhole bh) throws IOException, SigmaError {
+        OSQueryBackend backend = new OSQueryBackend(category, true, true);
+        for (SigmaRule rule: rules) {
+            bh.consume(backend.convertRule(rule));
+        }
+    }
+
+    @Benchmark
+    public void convertAggregation(Blackhole bh) throws IOException {
+        OSQueryBackend backend = new OSQueryBackend(category, true, true);
+        for (AggregationItem aggregation: aggregations) {
+            bh.consume(backend.convertAggregation(aggregation));
+        }
+    }
+
+    private static void collectValues(SigmaDetection detection, List<SigmaString> values) {
+        for (Either<SigmaDetectionItem, SigmaDetection> detectionItem: detection.getDetectionItems()) {
+            if (detectionItem.isLeft()) {
+                for (SigmaType value: detectionItem.getLeft().getValue()) {
+                    if (value instanceof SigmaString) {
+                        values.add((SigmaString) value);
+                    }
+                }
+            } else {
+                collectValues(detectionItem.get(), values);
+            }
+        }
+    }
+}
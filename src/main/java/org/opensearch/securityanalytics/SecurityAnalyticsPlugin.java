@@ -21,6 +21,7 @@ import org.opensearch.common.settings.IndexScopedSettings;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
@@ -42,10 +43,16 @@ import org.opensearch.securityanalytics.action.IndexDetectorAction;
 import org.opensearch.securityanalytics.action.SearchDetectorAction;
 import org.opensearch.securityanalytics.action.UpdateIndexMappingsAction;
 import org.opensearch.securityanalytics.indexmanagment.DetectorIndexManagementService;
+import org.opensearch.securityanalytics.action.TestRulesAction;
+import org.opensearch.securityanalytics.action.BacktestDetectorAction;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsAction;
 import org.opensearch.securityanalytics.action.ValidateRulesAction;
 import org.opensearch.securityanalytics.mapper.MapperService;
 import org.opensearch.securityanalytics.resthandler.RestAcknowledgeAlertsAction;
 import org.opensearch.securityanalytics.resthandler.RestGetFindingsAction;
+import org.opensearch.securityanalytics.resthandler.RestTestRulesAction;
+import org.opensearch.securityanalytics.resthandler.RestBacktestDetectorAction;
+import org.opensearch.securityanalytics.resthandler.RestBulkIndexDetectorsAction;
 import org.opensearch.securityanalytics.resthandler.RestValidateRulesAction;
 import org.opensearch.securityanalytics.transport.TransportAcknowledgeAlertsAction;
 import org.opensearch.securityanalytics.transport.TransportCreateIndexMappingsAction;
@@ -80,10 +87,16 @@ import org.opensearch.securityanalytics.transport.TransportGetDetectorAction;
 import org.opensearch.securityanalytics.transport.TransportGetMappingsViewAction;
 import org.opensearch.securityanalytics.transport.TransportIndexDetectorAction;
 import org.opensearch.securityanalytics.transport.TransportSearchDetectorAction;
+import org.opensearch.securityanalytics.transport.TransportTestRulesAction;
+import org.opensearch.securityanalytics.transport.TransportBacktestDetectorAction;
+import org.opensearch.securityanalytics.transport.TransportBulkIndexDetectorsAction;
 import org.opensearch.securityanalytics.transport.TransportValidateRulesAction;
 import org.opensearch.securityanalytics.util.DetectorIndices;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.RuleTopicIndices;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.FixedExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.watcher.ResourceWatcherService;
 
@@ -97,6 +110,8 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
     public static final String DETECTOR_BASE_URI = PLUGINS_BASE_URI + "/detectors";
     public static final String RULE_BASE_URI = PLUGINS_BASE_URI + "/rules";
 
+    public static final String RULE_COMPILATION_THREAD_POOL = "security_analytics_rule_compilation";
+
     private DetectorIndices detectorIndices;
 
     private RuleTopicIndices ruleTopicIndices;
@@ -105,6 +120,8 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
 
     private RuleIndices ruleIndices;
 
+    private RuleCache ruleCache;
+
     private DetectorIndexManagementService detectorIndexManagementService;
 
     @Override
@@ -122,8 +139,9 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
         detectorIndices = new DetectorIndices(client.admin(), clusterService, threadPool);
         ruleTopicIndices = new RuleTopicIndices(client, clusterService);
         mapperService = new MapperService(client.admin().indices());
-        ruleIndices = new RuleIndices(client, clusterService, threadPool);
-        return List.of(detectorIndices, ruleTopicIndices, ruleIndices, mapperService);
+        ruleCache = new RuleCache(SecurityAnalyticsSettings.RULE_CACHE_SIZE.get(clusterService.getSettings()));
+        ruleIndices = new RuleIndices(client, clusterService, threadPool, ruleCache);
+        return List.of(detectorIndices, ruleTopicIndices, ruleIndices, ruleCache, mapperService);
     }
 
     @Override
@@ -154,7 +172,10 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
                 new RestIndexRuleAction(),
                 new RestSearchRuleAction(),
                 new RestDeleteRuleAction(),
-                new RestValidateRulesAction()
+                new RestValidateRulesAction(),
+                new RestTestRulesAction(),
+                new RestBacktestDetectorAction(),
+                new RestBulkIndexDetectorsAction()
         );
     }
 
@@ -183,7 +204,24 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
                 SecurityAnalyticsSettings.FINDING_HISTORY_MAX_DOCS,
                 SecurityAnalyticsSettings.FINDING_HISTORY_INDEX_MAX_AGE,
                 SecurityAnalyticsSettings.FINDING_HISTORY_ROLLOVER_PERIOD,
-                SecurityAnalyticsSettings.FINDING_HISTORY_RETENTION_PERIOD
+                SecurityAnalyticsSettings.FINDING_HISTORY_RETENTION_PERIOD,
+                SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE,
+                SecurityAnalyticsSettings.MONITOR_PROVISIONING_CONCURRENCY,
+                SecurityAnalyticsSettings.RULE_CACHE_SIZE,
+                SecurityAnalyticsSettings.BULK_DETECTOR_CONCURRENCY
+        );
+    }
+
+    @Override
+    public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
+        return List.of(
+                new FixedExecutorBuilder(
+                        settings,
+                        RULE_COMPILATION_THREAD_POOL,
+                        OpenSearchExecutors.allocatedProcessors(settings),
+                        100,
+                        "thread_pool." + RULE_COMPILATION_THREAD_POOL
+                )
         );
     }
 
@@ -204,7 +242,10 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
                 new ActionPlugin.ActionHandler<>(IndexRuleAction.INSTANCE, TransportIndexRuleAction.class),
                 new ActionPlugin.ActionHandler<>(SearchRuleAction.INSTANCE, TransportSearchRuleAction.class),
                 new ActionPlugin.ActionHandler<>(DeleteRuleAction.INSTANCE, TransportDeleteRuleAction.class),
-                new ActionPlugin.ActionHandler<>(ValidateRulesAction.INSTANCE, TransportValidateRulesAction.class)
+                new ActionPlugin.ActionHandler<>(ValidateRulesAction.INSTANCE, TransportValidateRulesAction.class),
+                new ActionPlugin.ActionHandler<>(TestRulesAction.INSTANCE, TransportTestRulesAction.class),
+                new ActionPlugin.ActionHandler<>(BacktestDetectorAction.INSTANCE, TransportBacktestDetectorAction.class),
+                new ActionPlugin.ActionHandler<>(BulkIndexDetectorsAction.INSTANCE, TransportBulkIndexDetectorsAction.class)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class BacktestDetectorAction extends ActionType<BacktestDetectorResponse> {
+
+    public static final String NAME = "cluster:admin/opensearch/securityanalytics/detector/backtest";
+    public static final BacktestDetectorAction INSTANCE = new BacktestDetectorAction();
+
+    public BacktestDetectorAction() {
+        super(NAME, BacktestDetectorResponse::new);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.securityanalytics.model.Detector;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * Replays the doc-level rules of a stored detector, or of a draft detector given in the request, over the documents
+ * of its log indices within a time range.
+ */
+public class BacktestDetectorRequest extends ActionRequest implements ToXContentObject {
+
+    public static final String DETECTOR_ID_FIELD = "detector_id";
+    public static final String DETECTOR_FIELD = "detector";
+    public static final String START_TIME_FIELD = "start_time";
+    public static final String END_TIME_FIELD = "end_time";
+    public static final String TIMESTAMP_FIELD = "timestamp_field";
+    public static final String SLICES_FIELD = "slices";
+    public static final String MAX_FINDINGS_PER_RULE_FIELD = "max_findings_per_rule";
+    public static final String FINDINGS_INDEX_FIELD = "findings_index";
+
+    public static final String DEFAULT_TIMESTAMP_FIELD = "@timestamp";
+    public static final int DEFAULT_SLICES = 2;
+    public static final int MAX_SLICES = 32;
+    public static final int DEFAULT_MAX_FINDINGS_PER_RULE = 1000;
+    public static final int MAX_FINDINGS_PER_RULE = 10000;
+
+    private String detectorId;
+    private Detector detector;
+    private String startTime;
+    private String endTime;
+    private String timestampField;
+    private int slices;
+    private int maxFindingsPerRule;
+    private String findingsIndex;
+
+    public BacktestDetectorRequest(String detectorId, Detector detector, String startTime, String endTime, String timestampField,
+                                   int slices, int maxFindingsPerRule, String findingsIndex) {
+        super();
+        this.detectorId = detectorId;
+        this.detector = detector;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.timestampField = timestampField;
+        this.slices = slices;
+        this.maxFindingsPerRule = maxFindingsPerRule;
+        this.findingsIndex = findingsIndex;
+    }
+
+    public BacktestDetectorRequest(StreamInput sin) throws IOException {
+        this(
+            sin.readOptionalString(),
+            sin.readBoolean() ? Detector.readFrom(sin) : null,
+            sin.readOptionalString(),
+            sin.readOptionalString(),
+            sin.readString(),
+            sin.readVInt(),
+            sin.readVInt(),
+            sin.readOptionalString()
+        );
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if ((detectorId == null || detectorId.isEmpty()) == (detector == null)) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "exactly one of %s or %s is required", DETECTOR_ID_FIELD, DETECTOR_FIELD), validationException);
+        }
+        if (startTime == null || startTime.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s is missing", START_TIME_FIELD), validationException);
+        }
+        if (timestampField == null || timestampField.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s is missing", TIMESTAMP_FIELD), validationException);
+        }
+        if (slices < 1 || slices > MAX_SLICES) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s must be between 1 and %d", SLICES_FIELD, MAX_SLICES), validationException);
+        }
+        if (maxFindingsPerRule < 0 || maxFindingsPerRule > MAX_FINDINGS_PER_RULE) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s must be between 0 and %d", MAX_FINDINGS_PER_RULE_FIELD, MAX_FINDINGS_PER_RULE), validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(detectorId);
+        out.writeBoolean(detector != null);
+        if (detector != null) {
+            detector.writeTo(out);
+        }
+        out.writeOptionalString(startTime);
+        out.writeOptionalString(endTime);
+        out.writeString(timestampField);
+        out.writeVInt(slices);
+        out.writeVInt(maxFindingsPerRule);
+        out.writeOptionalString(findingsIndex);
+    }
+
+    /**
+     * @param detectorId id of the stored detector to backtest given in the path, or null
+     */
+    public static BacktestDetectorRequest parse(XContentParser xcp, String detectorId) throws IOException {
+        Detector detector = null;
+        String startTime = null;
+        String endTime = null;
+        String timestampField = DEFAULT_TIMESTAMP_FIELD;
+        int slices = DEFAULT_SLICES;
+        int maxFindingsPerRule = DEFAULT_MAX_FINDINGS_PER_RULE;
+        String findingsIndex = null;
+
+        if (xcp.currentToken() == null) {
+            xcp.nextToken();
+        }
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case DETECTOR_ID_FIELD:
+                    detectorId = xcp.text();
+                    break;
+                case DETECTOR_FIELD:
+                    detector = Detector.parse(xcp, Detector.NO_ID, null);
+                    detector.setLastUpdateTime(Instant.now());
+                    break;
+                case START_TIME_FIELD:
+                    startTime = xcp.text();
+                    break;
+                case END_TIME_FIELD:
+                    endTime = xcp.text();
+                    break;
+                case TIMESTAMP_FIELD:
+                    timestampField = xcp.text();
+                    break;
+                case SLICES_FIELD:
+                    slices = xcp.intValue();
+                    break;
+                case MAX_FINDINGS_PER_RULE_FIELD:
+                    maxFindingsPerRule = xcp.intValue();
+                    break;
+                case FINDINGS_INDEX_FIELD:
+                    findingsIndex = xcp.text();
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+        return new BacktestDetectorRequest(detectorId, detector, startTime, endTime, timestampField, slices, maxFindingsPerRule, findingsIndex);
+    }
+
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public Detector getDetector() {
+        return detector;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the end of the time range, null for an open range
+     */
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public String getTimestampField() {
+        return timestampField;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public int getMaxFindingsPerRule() {
+        return maxFindingsPerRule;
+    }
+
+    /**
+     * @return the index the would-be findings are written to, null for the default backtest findings index of the
+     * detector type. Other indices have to start with the name of the default index.
+     */
+    public String getFindingsIndex() {
+        return findingsIndex;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .field(DETECTOR_ID_FIELD, detectorId);
+        if (detector != null) {
+            builder.field(DETECTOR_FIELD, detector);
+        }
+        return builder.field(START_TIME_FIELD, startTime)
+                .field(END_TIME_FIELD, endTime)
+                .field(TIMESTAMP_FIELD, timestampField)
+                .field(SLICES_FIELD, slices)
+                .field(MAX_FINDINGS_PER_RULE_FIELD, maxFindingsPerRule)
+                .field(FINDINGS_INDEX_FIELD, findingsIndex)
+                .endObject();
+    }
+}
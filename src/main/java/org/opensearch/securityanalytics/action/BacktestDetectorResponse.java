@@ -0,0 +1,201 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.Strings;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+public class BacktestDetectorResponse extends ActionResponse implements ToXContentObject {
+
+    public static final String BACKTEST_ID_FIELD = "backtest_id";
+    public static final String DETECTOR_ID_FIELD = "detector_id";
+    public static final String FINDINGS_INDEX_FIELD = "findings_index";
+    public static final String TOOK_FIELD = "took";
+    public static final String HITS_FIELD = "hits";
+    public static final String FINDINGS_FIELD = "findings";
+    public static final String RULES_FIELD = "rules";
+
+    private final String backtestId;
+    private final String detectorId;
+    private final String findingsIndex;
+    private final long took;
+    private final List<RuleResult> results;
+
+    public BacktestDetectorResponse(String backtestId, String detectorId, String findingsIndex, long took, List<RuleResult> results) {
+        super();
+        this.backtestId = backtestId;
+        this.detectorId = detectorId;
+        this.findingsIndex = findingsIndex;
+        this.took = took;
+        this.results = results;
+    }
+
+    public BacktestDetectorResponse(StreamInput sin) throws IOException {
+        this(
+            sin.readString(),
+            sin.readOptionalString(),
+            sin.readString(),
+            sin.readVLong(),
+            sin.readList(RuleResult::new)
+        );
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(backtestId);
+        out.writeOptionalString(detectorId);
+        out.writeString(findingsIndex);
+        out.writeVLong(took);
+        out.writeList(results);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        long hits = 0;
+        long findings = 0;
+        for (RuleResult result: results) {
+            hits += result.hits;
+            findings += result.findings;
+        }
+
+        builder.startObject()
+                .field(BACKTEST_ID_FIELD, backtestId)
+                .field(DETECTOR_ID_FIELD, detectorId)
+                .field(FINDINGS_INDEX_FIELD, findingsIndex)
+                .field(TOOK_FIELD, took)
+                .field(HITS_FIELD, hits)
+                .field(FINDINGS_FIELD, findings)
+                .startArray(RULES_FIELD);
+        for (RuleResult result: results) {
+            result.toXContent(builder, params);
+        }
+        return builder.endArray()
+                .endObject();
+    }
+
+    public String getBacktestId() {
+        return backtestId;
+    }
+
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public String getFindingsIndex() {
+        return findingsIndex;
+    }
+
+    /**
+     * @return the time the backtest took in milliseconds
+     */
+    public long getTook() {
+        return took;
+    }
+
+    public List<RuleResult> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toString(this);
+    }
+
+    /**
+     * The number of documents a rule matched, the number of findings written for them and the time its query took,
+     * or the error the rule failed with.
+     */
+    public static class RuleResult implements Writeable, ToXContentObject {
+
+        public static final String ID_FIELD = "id";
+        public static final String TITLE_FIELD = "title";
+        public static final String ERROR_FIELD = "error";
+
+        private final String id;
+        private final String title;
+        private final long hits;
+        private final long findings;
+        private final long took;
+        private final String error;
+
+        public RuleResult(String id, String title, long hits, long findings, long took, String error) {
+            this.id = id;
+            this.title = title;
+            this.hits = hits;
+            this.findings = findings;
+            this.took = took;
+            this.error = error;
+        }
+
+        public RuleResult(StreamInput sin) throws IOException {
+            this(
+                sin.readString(),
+                sin.readOptionalString(),
+                sin.readVLong(),
+                sin.readVLong(),
+                sin.readVLong(),
+                sin.readOptionalString()
+            );
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(id);
+            out.writeOptionalString(title);
+            out.writeVLong(hits);
+            out.writeVLong(findings);
+            out.writeVLong(took);
+            out.writeOptionalString(error);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject()
+                    .field(ID_FIELD, id)
+                    .field(TITLE_FIELD, title)
+                    .field(HITS_FIELD, hits)
+                    .field(FINDINGS_FIELD, findings)
+                    .field(TOOK_FIELD, took);
+            if (error != null) {
+                builder.field(ERROR_FIELD, error);
+            }
+            return builder.endObject();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getFindings() {
+            return findings;
+        }
+
+        /**
+         * @return the time the searches of the rule took in milliseconds
+         */
+        public long getTook() {
+            return took;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class BulkIndexDetectorsAction extends ActionType<BulkIndexDetectorsResponse> {
+
+    public static final BulkIndexDetectorsAction INSTANCE = new BulkIndexDetectorsAction();
+    public static final String NAME = "cluster:admin/opensearch/securityanalytics/detector/bulk_write";
+
+    public BulkIndexDetectorsAction() {
+        super(NAME, BulkIndexDetectorsResponse::new);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.securityanalytics.model.Detector;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * Creates or updates many detectors at once. A detector given with an id updates the stored detector, a detector
+ * without one is created.
+ */
+public class BulkIndexDetectorsRequest extends ActionRequest {
+
+    public static final String DETECTORS_FIELD = "detectors";
+    public static final String DETECTOR_ID_FIELD = "detector_id";
+    public static final String DETECTOR_FIELD = "detector";
+
+    private WriteRequest.RefreshPolicy refreshPolicy;
+
+    private List<IndexDetectorRequest> requests;
+
+    public BulkIndexDetectorsRequest(WriteRequest.RefreshPolicy refreshPolicy, List<IndexDetectorRequest> requests) {
+        super();
+        this.refreshPolicy = refreshPolicy;
+        this.requests = requests;
+    }
+
+    public BulkIndexDetectorsRequest(StreamInput sin) throws IOException {
+        this(WriteRequest.RefreshPolicy.readFrom(sin),
+             sin.readList(IndexDetectorRequest::new));
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (requests == null || requests.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s are missing", DETECTORS_FIELD), validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        refreshPolicy.writeTo(out);
+        out.writeList(requests);
+    }
+
+    public static BulkIndexDetectorsRequest parse(XContentParser xcp, WriteRequest.RefreshPolicy refreshPolicy) throws IOException {
+        List<IndexDetectorRequest> requests = new ArrayList<>();
+
+        if (xcp.currentToken() == null) {
+            xcp.nextToken();
+        }
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            if (DETECTORS_FIELD.equals(fieldName)) {
+                XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                    requests.add(parseItem(xcp, refreshPolicy));
+                }
+            } else {
+                xcp.skipChildren();
+            }
+        }
+        return new BulkIndexDetectorsRequest(refreshPolicy, requests);
+    }
+
+    private static IndexDetectorRequest parseItem(XContentParser xcp, WriteRequest.RefreshPolicy refreshPolicy) throws IOException {
+        String detectorId = null;
+        Detector detector = null;
+
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case DETECTOR_ID_FIELD:
+                    detectorId = xcp.text();
+                    break;
+                case DETECTOR_FIELD:
+                    detector = Detector.parse(xcp, Detector.NO_ID, null);
+                    detector.setLastUpdateTime(Instant.now());
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+
+        if (detector == null) {
+            throw new IllegalArgumentException(String.format(Locale.getDefault(), "%s is missing", DETECTOR_FIELD));
+        }
+        if (detectorId == null || detectorId.isEmpty()) {
+            return new IndexDetectorRequest(Detector.NO_ID, refreshPolicy, RestRequest.Method.POST, detector);
+        }
+        detector.setId(detectorId);
+        return new IndexDetectorRequest(detectorId, refreshPolicy, RestRequest.Method.PUT, detector);
+    }
+
+    public WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    public List<IndexDetectorRequest> getRequests() {
+        return requests;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.Strings;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+
+import static org.opensearch.securityanalytics.util.RestHandlerUtils._ID;
+
+/**
+ * The results of a bulk request in the order of its detectors, in the layout of the core bulk API: every item is
+ * either the created or updated detector, or the error its detector failed with.
+ */
+public class BulkIndexDetectorsResponse extends ActionResponse implements ToXContentObject {
+
+    public static final String TOOK_FIELD = "took";
+    public static final String ERRORS_FIELD = "errors";
+    public static final String ITEMS_FIELD = "items";
+
+    private final long took;
+    private final List<Item> items;
+
+    public BulkIndexDetectorsResponse(long took, List<Item> items) {
+        super();
+        this.took = took;
+        this.items = items;
+    }
+
+    public BulkIndexDetectorsResponse(StreamInput sin) throws IOException {
+        this(
+            sin.readVLong(),
+            sin.readList(Item::new)
+        );
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(took);
+        out.writeList(items);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .field(TOOK_FIELD, took)
+                .field(ERRORS_FIELD, hasFailures())
+                .startArray(ITEMS_FIELD);
+        for (Item item: items) {
+            item.toXContent(builder, params);
+        }
+        return builder.endArray()
+                .endObject();
+    }
+
+    /**
+     * @return the time the bulk request took in milliseconds
+     */
+    public long getTook() {
+        return took;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public boolean hasFailures() {
+        return items.stream().anyMatch(Item::isFailed);
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toString(this);
+    }
+
+    /**
+     * The detector created or updated for one detector of the bulk request, or the error it failed with.
+     */
+    public static class Item implements Writeable, ToXContentObject {
+
+        public static final String CREATE_FIELD = "create";
+        public static final String UPDATE_FIELD = "update";
+        public static final String STATUS_FIELD = "status";
+        public static final String ERROR_FIELD = "error";
+
+        private final RestRequest.Method method;
+        private final String detectorId;
+        private final RestStatus status;
+        private final IndexDetectorResponse response;
+        private final String error;
+
+        private Item(RestRequest.Method method, String detectorId, RestStatus status, IndexDetectorResponse response, String error) {
+            this.method = method;
+            this.detectorId = detectorId;
+            this.status = status;
+            this.response = response;
+            this.error = error;
+        }
+
+        public Item(StreamInput sin) throws IOException {
+            this(
+                sin.readEnum(RestRequest.Method.class),
+                sin.readOptionalString(),
+                sin.readEnum(RestStatus.class),
+                sin.readBoolean() ? new IndexDetectorResponse(sin) : null,
+                sin.readOptionalString()
+            );
+        }
+
+        public static Item success(RestRequest.Method method, IndexDetectorResponse response) {
+            return new Item(method, response.getId(), response.getStatus(), response, null);
+        }
+
+        /**
+         * @param detectorId id of the detector to update, null for a detector which failed to be created
+         */
+        public static Item failure(RestRequest.Method method, String detectorId, RestStatus status, String error) {
+            return new Item(method, detectorId, status, null, error);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeEnum(method);
+            out.writeOptionalString(detectorId);
+            out.writeEnum(status);
+            out.writeBoolean(response != null);
+            if (response != null) {
+                response.writeTo(out);
+            }
+            out.writeOptionalString(error);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject()
+                    .startObject(method == RestRequest.Method.POST ? CREATE_FIELD : UPDATE_FIELD)
+                    .field(STATUS_FIELD, status.getStatus());
+            if (response != null) {
+                response.innerToXContent(builder, params);
+            } else {
+                builder.field(_ID, detectorId)
+                        .field(ERROR_FIELD, error);
+            }
+            return builder.endObject()
+                    .endObject();
+        }
+
+        public RestRequest.Method getMethod() {
+            return method;
+        }
+
+        public String getDetectorId() {
+            return detectorId;
+        }
+
+        public RestStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the created or updated detector, null if it failed
+         */
+        public IndexDetectorResponse getResponse() {
+            return response;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isFailed() {
+            return response == null;
+        }
+    }
+}
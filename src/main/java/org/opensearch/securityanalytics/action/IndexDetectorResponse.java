@@ -13,12 +13,15 @@ import org.opensearch.rest.RestStatus;
 import org.opensearch.securityanalytics.model.Detector;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.opensearch.securityanalytics.util.RestHandlerUtils._ID;
 import static org.opensearch.securityanalytics.util.RestHandlerUtils._VERSION;
 
 public class IndexDetectorResponse extends ActionResponse implements ToXContentObject {
 
+    public static final String EXCLUDED_RULE_IDS_FIELD = "excluded_rule_ids";
+
     private String id;
 
     private Long version;
@@ -27,19 +30,30 @@ public class IndexDetectorResponse extends ActionResponse implements ToXContentO
 
     private Detector detector;
 
+    /**
+     * Rules of the detector left out of its doc-level monitor, as none of the log index fields can match them.
+     */
+    private List<String> excludedRuleIds;
+
     public IndexDetectorResponse(String id, Long version, RestStatus status, Detector detector) {
+        this(id, version, status, detector, List.of());
+    }
+
+    public IndexDetectorResponse(String id, Long version, RestStatus status, Detector detector, List<String> excludedRuleIds) {
         super();
         this.id = id;
         this.version = version;
         this.status = status;
         this.detector = detector;
+        this.excludedRuleIds = excludedRuleIds;
     }
 
     public IndexDetectorResponse(StreamInput sin) throws IOException {
         this(sin.readString(),
              sin.readLong(),
              sin.readEnum(RestStatus.class),
-             Detector.readFrom(sin));
+             Detector.readFrom(sin),
+             sin.readStringList());
     }
 
     @Override
@@ -48,12 +62,21 @@ public class IndexDetectorResponse extends ActionResponse implements ToXContentO
         out.writeLong(version);
         out.writeEnum(status);
         detector.writeTo(out);
+        out.writeStringCollection(excludedRuleIds);
     }
 
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
-        builder.startObject()
-            .field(_ID, id)
+        builder.startObject();
+        innerToXContent(builder, params);
+        return builder.endObject();
+    }
+
+    /**
+     * The fields of the response, without the enclosing object, so that the items of a bulk response can include them.
+     */
+    public XContentBuilder innerToXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.field(_ID, id)
             .field(_VERSION, version);
         builder.startObject("detector")
             .field(Detector.NAME_FIELD, detector.getName())
@@ -65,7 +88,7 @@ public class IndexDetectorResponse extends ActionResponse implements ToXContentO
             .field(Detector.LAST_UPDATE_TIME_FIELD, detector.getLastUpdateTime())
             .field(Detector.ENABLED_TIME_FIELD, detector.getEnabledTime())
             .endObject();
-        return builder.endObject();
+        return builder.field(EXCLUDED_RULE_IDS_FIELD, excludedRuleIds);
     }
 
     public String getId() {
@@ -83,4 +106,8 @@ public class IndexDetectorResponse extends ActionResponse implements ToXContentO
     public Detector getDetector() {
         return detector;
     }
+
+    public List<String> getExcludedRuleIds() {
+        return excludedRuleIds;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class TestRulesAction extends ActionType<TestRulesResponse> {
+
+    public static final String NAME = "cluster:admin/opendistro/securityanalytics/rules/test";
+    public static final TestRulesAction INSTANCE = new TestRulesAction();
+
+    public TestRulesAction() {
+        super(NAME, TestRulesResponse::new);
+    }
+}
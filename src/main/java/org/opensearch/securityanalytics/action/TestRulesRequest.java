@@ -0,0 +1,165 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * Evaluates Sigma rules, given either as rule sources of a log type or by the ids of stored rules, against sample events.
+ */
+public class TestRulesRequest extends ActionRequest implements ToXContentObject {
+
+    public static final String CATEGORY_FIELD = "category";
+    public static final String RULES_FIELD = "rules";
+    public static final String RULE_IDS_FIELD = "rule_ids";
+    public static final String EVENTS_FIELD = "events";
+
+    /**
+     * Rules, given as sources or ids, evaluated by a single request. This also keeps the search for the stored rules
+     * within index.max_result_window.
+     */
+    public static final int MAX_RULES = 1000;
+
+    /**
+     * Events every rule of a single request is evaluated against.
+     */
+    public static final int MAX_EVENTS = 1000;
+
+    private String category;
+    private List<String> rules;
+    private List<String> ruleIds;
+    private List<Map<String, Object>> events;
+
+    public TestRulesRequest(String category, List<String> rules, List<String> ruleIds, List<Map<String, Object>> events) {
+        super();
+        this.category = category;
+        this.rules = rules;
+        this.ruleIds = ruleIds;
+        this.events = events;
+    }
+
+    public TestRulesRequest(StreamInput sin) throws IOException {
+        this(
+            sin.readOptionalString(),
+            sin.readStringList(),
+            sin.readStringList(),
+            sin.readList(StreamInput::readMap)
+        );
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (rules.isEmpty() && ruleIds.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s or %s are missing", RULES_FIELD, RULE_IDS_FIELD), validationException);
+        }
+        if (!rules.isEmpty() && (category == null || category.isEmpty())) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s is missing", CATEGORY_FIELD), validationException);
+        }
+        if (rules.size() + ruleIds.size() > MAX_RULES) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "at most %d %s and %s can be tested at once",
+                    MAX_RULES, RULES_FIELD, RULE_IDS_FIELD), validationException);
+        }
+        if (events.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s are missing", EVENTS_FIELD), validationException);
+        }
+        if (events.size() > MAX_EVENTS) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "at most %d %s can be tested at once",
+                    MAX_EVENTS, EVENTS_FIELD), validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(category);
+        out.writeStringCollection(rules);
+        out.writeStringCollection(ruleIds);
+        out.writeCollection(events, StreamOutput::writeMap);
+    }
+
+    public static TestRulesRequest parse(XContentParser xcp) throws IOException {
+        String category = null;
+        List<String> rules = new ArrayList<>();
+        List<String> ruleIds = new ArrayList<>();
+        List<Map<String, Object>> events = new ArrayList<>();
+
+        if (xcp.currentToken() == null) {
+            xcp.nextToken();
+        }
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case CATEGORY_FIELD:
+                    category = xcp.text();
+                    break;
+                case RULES_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        rules.add(xcp.text());
+                    }
+                    break;
+                case RULE_IDS_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        ruleIds.add(xcp.text());
+                    }
+                    break;
+                case EVENTS_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        events.add(xcp.map());
+                    }
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+        return new TestRulesRequest(category, rules, ruleIds, events);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public List<String> getRules() {
+        return rules;
+    }
+
+    public List<String> getRuleIds() {
+        return ruleIds;
+    }
+
+    public List<Map<String, Object>> getEvents() {
+        return events;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        return builder.startObject()
+                .field(CATEGORY_FIELD, category)
+                .field(RULES_FIELD, rules)
+                .field(RULE_IDS_FIELD, ruleIds)
+                .field(EVENTS_FIELD, events)
+                .endObject();
+    }
+}
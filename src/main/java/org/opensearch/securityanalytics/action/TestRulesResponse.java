@@ -0,0 +1,124 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.Strings;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+public class TestRulesResponse extends ActionResponse implements ToXContentObject {
+
+    public static final String RULES_FIELD = "rules";
+
+    private final List<RuleResult> results;
+
+    public TestRulesResponse(List<RuleResult> results) {
+        super();
+        this.results = results;
+    }
+
+    public TestRulesResponse(StreamInput sin) throws IOException {
+        this(sin.readList(RuleResult::new));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeList(results);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .startArray(RULES_FIELD);
+        for (RuleResult result: results) {
+            result.toXContent(builder, params);
+        }
+        return builder.endArray()
+                .endObject();
+    }
+
+    public List<RuleResult> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toString(this);
+    }
+
+    /**
+     * The positions of the sample events a rule matched, or the error the rule failed with.
+     */
+    public static class RuleResult implements Writeable, ToXContentObject {
+
+        public static final String ID_FIELD = "id";
+        public static final String TITLE_FIELD = "title";
+        public static final String MATCHED_EVENTS_FIELD = "matched_events";
+        public static final String ERROR_FIELD = "error";
+
+        private final String id;
+        private final String title;
+        private final List<Integer> matchedEvents;
+        private final String error;
+
+        public RuleResult(String id, String title, List<Integer> matchedEvents, String error) {
+            this.id = id;
+            this.title = title;
+            this.matchedEvents = matchedEvents;
+            this.error = error;
+        }
+
+        public RuleResult(StreamInput sin) throws IOException {
+            this(
+                sin.readOptionalString(),
+                sin.readOptionalString(),
+                sin.readList(StreamInput::readVInt),
+                sin.readOptionalString()
+            );
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeOptionalString(id);
+            out.writeOptionalString(title);
+            out.writeCollection(matchedEvents, StreamOutput::writeVInt);
+            out.writeOptionalString(error);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject()
+                    .field(ID_FIELD, id)
+                    .field(TITLE_FIELD, title)
+                    .field(MATCHED_EVENTS_FIELD, matchedEvents);
+            if (error != null) {
+                builder.field(ERROR_FIELD, error);
+            }
+            return builder.endObject();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public List<Integer> getMatchedEvents() {
+            return matchedEvents;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -119,6 +119,14 @@ public class DetectorMonitorConfig {
                 OPENSEARCH_DEFAULT_FINDINGS_INDEX_PATTERN;
     }
 
+    /**
+     * The index backtests write would-be findings to by default, outside the findings index patterns of the type so
+     * the findings API never returns them.
+     */
+    public static String getBacktestFindingsIndex(String detectorType) {
+        return String.format(Locale.getDefault(), ".opensearch-sap-%s-backtest-findings", detectorType);
+    }
+
     public static Map<String, Map<String, String>> getRuleIndexMappingsByType(String detectorType) {
         HashMap<String, String> properties = new HashMap<>();
         properties.put("analyzer", "rule_analyzer");
@@ -7,20 +7,37 @@ package org.opensearch.securityanalytics.findings;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchStatusException;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.client.Client;
 import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.commons.alerting.AlertingPluginInterface;
 import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.Finding;
 import org.opensearch.commons.alerting.model.FindingWithDocs;
 import org.opensearch.commons.alerting.model.Table;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.FindingDto;
 import org.opensearch.securityanalytics.action.GetDetectorAction;
 import org.opensearch.securityanalytics.action.GetDetectorRequest;
@@ -28,6 +45,10 @@ import org.opensearch.securityanalytics.action.GetDetectorResponse;
 import org.opensearch.securityanalytics.action.GetFindingsResponse;
 import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 
 /**
@@ -37,6 +58,8 @@ public class FindingsService {
 
     private Client client;
 
+    private NamedXContentRegistry xContentRegistry = NamedXContentRegistry.EMPTY;
+
     private static final Logger log = LogManager.getLogger(FindingsService.class);
 
 
@@ -46,6 +69,11 @@ public class FindingsService {
         this.client = client;
     }
 
+    public FindingsService(Client client, NamedXContentRegistry xContentRegistry) {
+        this.client = client;
+        this.xContentRegistry = xContentRegistry;
+    }
+
     /**
      * Searches findings generated by specific Detector
      * @param detectorId id of Detector
@@ -135,15 +163,18 @@ public class FindingsService {
                     public void onResponse(
                             org.opensearch.commons.alerting.action.GetFindingsResponse getFindingsResponse
                     ) {
-                        // Convert response to SA's GetFindingsResponse
-                        listener.onResponse(new GetFindingsResponse(
-                                getFindingsResponse.getTotalFindings(),
-                                getFindingsResponse.getFindings()
-                                        .stream().map(e -> mapFindingWithDocsToFindingDto(
-                                                e,
-                                                monitorToDetectorMapping.get(e.getFinding().getMonitorId())
-                                        )).collect(Collectors.toList())
-                        ));
+                        List<FindingWithDocs> findings = getFindingsResponse.getFindings();
+                        getSharedMonitorRuleIds(findings, monitorToDetectorMapping, ActionListener.wrap(ruleIdsPerFinding -> {
+                            // Convert response to SA's GetFindingsResponse
+                            listener.onResponse(new GetFindingsResponse(
+                                    getFindingsResponse.getTotalFindings(),
+                                    findings.stream().map(e -> mapFindingWithDocsToFindingDto(
+                                                    e,
+                                                    monitorToDetectorMapping.get(e.getFinding().getMonitorId()),
+                                                    ruleIdsPerFinding.get(e.getFinding().getId())
+                                            )).collect(Collectors.toList())
+                            ));
+                        }, listener::onFailure));
                     }
 
                     @Override
@@ -155,6 +186,125 @@ public class FindingsService {
 
      }
 
+    /**
+     * Finds the rules the findings of bucket level monitors shared by several rules were generated for. Such a finding
+     * tells neither the rule nor the buckets it was generated for, so the aggregation of each rule of its monitor is
+     * computed over the documents of the finding, and the finding is attributed to the rules whose aggregation
+     * condition holds for any of their buckets. Findings whose rules can't be evaluated are left out, and are
+     * attributed to all the rules of their monitor.
+     * @param findings findings to attribute to rules
+     * @param monitorToDetectorMapping monitorId --&gt; detector mapper
+     * @param listener ActionListener to get notified with the rule ids of the findings of shared monitors, by finding id
+     */
+    void getSharedMonitorRuleIds(
+            List<FindingWithDocs> findings,
+            Map<String, Detector> monitorToDetectorMapping,
+            ActionListener<Map<String, List<String>>> listener
+    ) {
+        Map<Finding, List<String>> sharedMonitorFindings = new LinkedHashMap<>();
+        Set<String> ruleIds = new HashSet<>();
+        for (FindingWithDocs findingWithDocs: findings) {
+            Finding finding = findingWithDocs.getFinding();
+            Detector detector = monitorToDetectorMapping.get(finding.getMonitorId());
+            if (detector != null && finding.getDocLevelQueries().isEmpty()) {
+                List<String> monitorRuleIds = getMonitorRuleIds(detector, finding.getMonitorId());
+                if (monitorRuleIds.size() > 1) {
+                    sharedMonitorFindings.put(finding, monitorRuleIds);
+                    ruleIds.addAll(monitorRuleIds);
+                }
+            }
+        }
+        if (sharedMonitorFindings.isEmpty()) {
+            listener.onResponse(Collections.emptyMap());
+            return;
+        }
+
+        SearchRequest searchRequest = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX, Rule.CUSTOM_RULES_INDEX)
+                .indicesOptions(IndicesOptions.lenientExpandOpen())
+                .source(new SearchSourceBuilder()
+                        .query(QueryBuilders.idsQuery().addIds(ruleIds.toArray(new String[]{})))
+                        .size(ruleIds.size()));
+
+        client.search(searchRequest, ActionListener.wrap(response -> {
+            Map<String, Rule> rules = new HashMap<>();
+            for (SearchHit hit: response.getHits()) {
+                XContentParser xcp = XContentType.JSON.xContent().createParser(
+                        xContentRegistry,
+                        LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+                );
+                rules.put(hit.getId(), Rule.docParse(xcp, hit.getId(), hit.getVersion()));
+            }
+
+            GroupedActionListener<Pair<String, List<String>>> findingsListener = new GroupedActionListener<>(ActionListener.wrap(findingRuleIds -> {
+                Map<String, List<String>> ruleIdsPerFinding = new HashMap<>();
+                findingRuleIds.stream().filter(it -> it.getRight() != null).forEach(it -> ruleIdsPerFinding.put(it.getLeft(), it.getRight()));
+                listener.onResponse(ruleIdsPerFinding);
+            }, listener::onFailure), sharedMonitorFindings.size());
+            for (Map.Entry<Finding, List<String>> entry: sharedMonitorFindings.entrySet()) {
+                getFindingRuleIds(entry.getKey(), entry.getValue().stream().map(rules::get).collect(Collectors.toList()), findingsListener);
+            }
+        }, e -> {
+            log.warn("Failed to fetch the rules of shared bucket level monitors, their findings are reported for all their rules", e);
+            listener.onResponse(Collections.emptyMap());
+        }));
+    }
+
+    /**
+     * Evaluates the aggregation of each rule of a shared bucket level monitor over the documents of one of its findings,
+     * bucketed by the field the rules group by, as the monitor does
+     * @param finding finding of the monitor
+     * @param rules rules of the monitor, null for the rules which were not found
+     * @param listener ActionListener to get notified with the finding id and the ids of its rules, null if they can't be told
+     */
+    private void getFindingRuleIds(Finding finding, List<Rule> rules, ActionListener<Pair<String, List<String>>> listener) {
+        Map<String, AggregationItem> aggregations = new LinkedHashMap<>();
+        TermsAggregationBuilder aggBuilder = new TermsAggregationBuilder("result_agg")
+                .size(Math.max(finding.getRelatedDocIds().size(), 1));
+        try {
+            for (Rule rule: rules) {
+                if (rule == null) {
+                    listener.onResponse(Pair.of(finding.getId(), null));
+                    return;
+                }
+                AggregationItem aggregation = rule.getAggregationItemsFromRule().get(0);
+                aggregations.put(rule.getId(), aggregation);
+                aggBuilder.field(aggregation.getGroupByField())
+                        .subAggregation(OSQueryBackend.convertFilteredAggregation(aggregation, rule.getId(), rule.getQueryBuilder()));
+            }
+        } catch (SigmaError e) {
+            log.warn("Failed to parse the rules of finding " + finding.getId(), e);
+            listener.onResponse(Pair.of(finding.getId(), null));
+            return;
+        }
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+                .query(QueryBuilders.idsQuery().addIds(finding.getRelatedDocIds().toArray(new String[]{})))
+                .aggregation(aggBuilder)
+                .size(0);
+
+        client.search(new SearchRequest(finding.getIndex()).source(searchSourceBuilder), ActionListener.wrap(response -> {
+            Terms buckets = response.getAggregations().get("result_agg");
+            List<String> ruleIds = new ArrayList<>();
+            for (Map.Entry<String, AggregationItem> aggregation: aggregations.entrySet()) {
+                if (buckets.getBuckets().stream().anyMatch(bucket -> OSQueryBackend.matchesFilteredAggregation(aggregation.getValue(),
+                        bucket.getAggregations().get(aggregation.getKey())))) {
+                    ruleIds.add(aggregation.getKey());
+                }
+            }
+            // the documents of the finding no longer match any of the rules
+            listener.onResponse(Pair.of(finding.getId(), ruleIds.isEmpty()? null: ruleIds));
+        }, e -> {
+            log.warn("Failed to evaluate the rules of finding " + finding.getId(), e);
+            listener.onResponse(Pair.of(finding.getId(), null));
+        }));
+    }
+
+    private static List<String> getMonitorRuleIds(Detector detector, String monitorId) {
+        return detector.getRuleIdMonitorIdMap().entrySet().stream()
+                .filter(entry -> !Detector.DOC_LEVEL_MONITOR.equals(entry.getKey()) && entry.getValue().equals(monitorId))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
     void setIndicesAdminClient(Client client) {
         this.client = client;
     }
@@ -204,13 +354,21 @@ public class FindingsService {
     }
 
     public FindingDto mapFindingWithDocsToFindingDto(FindingWithDocs findingWithDocs, Detector detector) {
+        return mapFindingWithDocsToFindingDto(findingWithDocs, detector, null);
+    }
+
+    /**
+     * @param ruleIds rules a finding of a bucket level monitor was generated for, all the rules of its monitor if null
+     */
+    public FindingDto mapFindingWithDocsToFindingDto(FindingWithDocs findingWithDocs, Detector detector, List<String> ruleIds) {
         List<DocLevelQuery> docLevelQueries = findingWithDocs.getFinding().getDocLevelQueries();
         if (docLevelQueries.isEmpty()) { // this is finding generated by a bucket level monitor
-            for (Map.Entry<String, String> entry : detector.getRuleIdMonitorIdMap().entrySet()) {
-                if(entry.getValue().equals(findingWithDocs.getFinding().getMonitorId())) {
-                    docLevelQueries = Collections.singletonList(new DocLevelQuery(entry.getKey(),"","",Collections.emptyList()));
-                }
+            if (ruleIds == null) {
+                ruleIds = getMonitorRuleIds(detector, findingWithDocs.getFinding().getMonitorId());
             }
+            docLevelQueries = ruleIds.stream()
+                    .map(ruleId -> new DocLevelQuery(ruleId,"","",Collections.emptyList()))
+                    .collect(Collectors.toList());
         }
         return new FindingDto(
                 detector.getId(),
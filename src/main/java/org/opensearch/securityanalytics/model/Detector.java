@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.Version;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -60,6 +61,10 @@ public class Detector implements Writeable, ToXContentObject {
     private static final String ALERTS_HISTORY_INDEX_PATTERN = "alert_history_index_pattern";
     private static final String FINDINGS_INDEX = "findings_index";
     private static final String FINDINGS_INDEX_PATTERN = "findings_index_pattern";
+    public static final String COST_BUDGET_FIELD = "cost_budget";
+
+    // first release streaming the cost budget, and the alerts and findings index names as optional strings
+    private static final Version COST_BUDGET_VERSION = Version.fromString("2.5.0");
 
     public static final String DETECTORS_INDEX = ".opensearch-sap-detectors-config";
 
@@ -111,6 +116,8 @@ public class Detector implements Writeable, ToXContentObject {
 
     private String findingsIndexPattern;
 
+    private DetectorCostBudget costBudget;
+
     private final String type;
 
     public Detector(String id, Long version, String name, Boolean enabled, Schedule schedule,
@@ -160,13 +167,31 @@ public class Detector implements Writeable, ToXContentObject {
                 sin.readList(DetectorTrigger::readFrom),
                 sin.readStringList(),
                 sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString(),
+                readIndexName(sin),
+                readIndexName(sin),
+                readIndexName(sin),
+                readIndexName(sin),
+                readIndexName(sin),
                 sin.readMap(StreamInput::readString, StreamInput::readString)
             );
+        if (sin.getVersion().onOrAfter(COST_BUDGET_VERSION)) {
+            this.costBudget = sin.readOptionalWriteable(DetectorCostBudget::readFrom);
+        }
+    }
+
+    /**
+     * The alerts and findings index names are optional from the version introducing cost budgets on.
+     */
+    private static String readIndexName(StreamInput sin) throws IOException {
+        return sin.getVersion().onOrAfter(COST_BUDGET_VERSION)? sin.readOptionalString(): sin.readString();
+    }
+
+    private static void writeIndexName(StreamOutput out, String indexName) throws IOException {
+        if (out.getVersion().onOrAfter(COST_BUDGET_VERSION)) {
+            out.writeOptionalString(indexName);
+        } else {
+            out.writeString(indexName);
+        }
     }
 
     @Override
@@ -198,8 +223,16 @@ public class Detector implements Writeable, ToXContentObject {
         }
         out.writeStringCollection(monitorIds);
         out.writeString(ruleIndex);
+        writeIndexName(out, alertsIndex);
+        writeIndexName(out, alertsHistoryIndex);
+        writeIndexName(out, alertsHistoryIndexPattern);
+        writeIndexName(out, findingsIndex);
+        writeIndexName(out, findingsIndexPattern);
 
         out.writeMap(ruleIdMonitorIdMap, StreamOutput::writeString, StreamOutput::writeString);
+        if (out.getVersion().onOrAfter(COST_BUDGET_VERSION)) {
+            out.writeOptionalWriteable(costBudget);
+        }
     }
 
     public XContentBuilder toXContentWithUser(XContentBuilder builder, Params params) throws IOException {
@@ -290,7 +323,9 @@ public class Detector implements Writeable, ToXContentObject {
         builder.field(ALERTS_HISTORY_INDEX_PATTERN, alertsHistoryIndexPattern);
         builder.field(FINDINGS_INDEX, findingsIndex);
         builder.field(FINDINGS_INDEX_PATTERN, findingsIndexPattern);
-
+        if (costBudget != null) {
+            builder.field(COST_BUDGET_FIELD, costBudget);
+        }
 
         if (params.paramAsBoolean("with_type", false)) {
             builder.endObject();
@@ -336,6 +371,7 @@ public class Detector implements Writeable, ToXContentObject {
         String alertsHistoryIndexPattern = null;
         String findingsIndex = null;
         String findingsIndexPattern = null;
+        DetectorCostBudget costBudget = null;
 
         XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
         while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -429,6 +465,11 @@ public class Detector implements Writeable, ToXContentObject {
                 case FINDINGS_INDEX_PATTERN:
                     findingsIndexPattern = xcp.text();
                     break;
+                case COST_BUDGET_FIELD:
+                    if (xcp.currentToken() != XContentParser.Token.VALUE_NULL) {
+                        costBudget = DetectorCostBudget.parse(xcp);
+                    }
+                    break;
                 default:
                     xcp.skipChildren();
             }
@@ -440,7 +481,7 @@ public class Detector implements Writeable, ToXContentObject {
             enabledTime = null;
         }
 
-        return new Detector(
+        Detector detector = new Detector(
                 id,
                 version,
                 Objects.requireNonNull(name, "Detector name is null"),
@@ -460,6 +501,8 @@ public class Detector implements Writeable, ToXContentObject {
                 findingsIndex,
                 findingsIndexPattern,
                 rulePerMonitor);
+        detector.setCostBudget(costBudget);
+        return detector;
     }
 
     public static Detector readFrom(StreamInput sin) throws IOException {
@@ -591,6 +634,15 @@ public class Detector implements Writeable, ToXContentObject {
     public void setMonitorIds(List<String> monitorIds) {
         this.monitorIds = monitorIds;
     }
+
+    public DetectorCostBudget getCostBudget() {
+        return costBudget;
+    }
+
+    public void setCostBudget(DetectorCostBudget costBudget) {
+        this.costBudget = costBudget;
+    }
+
     public void setRuleIdMonitorIdMap(Map<String, String> ruleIdMonitorIdMap) {
         this.ruleIdMonitorIdMap = ruleIdMonitorIdMap;
     }
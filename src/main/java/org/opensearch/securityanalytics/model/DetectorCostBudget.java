@@ -0,0 +1,117 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.model;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Upper bound on the total estimated cost of the rules of a detector, see {@link Rule#getCost()}, and what to do when
+ * the rules selected for the detector exceed it.
+ */
+public class DetectorCostBudget implements Writeable, ToXContentObject {
+
+    public enum Action {
+        REJECT,
+        WARN
+    }
+
+    protected static final String MAX_COST_FIELD = "max_cost";
+    protected static final String ACTION_FIELD = "action";
+
+    private final long maxCost;
+
+    private final Action action;
+
+    public DetectorCostBudget(long maxCost, Action action) {
+        if (maxCost <= 0) {
+            throw new IllegalArgumentException("Detector cost budget max_cost should be positive");
+        }
+        this.maxCost = maxCost;
+        this.action = action != null? action: Action.REJECT;
+    }
+
+    public DetectorCostBudget(StreamInput sin) throws IOException {
+        this(sin.readLong(), sin.readEnum(Action.class));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeLong(maxCost);
+        out.writeEnum(action);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .field(MAX_COST_FIELD, maxCost)
+                .field(ACTION_FIELD, action.name().toLowerCase(Locale.ROOT))
+                .endObject();
+        return builder;
+    }
+
+    public static DetectorCostBudget parse(XContentParser xcp) throws IOException {
+        Long maxCost = null;
+        Action action = null;
+
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case MAX_COST_FIELD:
+                    maxCost = xcp.longValue();
+                    break;
+                case ACTION_FIELD:
+                    String actionName = xcp.text();
+                    action = Arrays.stream(Action.values())
+                            .filter(it -> it.name().equalsIgnoreCase(actionName))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalArgumentException(String.format(Locale.getDefault(),
+                                    "Detector cost budget action should be one of %s", Arrays.toString(Action.values()).toLowerCase(Locale.ROOT))));
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+        return new DetectorCostBudget(Objects.requireNonNull(maxCost, "Detector cost budget max_cost is null"), action);
+    }
+
+    public static DetectorCostBudget readFrom(StreamInput sin) throws IOException {
+        return new DetectorCostBudget(sin);
+    }
+
+    public long getMaxCost() {
+        return maxCost;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DetectorCostBudget that = (DetectorCostBudget) o;
+        return maxCost == that.maxCost && action == that.action;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxCost, action);
+    }
+}
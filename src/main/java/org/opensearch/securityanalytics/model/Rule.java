@@ -7,6 +7,7 @@ package org.opensearch.securityanalytics.model;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.Version;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -17,6 +18,9 @@ import org.opensearch.common.xcontent.ToXContentObject;
 import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend.AggregationQueries;
 import org.opensearch.securityanalytics.rules.condition.ConditionItem;
@@ -63,6 +67,11 @@ public class Rule implements Writeable, ToXContentObject {
     public static final String PRE_PACKAGED_RULES_INDEX = ".opensearch-sap-pre-packaged-rules-config";
     public static final String CUSTOM_RULES_INDEX = ".opensearch-sap-custom-rules-config";
     public static final String AGGREGATION_QUERIES = "aggregationQueries";
+    public static final String DIGEST = "digest";
+    public static final String COST = "cost";
+
+    // first release streaming the digest and the cost of a rule
+    private static final Version DIGEST_AND_COST_VERSION = Version.fromString("2.5.0");
 
     public static final NamedXContentRegistry.Entry XCONTENT_REGISTRY = new NamedXContentRegistry.Entry(
             Rule.class,
@@ -104,6 +113,10 @@ public class Rule implements Writeable, ToXContentObject {
 
     private List<Value> aggregationQueries;
 
+    private String digest;
+
+    private Long cost;
+
     public Rule(String id, Long version, String title, String category, String logSource,
                 String description, List<Value> references, List<Value> tags, String level,
                 List<Value> falsePositives, String author, String status, Instant date,
@@ -178,6 +191,10 @@ public class Rule implements Writeable, ToXContentObject {
                 sin.readString(),
                 sin.readList(Value::readFrom)
         );
+        if (sin.getVersion().onOrAfter(DIGEST_AND_COST_VERSION)) {
+            this.digest = sin.readOptionalString();
+            this.cost = sin.readOptionalLong();
+        }
     }
 
     @Override
@@ -205,6 +222,10 @@ public class Rule implements Writeable, ToXContentObject {
 
         out.writeString(rule);
         out.writeCollection(aggregationQueries);
+        if (out.getVersion().onOrAfter(DIGEST_AND_COST_VERSION)) {
+            out.writeOptionalString(digest);
+            out.writeOptionalLong(cost);
+        }
     }
 
     @Override
@@ -253,6 +274,12 @@ public class Rule implements Writeable, ToXContentObject {
         builder.field(AGGREGATION_QUERIES, aggregationsArray);
 
         builder.field(RULE, rule);
+        if (digest != null) {
+            builder.field(DIGEST, digest);
+        }
+        if (cost != null) {
+            builder.field(COST, cost);
+        }
         if (params.paramAsBoolean("with_type", false)) {
             builder.endObject();
         }
@@ -298,6 +325,8 @@ public class Rule implements Writeable, ToXContentObject {
         List<Value> queryFields = new ArrayList<>();
         String original = null;
         List<Value> aggregationQueries = new ArrayList<>();
+        String digest = null;
+        Long cost = null;
 
         XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
         while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -367,12 +396,19 @@ public class Rule implements Writeable, ToXContentObject {
                     while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
                         aggregationQueries.add(Value.parse(xcp));
                     }
+                    break;
+                case DIGEST:
+                    digest = xcp.textOrNull();
+                    break;
+                case COST:
+                    cost = xcp.currentToken() == XContentParser.Token.VALUE_NULL? null: xcp.longValue();
+                    break;
                 default:
                     xcp.skipChildren();
             }
         }
 
-        return new Rule(
+        Rule rule = new Rule(
                 id,
                 version,
                 Objects.requireNonNull(title, "Rule Title is null"),
@@ -391,6 +427,9 @@ public class Rule implements Writeable, ToXContentObject {
                 Objects.requireNonNull(original, "Rule String is null"),
                 aggregationQueries
         );
+        rule.setDigest(digest);
+        rule.setCost(cost);
+        return rule;
     }
 
     public static Rule readFrom(StreamInput sin) throws IOException {
@@ -405,6 +444,14 @@ public class Rule implements Writeable, ToXContentObject {
         this.version = version;
     }
 
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public void setCost(Long cost) {
+        this.cost = cost;
+    }
+
     public String getId() {
         return id;
     }
@@ -465,12 +512,36 @@ public class Rule implements Writeable, ToXContentObject {
         return queries;
     }
 
+    /**
+     * Query matching the documents matched by any of the queries of the rule
+     */
+    public QueryBuilder getQueryBuilder() {
+        if (queries.size() == 1) {
+            return QueryBuilders.queryStringQuery(queries.get(0).getValue());
+        }
+        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery().minimumShouldMatch(1);
+        queries.forEach(query -> queryBuilder.should(QueryBuilders.queryStringQuery(query.getValue())));
+        return queryBuilder;
+    }
+
     public List<Value> getQueryFieldNames() {
         return queryFieldNames;
     }
 
     public List<Value> getAggregationQueries() { return aggregationQueries; }
 
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * The estimated cost of the queries of the rule, see {@link org.opensearch.securityanalytics.rules.backend.RuleCostEstimator},
+     * or null for rules indexed before costs were estimated.
+     */
+    public Long getCost() {
+        return cost;
+    }
+
     public boolean isAggregationRule() {
         return aggregationQueries != null && !aggregationQueries.isEmpty();
     }
@@ -0,0 +1,48 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.resthandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.BacktestDetectorAction;
+import org.opensearch.securityanalytics.action.BacktestDetectorRequest;
+import org.opensearch.securityanalytics.util.DetectorUtils;
+
+public class RestBacktestDetectorAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "backtest_detector_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(
+                new Route(RestRequest.Method.POST, SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/_backtest"),
+                new Route(RestRequest.Method.POST, String.format(Locale.getDefault(),
+                        "%s/{%s}/_backtest",
+                        SecurityAnalyticsPlugin.DETECTOR_BASE_URI,
+                        DetectorUtils.DETECTOR_ID_FIELD))
+        );
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        BacktestDetectorRequest req;
+        try (XContentParser xcp = request.contentParser()) {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+            req = BacktestDetectorRequest.parse(xcp, request.param(DetectorUtils.DETECTOR_ID_FIELD));
+        }
+        return channel -> client.execute(BacktestDetectorAction.INSTANCE, req, new RestToXContentListener<>(channel));
+    }
+}
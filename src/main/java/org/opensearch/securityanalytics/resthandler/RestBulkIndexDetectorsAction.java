@@ -0,0 +1,56 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.resthandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsAction;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsRequest;
+import org.opensearch.securityanalytics.util.RestHandlerUtils;
+
+public class RestBulkIndexDetectorsAction extends BaseRestHandler {
+
+    private static final Logger log = LogManager.getLogger(RestBulkIndexDetectorsAction.class);
+
+    @Override
+    public String getName() {
+        return "bulk_index_detectors_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(
+                new Route(RestRequest.Method.POST, SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/_bulk")
+        );
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        log.debug(String.format(Locale.getDefault(), "%s %s/_bulk", request.method(), SecurityAnalyticsPlugin.DETECTOR_BASE_URI));
+
+        WriteRequest.RefreshPolicy refreshPolicy = WriteRequest.RefreshPolicy.IMMEDIATE;
+        if (request.hasParam(RestHandlerUtils.REFRESH)) {
+            refreshPolicy = WriteRequest.RefreshPolicy.parse(request.param(RestHandlerUtils.REFRESH));
+        }
+
+        BulkIndexDetectorsRequest req;
+        try (XContentParser xcp = request.contentParser()) {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+            req = BulkIndexDetectorsRequest.parse(xcp, refreshPolicy);
+        }
+        return channel -> client.execute(BulkIndexDetectorsAction.INSTANCE, req, new RestToXContentListener<>(channel));
+    }
+}
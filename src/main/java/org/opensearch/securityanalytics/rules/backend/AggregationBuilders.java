@@ -25,28 +25,40 @@ public final class AggregationBuilders {
      * @return Aggregation builder
      */
     public static AggregationBuilder getAggregationBuilderByFunction(String aggregationFunction, String name) {
+        return getAggregationBuilderByFunction(aggregationFunction, name, name);
+    }
+
+    /**
+     * Finds the builder aggregation based on the forwarded function
+     *
+     * @param aggregationFunction Aggregation function
+     * @param name                Name of the aggregation
+     * @param field               Field the aggregation is computed on
+     * @return Aggregation builder
+     */
+    public static AggregationBuilder getAggregationBuilderByFunction(String aggregationFunction, String name, String field) {
         AggregationBuilder aggregationBuilder;
         switch (aggregationFunction.toLowerCase(Locale.ROOT)) {
             case AvgAggregationBuilder.NAME:
-                aggregationBuilder = new AvgAggregationBuilder(name).field(name);
+                aggregationBuilder = new AvgAggregationBuilder(name).field(field);
                 break;
             case MaxAggregationBuilder.NAME:
-                aggregationBuilder = new MaxAggregationBuilder(name).field(name);
+                aggregationBuilder = new MaxAggregationBuilder(name).field(field);
                 break;
             case MedianAbsoluteDeviationAggregationBuilder.NAME:
-                aggregationBuilder = new MedianAbsoluteDeviationAggregationBuilder(name).field(name);
+                aggregationBuilder = new MedianAbsoluteDeviationAggregationBuilder(name).field(field);
                 break;
             case MinAggregationBuilder.NAME:
-                aggregationBuilder = new MinAggregationBuilder(name).field(name);
+                aggregationBuilder = new MinAggregationBuilder(name).field(field);
                 break;
             case SumAggregationBuilder.NAME:
-                aggregationBuilder = new SumAggregationBuilder(name).field(name);
+                aggregationBuilder = new SumAggregationBuilder(name).field(field);
                 break;
             case TermsAggregationBuilder.NAME:
-                aggregationBuilder = new TermsAggregationBuilder(name).field(name);
+                aggregationBuilder = new TermsAggregationBuilder(name).field(field);
                 break;
             case "count":
-                aggregationBuilder = new ValueCountAggregationBuilder(name).field(name);
+                aggregationBuilder = new ValueCountAggregationBuilder(name).field(field);
                 break;
             default:
                 throw new NotImplementedException(String.format(Locale.getDefault(), "Aggregation %s not supported by the backend", aggregationFunction));
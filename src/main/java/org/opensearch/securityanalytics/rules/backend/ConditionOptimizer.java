@@ -0,0 +1,236 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.evaluator.PredicateGraph;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simplifies the condition parse tree of a rule before it's converted into a query, so that equivalent conditions are
+ * converted into the same, smallest query:
+ *
+ * - nested ANDs and ORs are flattened, e.g. (a and b) and c is a and b and c.
+ * - equal clauses of an AND or OR are kept once, and clauses absorbed by another clause are dropped, e.g. a or (a and
+ *   b) is a.
+ * - double negations are removed, and NOTs are pushed into ANDs and ORs of mostly negated clauses, e.g. not (not a and
+ *   not b) is a or b. NOTs of other clauses are kept, pushing them would only add NOTs to the query.
+ * - ANDs and ORs of a single clause, e.g. 1 of selection* matching a single selection, are the clause itself.
+ * - values of the same field in an OR are grouped, so that they are converted into a single in expression.
+ * - clauses are ordered cheapest first, see {@link RuleCostEstimator}.
+ *
+ * Sigma conditions have no boolean literals, so there are no constants to fold beyond single clause groups and
+ * absorption. The parse tree of the rule isn't modified, it is shared with the other consumers of the rule, e.g. the
+ * rule evaluator; the optimized tree shares its field and keyword conditions.
+ */
+public class ConditionOptimizer {
+
+    private ConditionOptimizer() {
+    }
+
+    public static ConditionItem optimize(ConditionItem condition) throws SigmaValueError {
+        if (condition instanceof ConditionFieldEqualsValueExpression || condition instanceof ConditionValueExpression ||
+                !condition.getArgs().stream().allMatch(Either::isLeft)) {
+            return condition;
+        }
+
+        if (condition instanceof ConditionNOT) {
+            return negate(optimize(item(condition.getArgs().get(0))));
+        } else if (condition instanceof ConditionAND || condition instanceof ConditionOR) {
+            List<ConditionItem> clauses = new ArrayList<>();
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                clauses.add(optimize(item(arg)));
+            }
+            return group(condition instanceof ConditionAND, clauses);
+        }
+        return condition;
+    }
+
+    /**
+     * The negation of an optimized clause.
+     */
+    private static ConditionItem negate(ConditionItem clause) throws SigmaValueError {
+        if (clause instanceof ConditionNOT) {
+            return item(clause.getArgs().get(0));
+        }
+
+        if (isGroup(clause)) {
+            List<ConditionItem> clauses = items(clause);
+            long negated = clauses.stream().filter(it -> it instanceof ConditionNOT).count();
+            if (!clauses.isEmpty() && 2 * negated >= clauses.size()) {
+                List<ConditionItem> negatedClauses = new ArrayList<>();
+                for (ConditionItem it: clauses) {
+                    negatedClauses.add(negate(it));
+                }
+                return group(!(clause instanceof ConditionAND), negatedClauses);
+            }
+        }
+        return new ConditionNOT(false, List.of(arg(clause)));
+    }
+
+    /**
+     * An AND or OR of optimized clauses.
+     */
+    private static ConditionItem group(boolean and, List<ConditionItem> clauses) throws SigmaValueError {
+        Map<Object, ConditionItem> distinctClauses = new LinkedHashMap<>();
+        for (ConditionItem clause: clauses) {
+            if (isGroup(clause) && (clause instanceof ConditionAND) == and) {
+                for (ConditionItem it: items(clause)) {
+                    distinctClauses.putIfAbsent(key(it), it);
+                }
+            } else {
+                distinctClauses.putIfAbsent(key(clause), clause);
+            }
+        }
+
+        // a and (a or b) is a, a or (a and b) is a
+        List<ConditionItem> optimizedClauses = new ArrayList<>();
+        for (ConditionItem clause: distinctClauses.values()) {
+            if (!isGroup(clause) || (clause instanceof ConditionAND) == and || !absorbs(distinctClauses, clause)) {
+                optimizedClauses.add(clause);
+            }
+        }
+
+        if (optimizedClauses.size() == 1) {
+            return optimizedClauses.get(0);
+        }
+        if (!and) {
+            optimizedClauses = groupInExpressions(optimizedClauses);
+        }
+        return newGroup(and, sortByCost(optimizedClauses));
+    }
+
+    /**
+     * Whether any of the clauses of a group is one of the other clauses, which makes the group redundant.
+     */
+    private static boolean absorbs(Map<Object, ConditionItem> clauses, ConditionItem group) throws SigmaValueError {
+        for (ConditionItem it: items(group)) {
+            if (clauses.containsKey(key(it))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Groups the values of the same field of an OR into ORs which are converted into in expressions, see
+     * {@link QueryBackend#decideConvertConditionAsInExpression(Either)}.
+     */
+    private static List<ConditionItem> groupInExpressions(List<ConditionItem> clauses) throws SigmaValueError {
+        Map<List<Object>, List<ConditionItem>> inExpressions = new LinkedHashMap<>();
+        for (ConditionItem clause: clauses) {
+            if (clause instanceof ConditionFieldEqualsValueExpression) {
+                ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) clause;
+                SigmaType value = fieldCondition.getValue();
+                if (value instanceof SigmaString || value instanceof SigmaNumber || value instanceof SigmaCIDRExpression) {
+                    // networks are only folded with other networks
+                    inExpressions.computeIfAbsent(List.of(fieldCondition.getField(), value instanceof SigmaCIDRExpression),
+                            it -> new ArrayList<>()).add(clause);
+                }
+            }
+        }
+
+        List<ConditionItem> groupedClauses = new ArrayList<>();
+        Set<ConditionItem> grouped = new HashSet<>();
+        for (List<ConditionItem> inExpression: inExpressions.values()) {
+            if (inExpression.size() > 1 && inExpression.size() < clauses.size()) {
+                groupedClauses.add(newGroup(false, sortByCost(inExpression)));
+                grouped.addAll(inExpression);
+            }
+        }
+        for (ConditionItem clause: clauses) {
+            if (!grouped.contains(clause)) {
+                groupedClauses.add(clause);
+            }
+        }
+        return groupedClauses;
+    }
+
+    private static List<ConditionItem> sortByCost(List<ConditionItem> clauses) throws SigmaValueError {
+        Map<ConditionItem, Long> costs = new IdentityHashMap<>();
+        for (ConditionItem clause: clauses) {
+            costs.put(clause, RuleCostEstimator.conditionCost(clause));
+        }
+        List<ConditionItem> sortedClauses = new ArrayList<>(clauses);
+        sortedClauses.sort(Comparator.comparing(costs::get));
+        return sortedClauses;
+    }
+
+    /**
+     * A key equal for equivalent clauses, regardless of the order of the clauses of ANDs and ORs.
+     */
+    private static Object key(ConditionItem condition) throws SigmaValueError {
+        if (condition instanceof ConditionFieldEqualsValueExpression) {
+            ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) condition;
+            return List.of("field", fieldCondition.getField(), PredicateGraph.valueKey(fieldCondition.getValue()));
+        } else if (condition instanceof ConditionValueExpression) {
+            return List.of("keyword", PredicateGraph.valueKey(((ConditionValueExpression) condition).getValue()));
+        } else if (condition instanceof ConditionNOT && condition.getArgs().get(0).isLeft()) {
+            return List.of("not", key(item(condition.getArgs().get(0))));
+        } else if (isGroup(condition)) {
+            Set<Object> keys = new HashSet<>();
+            for (ConditionItem it: items(condition)) {
+                keys.add(key(it));
+            }
+            return List.of(condition instanceof ConditionAND? "and": "or", keys);
+        }
+        return condition;
+    }
+
+    private static boolean isGroup(ConditionItem condition) {
+        return (condition instanceof ConditionAND || condition instanceof ConditionOR) &&
+                condition.getArgs().stream().allMatch(Either::isLeft);
+    }
+
+    private static ConditionItem newGroup(boolean and, List<ConditionItem> clauses) {
+        List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args = new ArrayList<>();
+        for (ConditionItem clause: clauses) {
+            args.add(arg(clause));
+        }
+        return and? new ConditionAND(false, args): new ConditionOR(false, args);
+    }
+
+    private static List<ConditionItem> items(ConditionItem condition) {
+        List<ConditionItem> items = new ArrayList<>();
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+            items.add(item(arg));
+        }
+        return items;
+    }
+
+    private static ConditionItem item(Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg) {
+        AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = arg.getLeft();
+        return item.isLeft()? item.getLeft(): item.isMiddle()? item.getMiddle(): item.get();
+    }
+
+    private static Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg(ConditionItem item) {
+        if (item instanceof ConditionFieldEqualsValueExpression) {
+            return Either.left(AnyOneOf.middleVal((ConditionFieldEqualsValueExpression) item));
+        } else if (item instanceof ConditionValueExpression) {
+            return Either.left(AnyOneOf.rightVal((ConditionValueExpression) item));
+        }
+        return Either.left(AnyOneOf.leftVal(item));
+    }
+}
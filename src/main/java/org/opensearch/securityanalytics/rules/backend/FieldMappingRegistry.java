@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of the Sigma field mappings ({@code OSMapping/<category>/fieldmappings.yml}) per rule category.
+ *
+ * Mappings are loaded lazily, once per category, and shared as immutable maps by all query backends.
+ * {@link #reload(String)} and {@link #invalidateAll()} swap in fresh mappings without affecting backends already holding the old ones.
+ */
+public class FieldMappingRegistry {
+
+    private static final String FIELD_MAPPINGS_FILE = "OSMapping/%s/fieldmappings.yml";
+
+    private static final Map<String, Map<String, String>> fieldMappings = new ConcurrentHashMap<>();
+
+    private FieldMappingRegistry() {}
+
+    public static Map<String, String> getFieldMappings(String ruleCategory) throws IOException {
+        try {
+            return fieldMappings.computeIfAbsent(ruleCategory, category -> {
+                try {
+                    return loadFieldMappings(category);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    public static Map<String, String> reload(String ruleCategory) throws IOException {
+        Map<String, String> mappings = loadFieldMappings(ruleCategory);
+        fieldMappings.put(ruleCategory, mappings);
+        return mappings;
+    }
+
+    public static void invalidateAll() {
+        fieldMappings.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> loadFieldMappings(String ruleCategory) throws IOException {
+        try (InputStream is = FieldMappingRegistry.class.getClassLoader()
+                .getResourceAsStream(String.format(Locale.getDefault(), FIELD_MAPPINGS_FILE, ruleCategory))) {
+            if (is == null) {
+                throw new IOException(String.format(Locale.getDefault(), "Field mappings for rule category %s not found", ruleCategory));
+            }
+            String content = new String(is.readAllBytes(), Charset.defaultCharset());
+
+            Yaml yaml = new Yaml();
+            Map<String, Object> fieldMappingsObj = yaml.load(content);
+            Map<String, String> mappings = fieldMappingsObj != null? (Map<String, String>) fieldMappingsObj.get("fieldmappings"): null;
+            return mappings != null? Collections.unmodifiableMap(new HashMap<>(mappings)): Map.of();
+        }
+    }
+}
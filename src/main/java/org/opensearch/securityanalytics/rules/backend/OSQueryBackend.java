@@ -17,9 +17,15 @@ import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentParserUtils;
 import org.opensearch.commons.alerting.aggregation.bucketselectorext.BucketSelectorExtAggregationBuilder;
+import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.script.Script;
 import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
 import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.opensearch.search.aggregations.metrics.NumericMetricsAggregation;
 import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
 import org.opensearch.securityanalytics.rules.condition.ConditionAND;
 import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
@@ -28,7 +34,9 @@ import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
 import org.opensearch.securityanalytics.rules.condition.ConditionOR;
 import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
 import org.opensearch.securityanalytics.rules.condition.ConditionType;
+import org.opensearch.securityanalytics.rules.evaluator.SigmaRuleEvaluator;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.Placeholder;
 import org.opensearch.securityanalytics.rules.types.SigmaBool;
 import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
 import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
@@ -36,16 +44,26 @@ import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.opensearch.securityanalytics.rules.types.SigmaNumber;
 import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
 import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.CidrTrie;
 import org.opensearch.securityanalytics.rules.utils.Either;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
 import org.apache.commons.lang3.NotImplementedException;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class OSQueryBackend extends QueryBackend {
 
@@ -81,8 +99,12 @@ public class OSQueryBackend extends QueryBackend {
 
     private String cidrExpression;
 
+    private String cidrRangeExpression;
+
     private String fieldNullExpression;
 
+    private String fieldInExpression;
+
     private String unboundValueStrExpression;
 
     private String unboundValueNumExpression;
@@ -103,6 +125,17 @@ public class OSQueryBackend extends QueryBackend {
 
     private String bucketTriggerScript;
 
+    private String sharedBucketTriggerQuery;
+
+    /**
+     * Name of the metric sub-aggregation of the filter sub-aggregation of a rule sharing a bucket level monitor
+     */
+    public static final String FILTERED_METRIC = "metric";
+
+    private static final Set<String> SHAREABLE_AGGREGATION_FUNCTIONS = Set.of("count", "sum", "min", "max");
+
+    private static final Pattern SHAREABLE_FILTER_NAME = Pattern.compile("[\\w-]+");
+
     private static final String groupExpression = "(%s)";
     private static final Map<String, String> compareOperators = Map.of(
             SigmaCompareExpression.CompareOperators.GT, "gt",
@@ -111,6 +144,10 @@ public class OSQueryBackend extends QueryBackend {
             SigmaCompareExpression.CompareOperators.LTE, "lte"
     );
 
+    private enum WildcardType {
+        PREFIX, SUFFIX, CONTAINS, OTHER
+    }
+
     private static final List<Class<?>> precedence = Arrays.asList(ConditionNOT.class, ConditionAND.class, ConditionOR.class);
 
     public OSQueryBackend(String ruleCategory, boolean collectErrors, boolean enableFieldMappings) throws IOException {
@@ -131,7 +168,9 @@ public class OSQueryBackend extends QueryBackend {
         this.reEscapeChar = "\\";
         this.reExpression = "%s: /%s/";
         this.cidrExpression = "%s: \"%s\"";
+        this.cidrRangeExpression = "[\"%s\" TO \"%s\"]";
         this.fieldNullExpression = "%s: null";
+        this.fieldInExpression = "%s: (%s)";
         this.unboundValueStrExpression = "%s: \"%s\"";
         this.unboundValueNumExpression = "%s: %s";
         this.unboundWildcardExpression = "%s: %s";
@@ -142,14 +181,77 @@ public class OSQueryBackend extends QueryBackend {
         this.aggCountQuery = "{\"%s\":{\"terms\":{\"field\":\"%s\"}}}";
         this.bucketTriggerQuery = "{\"buckets_path\":{\"%s\":\"%s\"},\"parent_bucket_path\":\"%s\",\"script\":{\"source\":\"params.%s %s %s\",\"lang\":\"painless\"}}";
         this.bucketTriggerScript = "params.%s %s %s";
+        this.sharedBucketTriggerQuery = "{\"buckets_path\":{%s},\"parent_bucket_path\":\"%s\",\"script\":{\"source\":\"%s\",\"lang\":\"painless\"}}";
     }
 
+    /**
+     * Folds an OR of string/number values on the same field into a single {@code field: (v1 OR v2 ...)} clause.
+     * Prefix, suffix and contains values are folded further into one regular expression per kind, e.g.
+     * {@code field: (/.*(a|b)/)}, so that the query compiles into a single automaton instead of one wildcard query
+     * per value. ANDs are not folded, as the values of an AND on the same field rarely match together.
+     * An OR of networks is merged into the fewest networks and address ranges first.
+     */
     @Override
-    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition) {
+    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition) throws SigmaValueError {
         if (condition.isLeft()) {
             return this.convertConditionAnd(condition.getLeft());
         }
-        return this.convertConditionOr(condition.get());
+
+        List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args = condition.get().getArgs();
+        String field = getFinalField(args.get(0).getLeft().getMiddle().getField());
+
+        StringBuilder queryBuilder = new StringBuilder();
+        String joiner = this.tokenSeparator + this.orToken + this.tokenSeparator;
+
+        if (isCidrInExpression(args)) {
+            ruleQueryFields.put(field, Map.of("type", "ip"));
+            for (CidrTrie.Range range: mergeCidrs(args)) {
+                if (queryBuilder.length() > 0) {
+                    queryBuilder.append(joiner);
+                }
+                if (range.isNetwork()) {
+                    queryBuilder.append(this.strQuote).append(range.getCidr()).append(this.strQuote);
+                } else {
+                    queryBuilder.append(String.format(Locale.getDefault(), this.cidrRangeExpression, range.getFrom(), range.getTo()));
+                }
+            }
+            return String.format(Locale.getDefault(), this.fieldInExpression, field, queryBuilder);
+        }
+
+        List<String> terms = new ArrayList<>();
+        Map<WildcardType, List<SigmaString>> wildcardValues = new EnumMap<>(WildcardType.class);
+        Map<WildcardType, Integer> wildcardPositions = new EnumMap<>(WildcardType.class);
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: args) {
+            SigmaType value = arg.getLeft().getMiddle().getValue();
+            if (value instanceof SigmaString) {
+                ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+                SigmaString str = (SigmaString) value;
+                if (str.containsWildcard()) {
+                    WildcardType type = wildcardType(str);
+                    if (type != WildcardType.OTHER) {
+                        // the folded values take the place of the first value of their kind
+                        if (!wildcardValues.containsKey(type)) {
+                            wildcardPositions.put(type, terms.size());
+                            terms.add(null);
+                        }
+                        wildcardValues.computeIfAbsent(type, t -> new ArrayList<>()).add(str);
+                    } else {
+                        terms.add(this.reQuote + this.convertValueStr(str) + this.reQuote);
+                    }
+                } else {
+                    terms.add(this.strQuote + this.convertValueStr(str) + this.strQuote);
+                }
+            } else {
+                SigmaNumber number = (SigmaNumber) value;
+                ruleQueryFields.put(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
+                terms.add(number.toString());
+            }
+        }
+        for (Map.Entry<WildcardType, List<SigmaString>> wildcardValue: wildcardValues.entrySet()) {
+            List<String> folded = this.foldWildcards(wildcardValue.getKey(), wildcardValue.getValue());
+            terms.set(wildcardPositions.get(wildcardValue.getKey()), String.join(joiner, folded));
+        }
+        return String.format(Locale.getDefault(), this.fieldInExpression, field, String.join(joiner, terms));
     }
 
     @Override
@@ -307,7 +409,7 @@ public class OSQueryBackend extends QueryBackend {
     @Override
     public Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition) {
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        ruleQueryFields.put(field, Map.of("type", "ip"));
         return String.format(Locale.getDefault(), this.cidrExpression, field, convertValueCidr((SigmaCIDRExpression) condition.getValue()));
     }
 
@@ -408,6 +510,110 @@ public class OSQueryBackend extends QueryBackend {
         return aggregationQueries;
     }
 
+    /**
+     * Checks whether a rule can share a bucket level monitor with other rules grouping by the same field, see
+     * {@link #convertSharedAggregation}. The shared bucket selector skips the buckets for which the metric of any of
+     * the rules has no value, so the metric must have a value in buckets without documents matching the rule, which
+     * rules out avg and median_absolute_deviation. The name of the filter sub-aggregation of the rule must be a
+     * valid element of a buckets path.
+     *
+     * @param aggregation Aggregation of the rule
+     * @param filterName Name of the filter sub-aggregation of the rule
+     * @return true if the rule can share a bucket level monitor
+     */
+    public static boolean isShareableAggregation(AggregationItem aggregation, String filterName) {
+        return aggregation.getGroupByField() != null && SHAREABLE_AGGREGATION_FUNCTIONS.contains(aggregation.getAggFunction())
+                && SHAREABLE_FILTER_NAME.matcher(filterName).matches();
+    }
+
+    /**
+     * Converts the aggregations of rules sharing a bucket level monitor, as they group by the same field. The
+     * "result_agg" composite aggregation buckets the documents matching any of the rules by the group by field, and
+     * each bucket has a filter sub-aggregation per rule, see {@link #convertFilteredAggregation}. The condition
+     * selects the buckets for which the aggregation condition of any of the rules holds.
+     *
+     * @param groupByField Field the rules group by
+     * @param aggregations Aggregation and query of each rule, by the name of its filter sub-aggregation
+     * @return Composite aggregation and bucket selector of the rules
+     */
+    public AggregationQueries convertSharedAggregation(String groupByField, Map<String, Pair<AggregationItem, QueryBuilder>> aggregations) {
+        CompositeAggregationBuilder aggBuilder = new CompositeAggregationBuilder("result_agg",
+                List.of(new TermsValuesSourceBuilder(groupByField).field(groupByField)));
+        Map<String, String> bucketsPaths = new LinkedHashMap<>();
+        List<String> scripts = new ArrayList<>();
+
+        for (Map.Entry<String, Pair<AggregationItem, QueryBuilder>> entry: aggregations.entrySet()) {
+            AggregationItem aggregation = entry.getValue().getLeft();
+            aggBuilder.subAggregation(convertFilteredAggregation(aggregation, entry.getKey(), entry.getValue().getRight()));
+
+            // buckets path names are script parameters, so they are numbered rather than named by the filters
+            String bucketsPathName = "rule_" + scripts.size();
+            String countPathName = bucketsPathName;
+            if (aggregation.getAggFunction().equals("count")) {
+                bucketsPaths.put(bucketsPathName, entry.getKey() + ">_count");
+            } else {
+                countPathName = bucketsPathName + "_cnt";
+                bucketsPaths.put(countPathName, entry.getKey() + ">_count");
+                bucketsPaths.put(bucketsPathName, entry.getKey() + ">" + FILTERED_METRIC);
+            }
+            // a bucket without documents matching the rule is not a bucket of the rule
+            scripts.add(String.format(Locale.getDefault(), "(params.%s > 0 && " + bucketTriggerScript + ")",
+                    countPathName, bucketsPathName, aggregation.getCompOperator(), aggregation.getThreshold()));
+        }
+
+        Script script = new Script(String.join(" || ", scripts));
+        BucketSelectorExtAggregationBuilder condition = new BucketSelectorExtAggregationBuilder(UUIDs.base64UUID(), bucketsPaths, script, "result_agg", null);
+
+        AggregationQueries aggregationQueries = new AggregationQueries();
+        aggregationQueries.setAggQuery(aggBuilder.toString());
+        aggregationQueries.setBucketTriggerQuery(String.format(Locale.getDefault(), sharedBucketTriggerQuery,
+                bucketsPaths.entrySet().stream().map(it -> String.format(Locale.getDefault(), "\"%s\":\"%s\"", it.getKey(), it.getValue())).collect(Collectors.joining(",")),
+                "result_agg", script.getIdOrCode()));
+        aggregationQueries.setAggBuilder(aggBuilder);
+        aggregationQueries.setCondition(condition);
+
+        return aggregationQueries;
+    }
+
+    /**
+     * Converts the aggregation of a rule sharing a bucket level monitor into a filter sub-aggregation of the buckets of
+     * the shared aggregation. The filter computes the metric of the rule, as its "metric" sub-aggregation, over the
+     * documents of the bucket matching the rule. Its document count is the metric of count aggregations.
+     *
+     * @param aggregation Aggregation of the rule
+     * @param filterName Name of the filter sub-aggregation, unique among the rules sharing the aggregation
+     * @param filter Query of the rule
+     * @return Filter sub-aggregation of the rule
+     */
+    public static AggregationBuilder convertFilteredAggregation(AggregationItem aggregation, String filterName, QueryBuilder filter) {
+        FilterAggregationBuilder aggBuilder = new FilterAggregationBuilder(filterName, filter);
+        if (!aggregation.getAggFunction().equals("count")) {
+            aggBuilder.subAggregation(AggregationBuilders.getAggregationBuilderByFunction(aggregation.getAggFunction(), FILTERED_METRIC, aggregation.getAggField()));
+        }
+        return aggBuilder;
+    }
+
+    /**
+     * Checks the aggregation condition of a rule against the result of its filter sub-aggregation, see
+     * {@link #convertFilteredAggregation}.
+     *
+     * @param aggregation Aggregation of the rule
+     * @param filter Result of the filter sub-aggregation of the rule
+     * @return true if the aggregation condition of the rule holds
+     */
+    public static boolean matchesFilteredAggregation(AggregationItem aggregation, Filter filter) {
+        if (filter.getDocCount() == 0) {
+            return false;
+        }
+        double value;
+        if (aggregation.getAggFunction().equals("count")) {
+            value = filter.getDocCount();
+        } else {
+            value = ((NumericMetricsAggregation.SingleValue) filter.getAggregations().get(FILTERED_METRIC)).value();
+        }
+        return SigmaRuleEvaluator.compare(value, aggregation.getCompOperator(), aggregation.getThreshold());
+    }
+
     private boolean comparePrecedence(ConditionType outer, ConditionType inner) {
         Class<?> outerClass = outer.getClazz();
 
@@ -429,6 +635,88 @@ public class OSQueryBackend extends QueryBackend {
         return s.convert(escapeChar, wildcardMulti, wildcardSingle, addEscaped, addReserved, "");
     }
 
+    /**
+     * Folds prefix, suffix or contains values into regular expressions of alternatives, each within the maximum
+     * regular expression length. A value left alone in its expression is kept as a wildcard.
+     */
+    private List<String> foldWildcards(WildcardType type, List<SigmaString> values) throws SigmaValueError {
+        String head = type == WildcardType.PREFIX? "(": ".*(";
+        String tail = type == WildcardType.SUFFIX? ")": ").*";
+
+        List<String> terms = new ArrayList<>();
+        List<SigmaString> folded = new ArrayList<>();
+        StringBuilder alternatives = new StringBuilder();
+        for (SigmaString value: values) {
+            String alternative = RegexAutomata.quote(literal(value, type));
+            if (!folded.isEmpty() && head.length() + alternatives.length() + 1 + alternative.length() + tail.length() > RegexAutomata.MAX_REGEX_LENGTH) {
+                terms.add(this.foldedTerm(folded, head + alternatives + tail));
+                folded.clear();
+                alternatives.setLength(0);
+            }
+            if (!folded.isEmpty()) {
+                alternatives.append('|');
+            }
+            alternatives.append(alternative);
+            folded.add(value);
+        }
+        terms.add(this.foldedTerm(folded, head + alternatives + tail));
+        return terms;
+    }
+
+    private String foldedTerm(List<SigmaString> folded, String regexp) throws SigmaValueError {
+        if (folded.size() == 1) {
+            return this.reQuote + this.convertValueStr(folded.get(0)) + this.reQuote;
+        }
+        return "/" + regexp + "/";
+    }
+
+    /**
+     * Classifies a wildcard value by the position of its '*' wildcards around a plain string.
+     */
+    private static WildcardType wildcardType(SigmaString value) {
+        List<AnyOneOf<String, Character, Placeholder>> sOpt = value.getsOpt();
+        int size = sOpt.size();
+        boolean leading = size > 1 && isWildcardMulti(sOpt.get(0));
+        boolean trailing = size > 1 && isWildcardMulti(sOpt.get(size - 1));
+
+        int start = leading? 1: 0;
+        int end = trailing? size - 1: size;
+        if (start >= end) {
+            return WildcardType.OTHER;
+        }
+        for (int idx = start; idx < end; ++idx) {
+            if (!sOpt.get(idx).isLeft()) {
+                return WildcardType.OTHER;
+            }
+        }
+
+        if (leading && trailing) {
+            return WildcardType.CONTAINS;
+        } else if (leading) {
+            return WildcardType.SUFFIX;
+        } else if (trailing) {
+            return WildcardType.PREFIX;
+        }
+        return WildcardType.OTHER;
+    }
+
+    private static boolean isWildcardMulti(AnyOneOf<String, Character, Placeholder> elem) {
+        return elem.isMiddle() && elem.getMiddle() == SigmaString.SpecialChars.WILDCARD_MULTI;
+    }
+
+    /**
+     * Returns the plain string of a prefix, suffix or contains value, without its wildcards.
+     */
+    private static String literal(SigmaString value, WildcardType type) throws SigmaValueError {
+        List<AnyOneOf<String, Character, Placeholder>> sOpt = value.getsOpt();
+        int start = type == WildcardType.PREFIX? 0: 1;
+        int end = type == WildcardType.SUFFIX? sOpt.size(): sOpt.size() - 1;
+
+        SigmaString literal = new SigmaString(null);
+        literal.setsOpt(sOpt.subList(start, end));
+        return literal.convert("", null, null, "", "", "", false);
+    }
+
     private Object convertValueRe(SigmaRegularExpression re) {
         return re.escape(this.reEscape, this.reEscapeChar);
     }
@@ -444,7 +732,7 @@ public class OSQueryBackend extends QueryBackend {
         return field;
     }
 
-    private String getFinalField(String field) {
+    public String getFinalField(String field) {
         field = this.getMappedField(field);
         if (field.contains(".")) {
             field = field.replace(".", "_");
@@ -29,16 +29,13 @@ import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
 import org.opensearch.securityanalytics.rules.types.SigmaString;
 import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.CidrTrie;
 import org.opensearch.securityanalytics.rules.utils.Either;
 import org.apache.commons.lang3.tuple.Pair;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -56,7 +53,6 @@ public abstract class QueryBackend {
     private Map<String, Object> queryFields;
     protected Map<String, Object> ruleQueryFields;
 
-    @SuppressWarnings("unchecked")
     public QueryBackend(String ruleCategory, boolean convertAndAsIn, boolean enableFieldMappings, boolean convertOrAsIn, boolean collectErrors) throws IOException {
         this.convertAndAsIn = convertAndAsIn;
         this.convertOrAsIn = convertOrAsIn;
@@ -66,17 +62,9 @@ public abstract class QueryBackend {
         this.queryFields = new HashMap<>();
 
         if (this.enableFieldMappings) {
-            InputStream is = this.getClass().getClassLoader().getResourceAsStream(String.format(Locale.getDefault(), "OSMapping/%s/fieldmappings.yml", ruleCategory));
-            assert is != null;
-            String content = new String(is.readAllBytes(), Charset.defaultCharset());
-
-            Yaml yaml = new Yaml();
-            Map<String, Object> fieldMappingsObj = yaml.load(content);
-            this.fieldMappings = (Map<String, String>) fieldMappingsObj.get("fieldmappings");
-
-            is.close();
+            this.fieldMappings = FieldMappingRegistry.getFieldMappings(ruleCategory);
         } else {
-            this.fieldMappings = new HashMap<>();
+            this.fieldMappings = Map.of();
         }
     }
 
@@ -86,7 +74,7 @@ public abstract class QueryBackend {
         try {
             for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
                 Pair<ConditionItem, AggregationItem> parsedItems = condition.parsed();
-                ConditionItem conditionItem = parsedItems.getLeft();
+                ConditionItem conditionItem = ConditionOptimizer.optimize(parsedItems.getLeft());
                 AggregationItem aggItem = parsedItems.getRight();
 
                 Object query;
@@ -150,7 +138,7 @@ public abstract class QueryBackend {
         ConditionItem cond = condition.isLeft()? condition.getLeft(): condition.get();
 
         for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: cond.getArgs()) {
-            if (arg.isLeft() || !arg.getLeft().isMiddle()) {
+            if (!arg.isLeft() || !arg.getLeft().isMiddle()) {
                 return false;
             }
         }
@@ -165,21 +153,47 @@ public abstract class QueryBackend {
             return false;
         }
 
+        int cidrValues = 0;
         for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: cond.getArgs()) {
             ConditionFieldEqualsValueExpression equalsValueExpression = arg.getLeft().getMiddle();
 
-            if (!(equalsValueExpression.getValue() instanceof SigmaString) && !(equalsValueExpression.getValue() instanceof SigmaNumber)) {
+            if (equalsValueExpression.getValue() instanceof SigmaCIDRExpression) {
+                ++cidrValues;
+            } else if (!(equalsValueExpression.getValue() instanceof SigmaString) && !(equalsValueExpression.getValue() instanceof SigmaNumber)) {
                 return false;
             }
         }
-        return true;
+        // networks are only folded with other networks, they are merged into address ranges
+        return cidrValues == 0 || cidrValues == cond.getArgs().size();
+    }
+
+    /**
+     * Whether the args of an in expression are networks, see {@link #decideConvertConditionAsInExpression(Either)}.
+     */
+    protected static boolean isCidrInExpression(List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args) {
+        return args.get(0).getLeft().getMiddle().getValue() instanceof SigmaCIDRExpression;
+    }
+
+    /**
+     * Merges the networks of an in expression into the fewest address ranges.
+     */
+    protected static List<CidrTrie.Range> mergeCidrs(List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args) {
+        CidrTrie networks = new CidrTrie();
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: args) {
+            networks.add((SigmaCIDRExpression) arg.getLeft().getMiddle().getValue());
+        }
+        return networks.ranges();
     }
 
     public Map<String, Object> getQueryFields() {
         return queryFields;
     }
 
-    public abstract Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition);
+    public Map<String, Object> getRuleQueryFields() {
+        return ruleQueryFields;
+    }
+
+    public abstract Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition) throws SigmaValueError;
 
     public abstract Object convertConditionAnd(ConditionAND condition);
 
@@ -228,9 +242,15 @@ public abstract class QueryBackend {
 
 /*    public abstract Object convertConditionFieldEqValQueryExpr(ConditionFieldEqualsValueExpression condition);*/
 
-    public Object convertConditionFieldEqValQueryExpansion(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValQueryExpansion(ConditionFieldEqualsValueExpression condition) throws SigmaValueError {
+        SigmaExpansion expansion = (SigmaExpansion) condition.getValue();
+        if (expansion.getRegularExpression() != null) {
+            // one regexp clause instead of a clause per variant
+            return this.convertConditionFieldEqValRe(new ConditionFieldEqualsValueExpression(condition.getField(), expansion.getRegularExpression()));
+        }
+
         List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args = new ArrayList<>();
-        for (SigmaType sigmaType: ((SigmaExpansion) condition.getValue()).getValues()) {
+        for (SigmaType sigmaType: expansion.getValues()) {
             args.add(Either.left(AnyOneOf.middleVal(new ConditionFieldEqualsValueExpression(condition.getField(), sigmaType))));
         }
 
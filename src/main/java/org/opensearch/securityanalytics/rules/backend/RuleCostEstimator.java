@@ -0,0 +1,145 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Static estimate of how expensive the queries of a rule are to run, in abstract units: an exact term lookup costs 1.
+ *
+ * Every value a rule tests is a clause of its query. Values with a leading wildcard (contains, endswith) and regular
+ * expressions have to be matched against the whole term dictionary of the field, values expanded by modifiers like
+ * base64offset or windash cost as much as all their variants, or as the regular expression matching them, and keyword values are searched in all the fields of a
+ * document. Each distinct field adds its own cost, as does an aggregation, which runs as a separate bucket-level
+ * monitor.
+ */
+public class RuleCostEstimator {
+
+    public static final long TERM_COST = 1L;
+
+    public static final long RANGE_COST = 2L;
+
+    public static final long WILDCARD_COST = 5L;
+
+    public static final long LEADING_WILDCARD_COST = 25L;
+
+    public static final long REGEX_COST = 25L;
+
+    /**
+     * Added for each quantifier or alternation of a regular expression.
+     */
+    public static final long REGEX_OPERATOR_COST = 5L;
+
+    /**
+     * Keyword values are matched against all the fields of a document.
+     */
+    public static final long KEYWORD_FACTOR = 5L;
+
+    public static final long FIELD_COST = 2L;
+
+    public static final long AGGREGATION_COST = 50L;
+
+    private RuleCostEstimator() {
+    }
+
+    public static long estimate(SigmaRule rule) throws SigmaError {
+        long cost = 0L;
+        Set<String> fields = new HashSet<>();
+        for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
+            Pair<ConditionItem, AggregationItem> parsed = condition.parsed();
+            cost += conditionCost(parsed.getLeft(), fields);
+            if (parsed.getRight() != null) {
+                cost += AGGREGATION_COST;
+            }
+        }
+        return cost + FIELD_COST * fields.size();
+    }
+
+    /**
+     * Estimated cost of a condition, including the cost of the fields it tests.
+     */
+    static long conditionCost(ConditionItem condition) throws SigmaValueError {
+        Set<String> fields = new HashSet<>();
+        return conditionCost(condition, fields) + FIELD_COST * fields.size();
+    }
+
+    private static long conditionCost(ConditionItem condition, Set<String> fields) throws SigmaValueError {
+        if (condition instanceof ConditionFieldEqualsValueExpression) {
+            ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) condition;
+            fields.add(fieldCondition.getField());
+            return valueCost(fieldCondition.getValue());
+        } else if (condition instanceof ConditionValueExpression) {
+            return KEYWORD_FACTOR * valueCost(((ConditionValueExpression) condition).getValue());
+        }
+
+        long cost = 0L;
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+            if (arg.isLeft()) {
+                AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = arg.getLeft();
+                cost += conditionCost(item.isLeft()? item.getLeft(): item.isMiddle()? item.getMiddle(): item.get(), fields);
+            }
+        }
+        return cost;
+    }
+
+    private static long valueCost(SigmaType value) throws SigmaValueError {
+        if (value instanceof SigmaString) {
+            SigmaString string = (SigmaString) value;
+            if (string.startsWith(Either.right(SigmaString.SpecialChars.WILDCARD_MULTI)) ||
+                    string.startsWith(Either.right(SigmaString.SpecialChars.WILDCARD_SINGLE))) {
+                return LEADING_WILDCARD_COST;
+            }
+            return string.containsWildcard()? WILDCARD_COST: TERM_COST;
+        } else if (value instanceof SigmaRegularExpression) {
+            return regexCost(((SigmaRegularExpression) value).getRegexp());
+        } else if (value instanceof SigmaCIDRExpression || value instanceof SigmaCompareExpression) {
+            return RANGE_COST;
+        } else if (value instanceof SigmaExpansion && ((SigmaExpansion) value).getRegularExpression() != null) {
+            return regexCost(((SigmaExpansion) value).getRegularExpression().getRegexp());
+        } else if (value instanceof SigmaExpansion) {
+            long cost = 0L;
+            for (SigmaType expansion: ((SigmaExpansion) value).getValues()) {
+                cost += valueCost(expansion);
+            }
+            return cost;
+        }
+        return TERM_COST;
+    }
+
+    private static long regexCost(String regexp) {
+        long cost = REGEX_COST;
+        boolean escaped = false;
+        for (int idx = 0; idx < regexp.length(); ++idx) {
+            char c = regexp.charAt(idx);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '*' || c == '+' || c == '?' || c == '{' || c == '|') {
+                cost += REGEX_OPERATOR_COST;
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides whether a rule can still match documents of an index lacking some of the fields the rule queries.
+ *
+ * The conditions of the rule are evaluated in three-valued logic: a test of a field the index doesn't have never
+ * matches, while every other test may or may not match. That includes null tests, as the backend queries them as
+ * {@code field: null}, i.e. the term null, not the absence of the field. A NOT of a test that never matches therefore
+ * always matches, so {@code sel and not filter} stays satisfiable when only the filter's fields are missing, and
+ * {@code sel1 or sel2} when only one of the selections can't match. A rule is unsatisfiable only if none of its
+ * conditions can match.
+ */
+public class RuleSatisfiability {
+
+    private RuleSatisfiability() {
+    }
+
+    /**
+     * @param fieldExists whether the index has a field, given the field name of the rule before any field mapping
+     */
+    public static boolean isSatisfiable(SigmaRule rule, Predicate<String> fieldExists) throws SigmaError {
+        for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
+            if (!Boolean.FALSE.equals(evaluate(condition.parsed().getLeft(), fieldExists))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return TRUE if the condition matches any document, FALSE if it matches none, null if that depends on the document
+     */
+    static Boolean evaluate(ConditionItem condition, Predicate<String> fieldExists) {
+        if (condition instanceof ConditionFieldEqualsValueExpression) {
+            ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) condition;
+            if (fieldExists.test(fieldCondition.getField())) {
+                return null;
+            }
+            return false;
+        } else if (condition instanceof ConditionValueExpression) {
+            // keyword values are matched against all the fields of a document
+            return null;
+        } else if (condition instanceof ConditionNOT) {
+            Boolean result = evaluateArg(condition.getArgs().get(0), fieldExists);
+            return result == null? null: !result;
+        }
+
+        // an AND is decided by any arg never matching, an OR by any arg always matching
+        boolean decisive = condition instanceof ConditionOR;
+        if (!decisive && !(condition instanceof ConditionAND)) {
+            throw new IllegalArgumentException("Unexpected condition type in condition parse tree: " + condition.getClass().getName());
+        }
+        boolean undecided = false;
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+            Boolean result = evaluateArg(arg, fieldExists);
+            if (result == null) {
+                undecided = true;
+            } else if (result == decisive) {
+                return decisive;
+            }
+        }
+        return undecided? null: !decisive;
+    }
+
+    private static Boolean evaluateArg(Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg,
+                                       Predicate<String> fieldExists) {
+        if (!arg.isLeft()) {
+            throw new IllegalArgumentException("Unexpected unresolved identifier in condition parse tree: " + arg.get());
+        }
+        AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = arg.getLeft();
+        return evaluate(item.isLeft()? item.getLeft(): item.isMiddle()? item.getMiddle(): item.get(), fieldExists);
+    }
+}
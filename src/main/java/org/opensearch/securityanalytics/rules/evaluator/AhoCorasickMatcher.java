@@ -0,0 +1,197 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of literals, reporting every occurrence of every literal in a text in a
+ * single pass over the text, independent of the number of literals.
+ *
+ * Literals are identified by the order in which they were added to the {@link Builder}. The automaton is immutable
+ * once built and can be shared between threads.
+ */
+public final class AhoCorasickMatcher {
+
+    /**
+     * Receives the occurrences of the literals found in a text.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * @param literal id of the literal
+         * @param start offset of the first char of the occurrence in the text
+         * @param end offset after the last char of the occurrence in the text
+         */
+        void accept(int literal, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    /**
+     * Sorted transition chars of each state.
+     */
+    private final char[][] labels;
+
+    /**
+     * Target states of the transitions, parallel to {@link #labels}.
+     */
+    private final int[][] targets;
+
+    /**
+     * Longest proper suffix of each state that is also a state.
+     */
+    private final int[] failures;
+
+    /**
+     * Literals ending in each state, including those ending in the states along its failure chain.
+     */
+    private final int[][] outputs;
+
+    private final int[] lengths;
+
+    private AhoCorasickMatcher(char[][] labels, int[][] targets, int[] failures, int[][] outputs, int[] lengths) {
+        this.labels = labels;
+        this.targets = targets;
+        this.failures = failures;
+        this.outputs = outputs;
+        this.lengths = lengths;
+    }
+
+    public int size() {
+        return lengths.length;
+    }
+
+    public void match(CharSequence text, MatchConsumer consumer) {
+        int state = 0;
+        for (int pos = 0; pos < text.length(); ++pos) {
+            char c = text.charAt(pos);
+
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failures[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int literal: outputs[state]) {
+                consumer.accept(literal, pos + 1 - lengths[literal], pos + 1);
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int idx = Arrays.binarySearch(labels[state], c);
+        return idx >= 0? targets[state][idx]: -1;
+    }
+
+    public static class Builder {
+
+        private final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+
+        private final List<List<Integer>> terminals = new ArrayList<>();
+
+        private final List<Integer> lengths = new ArrayList<>();
+
+        public Builder() {
+            addState();
+        }
+
+        /**
+         * Adds a non-empty literal.
+         *
+         * @return the id under which occurrences of the literal are reported
+         */
+        public int add(String literal) {
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Empty literals cannot be matched");
+            }
+
+            int state = 0;
+            for (int pos = 0; pos < literal.length(); ++pos) {
+                Integer next = trie.get(state).get(literal.charAt(pos));
+                if (next == null) {
+                    next = addState();
+                    trie.get(state).put(literal.charAt(pos), next);
+                }
+                state = next;
+            }
+
+            int id = lengths.size();
+            terminals.get(state).add(id);
+            lengths.add(literal.length());
+            return id;
+        }
+
+        public AhoCorasickMatcher build() {
+            int states = trie.size();
+            char[][] labels = new char[states][];
+            int[][] targets = new int[states][];
+            for (int state = 0; state < states; ++state) {
+                TreeMap<Character, Integer> transitions = trie.get(state);
+                labels[state] = new char[transitions.size()];
+                targets[state] = new int[transitions.size()];
+
+                int idx = 0;
+                for (Map.Entry<Character, Integer> transition: transitions.entrySet()) {
+                    labels[state][idx] = transition.getKey();
+                    targets[state][idx] = transition.getValue();
+                    ++idx;
+                }
+            }
+
+            // breadth-first, so the failure state of a state and its outputs are complete before the state is visited
+            int[] failures = new int[states];
+            int[][] outputs = new int[states][];
+            outputs[0] = NO_OUTPUTS;
+
+            AhoCorasickMatcher partial = new AhoCorasickMatcher(labels, targets, failures, outputs, null);
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child: targets[0]) {
+                failures[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = concat(terminals.get(state), outputs[failures[state]]);
+
+                for (int idx = 0; idx < labels[state].length; ++idx) {
+                    char c = labels[state][idx];
+                    int child = targets[state][idx];
+
+                    int failure = failures[state];
+                    int next;
+                    while ((next = partial.transition(failure, c)) < 0 && failure != 0) {
+                        failure = failures[failure];
+                    }
+                    failures[child] = Math.max(next, 0);
+                    queue.add(child);
+                }
+            }
+
+            return new AhoCorasickMatcher(labels, targets, failures, outputs, lengths.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private int addState() {
+            trie.add(new TreeMap<>());
+            terminals.add(new ArrayList<>(1));
+            return trie.size() - 1;
+        }
+
+        private static int[] concat(List<Integer> own, int[] inherited) {
+            if (own.isEmpty()) {
+                return inherited;
+            }
+            int[] outputs = Arrays.copyOf(own.stream().mapToInt(Integer::intValue).toArray(), own.size() + inherited.length);
+            System.arraycopy(inherited, 0, outputs, own.size(), inherited.length);
+            return outputs;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.SigmaBool;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.securityanalytics.rules.types.SigmaNull;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * DAG of the distinct predicates of the condition parse trees of a set of rules, so that equal predicates of different
+ * rules, or of different conditions of a rule, are one node.
+ *
+ * Field conditions are equal if they test the same Sigma field for the same value, keyword conditions if they test the
+ * same value. AND, OR and NOT nodes are equal if their children are, regardless of the order of the children. An OR
+ * of networks on the same field is kept as a single predicate, to be matched against the merged networks. An
+ * evaluator can cache the outcome of each node for an event, and so evaluate each distinct predicate and each
+ * distinct selection once per event however many rules share it.
+ *
+ * The graph is built once for a rule set, is immutable and can be shared between threads.
+ */
+public class PredicateGraph {
+
+    public enum Kind {
+        AND,
+        OR,
+        NOT,
+        /**
+         * A predicate evaluated as a whole, see {@link #predicate(int)}.
+         */
+        PREDICATE
+    }
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    /**
+     * Ids of the nodes, by the identity of the nodes in the parse trees of the rules.
+     */
+    private final Map<ConditionItem, Integer> ids;
+
+    private final Kind[] kinds;
+
+    private final int[][] children;
+
+    private final ConditionItem[] predicates;
+
+    private PredicateGraph(Map<ConditionItem, Integer> ids, Kind[] kinds, int[][] children, ConditionItem[] predicates) {
+        this.ids = ids;
+        this.kinds = kinds;
+        this.children = children;
+        this.predicates = predicates;
+    }
+
+    public static PredicateGraph build(Collection<SigmaRule> rules) throws SigmaError {
+        Builder builder = new Builder();
+        for (SigmaRule rule: rules) {
+            for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
+                builder.addCondition(condition.parsed().getLeft());
+            }
+        }
+        return new PredicateGraph(builder.ids, builder.kinds.toArray(new Kind[0]), builder.children.toArray(new int[0][]),
+                builder.predicates.toArray(new ConditionItem[0]));
+    }
+
+    /**
+     * Number of distinct nodes.
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Number of nodes of the parse trees the graph was built from.
+     */
+    public int nodes() {
+        return ids.size();
+    }
+
+    /**
+     * @return the id of a node of a parse tree the graph was built from, or -1 if the node isn't part of the graph.
+     */
+    public int id(ConditionItem condition) {
+        Integer id = ids.get(condition);
+        return id != null? id: -1;
+    }
+
+    public Kind kind(int id) {
+        return kinds[id];
+    }
+
+    /**
+     * The children of an AND, OR or NOT node, in the order of the first parse tree node the node was built from.
+     */
+    public int[] children(int id) {
+        return children[id];
+    }
+
+    /**
+     * The parse tree node a {@link Kind#PREDICATE} node was built from.
+     */
+    public ConditionItem predicate(int id) {
+        return predicates[id];
+    }
+
+    private static class Builder {
+
+        private final Map<Object, Integer> nodes = new HashMap<>();
+
+        private final Map<ConditionItem, Integer> ids = new IdentityHashMap<>();
+
+        private final List<Kind> kinds = new ArrayList<>();
+
+        private final List<int[]> children = new ArrayList<>();
+
+        private final List<ConditionItem> predicates = new ArrayList<>();
+
+        private int addCondition(ConditionItem condition) throws SigmaValueError {
+            Integer id = ids.get(condition);
+            if (id != null) {
+                return id;
+            }
+
+            Kind kind = Kind.PREDICATE;
+            int[] conditionChildren = NO_CHILDREN;
+            Object key;
+            if (condition instanceof ConditionFieldEqualsValueExpression) {
+                ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) condition;
+                key = List.of("field", fieldCondition.getField(), valueKey(fieldCondition.getValue()));
+            } else if (condition instanceof ConditionValueExpression) {
+                key = List.of("keyword", valueKey(((ConditionValueExpression) condition).getValue()));
+            } else if (condition instanceof ConditionOR && networksKey((ConditionOR) condition) != null) {
+                key = networksKey((ConditionOR) condition);
+            } else if ((condition instanceof ConditionAND || condition instanceof ConditionOR || condition instanceof ConditionNOT) &&
+                    condition.getArgs().stream().allMatch(Either::isLeft)) {
+                kind = condition instanceof ConditionAND? Kind.AND: condition instanceof ConditionOR? Kind.OR: Kind.NOT;
+                conditionChildren = new int[condition.getArgs().size()];
+                for (int idx = 0; idx < conditionChildren.length; ++idx) {
+                    AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = condition.getArgs().get(idx).getLeft();
+                    conditionChildren[idx] = addCondition(item.isLeft()? item.getLeft(): item.isMiddle()? item.getMiddle(): item.get());
+                }
+
+                int[] sortedChildren = conditionChildren.clone();
+                Arrays.sort(sortedChildren);
+                key = List.of(kind, Arrays.stream(sortedChildren).boxed().collect(Collectors.toList()));
+            } else {
+                key = condition;
+            }
+
+            id = nodes.get(key);
+            if (id == null) {
+                id = kinds.size();
+                nodes.put(key, id);
+                kinds.add(kind);
+                children.add(conditionChildren);
+                predicates.add(kind == Kind.PREDICATE? condition: null);
+            }
+            ids.put(condition, id);
+            return id;
+        }
+
+        /**
+         * The key of an OR of networks on the same field, null for any other OR.
+         */
+        private static Object networksKey(ConditionOR condition) throws SigmaValueError {
+            String field = null;
+            Set<Object> networks = new HashSet<>();
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                if (!arg.isLeft() || !arg.getLeft().isMiddle() || !(arg.getLeft().getMiddle().getValue() instanceof SigmaCIDRExpression) ||
+                        (field != null && !field.equals(arg.getLeft().getMiddle().getField()))) {
+                    return null;
+                }
+                field = arg.getLeft().getMiddle().getField();
+                networks.add(valueKey(arg.getLeft().getMiddle().getValue()));
+            }
+            return field != null? List.of("networks", field, networks): null;
+        }
+    }
+
+    /**
+     * A key equal for values matching the same field values, or the value itself if there is none.
+     * E.g. numbers are equal regardless of whether they were written as integers or floats.
+     */
+    public static Object valueKey(SigmaType value) throws SigmaValueError {
+        if (value instanceof SigmaString) {
+            return value;
+        } else if (value instanceof SigmaNull) {
+            return List.of("null");
+        } else if (value instanceof SigmaNumber) {
+            return List.of("number", toDouble((SigmaNumber) value));
+        } else if (value instanceof SigmaBool) {
+            return List.of("bool", ((SigmaBool) value).isaBoolean());
+        } else if (value instanceof SigmaRegularExpression) {
+            return List.of("re", ((SigmaRegularExpression) value).getRegexp());
+        } else if (value instanceof SigmaCIDRExpression) {
+            SigmaCIDRExpression cidr = (SigmaCIDRExpression) value;
+            return List.of("cidr", Arrays.toString(cidr.getAddress()), cidr.getPrefixLength());
+        } else if (value instanceof SigmaCompareExpression) {
+            SigmaCompareExpression compare = (SigmaCompareExpression) value;
+            return List.of("compare", compare.getOp(), toDouble(compare.getNumber()));
+        } else if (value instanceof SigmaExpansion && ((SigmaExpansion) value).getRegularExpression() != null) {
+            return List.of("re", ((SigmaExpansion) value).getRegularExpression().getRegexp());
+        } else if (value instanceof SigmaExpansion) {
+            List<Object> expansions = new ArrayList<>();
+            for (SigmaType expansion: ((SigmaExpansion) value).getValues()) {
+                expansions.add(valueKey(expansion));
+            }
+            return List.of("expansion", expansions);
+        }
+        return value;
+    }
+
+    private static double toDouble(SigmaNumber number) {
+        return number.getNumOpt().isLeft()? number.getNumOpt().getLeft(): number.getNumOpt().get();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.Placeholder;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-field multi-pattern index over the contains, startswith and endswith values of a set of rules, i.e. the string
+ * values of the form {@code *literal*}, {@code literal*} and {@code *literal}.
+ *
+ * One pass over a field value finds all the indexed values of the field it matches, so the cost of matching an event
+ * against these values grows with the size of the event rather than with the number of rules. Equal values of the
+ * same field are indexed once, however many rules use them.
+ *
+ * The index is built once for a rule set, is immutable and can be shared between threads.
+ */
+public class RuleLiteralIndex {
+
+    private static final byte CONTAINS = 0;
+
+    private static final byte STARTSWITH = 1;
+
+    private static final byte ENDSWITH = 2;
+
+    private final Map<String, FieldIndex> fields;
+
+    /**
+     * Ids of the indexed values, by the identity of the values in the parse trees of the rules.
+     */
+    private final Map<SigmaString, Integer> ids;
+
+    private final int size;
+
+    private RuleLiteralIndex(Map<String, FieldIndex> fields, Map<SigmaString, Integer> ids, int size) {
+        this.fields = fields;
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public static RuleLiteralIndex build(Collection<SigmaRule> rules) throws SigmaError {
+        Builder builder = new Builder();
+        for (SigmaRule rule: rules) {
+            for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
+                builder.addCondition(condition.parsed().getLeft());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Number of distinct indexed values.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean hasField(String field) {
+        return fields.containsKey(field);
+    }
+
+    /**
+     * @return the id of a value of a rule the index was built from, or -1 if the value isn't indexed.
+     */
+    public int id(SigmaString value) {
+        Integer id = ids.get(value);
+        return id != null? id: -1;
+    }
+
+    /**
+     * Sets the ids of all the indexed values of a field that match a field value.
+     */
+    public void match(String field, String value, BitSet matches) {
+        FieldIndex fieldIndex = fields.get(field);
+        if (fieldIndex == null) {
+            return;
+        }
+
+        fieldIndex.matcher.match(value, (literal, start, end) -> {
+            switch (fieldIndex.kinds[literal]) {
+                case STARTSWITH:
+                    if (start != 0) {
+                        return;
+                    }
+                    break;
+                case ENDSWITH:
+                    if (end != value.length()) {
+                        return;
+                    }
+                    break;
+                default:
+            }
+            matches.set(fieldIndex.ids[literal]);
+        });
+    }
+
+    private static class FieldIndex {
+        private final AhoCorasickMatcher matcher;
+        private final int[] ids;
+        private final byte[] kinds;
+
+        private FieldIndex(AhoCorasickMatcher matcher, int[] ids, byte[] kinds) {
+            this.matcher = matcher;
+            this.ids = ids;
+            this.kinds = kinds;
+        }
+    }
+
+    private static class Builder {
+
+        private final Map<String, FieldBuilder> fields = new HashMap<>();
+
+        private final Map<SigmaString, Integer> ids = new IdentityHashMap<>();
+
+        private int size;
+
+        private void addCondition(ConditionItem condition) throws SigmaValueError {
+            if (condition instanceof ConditionFieldEqualsValueExpression) {
+                ConditionFieldEqualsValueExpression fieldCondition = (ConditionFieldEqualsValueExpression) condition;
+                addValue(fieldCondition.getField(), fieldCondition.getValue());
+                return;
+            }
+            if (condition instanceof ConditionValueExpression) {
+                return;
+            }
+
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                if (arg.isLeft() && arg.getLeft().isLeft()) {
+                    addCondition(arg.getLeft().getLeft());
+                } else if (arg.isLeft() && arg.getLeft().isMiddle()) {
+                    addCondition(arg.getLeft().getMiddle());
+                }
+            }
+        }
+
+        private void addValue(String field, SigmaType value) throws SigmaValueError {
+            if (value instanceof SigmaExpansion) {
+                if (((SigmaExpansion) value).getRegularExpression() != null) {
+                    return;
+                }
+                for (SigmaType expansion: ((SigmaExpansion) value).getValues()) {
+                    addValue(field, expansion);
+                }
+                return;
+            }
+            if (!(value instanceof SigmaString) || ids.containsKey(value)) {
+                return;
+            }
+
+            SigmaString str = (SigmaString) value;
+            List<AnyOneOf<String, Character, Placeholder>> sOpt = str.getsOpt();
+            boolean leading = !sOpt.isEmpty() && isWildcardMulti(sOpt.get(0));
+            boolean trailing = sOpt.size() > 1 && isWildcardMulti(sOpt.get(sOpt.size() - 1));
+            int literalIdx = leading? 1: 0;
+            if (!leading && !trailing || sOpt.size() != literalIdx + (trailing? 2: 1) || !sOpt.get(literalIdx).isLeft()) {
+                return;
+            }
+
+            FieldBuilder fieldBuilder = fields.computeIfAbsent(field, key -> new FieldBuilder());
+            Integer id = fieldBuilder.values.get(str);
+            if (id == null) {
+                id = size++;
+                fieldBuilder.values.put(str, id);
+                fieldBuilder.matcher.add(sOpt.get(literalIdx).getLeft());
+                fieldBuilder.ids.add(id);
+                fieldBuilder.kinds.add(leading && trailing? CONTAINS: leading? ENDSWITH: STARTSWITH);
+            }
+            ids.put(str, id);
+        }
+
+        private static boolean isWildcardMulti(AnyOneOf<String, Character, Placeholder> sOptElem) {
+            return sOptElem.isMiddle() && sOptElem.getMiddle() == SigmaString.SpecialChars.WILDCARD_MULTI;
+        }
+
+        private RuleLiteralIndex build() {
+            Map<String, FieldIndex> fieldIndices = new HashMap<>();
+            for (Map.Entry<String, FieldBuilder> field: fields.entrySet()) {
+                FieldBuilder fieldBuilder = field.getValue();
+                byte[] kinds = new byte[fieldBuilder.kinds.size()];
+                for (int idx = 0; idx < kinds.length; ++idx) {
+                    kinds[idx] = fieldBuilder.kinds.get(idx);
+                }
+                fieldIndices.put(field.getKey(), new FieldIndex(fieldBuilder.matcher.build(),
+                        fieldBuilder.ids.stream().mapToInt(Integer::intValue).toArray(), kinds));
+            }
+            return new RuleLiteralIndex(fieldIndices, ids, size);
+        }
+    }
+
+    private static class FieldBuilder {
+        private final Map<SigmaString, Integer> values = new HashMap<>();
+        private final AhoCorasickMatcher.Builder matcher = new AhoCorasickMatcher.Builder();
+        private final List<Integer> ids = new ArrayList<>();
+        private final List<Byte> kinds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.backend.FieldMappingRegistry;
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.Placeholder;
+import org.opensearch.securityanalytics.rules.types.SigmaBool;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.securityanalytics.rules.types.SigmaNull;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.CidrTrie;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Evaluates parsed Sigma rules directly against events, without converting them to queries.
+ *
+ * Fields are resolved through the field mappings of the rule category, falling back to the Sigma field name, and may
+ * be dotted paths into nested objects. Values are matched the way the generated queries match them against the
+ * {@code rule_analyzer} fields of the detector indices, i.e. case-sensitive, with anchored regular expressions.
+ * Networks are matched as IPv4 or IPv6 networks, with the networks of an OR on the same field merged into one
+ * {@link CidrTrie}.
+ * Value modifiers need no special handling, as they are already applied to the values of the parsed detection items.
+ *
+ * Wildcard and regular expression values are matched by automata, in time linear in the length of the event values.
+ * The automata are cached per value, so an evaluator is meant to be reused for all the events of a request, but not
+ * shared between threads.
+ *
+ * With a {@link RuleLiteralIndex} of the rules, the contains, startswith and endswith values of a field are matched
+ * in one pass over each field value of an event, and the result is shared by all the rules evaluated against the
+ * same event. {@link #evaluate(List, List)} evaluates rule sets event by event to make the most of this.
+ *
+ * Rule sets are evaluated over the {@link PredicateGraph} of their rules, so a predicate or selection shared by several
+ * rules is evaluated once per event, and the rules sharing it reuse its outcome.
+ */
+public class SigmaRuleEvaluator {
+
+    private static final CidrTrie NO_NETWORKS = new CidrTrie();
+
+    private final Map<String, String> fieldMappings;
+
+    private final Map<SigmaType, CharacterRunAutomaton> automata;
+
+    /**
+     * Merged networks of single network values and of ORs of networks on the same field, {@link #NO_NETWORKS} for
+     * other ORs.
+     */
+    private final Map<Object, CidrTrie> networks;
+
+    private final RuleLiteralIndex literalIndex;
+
+    /**
+     * Indexed values matched by the field values of {@link #literalMatchesEvent}, by field and field value.
+     */
+    private final Map<String, Map<String, BitSet>> literalMatches;
+
+    private Map<String, Object> literalMatchesEvent;
+
+    public SigmaRuleEvaluator(String ruleCategory, boolean enableFieldMappings) throws IOException {
+        this(ruleCategory, enableFieldMappings, null);
+    }
+
+    public SigmaRuleEvaluator(String ruleCategory, boolean enableFieldMappings, RuleLiteralIndex literalIndex) throws IOException {
+        this.fieldMappings = enableFieldMappings? FieldMappingRegistry.getFieldMappings(ruleCategory): Map.of();
+        this.automata = new IdentityHashMap<>();
+        this.networks = new IdentityHashMap<>();
+        this.literalIndex = literalIndex;
+        this.literalMatches = new HashMap<>();
+    }
+
+    /**
+     * Evaluates a rule against a set of events.
+     *
+     * @return the positions of the matching events, in ascending order. Events only match conditions with an
+     * aggregation if their group of matching events satisfies the aggregation.
+     */
+    public List<Integer> evaluate(SigmaRule rule, List<Map<String, Object>> events) throws SigmaError {
+        return evaluate(List.of(rule), events).get(0);
+    }
+
+    /**
+     * Evaluates a set of rules against a set of events, event by event.
+     *
+     * @return the positions of the matching events of each rule, see {@link #evaluate(SigmaRule, List)}.
+     */
+    public List<List<Integer>> evaluate(List<SigmaRule> rules, List<Map<String, Object>> events) throws SigmaError {
+        List<Pair<ConditionItem, AggregationItem>> conditions = new ArrayList<>();
+        List<Integer> conditionRules = new ArrayList<>();
+        for (int ruleIdx = 0; ruleIdx < rules.size(); ++ruleIdx) {
+            for (SigmaCondition condition: rules.get(ruleIdx).getDetection().getParsedCondition()) {
+                conditions.add(condition.parsed());
+                conditionRules.add(ruleIdx);
+            }
+        }
+
+        PredicateGraph graph = PredicateGraph.build(rules);
+        int[] roots = new int[conditions.size()];
+        for (int condIdx = 0; condIdx < conditions.size(); ++condIdx) {
+            roots[condIdx] = graph.id(conditions.get(condIdx).getLeft());
+        }
+
+        List<List<Integer>> conditionMatches = new ArrayList<>(conditions.size());
+        for (int condIdx = 0; condIdx < conditions.size(); ++condIdx) {
+            conditionMatches.add(new ArrayList<>());
+        }
+        GraphOutcomes outcomes = new GraphOutcomes(graph);
+        for (int idx = 0; idx < events.size(); ++idx) {
+            outcomes.reset();
+            for (int condIdx = 0; condIdx < conditions.size(); ++condIdx) {
+                if (matches(outcomes, roots[condIdx], events.get(idx))) {
+                    conditionMatches.get(condIdx).add(idx);
+                }
+            }
+        }
+
+        List<TreeSet<Integer>> matches = new ArrayList<>(rules.size());
+        for (int ruleIdx = 0; ruleIdx < rules.size(); ++ruleIdx) {
+            matches.add(new TreeSet<>());
+        }
+        for (int condIdx = 0; condIdx < conditions.size(); ++condIdx) {
+            AggregationItem aggregation = conditions.get(condIdx).getRight();
+            matches.get(conditionRules.get(condIdx)).addAll(aggregation != null?
+                    aggregate(aggregation, events, conditionMatches.get(condIdx)): conditionMatches.get(condIdx));
+        }
+
+        List<List<Integer>> results = new ArrayList<>(rules.size());
+        for (TreeSet<Integer> ruleMatches: matches) {
+            results.add(new ArrayList<>(ruleMatches));
+        }
+        return results;
+    }
+
+    /**
+     * Whether an event matches any of the conditions of a rule, aggregations are not considered.
+     */
+    public boolean matches(SigmaRule rule, Map<String, Object> event) throws SigmaError {
+        for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
+            if (matches(condition.parsed().getLeft(), event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matches(ConditionItem condition, Map<String, Object> event) throws SigmaValueError {
+        if (condition instanceof ConditionAND) {
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                if (!matchesArg(arg, event)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (condition instanceof ConditionOR) {
+            CidrTrie orNetworks = networks((ConditionOR) condition);
+            if (orNetworks != NO_NETWORKS) {
+                return matchesNetworks(condition.getArgs().get(0).getLeft().getMiddle().getField(), orNetworks, event);
+            }
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                if (matchesArg(arg, event)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (condition instanceof ConditionNOT) {
+            return !matchesArg(condition.getArgs().get(0), event);
+        } else if (condition instanceof ConditionFieldEqualsValueExpression) {
+            return matchesField((ConditionFieldEqualsValueExpression) condition, event);
+        } else if (condition instanceof ConditionValueExpression) {
+            return matchesAnyField(((ConditionValueExpression) condition).getValue(), event);
+        }
+        throw new IllegalArgumentException("Unexpected condition type in condition parse tree: " + condition.getClass().getName());
+    }
+
+    /**
+     * Evaluates a node of a predicate graph, each node at most once per event.
+     */
+    private boolean matches(GraphOutcomes outcomes, int id, Map<String, Object> event) throws SigmaValueError {
+        if (outcomes.known.get(id)) {
+            return outcomes.values.get(id);
+        }
+
+        PredicateGraph graph = outcomes.graph;
+        boolean result;
+        switch (graph.kind(id)) {
+            case AND:
+                result = true;
+                for (int child: graph.children(id)) {
+                    if (!matches(outcomes, child, event)) {
+                        result = false;
+                        break;
+                    }
+                }
+                break;
+            case OR:
+                result = false;
+                for (int child: graph.children(id)) {
+                    if (matches(outcomes, child, event)) {
+                        result = true;
+                        break;
+                    }
+                }
+                break;
+            case NOT:
+                result = !matches(outcomes, graph.children(id)[0], event);
+                break;
+            default:
+                result = matches(graph.predicate(id), event);
+        }
+
+        outcomes.known.set(id);
+        outcomes.values.set(id, result);
+        return result;
+    }
+
+    private static class GraphOutcomes {
+        private final PredicateGraph graph;
+        private final BitSet known;
+        private final BitSet values;
+
+        private GraphOutcomes(PredicateGraph graph) {
+            this.graph = graph;
+            this.known = new BitSet(graph.size());
+            this.values = new BitSet(graph.size());
+        }
+
+        private void reset() {
+            known.clear();
+        }
+    }
+
+    private boolean matchesArg(Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg,
+                               Map<String, Object> event) throws SigmaValueError {
+        if (!arg.isLeft()) {
+            throw new IllegalArgumentException("Unexpected unresolved identifier in condition parse tree: " + arg.get());
+        }
+        AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = arg.getLeft();
+        if (item.isLeft()) {
+            return matches(item.getLeft(), event);
+        } else if (item.isMiddle()) {
+            return matchesField(item.getMiddle(), event);
+        } else {
+            return matchesAnyField(item.get().getValue(), event);
+        }
+    }
+
+    private boolean matchesField(ConditionFieldEqualsValueExpression condition, Map<String, Object> event) throws SigmaValueError {
+        List<Object> values = fieldValues(event, condition.getField());
+        if (condition.getValue() instanceof SigmaNull) {
+            for (Object value: values) {
+                if (value != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (Object value: values) {
+            if (value != null && matchesValue(condition.getValue(), value, condition.getField(), event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keyword values are not bound to a field, they match if any value of the event matches.
+     */
+    private boolean matchesAnyField(SigmaType expected, Object value) throws SigmaValueError {
+        if (value instanceof Map) {
+            for (Object child: ((Map<?, ?>) value).values()) {
+                if (matchesAnyField(expected, child)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (value instanceof List) {
+            for (Object child: (List<?>) value) {
+                if (matchesAnyField(expected, child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return value != null && matchesValue(expected, value, null, null);
+    }
+
+    /**
+     * @param field the Sigma field the value belongs to, null for keyword values
+     */
+    private boolean matchesValue(SigmaType expected, Object value, String field, Map<String, Object> event) throws SigmaValueError {
+        if (expected instanceof SigmaString) {
+            SigmaString str = (SigmaString) expected;
+            int literalId = field != null && literalIndex != null? literalIndex.id(str): -1;
+            if (literalId >= 0) {
+                return literalMatches(event, field, value.toString()).get(literalId);
+            } else if (str.containsWildcard()) {
+                return automaton(str).run(value.toString());
+            }
+            return literal(str).equals(value.toString());
+        } else if (expected instanceof SigmaNumber) {
+            Double number = toDouble(value);
+            return number != null && number == toDouble((SigmaNumber) expected);
+        } else if (expected instanceof SigmaBool) {
+            return String.valueOf(((SigmaBool) expected).isaBoolean()).equals(value.toString());
+        } else if (expected instanceof SigmaRegularExpression) {
+            return automaton((SigmaRegularExpression) expected).run(value.toString());
+        } else if (expected instanceof SigmaCIDRExpression) {
+            return networks((SigmaCIDRExpression) expected).contains(value.toString());
+        } else if (expected instanceof SigmaCompareExpression) {
+            SigmaCompareExpression compare = (SigmaCompareExpression) expected;
+            Double number = toDouble(value);
+            return number != null && compare(number, compare.getOp(), toDouble(compare.getNumber()));
+        } else if (expected instanceof SigmaExpansion) {
+            if (((SigmaExpansion) expected).getRegularExpression() != null) {
+                return automaton(((SigmaExpansion) expected).getRegularExpression()).run(value.toString());
+            }
+            for (SigmaType expansion: ((SigmaExpansion) expected).getValues()) {
+                if (matchesValue(expansion, value, field, event)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (expected instanceof SigmaNull) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unexpected value type class in condition parse tree: " + expected.getClass().getName());
+    }
+
+    private boolean matchesNetworks(String field, CidrTrie fieldNetworks, Map<String, Object> event) {
+        for (Object value: fieldValues(event, field)) {
+            if (value != null && fieldNetworks.contains(value.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CidrTrie networks(SigmaCIDRExpression cidr) {
+        return networks.computeIfAbsent(cidr, key -> {
+            CidrTrie trie = new CidrTrie();
+            trie.add(cidr);
+            return trie;
+        });
+    }
+
+    /**
+     * The merged networks of an OR of networks on the same field, {@link #NO_NETWORKS} for any other OR.
+     */
+    private CidrTrie networks(ConditionOR condition) {
+        return networks.computeIfAbsent(condition, key -> {
+            CidrTrie trie = new CidrTrie();
+            String field = null;
+            for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.getArgs()) {
+                if (!arg.isLeft() || !arg.getLeft().isMiddle() || !(arg.getLeft().getMiddle().getValue() instanceof SigmaCIDRExpression) ||
+                        (field != null && !field.equals(arg.getLeft().getMiddle().getField()))) {
+                    return NO_NETWORKS;
+                }
+                field = arg.getLeft().getMiddle().getField();
+                trie.add((SigmaCIDRExpression) arg.getLeft().getMiddle().getValue());
+            }
+            return field != null? trie: NO_NETWORKS;
+        });
+    }
+
+    private BitSet literalMatches(Map<String, Object> event, String field, String value) {
+        if (event != literalMatchesEvent) {
+            literalMatches.clear();
+            literalMatchesEvent = event;
+        }
+        return literalMatches.computeIfAbsent(field, key -> new HashMap<>()).computeIfAbsent(value, key -> {
+            BitSet matches = new BitSet(literalIndex.size());
+            literalIndex.match(field, value, matches);
+            return matches;
+        });
+    }
+
+    private List<Integer> aggregate(AggregationItem aggregation, List<Map<String, Object>> events, List<Integer> matches) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (Integer idx: matches) {
+            String group = null;
+            if (aggregation.getGroupByField() != null) {
+                List<Object> groupValues = fieldValues(events.get(idx), aggregation.getGroupByField());
+                group = groupValues.isEmpty() || groupValues.get(0) == null? null: groupValues.get(0).toString();
+            }
+            groups.computeIfAbsent(group, key -> new ArrayList<>()).add(idx);
+        }
+
+        List<Integer> aggregatedMatches = new ArrayList<>();
+        for (List<Integer> group: groups.values()) {
+            Double value = aggregateGroup(aggregation, events, group);
+            if (value != null && compare(value, aggregation.getCompOperator(), aggregation.getThreshold())) {
+                aggregatedMatches.addAll(group);
+            }
+        }
+        return aggregatedMatches;
+    }
+
+    private Double aggregateGroup(AggregationItem aggregation, List<Map<String, Object>> events, List<Integer> group) {
+        if ("count".equals(aggregation.getAggFunction())) {
+            return (double) group.size();
+        }
+
+        List<Double> values = new ArrayList<>();
+        for (Integer idx: group) {
+            for (Object value: fieldValues(events.get(idx), aggregation.getAggField())) {
+                Double number = toDouble(value);
+                if (number != null) {
+                    values.add(number);
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        switch (aggregation.getAggFunction()) {
+            case "sum":
+                return values.stream().mapToDouble(Double::doubleValue).sum();
+            case "min":
+                return values.stream().mapToDouble(Double::doubleValue).min().getAsDouble();
+            case "max":
+                return values.stream().mapToDouble(Double::doubleValue).max().getAsDouble();
+            case "avg":
+                return values.stream().mapToDouble(Double::doubleValue).average().getAsDouble();
+            default:
+                throw new IllegalArgumentException("Unsupported aggregation function " + aggregation.getAggFunction());
+        }
+    }
+
+    /**
+     * Compares the value of an aggregation to the threshold of its condition with the operator of the condition.
+     */
+    public static boolean compare(double value, String op, double threshold) {
+        switch (op) {
+            case ">":
+                return value > threshold;
+            case ">=":
+                return value >= threshold;
+            case "<":
+                return value < threshold;
+            case "<=":
+                return value <= threshold;
+            case "==":
+                return value == threshold;
+            default:
+                throw new IllegalArgumentException("Unsupported comparison operator " + op);
+        }
+    }
+
+    /**
+     * Values of a field of an event, with list values flattened. The field is looked up by its mapped name first,
+     * then by its Sigma name, either as a flat dotted key or as a path into nested objects.
+     */
+    private List<Object> fieldValues(Map<String, Object> event, String field) {
+        List<Object> values = new ArrayList<>();
+        String mappedField = fieldMappings.getOrDefault(field, field);
+        collectFieldValues(event, mappedField, values);
+        if (values.isEmpty() && !mappedField.equals(field)) {
+            collectFieldValues(event, field, values);
+        }
+        return values;
+    }
+
+    private static boolean collectFieldValues(Object source, String path, List<Object> values) {
+        if (source instanceof List) {
+            boolean found = false;
+            for (Object element: (List<?>) source) {
+                found |= collectFieldValues(element, path, values);
+            }
+            return found;
+        }
+        if (!(source instanceof Map)) {
+            return false;
+        }
+
+        Map<?, ?> map = (Map<?, ?>) source;
+        if (map.containsKey(path)) {
+            addValues(map.get(path), values);
+            return true;
+        }
+        for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+            Object child = map.get(path.substring(0, dot));
+            if (child != null && collectFieldValues(child, path.substring(dot + 1), values)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addValues(Object value, List<Object> values) {
+        if (value instanceof List) {
+            for (Object element: (List<?>) value) {
+                addValues(element, values);
+            }
+        } else {
+            values.add(value);
+        }
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static double toDouble(SigmaNumber number) {
+        return number.getNumOpt().isLeft()? number.getNumOpt().getLeft(): number.getNumOpt().get();
+    }
+
+    private static String literal(SigmaString value) {
+        StringBuilder literal = new StringBuilder();
+        for (AnyOneOf<String, Character, Placeholder> sOptElem: value.getsOpt()) {
+            if (sOptElem.isLeft()) {
+                literal.append(sOptElem.getLeft());
+            }
+        }
+        return literal.toString();
+    }
+
+    private CharacterRunAutomaton automaton(SigmaString value) {
+        return automata.computeIfAbsent(value, key -> {
+            StringBuilder regexp = new StringBuilder();
+            for (AnyOneOf<String, Character, Placeholder> sOptElem: value.getsOpt()) {
+                if (sOptElem.isLeft()) {
+                    regexp.append(RegexAutomata.quote(sOptElem.getLeft()));
+                } else if (sOptElem.isMiddle() && sOptElem.getMiddle() == SigmaString.SpecialChars.WILDCARD_MULTI) {
+                    regexp.append(".*");
+                } else if (sOptElem.isMiddle() && sOptElem.getMiddle() == SigmaString.SpecialChars.WILDCARD_SINGLE) {
+                    regexp.append('.');
+                }
+            }
+            return RegexAutomata.compile(regexp.toString());
+        });
+    }
+
+    /**
+     * Spaces are stored encoded in regular expressions, for the {@code rule_analyzer} of the detector indices.
+     */
+    private CharacterRunAutomaton automaton(SigmaRegularExpression value) {
+        return automata.computeIfAbsent(value, key -> RegexAutomata.compile(value.getRegexp().replace("_ws_", " ")));
+    }
+}
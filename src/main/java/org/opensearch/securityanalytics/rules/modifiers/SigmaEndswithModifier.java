@@ -21,6 +21,11 @@ public class SigmaEndswithModifier extends SigmaValueModifier {
         super(detectionItem, appliedModifiers);
     }
 
+    @Override
+    protected boolean isTemplateModifier() {
+        return true;
+    }
+
     @Override
     public Pair<Class<?>, Class<?>> getTypeHints() {
         return Pair.of(SigmaString.class, SigmaRegularExpression.class);
@@ -10,6 +10,7 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaTypeError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
 import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
 import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
 import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.utils.Either;
 
@@ -42,11 +43,20 @@ public abstract class SigmaModifier {
 
     public List<SigmaType> apply(Either<SigmaType, List<SigmaType>> val) throws SigmaTypeError, SigmaValueError, SigmaRegularExpressionError {
         if (val.isLeft() && val.getLeft() instanceof SigmaExpansion) {
+            SigmaExpansion expansion = (SigmaExpansion) val.getLeft();
+            if (expansion.isTemplate() && this.isTemplateModifier()) {
+                List<SigmaType> modified = this.apply(Either.left(expansion.getTemplate()));
+                if (modified.size() == 1 && modified.get(0) instanceof SigmaString) {
+                    return Collections.singletonList(expansion.withTemplate((SigmaString) modified.get(0)));
+                }
+            }
+
             List<SigmaType> values = new ArrayList<>();
-            for (SigmaType value: ((SigmaExpansion) val.getLeft()).getValues()) {
+            for (SigmaType value: expansion.getValues()) {
                 List<? extends SigmaType> va = this.apply(Either.left(value));
                 values.addAll(va);
             }
+            SigmaExpansion.checkSize(values.size(), detectionItem.getMaxExpansionSize());
             return Collections.singletonList(new SigmaExpansion(values));
         } else {
             if (!this.typeCheck(val)) {
@@ -61,6 +71,14 @@ public abstract class SigmaModifier {
         }
     }
 
+    /**
+     * Whether the modifier can be applied once to the template of a template expansion instead of to each of its
+     * variants, i.e. it doesn't change the placeholders of values.
+     */
+    protected boolean isTemplateModifier() {
+        return false;
+    }
+
     public SigmaDetectionItem getDetectionItem() {
         return detectionItem;
     }
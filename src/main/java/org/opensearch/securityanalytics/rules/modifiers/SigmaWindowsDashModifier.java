@@ -5,18 +5,16 @@
 package org.opensearch.securityanalytics.rules.modifiers;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
 import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
-import org.opensearch.securityanalytics.rules.types.Placeholder;
 import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.opensearch.securityanalytics.rules.types.SigmaString;
 import org.opensearch.securityanalytics.rules.types.SigmaType;
-import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
 import org.opensearch.securityanalytics.rules.utils.Either;
 
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class SigmaWindowsDashModifier extends SigmaValueModifier {
 
@@ -30,17 +28,13 @@ public class SigmaWindowsDashModifier extends SigmaValueModifier {
     }
 
     @Override
-    public Either<SigmaType, List<SigmaType>> modify(Either<SigmaType, List<SigmaType>> val) {
+    public Either<SigmaType, List<SigmaType>> modify(Either<SigmaType, List<SigmaType>> val) throws SigmaValueError {
         if (val.isLeft() && val.getLeft() instanceof SigmaString) {
-            Function<Placeholder, List<AnyOneOf<String, Character, Placeholder>>> callback =
-                    p -> {
-                        if (p.getName().equals("_windash")) {
-                            return List.of(AnyOneOf.leftVal("-"), AnyOneOf.leftVal("/"));
-                        }
-                        return List.of(AnyOneOf.rightVal(p));
-                    };
-            return Either.left(new SigmaExpansion(new SigmaString(val.getLeft().toString().replace("_ws_", " ")).replaceWithPlaceholder(Pattern.compile("\\B[-/]\\b"), "_windash")
-                    .replacePlaceholders(callback).stream().map(s -> new SigmaString(s.toString().replace(" ", "_ws_"))).collect(Collectors.toList())));
+            // each dash-prefixed flag doubles the variants, so they are only enumerated on demand
+            return Either.left(SigmaExpansion.ofTemplate(
+                    new SigmaString(val.getLeft().toString().replace("_ws_", " ")).replaceWithPlaceholder(Pattern.compile("\\B[-/]\\b"), "_windash"),
+                    Map.of("_windash", List.of("-", "/")),
+                    getDetectionItem().getMaxExpansionSize()));
         }
         return null;
     }
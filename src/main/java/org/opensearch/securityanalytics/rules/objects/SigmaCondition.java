@@ -4,9 +4,18 @@
  */
 package org.opensearch.securityanalytics.rules.objects;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
 import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
 import org.opensearch.securityanalytics.rules.aggregation.AggregationTraverseVisitor;
 import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
@@ -28,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 public class SigmaCondition {
 
@@ -47,13 +57,19 @@ public class SigmaCondition {
 
     private SigmaDetections detections;
 
-    private ConditionParser parser;
+    private Pair<ConditionItem, AggregationItem> parsed;
 
-    private AggregationParser aggParser;
+    private static final int MAX_CACHED_PARSE_TREES = 10000;
 
-    private ConditionTraverseVisitor conditionVisitor;
+    /**
+     * ANTLR parse trees are only read by the visitors, so they are shared by all conditions with the same text. The
+     * least recently used trees are evicted once {@link #MAX_CACHED_PARSE_TREES} are cached.
+     */
+    private static final Cache<String, ConditionParser.StartContext> conditionParseTrees =
+            CacheBuilder.<String, ConditionParser.StartContext>builder().setMaximumWeight(MAX_CACHED_PARSE_TREES).build();
 
-    private AggregationTraverseVisitor aggVisitor;
+    private static final Cache<String, AggregationParser.Comparison_exprContext> aggregationParseTrees =
+            CacheBuilder.<String, AggregationParser.Comparison_exprContext>builder().setMaximumWeight(MAX_CACHED_PARSE_TREES).build();
 
     public SigmaCondition(String condition, SigmaDetections detections) {
         if (condition.contains(" | ")) {
@@ -65,35 +81,77 @@ public class SigmaCondition {
         }
 
         this.detections = detections;
-
-        ConditionLexer lexer = new ConditionLexer(CharStreams.fromString(this.condition));
-        this.parser = new ConditionParser(new CommonTokenStream(lexer));
-        this.conditionVisitor = new ConditionTraverseVisitor(this);
-
-        AggregationLexer aggLexer = new AggregationLexer(CharStreams.fromString(this.aggregation));
-        this.aggParser = new AggregationParser(new CommonTokenStream(aggLexer));
-        this.aggVisitor = new AggregationTraverseVisitor();
     }
 
+    /**
+     * Parses the condition and post-processes it against the detections. The result is computed once and shared by
+     * all callers, e.g. every query backend converting the rule.
+     */
     public Pair<ConditionItem, AggregationItem> parsed() throws SigmaConditionError {
+        if (parsed == null) {
+            parsed = parse();
+        }
+        return parsed;
+    }
+
+    private Pair<ConditionItem, AggregationItem> parse() throws SigmaConditionError {
         ConditionItem parsedConditionItem;
-        Either<ConditionItem, String> itemOrCondition = conditionVisitor.visit(parser.start());
+        Either<ConditionItem, String> itemOrCondition = new ConditionTraverseVisitor(this).visit(conditionParseTree(condition));
         if (itemOrCondition.isLeft()) {
             parsedConditionItem = itemOrCondition.getLeft();
         } else {
-            parsedConditionItem = Objects.requireNonNull(parsed(condition)).isLeft()? Objects.requireNonNull(parsed(condition)).getLeft():
-                    ((Objects.requireNonNull(parsed(condition))).isMiddle()? Objects.requireNonNull(parsed(condition)).getMiddle():
-                            Objects.requireNonNull(parsed(condition)).get());
+            AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = Objects.requireNonNull(parsed(condition));
+            parsedConditionItem = item.isLeft()? item.getLeft(): (item.isMiddle()? item.getMiddle(): item.get());
         }
 
         AggregationItem parsedAggItem = null;
         if (!this.aggregation.isEmpty()) {
-            aggVisitor.visit(aggParser.comparison_expr());
+            AggregationTraverseVisitor aggVisitor = new AggregationTraverseVisitor();
+            aggVisitor.visit(aggregationParseTree(aggregation));
             parsedAggItem = aggVisitor.getAggregationItem();
         }
         return Pair.of(parsedConditionItem, parsedAggItem);
     }
 
+    private static ConditionParser.StartContext conditionParseTree(String condition) {
+        ConditionParser.StartContext parseTree = conditionParseTrees.get(condition);
+        if (parseTree == null) {
+            ConditionParser parser = new ConditionParser(new CommonTokenStream(new ConditionLexer(CharStreams.fromString(condition))));
+            parseTree = parseTwoStage(parser, parser::start);
+            conditionParseTrees.put(condition, parseTree);
+        }
+        return parseTree;
+    }
+
+    private static AggregationParser.Comparison_exprContext aggregationParseTree(String aggregation) {
+        AggregationParser.Comparison_exprContext parseTree = aggregationParseTrees.get(aggregation);
+        if (parseTree == null) {
+            AggregationParser parser = new AggregationParser(new CommonTokenStream(new AggregationLexer(CharStreams.fromString(aggregation))));
+            parseTree = parseTwoStage(parser, parser::comparison_expr);
+            aggregationParseTrees.put(aggregation, parseTree);
+        }
+        return parseTree;
+    }
+
+    /**
+     * Parses with the faster SLL prediction mode first, bailing out on the first error, and only re-parses with full LL
+     * prediction (and the default error reporting & recovery) if SLL fails. SLL succeeds for virtually all conditions.
+     */
+    private static <T extends ParserRuleContext> T parseTwoStage(Parser parser, Supplier<T> rule) {
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return rule.get();
+        } catch (ParseCancellationException ex) {
+            parser.reset();
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.get();
+        }
+    }
+
     public List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> convertArgs(
             List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> parsedArgs) throws SigmaConditionError {
         List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> newArgs = new ArrayList<>();
@@ -14,6 +14,7 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaDetectionError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaModifierError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
 import org.opensearch.securityanalytics.rules.utils.Either;
 
@@ -54,8 +55,12 @@ public class SigmaDetection {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected static SigmaDetection fromDefinition(Object definition) throws SigmaModifierError, SigmaDetectionError, SigmaValueError, SigmaRegularExpressionError {
+        return SigmaDetection.fromDefinition(definition, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static SigmaDetection fromDefinition(Object definition, int maxExpansionSize) throws SigmaModifierError, SigmaDetectionError, SigmaValueError, SigmaRegularExpressionError {
         List<Either<SigmaDetectionItem, SigmaDetection>> detectionItems = new ArrayList<>();
         if (definition instanceof Map) {
             for (Map.Entry<String, Object> defEntry: ((Map<String, Object>) definition).entrySet()) {
@@ -63,28 +68,28 @@ public class SigmaDetection {
 
                 if (val == null) {
                     detectionItems.add(Either.left(SigmaDetectionItem.fromMapping(defEntry.getKey(),
-                            Either.left(null))));
+                            Either.left(null), maxExpansionSize)));
                 } else if (val instanceof Integer) {
                     detectionItems.add(Either.left(SigmaDetectionItem.fromMapping(defEntry.getKey(),
-                            Either.left((Integer) val))));
+                            Either.left((Integer) val), maxExpansionSize)));
                 } else if (val instanceof Float) {
                     detectionItems.add(Either.left(SigmaDetectionItem.fromMapping(defEntry.getKey(),
-                            Either.left((Float) val))));
+                            Either.left((Float) val), maxExpansionSize)));
                 } else if (val instanceof String) {
                     detectionItems.add(Either.left(SigmaDetectionItem.fromMapping(defEntry.getKey(),
-                            Either.left(val.toString()))));
+                            Either.left(val.toString()), maxExpansionSize)));
                 } else if (val instanceof Boolean) {
                     detectionItems.add(Either.left(SigmaDetectionItem.fromMapping(defEntry.getKey(),
-                            Either.left((Boolean) val))));
+                            Either.left((Boolean) val), maxExpansionSize)));
                 } else if (val instanceof List) {
                     SigmaDetectionItem item =
-                    SigmaDetectionItem.fromMapping(defEntry.getKey(), Either.right(((List<Object>) val)));
+                    SigmaDetectionItem.fromMapping(defEntry.getKey(), Either.right(((List<Object>) val)), maxExpansionSize);
                     detectionItems.add(Either.left(item));
                 }
             }
             return new SigmaDetection(detectionItems, null);
         } else if (definition instanceof String || definition instanceof Integer) {
-            detectionItems.add(Either.left(SigmaDetectionItem.fromValue(Either.left(definition))));
+            detectionItems.add(Either.left(SigmaDetectionItem.fromValue(Either.left(definition), maxExpansionSize)));
             return new SigmaDetection(detectionItems, null);
         } else if (definition instanceof ArrayList) {
             List<Object> definitionList = (List<Object>) definition;
@@ -92,13 +97,13 @@ public class SigmaDetection {
             boolean isItem = true;
             for (Object definitionElem: definitionList) {
                 if (!(definitionElem instanceof String) && !(definitionElem instanceof Integer)) {
-                    detectionItems.add(Either.right(SigmaDetection.fromDefinition(definitionElem)));
+                    detectionItems.add(Either.right(SigmaDetection.fromDefinition(definitionElem, maxExpansionSize)));
                     isItem = false;
                 }
             }
 
             if (isItem) {
-                detectionItems.add(Either.left(SigmaDetectionItem.fromValue(Either.right(definitionList))));
+                detectionItems.add(Either.left(SigmaDetectionItem.fromValue(Either.right(definitionList), maxExpansionSize)));
                 return new SigmaDetection(detectionItems, null);
             }
             return new SigmaDetection(detectionItems, null);
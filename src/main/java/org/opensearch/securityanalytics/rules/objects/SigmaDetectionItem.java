@@ -17,6 +17,7 @@ import org.opensearch.securityanalytics.rules.modifiers.SigmaListModifier;
 import org.opensearch.securityanalytics.rules.modifiers.SigmaModifier;
 import org.opensearch.securityanalytics.rules.modifiers.SigmaModifierFacade;
 import org.opensearch.securityanalytics.rules.modifiers.SigmaValueModifier;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.opensearch.securityanalytics.rules.types.SigmaNull;
 import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.types.SigmaTypeFacade;
@@ -44,14 +45,26 @@ public class SigmaDetectionItem {
 
     private SigmaDetection parent;
 
+    private int maxExpansionSize;
+
     public SigmaDetectionItem(String field, List<Class<? extends SigmaModifier>> modifiers, List<SigmaType> value,
                               Either<Class<ConditionAND>, Class<ConditionOR>> valueLinking, SigmaType originalValue, boolean autoModifiers) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
+        this(field, modifiers, value, valueLinking, originalValue, autoModifiers, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxExpansionSize most variants the modifiers may expand a value into, see {@link SigmaExpansion}
+     */
+    public SigmaDetectionItem(String field, List<Class<? extends SigmaModifier>> modifiers, List<SigmaType> value,
+                              Either<Class<ConditionAND>, Class<ConditionOR>> valueLinking, SigmaType originalValue, boolean autoModifiers,
+                              int maxExpansionSize) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
         this.field = field;
         this.modifiers = modifiers;
         this.value = value;
         this.valueLinking = valueLinking != null? valueLinking: Either.right(ConditionOR.class);
         this.originalValue = originalValue;
         this.autoModifiers = autoModifiers;
+        this.maxExpansionSize = maxExpansionSize;
 
         if (autoModifiers) {
             this.applyModifiers();
@@ -80,6 +93,10 @@ public class SigmaDetectionItem {
     }
 
     public static <T> SigmaDetectionItem fromMapping(String key, Either<T, List<T>> val) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
+        return SigmaDetectionItem.fromMapping(key, val, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    public static <T> SigmaDetectionItem fromMapping(String key, Either<T, List<T>> val, int maxExpansionSize) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
         String field = null;
         List<String> modifierIds = new ArrayList<>();
         if (key != null) {
@@ -114,11 +131,15 @@ public class SigmaDetectionItem {
             sigmaTypes.add(SigmaTypeFacade.sigmaType(v));
         }
 
-        return new SigmaDetectionItem(field, modifiers, sigmaTypes, null, null, true);
+        return new SigmaDetectionItem(field, modifiers, sigmaTypes, null, null, true, maxExpansionSize);
     }
 
     public static <T> SigmaDetectionItem fromValue(Either<T, List<T>> val) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
-        return SigmaDetectionItem.fromMapping(null, val);
+        return SigmaDetectionItem.fromValue(val, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    public static <T> SigmaDetectionItem fromValue(Either<T, List<T>> val, int maxExpansionSize) throws SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
+        return SigmaDetectionItem.fromMapping(null, val, maxExpansionSize);
     }
 
     public Either<Either<ConditionAND, ConditionOR>, Either<ConditionFieldEqualsValueExpression, ConditionValueExpression>> postProcess(SigmaDetections detections, Object parent) throws SigmaConditionError {
@@ -188,6 +209,10 @@ public class SigmaDetectionItem {
         return modifiers;
     }
 
+    public int getMaxExpansionSize() {
+        return maxExpansionSize;
+    }
+
     public Either<Class<ConditionAND>, Class<ConditionOR>> getValueLinking() {
         return valueLinking;
     }
@@ -9,6 +9,7 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaDetectionError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaModifierError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -37,8 +38,12 @@ public class SigmaDetections {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected static SigmaDetections fromDict(Map<String, Object> detectionMap) throws SigmaConditionError, SigmaDetectionError, SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
+        return SigmaDetections.fromDict(detectionMap, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static SigmaDetections fromDict(Map<String, Object> detectionMap, int maxExpansionSize) throws SigmaConditionError, SigmaDetectionError, SigmaModifierError, SigmaValueError, SigmaRegularExpressionError {
         List<String> conditionList = new ArrayList<>();
         if (detectionMap.containsKey("condition") && detectionMap.get("condition") instanceof List) {
             conditionList.addAll((List<String>) detectionMap.get("condition"));
@@ -51,7 +56,7 @@ public class SigmaDetections {
         Map<String, SigmaDetection> detections = new HashMap<>();
         for (Map.Entry<String, Object> detection: detectionMap.entrySet()) {
             if (!"condition".equals(detection.getKey())) {
-                detections.put(detection.getKey(), SigmaDetection.fromDefinition(detection.getValue()));
+                detections.put(detection.getKey(), SigmaDetection.fromDefinition(detection.getValue(), maxExpansionSize));
             }
         }
 
@@ -11,6 +11,7 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaIdentifierError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaLevelError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaLogsourceError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaStatusError;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.yaml.snakeyaml.Yaml;
 
 import java.text.SimpleDateFormat;
@@ -84,8 +85,12 @@ public class SigmaRule {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected static SigmaRule fromDict(Map<String, Object> rule, boolean collectErrors) throws SigmaError {
+        return fromDict(rule, collectErrors, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static SigmaRule fromDict(Map<String, Object> rule, boolean collectErrors, int maxExpansionSize) throws SigmaError {
         List<SigmaError> errors = new ArrayList<>();
 
         UUID ruleId;
@@ -142,7 +147,7 @@ public class SigmaRule {
 
         SigmaDetections detections;
         if (rule.containsKey("detection")) {
-            detections = SigmaDetections.fromDict((Map<String, Object>) rule.get("detection"));
+            detections = SigmaDetections.fromDict((Map<String, Object>) rule.get("detection"), maxExpansionSize);
         } else {
             errors.add(new SigmaDetectionError("Sigma rule must have a detection definitions"));
             detections = null;
@@ -167,9 +172,17 @@ public class SigmaRule {
     }
 
     public static SigmaRule fromYaml(String rule, boolean collectErrors) throws SigmaError {
+        return fromYaml(rule, collectErrors, SigmaExpansion.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxExpansionSize most variants a value of the rule may be expanded into by its modifiers, rules with
+     *                         values expanding into more are rejected, see {@link SigmaExpansion}
+     */
+    public static SigmaRule fromYaml(String rule, boolean collectErrors, int maxExpansionSize) throws SigmaError {
         Yaml yaml = new Yaml();
         Map<String, Object> ruleMap = yaml.load(rule);
-        return fromDict(ruleMap, collectErrors);
+        return fromDict(ruleMap, collectErrors, maxExpansionSize);
     }
 
     public String getTitle() {
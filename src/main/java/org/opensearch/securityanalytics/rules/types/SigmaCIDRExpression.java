@@ -4,48 +4,70 @@
  */
 package org.opensearch.securityanalytics.rules.types;
 
+import org.opensearch.common.network.InetAddresses;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaTypeError;
+import org.opensearch.securityanalytics.rules.utils.CidrTrie;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+/**
+ * An IPv4 or IPv6 network in CIDR notation, a plain address is a network of a single address.
+ *
+ * The network is kept in the 128 bit address space of {@link CidrTrie}, where IPv4 addresses are mapped to
+ * {@code ::ffff:0:0/96}.
+ */
 public class SigmaCIDRExpression implements SigmaType {
     private String cidr;
 
+    private byte[] address;
+
+    private int prefixLength;
+
     public SigmaCIDRExpression(String cidr) throws SigmaTypeError {
         this.cidr = cidr;
 
-        if (!isIPv4AddressValid(this.cidr)) {
-            throw new SigmaTypeError("Invalid IPv4 CIDR expression");
+        if (cidr == null) {
+            throw new SigmaTypeError("Invalid CIDR expression");
+        }
+        String[] values = cidr.split("/", -1);
+        if (values.length > 2 || !InetAddresses.isInetAddress(values[0])) {
+            throw new SigmaTypeError("Invalid CIDR expression");
+        }
+
+        this.address = CidrTrie.toBytes(InetAddresses.forString(values[0]));
+        int addressBits = values[0].contains(":")? 128: 32;
+        int prefix = addressBits;
+        if (values.length == 2) {
+            try {
+                prefix = Integer.parseInt(values[1]);
+            } catch (NumberFormatException ex) {
+                throw new SigmaTypeError("Invalid CIDR expression");
+            }
+            if (prefix < 0 || prefix > addressBits) {
+                throw new SigmaTypeError("Invalid CIDR expression");
+            }
         }
+        this.prefixLength = CidrTrie.ADDRESS_BITS - addressBits + prefix;
     }
 
     public String convert() {
         return this.cidr;
     }
 
-    private static boolean isIPv4AddressValid(String cidr) {
-        if (cidr == null) {
-            return false;
-        }
+    public String getCidr() {
+        return cidr;
+    }
 
-        String[] values = cidr.split("/");
-        Pattern ipv4Pattern = Pattern
-                .compile("(([01]?\\d\\d?|2[0-4]\\d|25[0-5])\\.){3}([01]?\\d\\d?|2[0-4]\\d|25[0-5])");
-        Matcher mm = ipv4Pattern.matcher(values[0]);
-        if (!mm.matches()) {
-            return false;
-        }
-        if (values.length >= 2) {
-            int prefix = Integer.parseInt(values[1]);
-            if ((prefix < 0) || (prefix > 32)) {
-                return false;
-            }
-        }
-        return true;
+    /**
+     * The address of the expression as 16 bytes, IPv4 addresses mapped to {@code ::ffff:0:0/96}. The host bits are
+     * kept as written.
+     */
+    public byte[] getAddress() {
+        return address.clone();
     }
 
-    public String getCidr() {
-        return cidr;
+    /**
+     * The prefix length in the 128 bit address space of {@link #getAddress()}.
+     */
+    public int getPrefixLength() {
+        return prefixLength;
     }
-}
\ No newline at end of file
+}
@@ -4,21 +4,179 @@
  */
 package org.opensearch.securityanalytics.rules.types;
 
+import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
+
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * A value expanded into variants, any of which is to be matched.
+ *
+ * Expansions of placeholders (e.g. by the windash modifier) are kept as a template value and the alternatives of each
+ * placeholder, as their number of variants grows exponentially with the number of placeholders. Up to
+ * {@link #MAX_ENUMERATED_VALUES} variants are enumerated, more are matched as a single regular expression, see
+ * {@link #getRegularExpression()}. Enumerating more than the maximum size given by the rule parser, e.g. when another
+ * modifier has to be applied to each of them, is rejected, so a template which cannot be matched as a regular
+ * expression is rejected when the modifier expanding it is applied.
+ */
 public class SigmaExpansion implements SigmaType {
 
+    /**
+     * Most variants of a template matched one by one, i.e. queried as separate clauses.
+     */
+    public static final int MAX_ENUMERATED_VALUES = 4;
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
     private List<SigmaType> values;
 
+    private SigmaString template;
+
+    private Map<String, List<String>> alternatives;
+
+    private SigmaRegularExpression regularExpression;
+
+    private int maxSize;
+
     public SigmaExpansion(List<SigmaType> values) {
         this.values = values;
     }
 
+    private SigmaExpansion(SigmaString template, Map<String, List<String>> alternatives, int maxSize) {
+        this.template = template;
+        this.alternatives = alternatives;
+        this.maxSize = maxSize;
+        if (size() > MAX_ENUMERATED_VALUES) {
+            try {
+                this.regularExpression = new SigmaRegularExpression(toRegexp());
+            } catch (SigmaRegularExpressionError ex) {
+                // too long or complex to be queried as a regular expression, variants are enumerated instead
+                this.regularExpression = null;
+            }
+        }
+    }
+
+    /**
+     * An expansion of the placeholders of a template value into alternative strings.
+     *
+     * @param maxSize most variants the expansion may be enumerated into
+     * @throws SigmaValueError if the variants cannot be matched as a regular expression and there are more than maxSize
+     */
+    public static SigmaExpansion ofTemplate(SigmaString template, Map<String, List<String>> alternatives, int maxSize) throws SigmaValueError {
+        SigmaExpansion expansion = new SigmaExpansion(template, alternatives, maxSize);
+        if (expansion.regularExpression == null) {
+            checkSize(expansion.size(), maxSize);
+        }
+        return expansion;
+    }
+
+    public static void checkSize(long size, int maxSize) throws SigmaValueError {
+        if (size > maxSize) {
+            throw new SigmaValueError(String.format(Locale.getDefault(),
+                    "Value expands into %d variants, more than the maximum of %d", size, maxSize));
+        }
+    }
+
+    public boolean isTemplate() {
+        return template != null;
+    }
+
+    /**
+     * The template value of a template expansion, a copy which can be modified, see {@link #withTemplate(SigmaString)}.
+     */
+    public SigmaString getTemplate() {
+        SigmaString copy = new SigmaString(null);
+        copy.setsOpt(template.getsOpt());
+        return copy;
+    }
+
+    /**
+     * The same expansion of another template, e.g. the template with wildcards added by the contains modifier.
+     */
+    public SigmaExpansion withTemplate(SigmaString template) throws SigmaValueError {
+        return ofTemplate(template, alternatives, maxSize);
+    }
+
+    /**
+     * Number of variants, computed without enumerating them.
+     */
+    public long size() {
+        if (!isTemplate()) {
+            return values.size();
+        }
+        long size = 1L;
+        for (AnyOneOf<String, Character, Placeholder> sOptElem: template.getsOpt()) {
+            if (sOptElem.isRight() && alternatives.containsKey(sOptElem.get().getName())) {
+                int placeholderAlternatives = alternatives.get(sOptElem.get().getName()).size();
+                size = size > Long.MAX_VALUE / Math.max(placeholderAlternatives, 1)? Long.MAX_VALUE: size * placeholderAlternatives;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The variants as a single regular expression, or null if the variants are to be matched one by one.
+     */
+    public SigmaRegularExpression getRegularExpression() {
+        return regularExpression;
+    }
+
     public void setValues(List<SigmaType> values) {
         this.values = values;
+        this.template = null;
+        this.alternatives = null;
+        this.regularExpression = null;
     }
 
-    public List<SigmaType> getValues() {
+    /**
+     * The variants, enumerated on first use.
+     *
+     * @throws SigmaValueError if there are more variants than the maximum expansion size
+     */
+    public List<SigmaType> getValues() throws SigmaValueError {
+        if (values == null) {
+            checkSize(size(), maxSize);
+            Function<Placeholder, List<AnyOneOf<String, Character, Placeholder>>> callback = p -> {
+                if (alternatives.containsKey(p.getName())) {
+                    return alternatives.get(p.getName()).stream().map(AnyOneOf::<String, Character, Placeholder>leftVal).collect(Collectors.toList());
+                }
+                return List.of(AnyOneOf.rightVal(p));
+            };
+            values = template.replacePlaceholders(callback).stream()
+                    .map(s -> (SigmaType) new SigmaString(s.toString().replace(" ", "_ws_")))
+                    .collect(Collectors.toList());
+        }
         return values;
     }
-}
\ No newline at end of file
+
+    private String toRegexp() {
+        StringBuilder regexp = new StringBuilder();
+        for (AnyOneOf<String, Character, Placeholder> sOptElem: template.getsOpt()) {
+            if (sOptElem.isLeft()) {
+                regexp.append(RegexAutomata.quote(sOptElem.getLeft()));
+            } else if (sOptElem.isMiddle() && sOptElem.getMiddle() == SigmaString.SpecialChars.WILDCARD_MULTI) {
+                regexp.append(".*");
+            } else if (sOptElem.isMiddle() && sOptElem.getMiddle() == SigmaString.SpecialChars.WILDCARD_SINGLE) {
+                regexp.append('.');
+            } else if (sOptElem.isMiddle()) {
+                regexp.append(RegexAutomata.quote(String.valueOf(sOptElem.getMiddle())));
+            } else if (alternatives.containsKey(sOptElem.get().getName())) {
+                List<String> placeholderAlternatives = alternatives.get(sOptElem.get().getName());
+                if (placeholderAlternatives.stream().allMatch(alternative -> alternative.length() == 1)) {
+                    regexp.append('[').append(placeholderAlternatives.stream().map(RegexAutomata::quote).collect(Collectors.joining())).append(']');
+                } else {
+                    regexp.append('(').append(placeholderAlternatives.stream().map(RegexAutomata::quote).collect(Collectors.joining("|"))).append(')');
+                }
+            } else {
+                regexp.append(RegexAutomata.quote(sOptElem.get().getName()));
+            }
+        }
+        return regexp.toString();
+    }
+}
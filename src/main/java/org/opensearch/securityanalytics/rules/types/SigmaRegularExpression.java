@@ -5,6 +5,7 @@
 package org.opensearch.securityanalytics.rules.types;
 
 import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,12 +21,21 @@ public class SigmaRegularExpression implements SigmaType {
         this.compile();
     }
 
+    /**
+     * Validates the expression, and rejects expressions too long or too complex to run as regexp queries.
+     */
     public void compile() throws SigmaRegularExpressionError {
         try {
             Pattern.compile(this.regexp);
         } catch (Exception ex) {
             throw new SigmaRegularExpressionError("Regular expression '" + this.regexp + "' is invalid: " + ex.getMessage());
         }
+
+        try {
+            RegexAutomata.checkQueryComplexity(this.regexp);
+        } catch (IllegalArgumentException ex) {
+            throw new SigmaRegularExpressionError("Regular expression '" + this.regexp + "' is rejected: " + ex.getMessage());
+        }
     }
 
     public String escape(List<String> escaped, String escapeChar) {
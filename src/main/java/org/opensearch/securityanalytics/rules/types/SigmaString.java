@@ -8,16 +8,23 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
 import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
 import org.opensearch.securityanalytics.rules.utils.Either;
 
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * A Sigma string value with wildcards and placeholders.
+ *
+ * The value is stored as a single char array plus a sorted table of the positions which hold a special character
+ * (a wildcard) or a placeholder, instead of a list of segments, so that building, modifying and converting the
+ * values of large rule sets does not allocate an object per segment. {@link #getsOpt()} still exposes the value as
+ * a list of plain string, special character and placeholder segments, with adjacent plain strings always merged.
+ */
 public class SigmaString implements SigmaType {
 
     public class SpecialChars {
@@ -26,9 +33,28 @@ public class SigmaString implements SigmaType {
         public static final char ESCAPE_CHAR = '\\';
     }
 
+    private static final char[] EMPTY_CHARS = new char[0];
+
+    private static final int[] EMPTY_SPECIALS = new int[0];
+
+    private static final char PLACEHOLDER_CHAR = '\0';
+
     private String original;
 
-    private List<AnyOneOf<String, Character, Placeholder>> sOpt;
+    /**
+     * Plain characters and special characters of the value, placeholders take one (unused) char.
+     */
+    private char[] chars;
+
+    /**
+     * Sorted positions of the special characters and placeholders in {@link #chars}.
+     */
+    private int[] specials;
+
+    /**
+     * Placeholders by index into {@link #specials}, null as long as the value has no placeholders.
+     */
+    private Placeholder[] placeholders;
 
     public SigmaString(String s) {
         if (s == null) {
@@ -39,105 +65,95 @@ public class SigmaString implements SigmaType {
         this.original = s;
         int sLen = s.length();
 
-        List<AnyOneOf<String, Character, Placeholder>> r = new ArrayList<>();
-        StringBuilder acc = new StringBuilder();
+        int wildcards = 0;
+        for (int i = 0; i < sLen; i++) {
+            if (s.charAt(i) == SpecialChars.WILDCARD_MULTI || s.charAt(i) == SpecialChars.WILDCARD_SINGLE) {
+                ++wildcards;
+            }
+        }
+
+        char[] chars = new char[sLen + 1];
+        int[] specials = wildcards == 0? EMPTY_SPECIALS: new int[wildcards];
+        int len = 0;
+        int specialsLen = 0;
         boolean escaped = false;
         for (int i = 0; i < sLen; i++) {
+            char c = s.charAt(i);
             if (escaped) {
-                if (s.charAt(i) == SpecialChars.WILDCARD_MULTI || s.charAt(i) == SpecialChars.WILDCARD_SINGLE
-                    || s.charAt(i) == SpecialChars.ESCAPE_CHAR) {
-                    acc.append(s.charAt(i));
-                } else {
-                    acc.append(SpecialChars.ESCAPE_CHAR).append(s.charAt(i));
+                if (c != SpecialChars.WILDCARD_MULTI && c != SpecialChars.WILDCARD_SINGLE && c != SpecialChars.ESCAPE_CHAR) {
+                    chars[len++] = SpecialChars.ESCAPE_CHAR;
                 }
+                chars[len++] = c;
                 escaped = false;
-            } else if (s.charAt(i) == SpecialChars.ESCAPE_CHAR) {
+            } else if (c == SpecialChars.ESCAPE_CHAR) {
                 escaped = true;
             } else {
-                if (s.charAt(i) == SpecialChars.WILDCARD_MULTI || s.charAt(i) == SpecialChars.WILDCARD_SINGLE) {
-                    if (!acc.toString().equals("")) {
-                        r.add(AnyOneOf.leftVal(acc.toString()));
-                    }
-
-                    switch (s.charAt(i)) {
-                        case SpecialChars.WILDCARD_MULTI:
-                            r.add(AnyOneOf.middleVal(SpecialChars.WILDCARD_MULTI));
-                            break;
-                        case SpecialChars.WILDCARD_SINGLE:
-                            r.add(AnyOneOf.middleVal(SpecialChars.WILDCARD_SINGLE));
-                    }
-                    acc = new StringBuilder();
-                } else {
-                    acc.append(s.charAt(i));
+                if (c == SpecialChars.WILDCARD_MULTI || c == SpecialChars.WILDCARD_SINGLE) {
+                    specials[specialsLen++] = len;
                 }
+                chars[len++] = c;
             }
         }
 
         if (escaped) {
-            acc.append(SpecialChars.ESCAPE_CHAR);
-        }
-        if (!acc.toString().equals("")) {
-            r.add(AnyOneOf.leftVal(acc.toString()));
+            chars[len++] = SpecialChars.ESCAPE_CHAR;
         }
 
-        this.sOpt = r;
+        this.chars = len == 0? EMPTY_CHARS: Arrays.copyOf(chars, len);
+        this.specials = specialsLen == specials.length? specials: Arrays.copyOf(specials, specialsLen);
+        this.placeholders = null;
     }
 
+    /**
+     * Adjacent plain strings are always kept merged, this only exists for API compatibility.
+     */
     public void mergeStrings() {
-        List<AnyOneOf<String, Character, Placeholder>> mergedOpts = new ArrayList<>();
-
-        int size = this.sOpt.size();
-        for (int i = 0; i < size; ++i) {
-            int mSize = mergedOpts.size();
-            if (mSize > 0 && mergedOpts.get(mSize-1).isLeft() && this.sOpt.get(i).isLeft()) {
-                mergedOpts.set(mSize-1, AnyOneOf.leftVal(mergedOpts.get(mSize-1).getLeft() + this.sOpt.get(i).getLeft()));
-            } else {
-                mergedOpts.add(this.sOpt.get(i));
-            }
-        }
-        this.sOpt = mergedOpts;
     }
 
     public SigmaString append(AnyOneOf<String, Character, Placeholder> other) {
-        this.sOpt.add(other);
-        this.mergeStrings();
+        SegmentsBuilder builder = new SegmentsBuilder(this.chars.length + 1);
+        builder.add(this);
+        builder.add(other);
+        builder.build(this);
         return this;
     }
 
     public SigmaString prepend(AnyOneOf<String, Character, Placeholder> other) {
-        this.sOpt.add(0, other);
-        this.mergeStrings();
+        SegmentsBuilder builder = new SegmentsBuilder(this.chars.length + 1);
+        builder.add(other);
+        builder.add(this);
+        builder.build(this);
         return this;
     }
 
     public int length() {
-        int sum = 0;
-        for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isLeft()) {
-                sum += sOptElem.getLeft().length();
-            } else {
-                ++sum;
-            }
-        }
-        return sum;
+        return chars.length;
     }
 
     public boolean startsWith(Either<String, Character> val) {
-        AnyOneOf<String, Character, Placeholder> c = this.sOpt.get(0);
+        if (chars.length == 0) {
+            return false;
+        }
         if (val.isLeft()) {
-            return c.isLeft() && c.getLeft().startsWith(val.getLeft());
+            String prefix = val.getLeft();
+            return !isSpecial(0) && prefix.length() <= plainRunEnd(0) && regionMatches(0, prefix);
         } else if (val.isRight()) {
-            return c.isMiddle() && c.getMiddle() == val.get();
+            return isSpecialChar(0) && chars[0] == val.get();
         }
         return false;
     }
 
     public boolean endsWith(Either<String, Character> val) {
-        AnyOneOf<String, Character, Placeholder> c = this.sOpt.get(this.sOpt.size()-1);
+        int last = chars.length - 1;
+        if (last < 0) {
+            return false;
+        }
         if (val.isLeft()) {
-            return c.isLeft() && c.getLeft().endsWith(val.getLeft());
+            String suffix = val.getLeft();
+            int start = chars.length - suffix.length();
+            return !isSpecial(last) && start >= plainRunStart(last) && regionMatches(start, suffix);
         } else if (val.isRight()) {
-            return c.isMiddle() && c.getMiddle() == val.get();
+            return isSpecialChar(last) && chars[last] == val.get();
         }
         return false;
     }
@@ -147,124 +163,122 @@ public class SigmaString implements SigmaType {
     }
 
     public boolean containsSpecial() {
-        for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isMiddle() && (sOptElem.getMiddle() == SpecialChars.ESCAPE_CHAR || sOptElem.getMiddle() == SpecialChars.WILDCARD_MULTI
-                || sOptElem.getMiddle() == SpecialChars.WILDCARD_SINGLE)) {
-                return true;
+        for (int idx = 0; idx < specials.length; ++idx) {
+            if (!isPlaceholder(idx)) {
+                char c = chars[specials[idx]];
+                if (c == SpecialChars.ESCAPE_CHAR || c == SpecialChars.WILDCARD_MULTI || c == SpecialChars.WILDCARD_SINGLE) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
     public boolean containsWildcard() {
-        for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isMiddle() && (sOptElem.getMiddle() == SpecialChars.WILDCARD_MULTI
-                    || sOptElem.getMiddle() == SpecialChars.WILDCARD_SINGLE)) {
-                return true;
+        for (int idx = 0; idx < specials.length; ++idx) {
+            if (!isPlaceholder(idx)) {
+                char c = chars[specials[idx]];
+                if (c == SpecialChars.WILDCARD_MULTI || c == SpecialChars.WILDCARD_SINGLE) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
     public String convert(String escapeChar, String wildcardMulti, String wildcardSingle, String addEscaped, String addReserved, String filterChars) throws SigmaValueError {
-        StringBuilder s = new StringBuilder();
-        Set<Character> escapedChars = new HashSet<>();
-
-        if (wildcardMulti != null) {
-            for (Character c: wildcardMulti.toCharArray()) {
-                escapedChars.add(c);
-            }
-        }
-        if (wildcardSingle != null) {
-            for (Character c: wildcardSingle.toCharArray()) {
-                escapedChars.add(c);
-            }
-        }
-        if (addEscaped != null) {
-            for (Character c: addEscaped.toCharArray()) {
-                escapedChars.add(c);
-            }
-        }
+        return this.convert(escapeChar, wildcardMulti, wildcardSingle, addEscaped, addReserved, filterChars, true);
+    }
 
-        for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isLeft()) {
-                if (Arrays.stream(addReserved.split(" ")).anyMatch(s1 -> s1.equals(sOptElem.getLeft()))) {
-                    s.append(escapeChar);
-                    s.append(sOptElem.getLeft());
+    public String convert(String escapeChar, String wildcardMulti, String wildcardSingle, String addEscaped, String addReserved, String filterChars,
+                          boolean encodeWhitespace) throws SigmaValueError {
+        StringBuilder s = new StringBuilder(chars.length + 8);
+
+        int pos = 0;
+        for (int idx = 0; idx <= specials.length; ++idx) {
+            int end = idx < specials.length? specials[idx]: chars.length;
+            if (pos < end) {
+                if (isReserved(addReserved, pos, end)) {
+                    append(s, escapeChar, encodeWhitespace);
+                    append(s, chars, pos, end, encodeWhitespace);
                 } else {
-                    for (Character c : sOptElem.getLeft().toCharArray()) {
-                        if (filterChars.contains(String.valueOf(c))) {
+                    for (int i = pos; i < end; ++i) {
+                        char c = chars[i];
+                        if (filterChars.indexOf(c) >= 0) {
                             continue;
                         }
-                        if (escapedChars.contains(c)) {
-                            s.append(escapeChar);
+                        if (contains(wildcardMulti, c) || contains(wildcardSingle, c) || contains(addEscaped, c)) {
+                            append(s, escapeChar, encodeWhitespace);
                         }
-                        s.append(c);
+                        append(s, c, encodeWhitespace);
                     }
                 }
-            } else if (sOptElem.getMiddle() != null) {
-                Character c = sOptElem.getMiddle();
+            }
+            if (idx == specials.length) {
+                break;
+            }
+
+            if (!isPlaceholder(idx)) {
+                char c = chars[end];
                 if (c == SpecialChars.WILDCARD_MULTI) {
                     if (wildcardMulti != null) {
-                        s.append(wildcardMulti);
+                        append(s, wildcardMulti, encodeWhitespace);
                     } else {
                         throw new SigmaValueError("Multi-character wildcard not specified for conversion");
                     }
                 } else if (c == SpecialChars.WILDCARD_SINGLE) {
                     if (wildcardSingle != null) {
-                        s.append(wildcardSingle);
+                        append(s, wildcardSingle, encodeWhitespace);
                     } else {
                         throw new SigmaValueError("Single-character wildcard not specified for conversion");
                     }
                 }
             }
+            pos = end + 1;
         }
-        return s.toString().replace(" ", "_ws_");
+        return s.toString();
     }
 
     public SigmaString replaceWithPlaceholder(Pattern regex, String placeholderName) {
-        List<AnyOneOf<String, Character, Placeholder>> result = new ArrayList<>();
-
-        for (AnyOneOf<String, Character, Placeholder> elem: this.sOpt) {
-            if (elem.isLeft()) {
-                String elemStr = elem.getLeft();
-                boolean matched = false;
-
-                int idx = 0;
-                Matcher matcher = regex.matcher(elemStr);
+        SegmentsBuilder builder = new SegmentsBuilder(chars.length);
+
+        int pos = 0;
+        for (int idx = 0; idx <= specials.length; ++idx) {
+            int end = idx < specials.length? specials[idx]: chars.length;
+            if (pos < end) {
+                int plainPos = pos;
+                Matcher matcher = regex.matcher(CharBuffer.wrap(chars, pos, end - pos));
                 while (matcher.find()) {
-                    matched = true;
-
-                    String sElem = elemStr.substring(idx, matcher.start());
-                    if (!sElem.isEmpty()) {
-                        result.add(AnyOneOf.leftVal(sElem));
-                    }
-                    result.add(AnyOneOf.rightVal(new Placeholder(placeholderName)));
-                    idx = matcher.end();
+                    builder.addPlain(chars, plainPos, pos + matcher.start());
+                    builder.addPlaceholder(new Placeholder(placeholderName));
+                    plainPos = pos + matcher.end();
                 }
+                builder.addPlain(chars, plainPos, end);
+            }
+            if (idx == specials.length) {
+                break;
+            }
 
-                if (matched) {
-                    String sElem = elemStr.substring(idx);
-                    if (!sElem.isEmpty()) {
-                        result.add(AnyOneOf.leftVal(sElem));
-                    }
-                } else {
-                    result.add(elem);
-                }
+            if (isPlaceholder(idx)) {
+                builder.addPlaceholder(placeholders[idx]);
             } else {
-                result.add(elem);
+                builder.addSpecial(chars[end]);
             }
+            pos = end + 1;
         }
 
         SigmaString sStr = new SigmaString(null);
-        sStr.setsOpt(result);
+        builder.build(sStr);
         return sStr;
     }
 
     public boolean containsPlaceholder(List<String> include, List<String> exclude) {
-        for (AnyOneOf<String, Character, Placeholder> elem: this.sOpt) {
-            if (elem.isRight() && (include == null || include.contains(elem.get().getName())) &&
-                    (exclude == null || !exclude.contains(elem.get().getName()))) {
+        if (placeholders == null) {
+            return false;
+        }
+        for (Placeholder placeholder: placeholders) {
+            if (placeholder != null && (include == null || include.contains(placeholder.getName())) &&
+                    (exclude == null || !exclude.contains(placeholder.getName()))) {
                 return true;
             }
         }
@@ -276,96 +290,307 @@ public class SigmaString implements SigmaType {
             return List.of(this);
         }
 
-        List<SigmaString> results = new ArrayList<>();
-        List<AnyOneOf<String, Character, Placeholder>> s = this.getsOpt();
-        int size = s.size();
-        for (int idx = 0; idx < size; ++idx) {
-            if (s.get(idx).isRight()) {
-                SigmaString prefix = new SigmaString(null);
-
-                List<AnyOneOf<String, Character, Placeholder>> presOpt = new ArrayList<>();
-                for (int preIdx = 0; preIdx < idx; ++preIdx) {
-                    presOpt.add(s.get(preIdx));
-                }
-                prefix.setsOpt(presOpt);
-
-                Placeholder placeholder = s.get(idx).get();
-
-                SigmaString suffix = new SigmaString(null);
-
-                List<AnyOneOf<String, Character, Placeholder>> sufsOpt = new ArrayList<>();
-                for (int sufIdx = idx + 1; sufIdx < size; ++sufIdx) {
-                    sufsOpt.add(s.get(sufIdx));
-                }
-                suffix.setsOpt(sufsOpt);
+        int idx = 0;
+        while (!isPlaceholder(idx)) {
+            ++idx;
+        }
+        int placeholderPos = specials[idx];
+        Placeholder placeholder = placeholders[idx];
 
-                for (SigmaString resultSuffix: suffix.replacePlaceholders(callback)) {
-                    for (AnyOneOf<String, Character, Placeholder> replacement: callback.apply(placeholder)) {
-                        SigmaString tempSuffix = new SigmaString(null);
-                        tempSuffix.setsOpt(resultSuffix.getsOpt());
+        SigmaString suffix = new SigmaString(null);
+        SegmentsBuilder suffixBuilder = new SegmentsBuilder(chars.length - placeholderPos);
+        suffixBuilder.add(this, placeholderPos + 1, chars.length);
+        suffixBuilder.build(suffix);
 
-                        tempSuffix.prepend(replacement);
-                        prefix.getsOpt().forEach(tempSuffix::prepend);
-                        results.add(tempSuffix);
-                    }
-                }
-                return results;
+        List<SigmaString> results = new ArrayList<>();
+        for (SigmaString resultSuffix: suffix.replacePlaceholders(callback)) {
+            for (AnyOneOf<String, Character, Placeholder> replacement: callback.apply(placeholder)) {
+                SegmentsBuilder builder = new SegmentsBuilder(placeholderPos + resultSuffix.chars.length + 1);
+                builder.add(this, 0, placeholderPos);
+                builder.add(replacement);
+                builder.add(resultSuffix);
+
+                SigmaString result = new SigmaString(null);
+                builder.build(result);
+                results.add(result);
             }
         }
         return results;
     }
 
+    /**
+     * The value as a list of plain string, special character and placeholder segments. The list is built on every
+     * call, changes to it are not reflected in the value, use {@link #setsOpt(List)} instead.
+     */
     public List<AnyOneOf<String, Character, Placeholder>> getsOpt() {
+        List<AnyOneOf<String, Character, Placeholder>> sOpt = new ArrayList<>(2 * specials.length + 1);
+
+        int pos = 0;
+        for (int idx = 0; idx <= specials.length; ++idx) {
+            int end = idx < specials.length? specials[idx]: chars.length;
+            if (pos < end) {
+                sOpt.add(AnyOneOf.leftVal(new String(chars, pos, end - pos)));
+            }
+            if (idx == specials.length) {
+                break;
+            }
+
+            if (isPlaceholder(idx)) {
+                sOpt.add(AnyOneOf.rightVal(placeholders[idx]));
+            } else {
+                sOpt.add(AnyOneOf.middleVal(chars[end]));
+            }
+            pos = end + 1;
+        }
         return sOpt;
     }
 
     public void setsOpt(List<AnyOneOf<String, Character, Placeholder>> sOpt) {
-        this.sOpt = new ArrayList<>();
+        SegmentsBuilder builder = new SegmentsBuilder(16);
         for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isLeft()) {
-                this.sOpt.add(AnyOneOf.leftVal(sOptElem.getLeft()));
-            } else if (sOptElem.isMiddle()) {
-                this.sOpt.add(AnyOneOf.middleVal(sOptElem.getMiddle()));
-            } else {
-                this.sOpt.add(AnyOneOf.rightVal(sOptElem.get()));
-            }
+            builder.add(sOptElem);
         }
+        builder.build(this);
     }
 
     public String getOriginal() {
         return original;
     }
 
+    private boolean isPlaceholder(int specialIdx) {
+        return placeholders != null && placeholders[specialIdx] != null;
+    }
+
+    private boolean isSpecial(int pos) {
+        return Arrays.binarySearch(specials, pos) >= 0;
+    }
+
+    private boolean isSpecialChar(int pos) {
+        int idx = Arrays.binarySearch(specials, pos);
+        return idx >= 0 && !isPlaceholder(idx);
+    }
+
+    /**
+     * End (exclusive) of the plain string run which contains the given plain position.
+     */
+    private int plainRunEnd(int pos) {
+        int idx = Arrays.binarySearch(specials, pos);
+        int next = -idx - 1;
+        return next < specials.length? specials[next]: chars.length;
+    }
+
+    /**
+     * Start of the plain string run which contains the given plain position.
+     */
+    private int plainRunStart(int pos) {
+        int idx = Arrays.binarySearch(specials, pos);
+        int previous = -idx - 2;
+        return previous >= 0? specials[previous] + 1: 0;
+    }
+
+    private boolean regionMatches(int start, String other) {
+        return start >= 0 && regionMatches(start, other, 0, other.length());
+    }
+
+    private boolean regionMatches(int start, String other, int otherStart, int otherEnd) {
+        for (int i = otherStart; i < otherEnd; ++i) {
+            if (chars[start + i - otherStart] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the plain string run {@code [start, end)} equals one of the space separated reserved words.
+     */
+    private boolean isReserved(String addReserved, int start, int end) {
+        if (addReserved == null) {
+            return false;
+        }
+        int wordStart = 0;
+        int len = addReserved.length();
+        for (int i = 0; i <= len; ++i) {
+            if (i == len || addReserved.charAt(i) == ' ') {
+                if (i - wordStart == end - start && regionMatches(start, addReserved, wordStart, i)) {
+                    return true;
+                }
+                wordStart = i + 1;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(String chars, char c) {
+        return chars != null && chars.indexOf(c) >= 0;
+    }
+
+    private static void append(StringBuilder s, char c, boolean encodeWhitespace) {
+        if (encodeWhitespace && c == ' ') {
+            s.append("_ws_");
+        } else {
+            s.append(c);
+        }
+    }
+
+    private static void append(StringBuilder s, String str, boolean encodeWhitespace) {
+        for (int i = 0; i < str.length(); ++i) {
+            append(s, str.charAt(i), encodeWhitespace);
+        }
+    }
+
+    private static void append(StringBuilder s, char[] chars, int start, int end, boolean encodeWhitespace) {
+        for (int i = start; i < end; ++i) {
+            append(s, chars[i], encodeWhitespace);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         SigmaString that = (SigmaString) o;
+        return Arrays.equals(chars, that.chars) && Arrays.equals(specials, that.specials) &&
+                Arrays.equals(placeholderNames(), that.placeholderNames());
+    }
 
-        if (sOpt.size() != that.sOpt.size()) {
-            return false;
-        }
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(chars) + Arrays.hashCode(specials);
+    }
 
-        for (int idx = 0; idx < sOpt.size(); ++idx) {
-            if ((sOpt.get(idx).isLeft() && !that.sOpt.get(idx).isLeft()) ||
-                    (sOpt.get(idx).isMiddle() && !that.sOpt.get(idx).isMiddle()) ||
-                    (sOpt.get(idx).isRight() && !that.sOpt.get(idx).isRight())) {
-                return false;
-            }
+    private String[] placeholderNames() {
+        if (placeholders == null) {
+            return null;
         }
-        return true;
+        String[] names = new String[placeholders.length];
+        for (int idx = 0; idx < placeholders.length; ++idx) {
+            names[idx] = placeholders[idx] != null? placeholders[idx].getName(): null;
+        }
+        return names;
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (AnyOneOf<String, Character, Placeholder> sOptElem: sOpt) {
-            if (sOptElem.isLeft()) {
-                sb.append(sOptElem.getLeft());
-            } else if (sOptElem.isMiddle()) {
-                sb.append(sOptElem.getMiddle());
+        StringBuilder sb = new StringBuilder(chars.length);
+        int pos = 0;
+        for (int idx = 0; idx <= specials.length; ++idx) {
+            int end = idx < specials.length? specials[idx]: chars.length;
+            append(sb, chars, pos, end, true);
+            if (idx == specials.length) {
+                break;
             }
+            if (!isPlaceholder(idx)) {
+                append(sb, chars[end], true);
+            }
+            pos = end + 1;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Accumulates segments into the compact representation of a {@link SigmaString}.
+     */
+    private static class SegmentsBuilder {
+
+        private char[] chars;
+
+        private int len;
+
+        private int[] specials = EMPTY_SPECIALS;
+
+        private Placeholder[] placeholders;
+
+        private int specialsLen;
+
+        SegmentsBuilder(int capacity) {
+            this.chars = new char[Math.max(capacity, 1)];
+        }
+
+        void add(AnyOneOf<String, Character, Placeholder> segment) {
+            if (segment.isLeft()) {
+                String str = segment.getLeft();
+                ensureCapacity(str.length());
+                str.getChars(0, str.length(), chars, len);
+                len += str.length();
+            } else if (segment.isMiddle()) {
+                addSpecial(segment.getMiddle());
+            } else {
+                addPlaceholder(segment.get());
+            }
+        }
+
+        void add(SigmaString s) {
+            add(s, 0, s.chars.length);
+        }
+
+        /**
+         * Adds the positions {@code [start, end)} of a value, specials included.
+         */
+        void add(SigmaString s, int start, int end) {
+            int pos = start;
+            int idx = Arrays.binarySearch(s.specials, start);
+            if (idx < 0) {
+                idx = -idx - 1;
+            }
+            for (; idx < s.specials.length && s.specials[idx] < end; ++idx) {
+                int special = s.specials[idx];
+                addPlain(s.chars, pos, special);
+                if (s.isPlaceholder(idx)) {
+                    addPlaceholder(s.placeholders[idx]);
+                } else {
+                    addSpecial(s.chars[special]);
+                }
+                pos = special + 1;
+            }
+            addPlain(s.chars, pos, end);
+        }
+
+        void addPlain(char[] src, int start, int end) {
+            if (start < end) {
+                ensureCapacity(end - start);
+                System.arraycopy(src, start, chars, len, end - start);
+                len += end - start;
+            }
+        }
+
+        void addSpecial(char c) {
+            addSpecialPosition(null);
+            chars[len++] = c;
+        }
+
+        void addPlaceholder(Placeholder placeholder) {
+            addSpecialPosition(placeholder);
+            chars[len++] = PLACEHOLDER_CHAR;
+        }
+
+        private void addSpecialPosition(Placeholder placeholder) {
+            ensureCapacity(1);
+            if (specialsLen == specials.length) {
+                specials = Arrays.copyOf(specials, Math.max(4, 2 * specialsLen));
+                if (placeholders != null) {
+                    placeholders = Arrays.copyOf(placeholders, specials.length);
+                }
+            }
+            if (placeholder != null && placeholders == null) {
+                placeholders = new Placeholder[specials.length];
+            }
+            if (placeholders != null) {
+                placeholders[specialsLen] = placeholder;
+            }
+            specials[specialsLen++] = len;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (len + additional > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(len + additional, 2 * chars.length));
+            }
+        }
+
+        void build(SigmaString s) {
+            s.chars = len == 0? EMPTY_CHARS: Arrays.copyOf(chars, len);
+            s.specials = specialsLen == 0? EMPTY_SPECIALS: Arrays.copyOf(specials, specialsLen);
+            s.placeholders = placeholders == null? null: Arrays.copyOf(placeholders, specialsLen);
         }
-        return sb.toString().replace(" ", "_ws_");
     }
 }
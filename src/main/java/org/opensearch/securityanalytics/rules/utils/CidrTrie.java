@@ -0,0 +1,229 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.utils;
+
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary prefix trie over a set of IPv4 and IPv6 networks.
+ *
+ * All addresses live in one 128 bit address space, IPv4 addresses are mapped to {@code ::ffff:0:0/96} like the
+ * {@code ip} field type does. Networks are merged as they are added: networks covered by another network are dropped,
+ * and two halves of a network are replaced by the network, so the trie always holds the fewest networks covering the
+ * added ones. Membership is answered in at most 128 steps, independent of the number of networks.
+ */
+public class CidrTrie {
+
+    public static final int ADDRESS_BITS = 128;
+
+    private static final byte[] IPV4_MAPPED_PREFIX = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff};
+
+    private static class Node {
+        private Node zero;
+        private Node one;
+        private boolean network;
+    }
+
+    private final Node root = new Node();
+
+    public void add(SigmaCIDRExpression cidr) {
+        add(cidr.getAddress(), cidr.getPrefixLength());
+    }
+
+    public void add(byte[] address, int prefixLength) {
+        add(root, address, 0, prefixLength);
+    }
+
+    /**
+     * @return whether the node is a network after adding
+     */
+    private static boolean add(Node node, byte[] address, int depth, int prefixLength) {
+        if (node.network) {
+            return true;
+        }
+        if (depth == prefixLength) {
+            node.network = true;
+            node.zero = null;
+            node.one = null;
+            return true;
+        }
+
+        boolean one = bit(address, depth);
+        Node child = one? node.one: node.zero;
+        if (child == null) {
+            child = new Node();
+            if (one) {
+                node.one = child;
+            } else {
+                node.zero = child;
+            }
+        }
+
+        if (add(child, address, depth + 1, prefixLength) && node.zero != null && node.zero.network && node.one != null && node.one.network) {
+            node.network = true;
+            node.zero = null;
+            node.one = null;
+        }
+        return node.network;
+    }
+
+    public boolean isEmpty() {
+        return !root.network && root.zero == null && root.one == null;
+    }
+
+    public boolean contains(byte[] address) {
+        Node node = root;
+        for (int depth = 0; node != null; ++depth) {
+            if (node.network) {
+                return true;
+            }
+            node = bit(address, depth)? node.one: node.zero;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the value is an IP address of one of the networks, false if it isn't an IP address.
+     */
+    public boolean contains(String value) {
+        if (!InetAddresses.isInetAddress(value)) {
+            return false;
+        }
+        return contains(toBytes(InetAddresses.forString(value)));
+    }
+
+    /**
+     * The networks of the trie as the fewest address ranges, in ascending order. Adjacent networks which don't
+     * form a network together end up in one range.
+     */
+    public List<Range> ranges() {
+        List<Range> ranges = new ArrayList<>();
+        collectRanges(root, new byte[16], 0, ranges);
+        return ranges;
+    }
+
+    private static void collectRanges(Node node, byte[] prefix, int depth, List<Range> ranges) {
+        if (node.network) {
+            byte[] from = prefix.clone();
+            byte[] to = prefix.clone();
+            for (int bit = depth; bit < ADDRESS_BITS; ++bit) {
+                to[bit / 8] |= (byte) (0x80 >>> (bit % 8));
+            }
+
+            Range last = ranges.isEmpty()? null: ranges.get(ranges.size() - 1);
+            if (last != null && Arrays.equals(increment(last.to), from)) {
+                ranges.set(ranges.size() - 1, new Range(last.from, to, -1));
+            } else {
+                ranges.add(new Range(from, to, depth));
+            }
+            return;
+        }
+
+        if (node.zero != null) {
+            collectRanges(node.zero, prefix, depth + 1, ranges);
+        }
+        if (node.one != null) {
+            prefix[depth / 8] |= (byte) (0x80 >>> (depth % 8));
+            collectRanges(node.one, prefix, depth + 1, ranges);
+            prefix[depth / 8] &= (byte) ~(0x80 >>> (depth % 8));
+        }
+    }
+
+    /**
+     * An inclusive range of addresses, which is a single network if it has a prefix length.
+     */
+    public static class Range {
+        private final byte[] from;
+        private final byte[] to;
+        private final int prefixLength;
+
+        private Range(byte[] from, byte[] to, int prefixLength) {
+            this.from = from;
+            this.to = to;
+            this.prefixLength = prefixLength;
+        }
+
+        public boolean isNetwork() {
+            return prefixLength >= 0;
+        }
+
+        public String getFrom() {
+            return format(from);
+        }
+
+        public String getTo() {
+            return format(to);
+        }
+
+        /**
+         * The range in CIDR notation, only defined for networks. IPv4 networks are written as IPv4 networks.
+         */
+        public String getCidr() {
+            if (!isNetwork()) {
+                throw new IllegalStateException("Address range " + this + " is not a network");
+            }
+            return format(from) + "/" + (isIPv4(from) && prefixLength >= ADDRESS_BITS - 32? prefixLength - (ADDRESS_BITS - 32): prefixLength);
+        }
+
+        @Override
+        public String toString() {
+            return isNetwork()? getCidr(): getFrom() + "-" + getTo();
+        }
+    }
+
+    /**
+     * An address as 16 bytes, IPv4 addresses mapped to {@code ::ffff:0:0/96}.
+     */
+    public static byte[] toBytes(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        if (bytes.length == 16) {
+            return bytes;
+        }
+        byte[] mapped = Arrays.copyOf(IPV4_MAPPED_PREFIX, 16);
+        System.arraycopy(bytes, 0, mapped, 12, 4);
+        return mapped;
+    }
+
+    private static String format(byte[] address) {
+        try {
+            InetAddress inetAddress = isIPv4(address)?
+                    Inet4Address.getByAddress(Arrays.copyOfRange(address, 12, 16)): InetAddress.getByAddress(address);
+            return InetAddresses.toAddrString(inetAddress);
+        } catch (UnknownHostException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    private static boolean isIPv4(byte[] address) {
+        for (int idx = 0; idx < IPV4_MAPPED_PREFIX.length; ++idx) {
+            if (address[idx] != IPV4_MAPPED_PREFIX[idx]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean bit(byte[] address, int bit) {
+        return (address[bit / 8] & (0x80 >>> (bit % 8))) != 0;
+    }
+
+    private static byte[] increment(byte[] address) {
+        byte[] next = address.clone();
+        for (int idx = next.length - 1; idx >= 0; --idx) {
+            if (++next[idx] != 0) {
+                break;
+            }
+        }
+        return next;
+    }
+}
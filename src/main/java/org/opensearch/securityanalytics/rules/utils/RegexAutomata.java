@@ -0,0 +1,370 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles Sigma regular expressions into deterministic automata, which match in time linear in the length of the
+ * input, whatever the expression.
+ *
+ * Sigma regular expressions are written in PCRE syntax, which is translated into the syntax of Lucene's
+ * {@link RegExp}. Constructs without an automaton equivalent (back-references, look-arounds, word boundaries, anchors
+ * other than at the start or the end) are rejected. Lazy quantifiers are treated as greedy ones, which doesn't
+ * change what a whole value matches.
+ */
+public class RegexAutomata {
+
+    private static final Logger log = LogManager.getLogger(RegexAutomata.class);
+
+    /**
+     * Same as the default of {@code index.max_regex_length}, the longest regular expression a query may contain.
+     */
+    public static final int MAX_REGEX_LENGTH = 1000;
+
+    /**
+     * Same as the default {@code max_determinized_states} of regexp queries.
+     */
+    public static final int DETERMINIZE_WORK_LIMIT = Operations.DEFAULT_DETERMINIZE_WORK_LIMIT;
+
+    private static final int MAX_CACHED_AUTOMATA = 10000;
+
+    /**
+     * Compiled automata are immutable, so they are shared by all rules with the same expression.
+     */
+    private static final Map<String, CharacterRunAutomaton> automata = new ConcurrentHashMap<>();
+
+    /**
+     * Expressions which passed {@link #checkQueryComplexity(String)}, with their warning or an empty string. Rules are
+     * parsed over and over, the check (and its warning) is only done once per expression.
+     */
+    private static final Map<String, String> checkedQueries = new ConcurrentHashMap<>();
+
+    private static final String DIGIT = "0-9";
+
+    private static final String WORD = "a-zA-Z0-9_";
+
+    private static final String SPACE = " \t\n\r\f\u000B";
+
+    private RegexAutomata() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is not supported or too complex to determinize
+     */
+    public static CharacterRunAutomaton compile(String regexp) {
+        CharacterRunAutomaton automaton = automata.get(regexp);
+        if (automaton == null) {
+            boolean caseInsensitive = regexp.startsWith("(?i)");
+            RegExp luceneRegExp = new RegExp(toLuceneSyntax(caseInsensitive? regexp.substring(4): regexp), RegExp.NONE,
+                    caseInsensitive? RegExp.ASCII_CASE_INSENSITIVE: 0);
+            try {
+                automaton = new CharacterRunAutomaton(luceneRegExp.toAutomaton(DETERMINIZE_WORK_LIMIT), DETERMINIZE_WORK_LIMIT);
+            } catch (TooComplexToDeterminizeException ex) {
+                throw new IllegalArgumentException("Regular expression '" + regexp + "' is too complex to evaluate", ex);
+            }
+            if (automata.size() < MAX_CACHED_AUTOMATA) {
+                automata.putIfAbsent(regexp, automaton);
+            }
+        }
+        return automaton;
+    }
+
+    /**
+     * Checks how expensive an expression is to run as a regexp query, i.e. as written into the rule queries.
+     *
+     * @return null if the query is fine, a warning if the query can be run but won't match like the expression
+     * @throws IllegalArgumentException if the query will be rejected, as the expression is too long or too complex
+     */
+    public static String checkQueryComplexity(String regexp) {
+        String warning = checkedQueries.get(regexp);
+        if (warning == null) {
+            warning = queryComplexityWarning(regexp);
+            if (!warning.isEmpty()) {
+                log.warn("Rule regular expression '{}' will not match as expected: {}", regexp, warning);
+            }
+            if (checkedQueries.size() < MAX_CACHED_AUTOMATA) {
+                checkedQueries.putIfAbsent(regexp, warning);
+            }
+        }
+        return warning.isEmpty()? null: warning;
+    }
+
+    private static String queryComplexityWarning(String regexp) {
+        if (regexp.length() > MAX_REGEX_LENGTH) {
+            throw new IllegalArgumentException(String.format(Locale.getDefault(),
+                    "Regular expression is %d chars long, longer than the maximum of %d", regexp.length(), MAX_REGEX_LENGTH));
+        }
+
+        try {
+            new RegExp(regexp, RegExp.ALL).toAutomaton(DETERMINIZE_WORK_LIMIT);
+        } catch (TooComplexToDeterminizeException ex) {
+            throw new IllegalArgumentException("Regular expression is too complex, it needs more than " + DETERMINIZE_WORK_LIMIT +
+                    " automaton states", ex);
+        } catch (IllegalArgumentException ex) {
+            return "Regular expression is not valid in regexp queries: " + ex.getMessage();
+        }
+
+        try {
+            toLuceneSyntax(regexp);
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+        return "";
+    }
+
+    /**
+     * Escapes a literal for use in an expression.
+     */
+    public static String quote(String literal) {
+        StringBuilder quoted = new StringBuilder(literal.length() + 8);
+        for (int pos = 0; pos < literal.length(); ++pos) {
+            appendLiteral(literal.charAt(pos), quoted);
+        }
+        return quoted.toString();
+    }
+
+    /**
+     * Translates a PCRE expression into the syntax of {@link RegExp} without optional operators ({@link RegExp#NONE}).
+     */
+    public static String toLuceneSyntax(String regexp) {
+        StringBuilder lucene = new StringBuilder(regexp.length() + 16);
+
+        int pos = 0;
+        int end = regexp.length();
+        // whether the current alternative of each open group, and of the expression, hasn't consumed any chars yet
+        Deque<Boolean> atStart = new ArrayDeque<>();
+        atStart.push(true);
+        boolean consumed = false;
+
+        while (pos < end) {
+            char c = regexp.charAt(pos);
+            if (c != '(' && c != '|' && c != '^') {
+                consumed = true;
+            }
+            switch (c) {
+                case '\\':
+                    pos = appendEscape(regexp, pos, end, lucene, false);
+                    continue;
+                case '[':
+                    pos = appendCharClass(regexp, pos, end, lucene);
+                    continue;
+                case '(':
+                    atStart.push(atStart.peek() && !consumed);
+                    consumed = false;
+                    lucene.append('(');
+                    if (regexp.startsWith("(?:", pos)) {
+                        pos += 3;
+                        continue;
+                    } else if (pos + 1 < end && regexp.charAt(pos + 1) == '?') {
+                        throw unsupported(regexp, "group constructs other than (?:...)");
+                    }
+                    break;
+                case '|':
+                    consumed = false;
+                    lucene.append(c);
+                    break;
+                case ')':
+                    if (atStart.size() > 1) {
+                        atStart.pop();
+                    }
+                    lucene.append(c);
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                    lucene.append(c);
+                    pos = skipQuantifierMode(regexp, pos + 1, end);
+                    continue;
+                case '{':
+                    int close = regexp.indexOf('}', pos);
+                    String bounds = close > pos && close < end? regexp.substring(pos + 1, close): "";
+                    if (bounds.matches("\\d+(,\\d*)?|,\\d+")) {
+                        lucene.append('{').append(bounds.startsWith(",")? "0" + bounds: bounds).append('}');
+                        pos = skipQuantifierMode(regexp, close + 1, end);
+                        continue;
+                    }
+                    lucene.append("\\{");
+                    break;
+                case '.':
+                    lucene.append(c);
+                    break;
+                case '^':
+                    // a no-op as the whole value is matched, as long as nothing can be matched before it
+                    if (consumed || !atStart.peek()) {
+                        throw unsupported(regexp, "anchors inside the expression");
+                    }
+                    break;
+                case '$':
+                    if (!isAtEnd(regexp, pos + 1, end)) {
+                        throw unsupported(regexp, "anchors inside the expression");
+                    }
+                    break;
+                default:
+                    appendLiteral(c, lucene);
+            }
+            ++pos;
+        }
+        return lucene.toString();
+    }
+
+    private static int appendCharClass(String regexp, int pos, int end, StringBuilder lucene) {
+        lucene.append('[');
+        ++pos;
+        if (pos < end && regexp.charAt(pos) == '^') {
+            lucene.append('^');
+            ++pos;
+        }
+
+        int start = pos;
+        while (pos < end) {
+            char c = regexp.charAt(pos);
+            if (c == ']' && pos > start) {
+                lucene.append(']');
+                return pos + 1;
+            }
+
+            if (c == '\\') {
+                pos = appendEscape(regexp, pos, end, lucene, true);
+            } else if (c == '-' && pos > start && pos + 1 < end && regexp.charAt(pos + 1) != ']') {
+                lucene.append('-');
+                ++pos;
+            } else if (c == '[') {
+                throw unsupported(regexp, "nested character classes");
+            } else {
+                appendLiteral(c, lucene);
+                ++pos;
+            }
+        }
+        throw new IllegalArgumentException("Regular expression '" + regexp + "' has an unterminated character class");
+    }
+
+    private static int appendEscape(String regexp, int pos, int end, StringBuilder lucene, boolean inCharClass) {
+        if (pos + 1 >= end) {
+            throw new IllegalArgumentException("Regular expression '" + regexp + "' ends with an escape char");
+        }
+
+        char c = regexp.charAt(pos + 1);
+        switch (c) {
+            case 'd':
+                lucene.append(inCharClass? DIGIT: "[" + DIGIT + "]");
+                break;
+            case 'w':
+                lucene.append(inCharClass? WORD: "[" + WORD + "]");
+                break;
+            case 's':
+                lucene.append(inCharClass? SPACE: "[" + SPACE + "]");
+                break;
+            case 'D':
+            case 'W':
+            case 'S':
+                if (inCharClass) {
+                    throw unsupported(regexp, "negated classes inside character classes");
+                }
+                lucene.append("[^").append(c == 'D'? DIGIT: c == 'W'? WORD: SPACE).append(']');
+                break;
+            case 't':
+                lucene.append('\t');
+                break;
+            case 'n':
+                lucene.append('\n');
+                break;
+            case 'r':
+                lucene.append('\r');
+                break;
+            case 'f':
+                lucene.append('\f');
+                break;
+            case 'x':
+            case 'u':
+                int digits = c == 'x'? 2: 4;
+                if (pos + 2 + digits > end || !regexp.substring(pos + 2, pos + 2 + digits).matches("[0-9a-fA-F]+")) {
+                    throw unsupported(regexp, "\\" + c + " escapes other than \\" + c + "h".repeat(digits));
+                }
+                appendLiteral((char) Integer.parseInt(regexp.substring(pos + 2, pos + 2 + digits), 16), lucene);
+                return pos + 2 + digits;
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw unsupported(regexp, "the escape sequence \\" + c);
+                }
+                appendLiteral(c, lucene);
+        }
+        return pos + 2;
+    }
+
+    /**
+     * Skips the lazy or possessive mode of a quantifier, the whole value is matched either way.
+     */
+    private static int skipQuantifierMode(String regexp, int pos, int end) {
+        if (pos < end && (regexp.charAt(pos) == '?' || regexp.charAt(pos) == '+')) {
+            return pos + 1;
+        }
+        return pos;
+    }
+
+    private static void appendLiteral(char c, StringBuilder lucene) {
+        if (!Character.isLetterOrDigit(c) && c != ' ' && c != '_') {
+            lucene.append('\\');
+        }
+        lucene.append(c);
+    }
+
+    /**
+     * Whether nothing can be matched after a position, i.e. only group ends follow, or other alternatives of the
+     * groups being ended.
+     */
+    private static boolean isAtEnd(String regexp, int pos, int end) {
+        while (pos < end) {
+            char c = regexp.charAt(pos);
+            if (c == ')') {
+                ++pos;
+            } else if (c == '|') {
+                pos = skipToGroupEnd(regexp, pos + 1, end);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipToGroupEnd(String regexp, int pos, int end) {
+        int depth = 0;
+        boolean inCharClass = false;
+        for (; pos < end; ++pos) {
+            char c = regexp.charAt(pos);
+            if (c == '\\') {
+                ++pos;
+            } else if (inCharClass) {
+                inCharClass = c != ']';
+            } else if (c == '[') {
+                inCharClass = true;
+                if (pos + 1 < end && regexp.charAt(pos + 1) == ']') {
+                    ++pos;
+                }
+            } else if (c == '(') {
+                ++depth;
+            } else if (c == ')' && depth-- == 0) {
+                return pos;
+            }
+        }
+        return end;
+    }
+
+    private static IllegalArgumentException unsupported(String regexp, String construct) {
+        return new IllegalArgumentException("Regular expression '" + regexp + "' uses " + construct +
+                ", which cannot be evaluated as an automaton");
+    }
+}
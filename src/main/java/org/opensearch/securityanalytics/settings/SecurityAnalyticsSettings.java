@@ -7,6 +7,7 @@ package org.opensearch.securityanalytics.settings;
 import java.util.concurrent.TimeUnit;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.unit.TimeValue;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 
 public class SecurityAnalyticsSettings {
 
@@ -90,6 +91,34 @@ public class SecurityAnalyticsSettings {
             Setting.Property.NodeScope, Setting.Property.Dynamic
     );
 
+    public static final Setting<Integer> RULE_MAX_EXPANSION_SIZE = Setting.intSetting(
+            "plugins.security_analytics.rule_max_expansion_size",
+            SigmaExpansion.DEFAULT_MAX_SIZE,
+            1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic
+    );
+
+    public static final Setting<Integer> MONITOR_PROVISIONING_CONCURRENCY = Setting.intSetting(
+            "plugins.security_analytics.monitor_provisioning_concurrency",
+            8,
+            1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic
+    );
+
+    public static final Setting<Integer> RULE_CACHE_SIZE = Setting.intSetting(
+            "plugins.security_analytics.rule_cache_size",
+            10000,
+            0,
+            Setting.Property.NodeScope
+    );
+
+    public static final Setting<Integer> BULK_DETECTOR_CONCURRENCY = Setting.intSetting(
+            "plugins.security_analytics.bulk_detector_concurrency",
+            4,
+            1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic
+    );
+
     public static final Setting<Boolean> FILTER_BY_BACKEND_ROLES = Setting.boolSetting(
             "plugins.security_analytics.filter_by_backend_roles",
             false,
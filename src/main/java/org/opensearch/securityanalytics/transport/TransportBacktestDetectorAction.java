@@ -0,0 +1,437 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.CreatePitAction;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.DeletePitAction;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.UUIDs;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.RangeQueryBuilder;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.slice.SliceBuilder;
+import org.opensearch.securityanalytics.action.BacktestDetectorAction;
+import org.opensearch.securityanalytics.action.BacktestDetectorRequest;
+import org.opensearch.securityanalytics.action.BacktestDetectorResponse;
+import org.opensearch.securityanalytics.action.BacktestDetectorResponse.RuleResult;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorInput;
+import org.opensearch.securityanalytics.model.DetectorRule;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the doc-level queries of a detector over the documents its log indices hold within a time range, without
+ * creating monitors.
+ *
+ * All rules search one point in time of the log indices, so they see the same documents however long the backtest
+ * takes. The rules are run one after another, and the search of each rule is split into slices searched in parallel.
+ * The documents a rule matches are written as would-be findings to a scratch index, up to a limit per rule, while the
+ * number of matched documents is always exact.
+ *
+ * The log indices are searched as the calling user, so a backtest only sees the documents the user can search. Only
+ * the detector, its rules and the would-be findings are read and written with the plugin's stashed context, and the
+ * findings are only written to the backtest findings indices of the detector type.
+ */
+public class TransportBacktestDetectorAction extends HandledTransportAction<BacktestDetectorRequest, BacktestDetectorResponse> implements SecureTransportAction {
+
+    private static final Logger log = LogManager.getLogger(TransportBacktestDetectorAction.class);
+
+    private static final TimeValue PIT_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+
+    private final Client client;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    private final ThreadPool threadPool;
+
+    private final Settings settings;
+
+    private volatile Boolean filterByEnabled;
+
+    @Inject
+    public TransportBacktestDetectorAction(TransportService transportService, Client client, ActionFilters actionFilters, ThreadPool threadPool,
+                                           NamedXContentRegistry xContentRegistry, ClusterService clusterService, Settings settings) {
+        super(BacktestDetectorAction.NAME, transportService, actionFilters, BacktestDetectorRequest::new);
+        this.client = client;
+        this.xContentRegistry = xContentRegistry;
+        this.threadPool = threadPool;
+        this.settings = settings;
+        this.filterByEnabled = SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES.get(this.settings);
+
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES, this::setFilterByEnabled);
+    }
+
+    @Override
+    protected void doExecute(Task task, BacktestDetectorRequest request, ActionListener<BacktestDetectorResponse> listener) {
+        User user = readUserFromThreadContext(this.threadPool);
+
+        String validateBackendRoleMessage = validateUserBackendRoles(user, this.filterByEnabled);
+        if (!"".equals(validateBackendRoleMessage)) {
+            listener.onFailure(SecurityAnalyticsException.wrap(new OpenSearchStatusException(validateBackendRoleMessage, RestStatus.FORBIDDEN)));
+            return;
+        }
+
+        ThreadContext threadContext = this.threadPool.getThreadContext();
+        Supplier<ThreadContext.StoredContext> userContext = threadContext.newRestorableContext(false);
+
+        if (request.getDetector() != null) {
+            new AsyncBacktestAction(request, request.getDetector(), userContext, listener).start();
+            return;
+        }
+
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            getDetector(request, user, userContext, listener);
+        }
+    }
+
+    private void getDetector(BacktestDetectorRequest request, User user, Supplier<ThreadContext.StoredContext> userContext,
+                             ActionListener<BacktestDetectorResponse> listener) {
+        client.get(new GetRequest(Detector.DETECTORS_INDEX, request.getDetectorId()), ActionListener.wrap(response -> {
+            if (!response.isExists() || response.isSourceEmpty()) {
+                listener.onFailure(SecurityAnalyticsException.wrap(new OpenSearchStatusException("Detector not found.", RestStatus.NOT_FOUND)));
+                return;
+            }
+            XContentParser xcp = XContentHelper.createParser(
+                    xContentRegistry, LoggingDeprecationHandler.INSTANCE,
+                    response.getSourceAsBytesRef(), XContentType.JSON
+            );
+            Detector detector = Detector.docParse(xcp, response.getId(), response.getVersion());
+            if (!checkUserPermissionsWithResource(user, detector.getUser(), "detector", detector.getId(), this.filterByEnabled)) {
+                listener.onFailure(new OpenSearchStatusException("Do not have permissions to resource", RestStatus.FORBIDDEN));
+                return;
+            }
+            new AsyncBacktestAction(request, detector, userContext, listener).start();
+        }, listener::onFailure));
+    }
+
+    class AsyncBacktestAction {
+
+        private final BacktestDetectorRequest request;
+
+        private final Detector detector;
+
+        private final Supplier<ThreadContext.StoredContext> userContext;
+
+        private final ActionListener<BacktestDetectorResponse> listener;
+
+        private final String backtestId = UUIDs.base64UUID();
+
+        private final String findingsIndex;
+
+        private final List<Pair<String, Rule>> rules = new ArrayList<>();
+
+        private final List<RuleResult> results = new ArrayList<>();
+
+        private final long startTime = System.nanoTime();
+
+        private String pitId;
+
+        private boolean findingsWritten;
+
+        AsyncBacktestAction(BacktestDetectorRequest request, Detector detector, Supplier<ThreadContext.StoredContext> userContext,
+                            ActionListener<BacktestDetectorResponse> listener) {
+            this.request = request;
+            this.detector = detector;
+            this.userContext = userContext;
+            this.listener = listener;
+            this.findingsIndex = request.getFindingsIndex() != null ?
+                    request.getFindingsIndex() : DetectorMonitorConfig.getBacktestFindingsIndex(detector.getDetectorType());
+        }
+
+        void start() {
+            Set<String> ruleIds = new LinkedHashSet<>();
+            Set<String> logIndices = new LinkedHashSet<>();
+            for (DetectorInput input: detector.getInputs()) {
+                ruleIds.addAll(input.getPrePackagedRules().stream().map(DetectorRule::getId).collect(Collectors.toList()));
+                ruleIds.addAll(input.getCustomRules().stream().map(DetectorRule::getId).collect(Collectors.toList()));
+                logIndices.addAll(input.getIndices());
+            }
+            if (ruleIds.isEmpty() || logIndices.isEmpty()) {
+                listener.onFailure(new OpenSearchStatusException("Detector has no rules or no log indices to backtest", RestStatus.BAD_REQUEST));
+                return;
+            }
+            String defaultFindingsIndex = DetectorMonitorConfig.getBacktestFindingsIndex(detector.getDetectorType());
+            if (!findingsIndex.startsWith(defaultFindingsIndex)) {
+                listener.onFailure(new OpenSearchStatusException(String.format(Locale.getDefault(),
+                        "Backtest findings can only be written to indices starting with %s", defaultFindingsIndex), RestStatus.BAD_REQUEST));
+                return;
+            }
+
+            try (ThreadContext.StoredContext ignored = threadPool.getThreadContext().stashContext()) {
+                searchRules(ruleIds, logIndices);
+            }
+        }
+
+        private void searchRules(Set<String> ruleIds, Set<String> logIndices) {
+            SearchRequest searchRequest = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX, Rule.CUSTOM_RULES_INDEX)
+                    .indicesOptions(IndicesOptions.lenientExpandOpen())
+                    .source(new SearchSourceBuilder()
+                            .query(QueryBuilders.idsQuery().addIds(ruleIds.toArray(new String[]{})))
+                            .size(ruleIds.size()));
+
+            client.search(searchRequest, ActionListener.wrap(response -> {
+                Map<String, Rule> storedRules = new HashMap<>();
+                for (SearchHit hit: response.getHits()) {
+                    XContentParser xcp = XContentType.JSON.xContent().createParser(
+                            xContentRegistry,
+                            LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+                    );
+                    storedRules.put(hit.getId(), Rule.docParse(xcp, hit.getId(), hit.getVersion()));
+                }
+                // rules missing from the rule indices are reported in the results, in the order of the detector's rules
+                for (String ruleId: ruleIds) {
+                    rules.add(Pair.of(ruleId, storedRules.get(ruleId)));
+                }
+
+                CreatePitRequest pitRequest = new CreatePitRequest(PIT_KEEP_ALIVE, false, logIndices.toArray(new String[]{}));
+                try (ThreadContext.StoredContext ignored = userContext.get()) {
+                    client.execute(CreatePitAction.INSTANCE, pitRequest, ActionListener.wrap(pitResponse -> {
+                        pitId = pitResponse.getId();
+                        backtestRule(0);
+                    }, listener::onFailure));
+                }
+            }, listener::onFailure));
+        }
+
+        private void backtestRule(int idx) {
+            if (idx == rules.size()) {
+                finish();
+                return;
+            }
+
+            String ruleId = rules.get(idx).getLeft();
+            Rule rule = rules.get(idx).getRight();
+            if (rule == null) {
+                results.add(new RuleResult(ruleId, null, 0, 0, 0, String.format(Locale.getDefault(), "Rule with %s is not found", ruleId)));
+                backtestRule(idx + 1);
+                return;
+            }
+            if (rule.isAggregationRule()) {
+                results.add(new RuleResult(ruleId, rule.getTitle(), 0, 0, 0, "Aggregation rules are run by bucket-level monitors and cannot be backtested"));
+                backtestRule(idx + 1);
+                return;
+            }
+            if (rule.getQueries().isEmpty()) {
+                results.add(new RuleResult(ruleId, rule.getTitle(), 0, 0, 0, "Rule has no queries to backtest"));
+                backtestRule(idx + 1);
+                return;
+            }
+
+            long ruleStartTime = System.nanoTime();
+            int slices = request.getSlices();
+            GroupedActionListener<SearchResponse> sliceListener = new GroupedActionListener<>(
+                    new ActionListener<Collection<SearchResponse>>() {
+                        @Override
+                        public void onResponse(Collection<SearchResponse> responses) {
+                            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ruleStartTime);
+
+                            long hits = 0;
+                            List<SearchHit> matches = new ArrayList<>();
+                            for (SearchResponse response: responses) {
+                                hits += response.getHits().getTotalHits().value;
+                                for (SearchHit hit: response.getHits()) {
+                                    if (matches.size() < request.getMaxFindingsPerRule()) {
+                                        matches.add(hit);
+                                    }
+                                }
+                            }
+
+                            long ruleHits = hits;
+                            writeFindings(ruleId, rule, matches, ActionListener.wrap(findings -> {
+                                results.add(new RuleResult(ruleId, rule.getTitle(), ruleHits, findings, took, null));
+                                backtestRule(idx + 1);
+                            }, e -> {
+                                log.debug("Findings of rule " + ruleId + " cannot be written", e);
+                                results.add(new RuleResult(ruleId, rule.getTitle(), ruleHits, 0, took, e.getMessage()));
+                                backtestRule(idx + 1);
+                            }));
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            log.debug("Rule " + ruleId + " cannot be backtested", e);
+                            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ruleStartTime);
+                            results.add(new RuleResult(ruleId, rule.getTitle(), 0, 0, took, e.getMessage()));
+                            backtestRule(idx + 1);
+                        }
+                    }, slices);
+
+            try (ThreadContext.StoredContext ignored = userContext.get()) {
+                for (int slice = 0; slice < slices; ++slice) {
+                    client.search(sliceRequest(rule, slice, slices), sliceListener);
+                }
+            }
+        }
+
+        /**
+         * The doc-level query of the rule is run directly against the log indices, rather than percolated through the
+         * query index of the detector type. Spaces in rule values are encoded as _ws_, which only the rule_analyzer of
+         * the query index decodes, so they are escaped here instead. The remaining differences are that the values are
+         * analyzed by the analyzers of the log index fields instead of the keyword based rule_analyzer, e.g. a text field
+         * matches the words of a value in any order, and that fields are resolved against the log index mappings.
+         * A rule with several queries matches a document when any of them does, as each query is percolated by its own.
+         */
+        private SearchRequest sliceRequest(Rule rule, int slice, int slices) {
+            RangeQueryBuilder timeRange = QueryBuilders.rangeQuery(request.getTimestampField()).gte(request.getStartTime());
+            if (request.getEndTime() != null) {
+                timeRange.lte(request.getEndTime());
+            }
+            BoolQueryBuilder ruleQuery = QueryBuilders.boolQuery().minimumShouldMatch(1);
+            for (Value ruleQueryValue: rule.getQueries()) {
+                ruleQuery.should(QueryBuilders.queryStringQuery(decodeWhitespace(ruleQueryValue.getValue())));
+            }
+            BoolQueryBuilder query = QueryBuilders.boolQuery()
+                    .must(ruleQuery)
+                    .filter(timeRange);
+
+            SearchSourceBuilder source = new SearchSourceBuilder()
+                    .pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(PIT_KEEP_ALIVE))
+                    .query(query)
+                    .trackTotalHits(true)
+                    .fetchSource(false)
+                    .size((request.getMaxFindingsPerRule() + slices - 1) / slices);
+            if (slices > 1) {
+                source.slice(new SliceBuilder(slice, slices));
+            }
+            return new SearchRequest().source(source);
+        }
+
+        private String decodeWhitespace(String query) {
+            return query.replace("_ws_", "\\ ");
+        }
+
+        private void writeFindings(String ruleId, Rule rule, List<SearchHit> matches, ActionListener<Long> findingsListener) {
+            if (matches.isEmpty()) {
+                findingsListener.onResponse(0L);
+                return;
+            }
+
+            List<String> tags = new ArrayList<>();
+            tags.add(rule.getLevel());
+            tags.add(rule.getCategory());
+            tags.addAll(rule.getTags().stream().map(Value::getValue).collect(Collectors.toList()));
+
+            long timestamp = System.currentTimeMillis();
+            BulkRequest bulkRequest = new BulkRequest();
+            for (SearchHit hit: matches) {
+                Map<String, Object> finding = new HashMap<>();
+                finding.put("backtest_id", backtestId);
+                finding.put("detector_id", detector.getId());
+                finding.put("detector_name", detector.getName());
+                finding.put("rule_id", ruleId);
+                finding.put("rule_name", rule.getTitle());
+                finding.put("tags", tags);
+                finding.put("index", hit.getIndex());
+                finding.put("related_doc_ids", List.of(hit.getId()));
+                finding.put("timestamp", timestamp);
+                bulkRequest.add(new IndexRequest(findingsIndex).source(finding));
+            }
+
+            try (ThreadContext.StoredContext ignored = threadPool.getThreadContext().stashContext()) {
+                client.bulk(bulkRequest, ActionListener.wrap(response -> {
+                    long findings = 0;
+                    for (BulkItemResponse item: response.getItems()) {
+                        if (!item.isFailed()) {
+                            ++findings;
+                        }
+                    }
+                    findingsWritten |= findings > 0;
+                    findingsListener.onResponse(findings);
+                }, findingsListener::onFailure));
+            }
+        }
+
+        private void finish() {
+            try (ThreadContext.StoredContext ignored = userContext.get()) {
+                client.execute(DeletePitAction.INSTANCE, new DeletePitRequest(pitId), ActionListener.wrap(
+                        response -> refreshFindings(),
+                        e -> {
+                            log.warn("Point in time of backtest " + backtestId + " cannot be deleted", e);
+                            refreshFindings();
+                        }
+                ));
+            }
+        }
+
+        private void refreshFindings() {
+            if (!findingsWritten) {
+                respond();
+                return;
+            }
+            try (ThreadContext.StoredContext ignored = threadPool.getThreadContext().stashContext()) {
+                client.admin().indices().refresh(new RefreshRequest(findingsIndex), ActionListener.wrap(
+                        response -> respond(),
+                        e -> {
+                            log.debug("Backtest findings index " + findingsIndex + " cannot be refreshed", e);
+                            respond();
+                        }
+                ));
+            }
+        }
+
+        private void respond() {
+            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            String detectorId = detector.getId() == null || detector.getId().isEmpty() ? null : detector.getId();
+            listener.onResponse(new BacktestDetectorResponse(backtestId, detectorId, findingsIndex, took, results));
+        }
+    }
+
+    private void setFilterByEnabled(boolean filterByEnabled) {
+        this.filterByEnabled = filterByEnabled;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsAction;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsRequest;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsResponse;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsResponse.Item;
+import org.opensearch.securityanalytics.action.IndexDetectorRequest;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.transport.TransportIndexDetectorAction.BulkContext;
+import org.opensearch.securityanalytics.util.BoundedActionRunner;
+import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Creates or updates the detectors of a bulk request, each detector the same way as a single detector request does,
+ * but with the work the detectors have in common done once.
+ *
+ * The detectors are validated together up front, a detector failing validation only fails its own item. The detectors
+ * are then run one at a time until one of them has loaded the pre-packaged rules, after which the union of the rules
+ * referenced by the remaining detectors is parsed into the rule cache with one search per rule index, and the
+ * remaining detectors are run with at most {@link SecurityAnalyticsSettings#BULK_DETECTOR_CONCURRENCY} in flight.
+ * The field catalog of every log index is collected once for all the detectors of the request.
+ */
+public class TransportBulkIndexDetectorsAction extends HandledTransportAction<BulkIndexDetectorsRequest, BulkIndexDetectorsResponse> implements SecureTransportAction {
+
+    private static final Logger log = LogManager.getLogger(TransportBulkIndexDetectorsAction.class);
+
+    private final TransportIndexDetectorAction indexDetectorAction;
+
+    private final ThreadPool threadPool;
+
+    private final Settings settings;
+
+    private volatile Boolean filterByEnabled;
+
+    private volatile int bulkDetectorConcurrency;
+
+    @Inject
+    public TransportBulkIndexDetectorsAction(TransportService transportService, ActionFilters actionFilters, ThreadPool threadPool,
+                                             TransportIndexDetectorAction indexDetectorAction, ClusterService clusterService, Settings settings) {
+        super(BulkIndexDetectorsAction.NAME, transportService, actionFilters, BulkIndexDetectorsRequest::new);
+        this.indexDetectorAction = indexDetectorAction;
+        this.threadPool = threadPool;
+        this.settings = settings;
+        this.filterByEnabled = SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES.get(this.settings);
+        this.bulkDetectorConcurrency = SecurityAnalyticsSettings.BULK_DETECTOR_CONCURRENCY.get(this.settings);
+
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES, this::setFilterByEnabled);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.BULK_DETECTOR_CONCURRENCY, this::setBulkDetectorConcurrency);
+    }
+
+    @Override
+    protected void doExecute(Task task, BulkIndexDetectorsRequest request, ActionListener<BulkIndexDetectorsResponse> listener) {
+        User user = readUserFromThreadContext(this.threadPool);
+
+        String validateBackendRoleMessage = validateUserBackendRoles(user, this.filterByEnabled);
+        if (!"".equals(validateBackendRoleMessage)) {
+            listener.onFailure(SecurityAnalyticsException.wrap(new OpenSearchStatusException(validateBackendRoleMessage, RestStatus.FORBIDDEN)));
+            return;
+        }
+
+        this.threadPool.getThreadContext().stashContext();
+
+        new AsyncBulkIndexDetectorsAction(user, task, request, listener).start();
+    }
+
+    class AsyncBulkIndexDetectorsAction {
+
+        private final User user;
+
+        private final Task task;
+
+        private final List<IndexDetectorRequest> requests;
+
+        private final ActionListener<BulkIndexDetectorsResponse> listener;
+
+        private final AtomicReferenceArray<Item> items;
+
+        private final BulkContext bulkContext = new BulkContext();
+
+        private final long startTime = System.nanoTime();
+
+        AsyncBulkIndexDetectorsAction(User user, Task task, BulkIndexDetectorsRequest request, ActionListener<BulkIndexDetectorsResponse> listener) {
+            this.user = user;
+            this.task = task;
+            this.requests = request.getRequests();
+            this.listener = listener;
+            this.items = new AtomicReferenceArray<>(requests.size());
+        }
+
+        void start() {
+            runOneAtATime(validate(), 0);
+        }
+
+        /**
+         * @return the positions of the detectors which passed validation
+         */
+        private List<Integer> validate() {
+            List<Integer> validRequests = new ArrayList<>();
+            Set<String> detectorIds = new HashSet<>();
+            for (int idx = 0; idx < requests.size(); ++idx) {
+                IndexDetectorRequest request = requests.get(idx);
+                String error = null;
+                if (request.getMethod() == RestRequest.Method.PUT && (request.getDetectorId() == null || request.getDetectorId().isEmpty())) {
+                    error = "Detector id is missing";
+                } else if (request.getMethod() == RestRequest.Method.PUT && !detectorIds.add(request.getDetectorId())) {
+                    error = String.format(Locale.getDefault(), "Detector %s is updated more than once in the request", request.getDetectorId());
+                } else if (request.getDetector().getInputs().isEmpty()) {
+                    error = "Detector inputs are missing";
+                }
+
+                if (error != null) {
+                    items.set(idx, Item.failure(request.getMethod(), request.getMethod() == RestRequest.Method.PUT ? request.getDetectorId() : null,
+                            RestStatus.BAD_REQUEST, error));
+                } else {
+                    validRequests.add(idx);
+                }
+            }
+            return validRequests;
+        }
+
+        /**
+         * Runs the detectors one at a time until the pre-packaged rules are loaded, so that they are loaded only once.
+         */
+        private void runOneAtATime(List<Integer> validRequests, int next) {
+            if (next >= validRequests.size()) {
+                finish();
+                return;
+            }
+            if (bulkContext.isPrepackagedRulesLoaded()) {
+                prefetchRules(validRequests.subList(next, validRequests.size()));
+                return;
+            }
+            indexDetector(validRequests.get(next), ActionListener.wrap(
+                    ignored -> runOneAtATime(validRequests, next + 1),
+                    listener::onFailure
+            ));
+        }
+
+        private void prefetchRules(List<Integer> remainingRequests) {
+            List<Detector> detectors = remainingRequests.stream().map(idx -> requests.get(idx).getDetector()).collect(Collectors.toList());
+            indexDetectorAction.prefetchRules(detectors, ActionListener.wrap(
+                    ignored -> runConcurrently(remainingRequests),
+                    e -> {
+                        // the detectors still fetch the rules missing from the cache themselves
+                        log.warn("Rules of the bulk request cannot be prefetched", e);
+                        runConcurrently(remainingRequests);
+                    }
+            ));
+        }
+
+        private void runConcurrently(List<Integer> remainingRequests) {
+            BoundedActionRunner.<Integer, Void>run(remainingRequests, bulkDetectorConcurrency, this::indexDetector, ActionListener.wrap(
+                    ignored -> finish(),
+                    listener::onFailure
+            ));
+        }
+
+        /**
+         * Creates or updates the detector at the given position, recording its item. The listener is always notified of
+         * a response, a failed detector doesn't fail the bulk request.
+         */
+        private void indexDetector(int idx, ActionListener<Void> itemListener) {
+            IndexDetectorRequest request = requests.get(idx);
+            try {
+                indexDetectorAction.indexDetector(user, task, request, bulkContext, ActionListener.wrap(response -> {
+                    items.set(idx, Item.success(request.getMethod(), response));
+                    itemListener.onResponse(null);
+                }, e -> {
+                    onItemFailure(idx, request, e);
+                    itemListener.onResponse(null);
+                }));
+            } catch (Exception e) {
+                onItemFailure(idx, request, e);
+                itemListener.onResponse(null);
+            }
+        }
+
+        private void onItemFailure(int idx, IndexDetectorRequest request, Exception e) {
+            Throwable cause = ExceptionsHelper.unwrapCause(e);
+            items.set(idx, Item.failure(request.getMethod(), request.getMethod() == RestRequest.Method.PUT ? request.getDetectorId() : null,
+                    ExceptionsHelper.status(cause), cause.getMessage()));
+        }
+
+        private void finish() {
+            List<Item> orderedItems = new ArrayList<>(items.length());
+            for (int idx = 0; idx < items.length(); ++idx) {
+                orderedItems.add(items.get(idx));
+            }
+            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            listener.onResponse(new BulkIndexDetectorsResponse(took, orderedItems));
+        }
+    }
+
+    private void setFilterByEnabled(boolean filterByEnabled) {
+        this.filterByEnabled = filterByEnabled;
+    }
+
+    private void setBulkDetectorConcurrency(int bulkDetectorConcurrency) {
+        this.bulkDetectorConcurrency = bulkDetectorConcurrency;
+    }
+}
@@ -42,6 +42,7 @@ import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.DetectorRule;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.util.DetectorIndices;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
 import org.opensearch.threadpool.ThreadPool;
@@ -69,13 +70,16 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
 
     private final ThreadPool threadPool;
 
+    private final RuleCache ruleCache;
+
     @Inject
-    public TransportDeleteRuleAction(TransportService transportService, Client client, DetectorIndices detectorIndices, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry) {
+    public TransportDeleteRuleAction(TransportService transportService, Client client, DetectorIndices detectorIndices, RuleCache ruleCache, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry) {
         super(DeleteRuleAction.NAME, transportService, actionFilters, DeleteRuleRequest::new);
         this.client = client;
         this.detectorIndices = detectorIndices;
         this.xContentRegistry = xContentRegistry;
         this.threadPool = client.threadPool();
+        this.ruleCache = ruleCache;
     }
 
     @Override
@@ -233,6 +237,7 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
                             return;
                         }
 
+                        ruleCache.invalidate(Rule.CUSTOM_RULES_INDEX, ruleId);
                         onOperation(response, ruleId);
                     }
 
@@ -73,7 +73,7 @@ public class TransportGetFindingsAction extends HandledTransportAction<GetFindin
         this.clusterService = clusterService;
         this.threadPool = this.detectorIndices.getThreadPool();
         this.settings = settings;
-        this.findingsService = new FindingsService(client);
+        this.findingsService = new FindingsService(client, xContentRegistry);
         this.filterByEnabled = SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES.get(this.settings);
         this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES, this::setFilterByEnabled);
     }
@@ -9,10 +9,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -42,6 +48,7 @@ import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
 import org.opensearch.client.node.NodeClient;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.common.settings.Settings;
@@ -65,19 +72,21 @@ import org.opensearch.commons.alerting.model.DocLevelQuery;
 import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
 import org.opensearch.commons.alerting.model.Monitor;
 import org.opensearch.commons.alerting.model.Monitor.MonitorType;
+import org.opensearch.commons.alerting.model.ScheduledJob;
 import org.opensearch.commons.alerting.model.SearchInput;
 import org.opensearch.commons.alerting.model.action.Action;
 import org.opensearch.commons.authuser.User;
+import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
-import org.opensearch.index.reindex.BulkByScrollResponse;
 import org.opensearch.index.seqno.SequenceNumbers;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.rest.RestRequest.Method;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.script.Script;
 import org.opensearch.search.SearchHit;
-import org.opensearch.search.SearchHits;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.IndexDetectorAction;
 import org.opensearch.securityanalytics.action.IndexDetectorRequest;
@@ -85,20 +94,29 @@ import org.opensearch.securityanalytics.action.IndexDetectorResponse;
 import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
 import org.opensearch.securityanalytics.mapper.MapperService;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorCostBudget;
 import org.opensearch.securityanalytics.model.DetectorInput;
 import org.opensearch.securityanalytics.model.DetectorRule;
 import org.opensearch.securityanalytics.model.DetectorTrigger;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend.AggregationQueries;
 import org.opensearch.securityanalytics.rules.backend.QueryBackend;
+import org.opensearch.securityanalytics.rules.backend.RuleCostEstimator;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaLevel;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.util.BoundedActionRunner;
 import org.opensearch.securityanalytics.util.DetectorIndices;
 import org.opensearch.securityanalytics.util.IndexUtils;
+import org.opensearch.securityanalytics.util.PointInTimePager;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.RuleTopicIndices;
+import org.opensearch.securityanalytics.util.RuleValidator;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
 import org.opensearch.threadpool.ThreadPool;
@@ -119,12 +137,16 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
     private final RuleIndices ruleIndices;
 
+    private final RuleCache ruleCache;
+
     private final MapperService mapperService;
 
     private final ClusterService clusterService;
 
     private final ThreadPool threadPool;
 
+    private final RuleValidator ruleValidator;
+
     private volatile Boolean filterByEnabled;
 
 
@@ -133,6 +155,10 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
     private final NamedWriteableRegistry namedWriteableRegistry;
 
     private volatile TimeValue indexTimeout;
+
+    private volatile int monitorProvisioningConcurrency;
+
+    private volatile int ruleMaxExpansionSize;
     @Inject
     public TransportIndexDetectorAction(TransportService transportService,
                                         Client client,
@@ -141,6 +167,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                                         DetectorIndices detectorIndices,
                                         RuleTopicIndices ruleTopicIndices,
                                         RuleIndices ruleIndices,
+                                        RuleCache ruleCache,
                                         MapperService mapperService,
                                         ClusterService clusterService,
                                         Settings settings,
@@ -151,15 +178,21 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         this.detectorIndices = detectorIndices;
         this.ruleTopicIndices = ruleTopicIndices;
         this.ruleIndices = ruleIndices;
+        this.ruleCache = ruleCache;
         this.mapperService = mapperService;
         this.clusterService = clusterService;
         this.settings = settings;
         this.namedWriteableRegistry = namedWriteableRegistry;
         this.threadPool = this.detectorIndices.getThreadPool();
+        this.ruleValidator = new RuleValidator(client, xContentRegistry);
         this.indexTimeout = SecurityAnalyticsSettings.INDEX_TIMEOUT.get(this.settings);
         this.filterByEnabled = SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES.get(this.settings);
+        this.monitorProvisioningConcurrency = SecurityAnalyticsSettings.MONITOR_PROVISIONING_CONCURRENCY.get(this.settings);
+        this.ruleMaxExpansionSize = SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE.get(this.settings);
 
         this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.FILTER_BY_BACKEND_ROLES, this::setFilterByEnabled);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.MONITOR_PROVISIONING_CONCURRENCY, this::setMonitorProvisioningConcurrency);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE, this::setRuleMaxExpansionSize);
 
     }
 
@@ -173,7 +206,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             return;
         }
 
-        AsyncIndexDetectorsAction asyncAction = new AsyncIndexDetectorsAction(user, task, request, listener);
+        AsyncIndexDetectorsAction asyncAction = new AsyncIndexDetectorsAction(user, task, request, null, listener);
         asyncAction.start();
     }
 
@@ -197,38 +230,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             return;
         }
 
-        List<IndexMonitorResponse> monitorResponses = new ArrayList<>();
-        StepListener<IndexMonitorResponse> addFirstMonitorStep = new StepListener();
-
-        // Indexing monitors in two steps in order to prevent all shards failed error from alerting
-        // https://github.com/opensearch-project/alerting/issues/646
-        AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, monitorRequests.get(0), namedWriteableRegistry, addFirstMonitorStep);
-        addFirstMonitorStep.whenComplete(addedFirstMonitorResponse -> {
-                monitorResponses.add(addedFirstMonitorResponse);
-                int numberOfUnprocessedResponses = monitorRequests.size() - 1;
-                if(numberOfUnprocessedResponses == 0){
-                    listener.onResponse(monitorResponses);
-                } else {
-                    GroupedActionListener<IndexMonitorResponse> monitorResponseListener = new GroupedActionListener(
-                        new ActionListener<Collection<IndexMonitorResponse>>() {
-                            @Override
-                            public void onResponse(Collection<IndexMonitorResponse> indexMonitorResponse) {
-                                monitorResponses.addAll(indexMonitorResponse.stream().collect(Collectors.toList()));
-                                listener.onResponse(monitorResponses);
-                            }
-                            @Override
-                            public void onFailure(Exception e) {
-                                listener.onFailure(e);
-                            }
-                        }, numberOfUnprocessedResponses);
-
-                    for(int i = 1; i < monitorRequests.size(); i++){
-                        AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, monitorRequests.get(i), namedWriteableRegistry, monitorResponseListener);
-                    }
-                }
-            },
-            listener::onFailure
-        );
+        provisionMonitors(monitorRequests, refreshPolicy, listener);
     }
 
     private void updateMonitorFromQueries(String index, List<Pair<String, Rule>> rulesById, Detector detector, ActionListener<List<IndexMonitorResponse>> listener, WriteRequest.RefreshPolicy refreshPolicy) throws SigmaError, IOException {
@@ -248,29 +250,32 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
             // Pair of RuleId - MonitorId for existing monitors of the detector
             Map<String, String> monitorPerRule = detector.getRuleIdMonitorIdMap();
-
-            for (Pair<String, Rule> query: bucketLevelRules) {
-                Rule rule = query.getRight();
-                if(rule.getAggregationQueries() != null){
-                    // Detect if the monitor should be added or updated
-                    if (monitorPerRule.containsKey(rule.getId())) {
-                        String monitorId = monitorPerRule.get(rule.getId());
-                        monitorsToBeUpdated.add(createBucketLevelMonitorRequest(query.getRight(),
-                            index,
-                            detector,
-                            refreshPolicy,
-                            monitorId,
-                            Method.PUT,
-                            queryBackendMap.get(rule.getCategory())));
-                    } else {
-                        monitorsToBeAdded.add(createBucketLevelMonitorRequest(query.getRight(),
-                            index,
-                            detector,
-                            refreshPolicy,
-                            Monitor.NO_ID,
-                            Method.POST,
-                            queryBackendMap.get(rule.getCategory())));
-                    }
+            Set<String> reusedMonitorIds = new HashSet<>();
+
+            for (List<Rule> rules: groupBucketLevelRules(bucketLevelRules)) {
+                // Detect if the monitor should be added or updated, reusing a monitor of one of the rules
+                String monitorId = rules.stream()
+                    .map(rule -> monitorPerRule.get(rule.getId()))
+                    .filter(it -> it != null && !it.equals(detector.getDocLevelMonitorId()) && !reusedMonitorIds.contains(it))
+                    .findFirst()
+                    .orElse(null);
+                if (monitorId != null) {
+                    reusedMonitorIds.add(monitorId);
+                    monitorsToBeUpdated.add(createBucketLevelMonitorRequest(rules,
+                        index,
+                        detector,
+                        refreshPolicy,
+                        monitorId,
+                        Method.PUT,
+                        queryBackendMap));
+                } else {
+                    monitorsToBeAdded.add(createBucketLevelMonitorRequest(rules,
+                        index,
+                        detector,
+                        refreshPolicy,
+                        Monitor.NO_ID,
+                        Method.POST,
+                        queryBackendMap));
                 }
             }
         }
@@ -287,7 +292,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             }
         }
 
-        List<String> monitorIdsToBeDeleted = detector.getRuleIdMonitorIdMap().values().stream().collect(Collectors.toList());
+        List<String> monitorIdsToBeDeleted = detector.getRuleIdMonitorIdMap().values().stream().distinct().collect(Collectors.toList());
         monitorIdsToBeDeleted.removeAll(monitorsToBeUpdated.stream().map(IndexMonitorRequest::getMonitorId).collect(
             Collectors.toList()));
 
@@ -297,10 +302,9 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
     /**
      *  Update list of monitors for the given detector
      *  Executed in a steps:
-     *  1. Add new monitors;
-     *  2. Update existing monitors;
-     *  3. Delete the monitors omitted from request
-     *  4. Respond with updated list of monitors
+     *  1. Add new monitors and update existing monitors, see {@link #provisionMonitors(List, RefreshPolicy, ActionListener)};
+     *  2. Delete the monitors omitted from request, once all the other monitors are saved
+     *  3. Respond with updated list of monitors
      * @param monitorsToBeAdded Newly added monitors by the user
      * @param monitorsToBeUpdated Existing monitors that will be updated
      * @param monitorsToBeDeleted Monitors omitted by the user
@@ -314,36 +318,23 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         RefreshPolicy refreshPolicy,
         ActionListener<List<IndexMonitorResponse>> listener
     ) {
-        List<IndexMonitorResponse> updatedMonitors = new ArrayList<>();
+        List<IndexMonitorRequest> monitorRequests = new ArrayList<>(monitorsToBeAdded);
+        monitorRequests.addAll(monitorsToBeUpdated);
 
         // Update monitor steps
-        StepListener<List<IndexMonitorResponse>> addNewMonitorsStep = new StepListener();
-        executeMonitorActionRequest(monitorsToBeAdded, addNewMonitorsStep);
-        // 1. Add new alerting monitors (for the rules that didn't exist previously)
-        addNewMonitorsStep.whenComplete(addNewMonitorsResponse -> {
-            if(addNewMonitorsResponse != null && !addNewMonitorsResponse.isEmpty()) {
-                updatedMonitors.addAll(addNewMonitorsResponse);
-            }
-
-            StepListener<List<IndexMonitorResponse>> updateMonitorsStep = new StepListener<>();
-            executeMonitorActionRequest(monitorsToBeUpdated, updateMonitorsStep);
-            // 2. Update existing alerting monitors (based on the common rules)
-            updateMonitorsStep.whenComplete(updateMonitorResponse -> {
-                if(updateMonitorResponse!=null && !updateMonitorResponse.isEmpty()) {
-                    updatedMonitors.addAll(updateMonitorResponse);
-                }
-
-                    StepListener<List<DeleteMonitorResponse>> deleteMonitorStep = new StepListener<>();
-                    deleteAlertingMonitors(monitorsToBeDeleted, refreshPolicy, deleteMonitorStep);
-                    // 3. Delete alerting monitors (rules that are not provided by the user)
-                    deleteMonitorStep.whenComplete(deleteMonitorResponses ->
-                            // Return list of all updated + newly added monitors
-                            listener.onResponse(updatedMonitors),
-                        // Handle delete monitors (step 3)
-                        listener::onFailure);
-                }, // Handle update monitor failed (step 2)
-                listener::onFailure);
-            // Handle add failed (step 1)
+        StepListener<List<IndexMonitorResponse>> indexMonitorsStep = new StepListener<>();
+        provisionMonitors(monitorRequests, refreshPolicy, indexMonitorsStep);
+        // 1. Add new alerting monitors (for the rules that didn't exist previously) and update existing alerting monitors (based on the common rules)
+        indexMonitorsStep.whenComplete(indexMonitorResponses -> {
+                StepListener<List<DeleteMonitorResponse>> deleteMonitorStep = new StepListener<>();
+                deleteAlertingMonitors(monitorsToBeDeleted, refreshPolicy, deleteMonitorStep);
+                // 2. Delete alerting monitors (rules that are not provided by the user)
+                deleteMonitorStep.whenComplete(deleteMonitorResponses ->
+                        // Return list of all updated + newly added monitors
+                        listener.onResponse(indexMonitorResponses),
+                    // Handle delete monitors (step 2)
+                    listener::onFailure);
+            // Handle add or update failed (step 1)
         }, listener::onFailure);
     }
 
@@ -409,22 +400,115 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
         List<IndexMonitorRequest> monitorRequests = new ArrayList<>();
 
-        for (Pair<String, Rule> query: logIndexToQueries.getRight()) {
-            Rule rule = query.getRight();
+        // Creating bucket level monitor per each group of aggregation rules
+        for (List<Rule> rules: groupBucketLevelRules(logIndexToQueries.getRight())) {
+            monitorRequests.add(createBucketLevelMonitorRequest(
+                rules,
+                logIndexToQueries.getLeft(),
+                detector,
+                refreshPolicy,
+                Monitor.NO_ID,
+                Method.POST,
+                queryBackendMap));
+        }
+        return monitorRequests;
+    }
 
-            // Creating bucket level monitor per each aggregation rule
-            if(rule.getAggregationQueries() != null){
-                monitorRequests.add(createBucketLevelMonitorRequest(
-                    query.getRight(),
-                    logIndexToQueries.getLeft(),
-                    detector,
-                    refreshPolicy,
-                    Monitor.NO_ID,
-                    Method.POST,
-                    queryBackendMap.get(rule.getCategory())));
+    /**
+     * Groups the aggregation rules which can share a bucket level monitor by the field their aggregation groups by, see
+     * {@link OSQueryBackend#isShareableAggregation}. The rules of a group share a bucket level monitor, which runs one
+     * search over the log index for all of them, the other rules get a bucket level monitor each.
+     */
+    private static List<List<Rule>> groupBucketLevelRules(List<Pair<String, Rule>> rulesById) throws SigmaError {
+        Map<String, List<Rule>> rulesByGroupByField = new LinkedHashMap<>();
+        List<List<Rule>> ruleGroups = new ArrayList<>();
+        for (Pair<String, Rule> query: rulesById) {
+            Rule rule = query.getRight();
+            if (rule.getAggregationQueries() != null) {
+                AggregationItem aggregationItem = rule.getAggregationItemsFromRule().get(0);
+                if (OSQueryBackend.isShareableAggregation(aggregationItem, rule.getId())) {
+                    rulesByGroupByField.computeIfAbsent(aggregationItem.getGroupByField(), it -> new ArrayList<>()).add(rule);
+                } else {
+                    ruleGroups.add(List.of(rule));
+                }
             }
         }
-        return monitorRequests;
+        ruleGroups.addAll(rulesByGroupByField.values());
+        return ruleGroups;
+    }
+
+    /**
+     * Creates the bucket level monitor shared by aggregation rules grouping by the same field. A rule which shares it
+     * with no other rule gets the same monitor as before rules were grouped, see
+     * {@link #createBucketLevelMonitorRequest(Rule, String, Detector, RefreshPolicy, String, Method, QueryBackend)}.
+     *
+     * Otherwise the monitor searches for the documents matching any of the rules, and buckets them by the group by
+     * field with a composite aggregation, which visits all the buckets. Each bucket has a filter sub-aggregation per
+     * rule, named by the rule id, computing the metric of the rule over the documents of the bucket matching the rule.
+     * The monitor has a single trigger, selecting the buckets for which the condition of any of the rules holds, as
+     * alerting creates findings only for bucket level monitors with a single trigger. Its findings are attributed to
+     * the rules by {@link org.opensearch.securityanalytics.findings.FindingsService}.
+     */
+    private IndexMonitorRequest createBucketLevelMonitorRequest(
+        List<Rule> rules,
+        String index,
+        Detector detector,
+        WriteRequest.RefreshPolicy refreshPolicy,
+        String monitorId,
+        RestRequest.Method restMethod,
+        Map<String, QueryBackend> queryBackendMap
+    ) throws SigmaError {
+        Rule firstRule = rules.get(0);
+        if (rules.size() == 1) {
+            return createBucketLevelMonitorRequest(firstRule, index, detector, refreshPolicy, monitorId, restMethod, queryBackendMap.get(firstRule.getCategory()));
+        }
+
+        String groupByField = firstRule.getAggregationItemsFromRule().get(0).getGroupByField();
+        BoolQueryBuilder query = QueryBuilders.boolQuery().minimumShouldMatch(1);
+        Map<String, Pair<AggregationItem, QueryBuilder>> aggregations = new LinkedHashMap<>();
+        for (Rule rule: rules) {
+            QueryBuilder ruleQuery = rule.getQueryBuilder();
+            query.should(ruleQuery);
+            aggregations.put(rule.getId(), Pair.of(rule.getAggregationItemsFromRule().get(0), ruleQuery));
+        }
+        AggregationQueries aggregationQueries = ((OSQueryBackend) queryBackendMap.get(firstRule.getCategory()))
+            .convertSharedAggregation(groupByField, aggregations);
+
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+            .seqNoAndPrimaryTerm(true)
+            .version(true)
+            .query(query)
+            .aggregation(aggregationQueries.getAggBuilder());
+
+        List<SearchInput> bucketLevelMonitorInputs = new ArrayList<>();
+        bucketLevelMonitorInputs.add(new SearchInput(Arrays.asList(index), searchSourceBuilder));
+
+        // the trigger is named after the rules and is as severe as the most severe of them
+        String name = rules.stream().map(Rule::getTitle).collect(Collectors.joining(", "));
+        String severity = rules.stream().map(Rule::getLevel).max(Comparator.comparingInt(TransportIndexDetectorAction::levelOrdinal)).get();
+        List<BucketLevelTrigger> triggers = new ArrayList<>();
+        triggers.add(new BucketLevelTrigger(groupByField, name, severity, aggregationQueries.getCondition(), Collections.emptyList()));
+
+        Monitor monitor = new Monitor(monitorId, Monitor.NO_VERSION, detector.getName(), detector.getEnabled(), detector.getSchedule(), detector.getLastUpdateTime(), detector.getEnabledTime(),
+            MonitorType.BUCKET_LEVEL_MONITOR, detector.getUser(), 1, bucketLevelMonitorInputs, triggers, Map.of(),
+            new DataSources(detector.getRuleIndex(),
+                detector.getFindingsIndex(),
+                detector.getFindingsIndexPattern(),
+                detector.getAlertsIndex(),
+                detector.getAlertsHistoryIndex(),
+                detector.getAlertsHistoryIndexPattern(),
+                DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType()),
+                true), PLUGIN_OWNER_FIELD);
+
+        return new IndexMonitorRequest(monitorId, SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy, restMethod, monitor, null);
+    }
+
+    private static int levelOrdinal(String level) {
+        try {
+            return SigmaLevel.valueOf(level.toUpperCase(Locale.ROOT)).ordinal();
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return -1;
+        }
     }
 
     private IndexMonitorRequest createBucketLevelMonitorRequest(
@@ -481,36 +565,71 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
     }
 
     /**
-     * Executes monitor related requests (PUT/POST) - returns the response once all the executions are completed
-     * @param indexMonitors  Monitors to be updated/added
-     * @param listener actionListener for handling updating/creating monitors
+     * Creates or updates monitors, with at most {@link SecurityAnalyticsSettings#MONITOR_PROVISIONING_CONCURRENCY}
+     * requests in flight. If any of the requests fails, the monitors created by the other requests are deleted, so
+     * that a detector which failed to be saved leaves no monitors behind.
+     * @param monitorRequests Monitors to be updated/added
+     * @param refreshPolicy
+     * @param listener Listener that accepts the responses in the order of the requests
      */
-    public void executeMonitorActionRequest(
-        List<IndexMonitorRequest> indexMonitors,
-        ActionListener<List<IndexMonitorResponse>> listener) {
+    private void provisionMonitors(List<IndexMonitorRequest> monitorRequests, RefreshPolicy refreshPolicy, ActionListener<List<IndexMonitorResponse>> listener) {
+        List<String> createdMonitorIds = Collections.synchronizedList(new ArrayList<>());
+        ActionListener<List<IndexMonitorResponse>> rollbackListener = new ActionListener<>() {
+            @Override
+            public void onResponse(List<IndexMonitorResponse> indexMonitorResponses) {
+                listener.onResponse(indexMonitorResponses);
+            }
 
-        // In the case of not provided monitors, just return empty list
-        if(indexMonitors == null || indexMonitors.isEmpty()) {
-            listener.onResponse(new ArrayList<>());
-            return;
+            @Override
+            public void onFailure(Exception e) {
+                rollbackMonitors(createdMonitorIds, refreshPolicy, e, listener);
+            }
+        };
+
+        if (monitorRequests.size() > 1 && !clusterService.state().metadata().hasIndex(ScheduledJob.SCHEDULED_JOBS_INDEX)) {
+            // Indexing the first monitor before the others, which creates the alerting config index, in order to prevent all shards failed error from alerting
+            // https://github.com/opensearch-project/alerting/issues/646
+            StepListener<List<IndexMonitorResponse>> indexFirstMonitorStep = new StepListener<>();
+            runMonitorRequests(monitorRequests.subList(0, 1), createdMonitorIds, indexFirstMonitorStep);
+            indexFirstMonitorStep.whenComplete(firstMonitorResponses ->
+                runMonitorRequests(monitorRequests.subList(1, monitorRequests.size()), createdMonitorIds, ActionListener.wrap(indexMonitorResponses -> {
+                    List<IndexMonitorResponse> monitorResponses = new ArrayList<>(firstMonitorResponses);
+                    monitorResponses.addAll(indexMonitorResponses);
+                    rollbackListener.onResponse(monitorResponses);
+                }, rollbackListener::onFailure)),
+                rollbackListener::onFailure);
+        } else {
+            runMonitorRequests(monitorRequests, createdMonitorIds, rollbackListener);
         }
+    }
 
-        GroupedActionListener<IndexMonitorResponse> monitorResponseListener = new GroupedActionListener(
-            new ActionListener<Collection<IndexMonitorResponse>>() {
-                @Override
-                public void onResponse(Collection<IndexMonitorResponse> indexMonitorResponse) {
-                    listener.onResponse(indexMonitorResponse.stream().collect(Collectors.toList()));
-                }
-                @Override
-                public void onFailure(Exception e) {
-                    listener.onFailure(e);
+    private void runMonitorRequests(List<IndexMonitorRequest> monitorRequests, List<String> createdMonitorIds, ActionListener<List<IndexMonitorResponse>> listener) {
+        BoundedActionRunner.<IndexMonitorRequest, IndexMonitorResponse>run(monitorRequests, monitorProvisioningConcurrency, (monitorRequest, monitorListener) ->
+            AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, monitorRequest, namedWriteableRegistry, ActionListener.wrap(indexMonitorResponse -> {
+                if (Monitor.NO_ID.equals(monitorRequest.getMonitorId())) {
+                    createdMonitorIds.add(indexMonitorResponse.getId());
                 }
-            }, indexMonitors.size());
+                monitorListener.onResponse(indexMonitorResponse);
+            }, monitorListener::onFailure)), listener);
+    }
 
-        // Persist monitors sequentially
-        for (IndexMonitorRequest req: indexMonitors) {
-            AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, req, namedWriteableRegistry, monitorResponseListener);
+    /**
+     * Deletes the monitors created before a monitor of the detector failed to be saved, then notifies the listener of
+     * the original failure
+     */
+    private void rollbackMonitors(List<String> monitorIds, RefreshPolicy refreshPolicy, Exception e, ActionListener<List<IndexMonitorResponse>> listener) {
+        if (monitorIds.isEmpty()) {
+            listener.onFailure(e);
+            return;
         }
+        log.info("Deleting monitors {} created before the detector failed to be saved", monitorIds);
+        deleteAlertingMonitors(new ArrayList<>(monitorIds), refreshPolicy, ActionListener.wrap(
+            deleteMonitorResponses -> listener.onFailure(e),
+            deleteException -> {
+                log.error(String.format(Locale.getDefault(), "Monitors %s could not be deleted", monitorIds), deleteException);
+                e.addSuppressed(deleteException);
+                listener.onFailure(e);
+            }));
     }
 
     /**
@@ -537,6 +656,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                     return false;
                 }).count() > 0) {
                     listener.onFailure(new OpenSearchStatusException("Monitor associated with detected could not be deleted", errorStatusSupplier.get()));
+                    return;
                 }
                 listener.onResponse(responses.stream().collect(Collectors.toList()));
             }
@@ -575,6 +695,155 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         }
     }
 
+    /**
+     * The cost of a rule, estimated from its yaml for rules indexed before costs were stored on rule docs.
+     *
+     * @return the cost, or null if the yaml of the rule cannot be parsed to estimate it
+     */
+    private Long getRuleCost(String ruleId, Rule rule) {
+        if (rule.getCost() != null) {
+            return rule.getCost();
+        }
+        try {
+            return RuleCostEstimator.estimate(SigmaRule.fromYaml(rule.getRule(), true, ruleMaxExpansionSize));
+        } catch (SigmaError ex) {
+            log.warn("Cost of rule " + ruleId + " cannot be estimated", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Creates or updates a detector of a bulk request, sharing the state of the bulk request with the other detectors.
+     */
+    void indexDetector(User user, Task task, IndexDetectorRequest request, BulkContext bulkContext, ActionListener<IndexDetectorResponse> listener) {
+        AsyncIndexDetectorsAction asyncAction = new AsyncIndexDetectorsAction(user, task, request, bulkContext, listener);
+        asyncAction.start();
+    }
+
+    /**
+     * State shared by the detectors of a bulk request. The field catalog of each log index and rule topic is collected
+     * once, and the pre-packaged rules are loaded by the first detector only.
+     */
+    static class BulkContext {
+
+        private final ConcurrentMap<Tuple<String, String>, StepListener<Set<String>>> fieldCatalogs = new ConcurrentHashMap<>();
+
+        private volatile boolean prepackagedRulesLoaded = false;
+
+        boolean isPrepackagedRulesLoaded() {
+            return prepackagedRulesLoaded;
+        }
+    }
+
+    /**
+     * Parses the rules referenced by any of the detectors into the {@link RuleCache}, searching each rule index once,
+     * so that the detectors of a bulk request referencing the same rules don't fetch and parse them again.
+     */
+    void prefetchRules(List<Detector> detectors, ActionListener<Void> listener) {
+        Set<String> prePackagedRuleIds = new HashSet<>();
+        Set<String> customRuleIds = new HashSet<>();
+        for (Detector detector: detectors) {
+            for (DetectorInput input: detector.getInputs()) {
+                input.getPrePackagedRules().forEach(rule -> prePackagedRuleIds.add(rule.getId()));
+                input.getCustomRules().forEach(rule -> customRuleIds.add(rule.getId()));
+            }
+        }
+
+        StepListener<Void> prePackagedRulesStep = new StepListener<>();
+        prefetchRules(Rule.PRE_PACKAGED_RULES_INDEX, ruleIndices.ruleIndexExists(true), prePackagedRuleIds, prePackagedRulesStep);
+        prePackagedRulesStep.whenComplete(
+                ignored -> prefetchRules(Rule.CUSTOM_RULES_INDEX, ruleIndices.ruleIndexExists(false), customRuleIds, listener),
+                listener::onFailure
+        );
+    }
+
+    private void prefetchRules(String ruleIndex, boolean ruleIndexExists, Set<String> ruleIds, ActionListener<Void> listener) {
+        if (!ruleIndexExists || ruleIds.isEmpty()) {
+            listener.onResponse(null);
+            return;
+        }
+        searchRules(ruleIndex, QueryBuilders.termsQuery("_id", ruleIds.toArray(new String[]{})), ruleIds.size(),
+                ActionListener.wrap(rules -> listener.onResponse(null), listener::onFailure));
+    }
+
+    /**
+     * Fetches the rules matching the query by id, in the order of the search hits. The rule documents are paged
+     * through without their source, and only the documents of the rules of a page missing from the
+     * {@link RuleCache} are fetched and parsed.
+     *
+     * @param maxRules most rules the query can match, i.e. the number of rule ids it looks up
+     */
+    private void searchRules(String ruleIndex, QueryBuilder queryBuilder, int maxRules, ActionListener<List<Pair<String, Rule>>> listener) {
+        Map<String, Rule> rules = new LinkedHashMap<>();
+        PointInTimePager.forEachPage(client, ruleIndex, queryBuilder, maxRules, false, PointInTimePager.DEFAULT_PAGE_SIZE, (hits, pageListener) -> {
+            List<String> missingRuleIds = new ArrayList<>();
+            for (SearchHit hit: hits) {
+                Rule rule = ruleCache.get(ruleIndex, hit.getId(), hit.getSeqNo(), hit.getPrimaryTerm());
+                rules.put(hit.getId(), rule);
+                if (rule == null) {
+                    missingRuleIds.add(hit.getId());
+                }
+            }
+
+            if (missingRuleIds.isEmpty()) {
+                pageListener.onResponse(null);
+            } else {
+                fetchRules(ruleIndex, missingRuleIds, rules, pageListener);
+            }
+        }, ActionListener.wrap(ignored -> listener.onResponse(toQueries(rules)), listener::onFailure));
+    }
+
+    private void fetchRules(String ruleIndex, List<String> ruleIds, Map<String, Rule> rules, ActionListener<Void> listener) {
+        SearchRequest searchRequest = new SearchRequest(ruleIndex)
+                .source(new SearchSourceBuilder()
+                        .seqNoAndPrimaryTerm(true)
+                        .version(true)
+                        .query(QueryBuilders.termsQuery("_id", ruleIds.toArray(new String[]{})))
+                        .size(ruleIds.size()));
+
+        client.search(searchRequest, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                if (response.isTimedOut()) {
+                    listener.onFailure(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
+                    return;
+                }
+
+                try {
+                    for (SearchHit hit: response.getHits()) {
+                        XContentParser xcp = XContentType.JSON.xContent().createParser(
+                                xContentRegistry,
+                                LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+                        );
+
+                        Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
+                        ruleCache.put(ruleIndex, hit.getId(), hit.getSeqNo(), hit.getPrimaryTerm(), rule);
+                        rules.put(hit.getId(), rule);
+                    }
+                    listener.onResponse(null);
+                } catch (IOException e) {
+                    listener.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private static List<Pair<String, Rule>> toQueries(Map<String, Rule> rules) {
+        List<Pair<String, Rule>> queries = new ArrayList<>();
+        for (Map.Entry<String, Rule> rule: rules.entrySet()) {
+            // rules deleted between the searches are left out
+            if (rule.getValue() != null) {
+                queries.add(Pair.of(rule.getKey(), rule.getValue()));
+            }
+        }
+        return queries;
+    }
+
     class AsyncIndexDetectorsAction {
         private final IndexDetectorRequest request;
 
@@ -583,12 +852,15 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         private final AtomicBoolean counter = new AtomicBoolean();
         private final Task task;
         private final User user;
+        private final List<String> excludedRuleIds = new ArrayList<>();
+        private final BulkContext bulkContext;
 
-        AsyncIndexDetectorsAction(User user, Task task, IndexDetectorRequest request, ActionListener<IndexDetectorResponse> listener) {
+        AsyncIndexDetectorsAction(User user, Task task, IndexDetectorRequest request, BulkContext bulkContext, ActionListener<IndexDetectorResponse> listener) {
             this.task = task;
             this.request = request;
             this.listener = listener;
             this.user = user;
+            this.bulkContext = bulkContext;
 
             this.response = new AtomicReference<>();
         }
@@ -810,6 +1082,11 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         }
 
         public void initRuleIndexAndImportRules(IndexDetectorRequest request, ActionListener<List<IndexMonitorResponse>> listener) {
+            if (bulkContext != null && bulkContext.prepackagedRulesLoaded) {
+                importRules(request, listener);
+                return;
+            }
+
             ruleIndices.initPrepackagedRulesIndex(
                     new ActionListener<>() {
                         @Override
@@ -842,32 +1119,22 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                         @Override
                         public void onResponse(AcknowledgedResponse response) {
                             ruleIndices.onUpdateMappingsResponse(response, true);
-                            ruleIndices.deleteRules(new ActionListener<>() {
-                                @Override
-                                public void onResponse(BulkByScrollResponse response) {
-                                    ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
-                                            new ActionListener<>() {
-                                                @Override
-                                                public void onResponse(BulkResponse response) {
-                                                    if (!response.hasFailures()) {
-                                                        importRules(request, listener);
-                                                    } else {
-                                                        onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
-                                                    }
-                                                }
-
-                                                @Override
-                                                public void onFailure(Exception e) {
-                                                    onFailures(e);
-                                                }
-                                            });
-                                }
+                            ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
+                                    new ActionListener<>() {
+                                        @Override
+                                        public void onResponse(BulkResponse response) {
+                                            if (!response.hasFailures()) {
+                                                importRules(request, listener);
+                                            } else {
+                                                onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
+                                            }
+                                        }
 
-                                @Override
-                                public void onFailure(Exception e) {
-                                    onFailures(e);
-                                }
-                            });
+                                        @Override
+                                        public void onFailure(Exception e) {
+                                            onFailures(e);
+                                        }
+                                    });
                         }
 
                         @Override
@@ -915,6 +1182,9 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
         @SuppressWarnings("unchecked")
         public void importRules(IndexDetectorRequest request, ActionListener<List<IndexMonitorResponse>> listener) {
+            if (bulkContext != null) {
+                bulkContext.prepackagedRulesLoaded = true;
+            }
             final Detector detector = request.getDetector();
             final String ruleTopic = detector.getDetectorType();
             final DetectorInput detectorInput = detector.getInputs().get(0);
@@ -932,49 +1202,15 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                             ScoreMode.Avg
                     );
 
-            SearchRequest searchRequest = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX)
-                    .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
-
-            client.search(searchRequest, new ActionListener<>() {
+            searchRules(Rule.PRE_PACKAGED_RULES_INDEX, queryBuilder, ruleIds.size(), new ActionListener<>() {
                 @Override
-                public void onResponse(SearchResponse response) {
-                    if (response.isTimedOut()) {
-                        onFailures(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
-                    }
-
-                    SearchHits hits = response.getHits();
-                    List<Pair<String, Rule>> queries = new ArrayList<>();
-
-                    try {
-                        for (SearchHit hit: hits) {
-                            XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                    xContentRegistry,
-                                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                            );
-
-                            Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
-                            String id = hit.getId();
-
-                            queries.add(Pair.of(id, rule));
-                        }
-
-                        if (ruleIndices.ruleIndexExists(false)) {
-                            importCustomRules(detector, detectorInput, queries, listener);
-                        } else if (detectorInput.getCustomRules().size() > 0) {
-                            onFailures(new OpenSearchStatusException("Custom Rule Index not found", RestStatus.BAD_REQUEST));
-                        } else {
-                            if (request.getMethod() == RestRequest.Method.POST) {
-                                createMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
-                            } else if (request.getMethod() == RestRequest.Method.PUT) {
-                                updateMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
-                            }
-                        }
-                    } catch (IOException | SigmaError e) {
-                        onFailures(e);
+                public void onResponse(List<Pair<String, Rule>> queries) {
+                    if (ruleIndices.ruleIndexExists(false)) {
+                        importCustomRules(detector, detectorInput, queries, listener);
+                    } else if (detectorInput.getCustomRules().size() > 0) {
+                        onFailures(new OpenSearchStatusException("Custom Rule Index not found", RestStatus.BAD_REQUEST));
+                    } else {
+                        indexMonitors(detector, logIndex, queries, listener);
                     }
                 }
 
@@ -991,52 +1227,139 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             List<String> ruleIds = detectorInput.getCustomRules().stream().map(DetectorRule::getId).collect(Collectors.toList());
 
             QueryBuilder queryBuilder = QueryBuilders.termsQuery("_id", ruleIds.toArray(new String[]{}));
-            SearchRequest searchRequest = new SearchRequest(Rule.CUSTOM_RULES_INDEX)
-                    .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
-
-            client.search(searchRequest, new ActionListener<>() {
+            searchRules(Rule.CUSTOM_RULES_INDEX, queryBuilder, ruleIds.size(), new ActionListener<>() {
                 @Override
-                public void onResponse(SearchResponse response) {
-                    if (response.isTimedOut()) {
-                        onFailures(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
-                    }
+                public void onResponse(List<Pair<String, Rule>> customQueries) {
+                    queries.addAll(customQueries);
+                    indexMonitors(detector, logIndex, queries, listener);
+                }
 
-                    SearchHits hits = response.getHits();
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
 
-                    try {
-                        for (SearchHit hit : hits) {
-                            XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                    xContentRegistry,
-                                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                            );
+        /**
+         * The field catalog of the log index, collected once for all the detectors of a bulk request.
+         */
+        private void getIndexFieldCatalog(String logIndex, String ruleTopic, ActionListener<Set<String>> listener) {
+            if (bulkContext == null) {
+                ruleValidator.getIndexFieldCatalog(logIndex, ruleTopic, listener);
+                return;
+            }
 
-                            Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
-                            String id = hit.getId();
+            StepListener<Set<String>> fieldCatalog = new StepListener<>();
+            StepListener<Set<String>> sharedFieldCatalog = bulkContext.fieldCatalogs.putIfAbsent(Tuple.tuple(logIndex, ruleTopic), fieldCatalog);
+            if (sharedFieldCatalog == null) {
+                ruleValidator.getIndexFieldCatalog(logIndex, ruleTopic, fieldCatalog);
+                sharedFieldCatalog = fieldCatalog;
+            }
+            sharedFieldCatalog.whenComplete(listener::onResponse, listener::onFailure);
+        }
 
-                            queries.add(Pair.of(id, rule));
+        /**
+         * Creates or updates the monitors of the detector, leaving out of the doc-level monitor the rules which cannot
+         * match any document because of fields the log index doesn't have, see {@link RuleValidator#isSatisfiable}.
+         * Without a field catalog of the log index all rules are kept. The excluded rules are decided again on every
+         * update of the detector.
+         */
+        private void indexMonitors(Detector detector, String logIndex, List<Pair<String, Rule>> queries, ActionListener<List<IndexMonitorResponse>> listener) {
+            getIndexFieldCatalog(logIndex, detector.getDetectorType(), new ActionListener<>() {
+                @Override
+                public void onResponse(Set<String> indexFields) {
+                    List<Pair<String, Rule>> applicableQueries = queries;
+                    if (!indexFields.isEmpty()) {
+                        applicableQueries = new ArrayList<>(queries.size());
+                        for (Pair<String, Rule> query: queries) {
+                            if (!query.getRight().isAggregationRule() && !RuleValidator.isSatisfiable(query.getRight(), indexFields, ruleMaxExpansionSize)) {
+                                excludedRuleIds.add(query.getLeft());
+                            } else {
+                                applicableQueries.add(query);
+                            }
                         }
-
-                        if (request.getMethod() == RestRequest.Method.POST) {
-                            createMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
-                        } else if (request.getMethod() == RestRequest.Method.PUT) {
-                            updateMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
+                        if (!excludedRuleIds.isEmpty()) {
+                            log.info("{} rules of detector {} cannot match because of fields missing from index {} and are not added to its doc-level monitor",
+                                    excludedRuleIds.size(), detector.getName(), logIndex);
                         }
-                    } catch (IOException | SigmaError ex) {
-                        onFailures(ex);
                     }
+                    createOrUpdateMonitors(detector, logIndex, applicableQueries, listener);
                 }
 
                 @Override
                 public void onFailure(Exception e) {
-                    onFailures(e);
+                    log.debug("Fields of index " + logIndex + " cannot be resolved, all rules of the detector are kept", e);
+                    createOrUpdateMonitors(detector, logIndex, queries, listener);
                 }
             });
         }
 
+        private void createOrUpdateMonitors(Detector detector, String logIndex, List<Pair<String, Rule>> queries, ActionListener<List<IndexMonitorResponse>> listener) {
+            if (!withinCostBudget(detector, queries)) {
+                return;
+            }
+            try {
+                if (request.getMethod() == RestRequest.Method.POST) {
+                    createMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
+                } else if (request.getMethod() == RestRequest.Method.PUT) {
+                    updateMonitorFromQueries(logIndex, queries, detector, listener, request.getRefreshPolicy());
+                }
+            } catch (IOException | SigmaError e) {
+                onFailures(e);
+            }
+        }
+
+        /**
+         * Checks the total estimated cost of the rules of the detector against the cost budget of the detector, if it
+         * has one. Over budget, the detector is either rejected before any monitor is created, or only logged.
+         *
+         * @return false if the detector was rejected
+         */
+        private boolean withinCostBudget(Detector detector, List<Pair<String, Rule>> queries) {
+            DetectorCostBudget budget = detector.getCostBudget();
+            if (budget == null) {
+                return true;
+            }
+
+            List<Pair<String, Long>> ruleCosts = new ArrayList<>(queries.size());
+            List<String> unestimatedRuleIds = new ArrayList<>();
+            for (Pair<String, Rule> query: queries) {
+                Long cost = getRuleCost(query.getLeft(), query.getRight());
+                if (cost == null) {
+                    unestimatedRuleIds.add(query.getLeft());
+                } else {
+                    ruleCosts.add(Pair.of(query.getLeft(), cost));
+                }
+            }
+            ruleCosts.sort(Comparator.comparing(Pair<String, Long>::getRight).reversed());
+            long totalCost = ruleCosts.stream().mapToLong(Pair::getRight).sum();
+
+            String message;
+            if (!unestimatedRuleIds.isEmpty()) {
+                // a rule of unknown cost could exceed any budget
+                message = String.format(Locale.getDefault(),
+                        "Cost of the rules %s of detector %s cannot be estimated against its budget of %d",
+                        unestimatedRuleIds, detector.getName(), budget.getMaxCost());
+            } else if (totalCost > budget.getMaxCost()) {
+                message = String.format(Locale.getDefault(),
+                        "Estimated cost %d of the rules of detector %s exceeds its budget of %d, the most expensive rules are %s",
+                        totalCost, detector.getName(), budget.getMaxCost(),
+                        ruleCosts.subList(0, Math.min(5, ruleCosts.size())).stream()
+                                .map(ruleCost -> ruleCost.getLeft() + " (" + ruleCost.getRight() + ")")
+                                .collect(Collectors.joining(", ")));
+            } else {
+                return true;
+            }
+
+            if (budget.getAction() == DetectorCostBudget.Action.WARN) {
+                log.warn(message);
+                return true;
+            }
+            onFailures(new OpenSearchStatusException(message, RestStatus.BAD_REQUEST));
+            return false;
+        }
+
         public void indexDetector() throws IOException {
             IndexRequest indexRequest;
             if (request.getMethod() == RestRequest.Method.POST) {
@@ -1062,7 +1385,13 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
                 @Override
                 public void onFailure(Exception e) {
-                    onFailures(e);
+                    if (request.getMethod() == RestRequest.Method.POST && request.getDetector().getMonitorIds() != null) {
+                        // the monitors of a detector which failed to be created are not referenced by any detector
+                        rollbackMonitors(request.getDetector().getMonitorIds(), request.getRefreshPolicy(), e, ActionListener.wrap(
+                            monitorResponses -> {}, AsyncIndexDetectorsAction.this::onFailures));
+                    } else {
+                        onFailures(e);
+                    }
                 }
             });
         }
@@ -1085,7 +1414,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                 if (t != null) {
                     throw SecurityAnalyticsException.wrap(t);
                 } else {
-                    return new IndexDetectorResponse(detector.getId(), detector.getVersion(), request.getMethod() == RestRequest.Method.POST? RestStatus.CREATED: RestStatus.OK, detector);
+                    return new IndexDetectorResponse(detector.getId(), detector.getVersion(), request.getMethod() == RestRequest.Method.POST? RestStatus.CREATED: RestStatus.OK, detector, excludedRuleIds);
                 }
             }));
         }
@@ -1096,25 +1425,30 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         }
 
         /**
-         * Creates a map of monitor ids. In the case of bucket level monitors pairs are: RuleId - MonitorId
+         * Creates a map of monitor ids. In the case of bucket level monitors pairs are: RuleId - MonitorId, rules sharing
+         * a bucket level monitor map to the same monitor id
          * In the case of doc level monitor pair is DOC_LEVEL_MONITOR(value) - MonitorId
          * @param monitorResponses index monitor responses
          * @return map of monitor ids
          */
         private Map<String, String> mapMonitorIds(List<IndexMonitorResponse> monitorResponses) {
-            return monitorResponses.stream().collect(
-                    Collectors.toMap(
+            Map<String, String> monitorIds = new HashMap<>();
+            for (IndexMonitorResponse monitorResponse: monitorResponses) {
+                if (MonitorType.BUCKET_LEVEL_MONITOR == monitorResponse.getMonitor().getMonitorType()) {
+                    SearchInput input = (SearchInput) monitorResponse.getMonitor().getInputs().get(0);
+                    AggregationBuilder aggBuilder = input.getQuery().aggregations().getAggregatorFactories().iterator().next();
+                    if (aggBuilder instanceof CompositeAggregationBuilder) {
+                        // In the case of shared bucket level monitors rule ids are the names of the filter sub-aggregations
+                        aggBuilder.getSubAggregations().forEach(filter -> monitorIds.put(filter.getName(), monitorResponse.getId()));
+                    } else {
                         // In the case of bucket level monitors rule id is trigger id
-                        it -> {
-                            if (MonitorType.BUCKET_LEVEL_MONITOR == it.getMonitor().getMonitorType()) {
-                                return it.getMonitor().getTriggers().get(0).getId();
-                            } else {
-                                return Detector.DOC_LEVEL_MONITOR;
-                            }
-                        },
-                        IndexMonitorResponse::getId
-                    )
-                );
+                        monitorIds.put(monitorResponse.getMonitor().getTriggers().get(0).getId(), monitorResponse.getId());
+                    }
+                } else {
+                    monitorIds.put(Detector.DOC_LEVEL_MONITOR, monitorResponse.getId());
+                }
+            }
+            return monitorIds;
         }
     }
 
@@ -1122,4 +1456,12 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         this.filterByEnabled = filterByEnabled;
     }
 
+    private void setMonitorProvisioningConcurrency(int monitorProvisioningConcurrency) {
+        this.monitorProvisioningConcurrency = monitorProvisioningConcurrency;
+    }
+
+    private void setRuleMaxExpansionSize(int ruleMaxExpansionSize) {
+        this.ruleMaxExpansionSize = ruleMaxExpansionSize;
+    }
+
 }
\ No newline at end of file
@@ -46,11 +46,15 @@ import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
 import org.opensearch.securityanalytics.rules.backend.QueryBackend;
+import org.opensearch.securityanalytics.rules.backend.RuleCostEstimator;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
 import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.util.BoundedActionRunner;
 import org.opensearch.securityanalytics.util.DetectorIndices;
 import org.opensearch.securityanalytics.util.IndexUtils;
+import org.opensearch.securityanalytics.util.PointInTimePager;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
@@ -64,7 +68,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -75,10 +78,14 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
 
     private static final Logger log = LogManager.getLogger(TransportIndexRuleAction.class);
 
+    private static final int MAX_IN_FLIGHT_DETECTOR_UPDATES = 8;
+
     private final Client client;
 
     private final RuleIndices ruleIndices;
 
+    private final RuleCache ruleCache;
+
     private final DetectorIndices detectorIndices;
 
     private final ThreadPool threadPool;
@@ -91,18 +98,24 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
 
     private volatile TimeValue indexTimeout;
 
+    private volatile int ruleMaxExpansionSize;
+
     @Inject
-    public TransportIndexRuleAction(TransportService transportService, Client client, ActionFilters actionFilters, ClusterService clusterService, DetectorIndices detectorIndices, RuleIndices ruleIndices, NamedXContentRegistry xContentRegistry, Settings settings) {
+    public TransportIndexRuleAction(TransportService transportService, Client client, ActionFilters actionFilters, ClusterService clusterService, DetectorIndices detectorIndices, RuleIndices ruleIndices, RuleCache ruleCache, NamedXContentRegistry xContentRegistry, Settings settings) {
         super(IndexRuleAction.NAME, transportService, actionFilters, IndexRuleRequest::new);
         this.client = client;
         this.detectorIndices = detectorIndices;
         this.ruleIndices = ruleIndices;
+        this.ruleCache = ruleCache;
         this.threadPool = ruleIndices.getThreadPool();
         this.clusterService = clusterService;
         this.xContentRegistry = xContentRegistry;
         this.settings = settings;
 
         this.indexTimeout = SecurityAnalyticsSettings.INDEX_TIMEOUT.get(this.settings);
+        this.ruleMaxExpansionSize = SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE.get(this.settings);
+
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE, this::setRuleMaxExpansionSize);
     }
 
     @Override
@@ -117,7 +130,6 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
         private final ActionListener<IndexRuleResponse> listener;
         private final AtomicReference<Object> response;
         private final AtomicBoolean counter = new AtomicBoolean();
-        private final AtomicInteger checker = new AtomicInteger();
         private final Task task;
 
         AsyncIndexRulesAction(Task task, IndexRuleRequest request, ActionListener<IndexRuleResponse> listener) {
@@ -174,7 +186,7 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
             String category = request.getLogType();
 
             try {
-                SigmaRule parsedRule = SigmaRule.fromYaml(rule, true);
+                SigmaRule parsedRule = SigmaRule.fromYaml(rule, true, ruleMaxExpansionSize);
                 if (parsedRule.getErrors() != null && parsedRule.getErrors().size() > 0) {
                     onFailures(parsedRule.getErrors().toArray(new SigmaError[]{}));
                     return;
@@ -183,12 +195,14 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                 final QueryBackend backend = new OSQueryBackend(category, true, true);
                 List<Object> queries = backend.convertRule(parsedRule);
                 Set<String> queryFieldNames = backend.getQueryFields().keySet();
+
                 Rule ruleDoc = new Rule(
                         NO_ID, NO_VERSION, parsedRule, category,
                         queries,
                         new ArrayList<>(queryFieldNames),
                         rule
                 );
+                ruleDoc.setCost(RuleCostEstimator.estimate(parsedRule));
                 indexRule(ruleDoc);
             } catch (IOException | SigmaError e) {
                 onFailures(e);
@@ -206,34 +220,16 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                                 return;
                             }
 
-                            if (response.getHits().getTotalHits().value > 0) {
-                                if (!request.isForced()) {
-                                    onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s is actively used by detectors. Update can be forced by setting forced flag to true", request.getRuleId()), RestStatus.BAD_REQUEST));
-                                    return;
-                                }
+                            boolean usedByDetectors = response.getHits().getTotalHits().value > 0;
+                            if (usedByDetectors && !request.isForced()) {
+                                onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s is actively used by detectors. Update can be forced by setting forced flag to true", request.getRuleId()), RestStatus.BAD_REQUEST));
+                                return;
+                            }
 
-                                List<Detector> detectors = new ArrayList<>();
-                                try {
-                                    for (SearchHit hit : response.getHits()) {
-                                        XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                                xContentRegistry,
-                                                LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                                        );
-
-                                        Detector detector = Detector.docParse(xcp, hit.getId(), hit.getVersion());
-                                        detectors.add(detector);
-                                    }
-
-                                    updateRule(rule, detectors);
-                                } catch (IOException ex) {
-                                    onFailures(ex);
-                                }
-                            } else {
-                                try {
-                                    updateRule(rule, List.of());
-                                } catch (IOException ex) {
-                                    onFailures(ex);
-                                }
+                            try {
+                                updateRule(rule, usedByDetectors);
+                            } catch (IOException ex) {
+                                onFailures(ex);
                             }
                         }
 
@@ -243,7 +239,7 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                         }
                     });
                 } else {
-                    updateRule(rule, List.of());
+                    updateRule(rule, false);
                 }
             } else {
                 IndexRequest indexRequest = new IndexRequest(Rule.CUSTOM_RULES_INDEX)
@@ -266,45 +262,60 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
             }
         }
 
-        private void searchDetectors(String ruleId, ActionListener<SearchResponse> listener) {
-            QueryBuilder queryBuilder =
-                    QueryBuilders.nestedQuery("detector.inputs.detector_input.custom_rules",
-                            QueryBuilders.boolQuery().must(
-                                    QueryBuilders.matchQuery("detector.inputs.detector_input.custom_rules.id", ruleId)
-                            ), ScoreMode.Avg);
+        private QueryBuilder detectorsQuery(String ruleId) {
+            return QueryBuilders.nestedQuery("detector.inputs.detector_input.custom_rules",
+                    QueryBuilders.boolQuery().must(
+                            QueryBuilders.matchQuery("detector.inputs.detector_input.custom_rules.id", ruleId)
+                    ), ScoreMode.Avg);
+        }
 
+        /**
+         * Counts the detectors using the rule, the detectors themselves are paged through by {@link #updateDetectors}.
+         */
+        private void searchDetectors(String ruleId, ActionListener<SearchResponse> listener) {
             SearchRequest searchRequest = new SearchRequest(Detector.DETECTORS_INDEX)
                     .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
+                            .query(detectorsQuery(ruleId))
+                            .size(0));
 
             client.search(searchRequest, listener);
         }
 
-        private void updateDetectors(IndexResponse indexResponse, Rule rule, List<Detector> detectors) {
-            for (Detector detector: detectors) {
-                IndexDetectorRequest indexRequest = new IndexDetectorRequest(detector.getId(), request.getRefreshPolicy(), RestRequest.Method.PUT, detector);
-                client.execute(IndexDetectorAction.INSTANCE, indexRequest,
-                        new ActionListener<>() {
-                            @Override
-                            public void onResponse(IndexDetectorResponse response) {
-                                if (response.getStatus() != RestStatus.OK) {
-                                    onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s cannot be updated", request.getRuleId()), RestStatus.INTERNAL_SERVER_ERROR));
-                                }
-                                onComplete(indexResponse, rule, detectors.size());
-                            }
+        /**
+         * Updates the detectors using the rule a page at a time, at most {@link #MAX_IN_FLIGHT_DETECTOR_UPDATES} of
+         * a page concurrently.
+         */
+        private void updateDetectors(IndexResponse indexResponse, Rule rule) {
+            PointInTimePager.forEachPage(client, Detector.DETECTORS_INDEX, detectorsQuery(request.getRuleId()), true, PointInTimePager.DEFAULT_PAGE_SIZE, (hits, pageListener) -> {
+                List<Detector> detectors = new ArrayList<>();
+                try {
+                    for (SearchHit hit : hits) {
+                        XContentParser xcp = XContentType.JSON.xContent().createParser(
+                                xContentRegistry,
+                                LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+                        );
+
+                        detectors.add(Detector.docParse(xcp, hit.getId(), hit.getVersion()));
+                    }
+                } catch (IOException ex) {
+                    pageListener.onFailure(ex);
+                    return;
+                }
 
-                            @Override
-                            public void onFailure(Exception e) {
-                                onFailures(e);
-                            }
-                        });
-            }
+                BoundedActionRunner.<Detector, IndexDetectorResponse>run(detectors, MAX_IN_FLIGHT_DETECTOR_UPDATES, (detector, detectorListener) -> {
+                    IndexDetectorRequest indexRequest = new IndexDetectorRequest(detector.getId(), request.getRefreshPolicy(), RestRequest.Method.PUT, detector);
+                    client.execute(IndexDetectorAction.INSTANCE, indexRequest, ActionListener.wrap(response -> {
+                        if (response.getStatus() != RestStatus.OK) {
+                            detectorListener.onFailure(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s cannot be updated", request.getRuleId()), RestStatus.INTERNAL_SERVER_ERROR));
+                            return;
+                        }
+                        detectorListener.onResponse(response);
+                    }, detectorListener::onFailure));
+                }, ActionListener.wrap(responses -> pageListener.onResponse(null), pageListener::onFailure));
+            }, ActionListener.wrap(ignored -> onOperation(indexResponse, rule), this::onFailures));
         }
 
-        private void updateRule(Rule rule, List<Detector> detectors) throws IOException {
+        private void updateRule(Rule rule, boolean updateDetectors) throws IOException {
             IndexRequest indexRequest = new IndexRequest(Rule.CUSTOM_RULES_INDEX)
                     .setRefreshPolicy(request.getRefreshPolicy())
                     .source(rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
@@ -315,9 +326,10 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                 @Override
                 public void onResponse(IndexResponse response) {
                     rule.setId(response.getId());
+                    ruleCache.invalidate(Rule.CUSTOM_RULES_INDEX, response.getId());
 
-                    if (detectors.size() > 0) {
-                        updateDetectors(response, rule, detectors);
+                    if (updateDetectors) {
+                        updateDetectors(response, rule);
                     } else {
                         onOperation(response, rule);
                     }
@@ -330,12 +342,6 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
             });
         }
 
-        private void onComplete(IndexResponse response, Rule rule, int target) {
-            if (checker.incrementAndGet() == target) {
-                onOperation(response, rule);
-            }
-        }
-
         private void onOperation(IndexResponse response, Rule rule) {
             this.response.set(response);
             if (counter.compareAndSet(false, true)) {
@@ -363,4 +369,8 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
             }));
         }
     }
+
+    private void setRuleMaxExpansionSize(int ruleMaxExpansionSize) {
+        this.ruleMaxExpansionSize = ruleMaxExpansionSize;
+    }
 }
\ No newline at end of file
@@ -22,7 +22,6 @@ import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
-import org.opensearch.index.reindex.BulkByScrollResponse;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.securityanalytics.action.SearchRuleAction;
 import org.opensearch.securityanalytics.action.SearchRuleRequest;
@@ -121,32 +120,22 @@ public class TransportSearchRuleAction extends HandledTransportAction<SearchRule
                             @Override
                             public void onResponse(AcknowledgedResponse response) {
                                 ruleIndices.onUpdateMappingsResponse(response, true);
-                                ruleIndices.deleteRules(new ActionListener<>() {
-                                    @Override
-                                    public void onResponse(BulkByScrollResponse response) {
-                                        ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
-                                                new ActionListener<>() {
-                                                    @Override
-                                                    public void onResponse(BulkResponse response) {
-                                                        if (!response.hasFailures()) {
-                                                            search(request.getSearchRequest());
-                                                        } else {
-                                                            onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
-                                                        }
-                                                    }
+                                ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
+                                        new ActionListener<>() {
+                                            @Override
+                                            public void onResponse(BulkResponse response) {
+                                                if (!response.hasFailures()) {
+                                                    search(request.getSearchRequest());
+                                                } else {
+                                                    onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
+                                                }
+                                            }
 
-                                                    @Override
-                                                    public void onFailure(Exception e) {
-                                                        onFailures(e);
-                                                    }
-                                                });
-                                    }
-
-                                    @Override
-                                    public void onFailure(Exception e) {
-                                        onFailures(e);
-                                    }
-                                });
+                                            @Override
+                                            public void onFailure(Exception e) {
+                                                onFailures(e);
+                                            }
+                                        });
                             }
 
                             @Override
@@ -0,0 +1,208 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.TestRulesAction;
+import org.opensearch.securityanalytics.action.TestRulesRequest;
+import org.opensearch.securityanalytics.action.TestRulesResponse;
+import org.opensearch.securityanalytics.action.TestRulesResponse.RuleResult;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.evaluator.RuleLiteralIndex;
+import org.opensearch.securityanalytics.rules.evaluator.SigmaRuleEvaluator;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates rules against sample events in-process, without creating monitors or indexing the events.
+ */
+public class TransportTestRulesAction extends HandledTransportAction<TestRulesRequest, TestRulesResponse> {
+
+    private static final Logger log = LogManager.getLogger(TransportTestRulesAction.class);
+
+    private final Client client;
+
+    private final ThreadPool threadPool;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    private volatile int ruleMaxExpansionSize;
+
+    @Inject
+    public TransportTestRulesAction(TransportService transportService, Client client, ActionFilters actionFilters, ThreadPool threadPool,
+                                    NamedXContentRegistry xContentRegistry, ClusterService clusterService, Settings settings) {
+        super(TestRulesAction.NAME, transportService, actionFilters, TestRulesRequest::new);
+        this.client = client;
+        this.threadPool = threadPool;
+        this.xContentRegistry = xContentRegistry;
+        this.ruleMaxExpansionSize = SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE.get(settings);
+
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_MAX_EXPANSION_SIZE, this::setRuleMaxExpansionSize);
+    }
+
+    @Override
+    protected void doExecute(Task task, TestRulesRequest request, ActionListener<TestRulesResponse> listener) {
+        List<RuleSource> rules = new ArrayList<>();
+        for (String rule: request.getRules()) {
+            rules.add(new RuleSource(null, request.getCategory(), rule));
+        }
+
+        if (request.getRuleIds().isEmpty()) {
+            evaluateRules(rules, request.getEvents(), listener);
+            return;
+        }
+
+        // the number of rule ids is capped by TestRulesRequest.MAX_RULES, so they are found by a single search
+        List<String> ruleIds = request.getRuleIds().stream().distinct().collect(Collectors.toList());
+        SearchRequest searchRequest = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX, Rule.CUSTOM_RULES_INDEX)
+                .indicesOptions(IndicesOptions.lenientExpandOpen())
+                .source(new SearchSourceBuilder()
+                        .query(QueryBuilders.idsQuery().addIds(ruleIds.toArray(new String[]{})))
+                        .size(ruleIds.size()));
+
+        client.search(searchRequest, ActionListener.wrap(response -> {
+            Map<String, RuleSource> storedRules = new HashMap<>();
+            for (SearchHit hit: response.getHits()) {
+                XContentParser xcp = XContentType.JSON.xContent().createParser(
+                        xContentRegistry,
+                        LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+                );
+                Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
+                storedRules.put(hit.getId(), new RuleSource(hit.getId(), rule.getCategory(), rule.getRule()));
+            }
+            for (String ruleId: ruleIds) {
+                rules.add(storedRules.getOrDefault(ruleId, new RuleSource(ruleId, null, null)));
+            }
+            evaluateRules(rules, request.getEvents(), listener);
+        }, listener::onFailure));
+    }
+
+    private void evaluateRules(List<RuleSource> rules, List<Map<String, Object>> events, ActionListener<TestRulesResponse> listener) {
+        threadPool.executor(SecurityAnalyticsPlugin.RULE_COMPILATION_THREAD_POOL).execute(ActionRunnable.supply(listener, () -> {
+            RuleResult[] results = new RuleResult[rules.size()];
+
+            Map<String, List<Integer>> categories = new LinkedHashMap<>();
+            List<SigmaRule> parsedRules = new ArrayList<>(rules.size());
+            for (int idx = 0; idx < rules.size(); ++idx) {
+                RuleSource source = rules.get(idx);
+                if (source.rule == null) {
+                    parsedRules.add(null);
+                    results[idx] = new RuleResult(source.id, null, List.of(), String.format(Locale.getDefault(), "Rule with %s is not found", source.id));
+                    continue;
+                }
+                try {
+                    SigmaRule rule = SigmaRule.fromYaml(source.rule, true, ruleMaxExpansionSize);
+                    parsedRules.add(rule);
+                    if (rule.getErrors() != null && rule.getErrors().size() > 0) {
+                        results[idx] = new RuleResult(ruleId(source, rule), rule.getTitle(), List.of(), rule.getErrors().get(0).getMessage());
+                    } else {
+                        categories.computeIfAbsent(source.category, key -> new ArrayList<>()).add(idx);
+                    }
+                } catch (SigmaError | RuntimeException ex) {
+                    log.debug("Rule cannot be parsed", ex);
+                    parsedRules.add(null);
+                    results[idx] = new RuleResult(source.id, null, List.of(), ex.getMessage());
+                }
+            }
+
+            for (Map.Entry<String, List<Integer>> category: categories.entrySet()) {
+                List<SigmaRule> categoryRules = new ArrayList<>(category.getValue().size());
+                for (Integer idx: category.getValue()) {
+                    categoryRules.add(parsedRules.get(idx));
+                }
+                evaluateCategory(category.getKey(), categoryRules, events, category.getValue(), rules, results);
+            }
+            return new TestRulesResponse(List.of(results));
+        }));
+    }
+
+    /**
+     * Evaluates the rules of a category event by event, sharing the contains/startswith/endswith matching of the
+     * fields of each event between the rules. If that fails, each rule is evaluated on its own, so the failure is
+     * reported for the rules causing it only.
+     */
+    private void evaluateCategory(String category, List<SigmaRule> categoryRules, List<Map<String, Object>> events, List<Integer> positions,
+                                  List<RuleSource> rules, RuleResult[] results) {
+        try {
+            SigmaRuleEvaluator evaluator = new SigmaRuleEvaluator(category, true, RuleLiteralIndex.build(categoryRules));
+            List<List<Integer>> matches = evaluator.evaluate(categoryRules, events);
+            for (int idx = 0; idx < categoryRules.size(); ++idx) {
+                SigmaRule rule = categoryRules.get(idx);
+                int position = positions.get(idx);
+                results[position] = new RuleResult(ruleId(rules.get(position), rule), rule.getTitle(), matches.get(idx), null);
+            }
+            return;
+        } catch (IOException | SigmaError | RuntimeException ex) {
+            log.debug("Rules of category " + category + " cannot be evaluated together", ex);
+        }
+
+        for (int idx = 0; idx < categoryRules.size(); ++idx) {
+            SigmaRule rule = categoryRules.get(idx);
+            int position = positions.get(idx);
+            String id = ruleId(rules.get(position), rule);
+            try {
+                results[position] = new RuleResult(id, rule.getTitle(), new SigmaRuleEvaluator(category, true).evaluate(rule, events), null);
+            } catch (IOException | SigmaError | RuntimeException ex) {
+                log.debug("Rule cannot be evaluated", ex);
+                results[position] = new RuleResult(id, rule.getTitle(), List.of(), ex.getMessage());
+            }
+        }
+    }
+
+    private static String ruleId(RuleSource source, SigmaRule rule) {
+        if (source.id == null && rule.getId() != null) {
+            return rule.getId().toString();
+        }
+        return source.id;
+    }
+
+    private static class RuleSource {
+        private final String id;
+        private final String category;
+        private final String rule;
+
+        RuleSource(String id, String category, String rule) {
+            this.id = id;
+            this.category = category;
+            this.rule = rule;
+        }
+    }
+
+    private void setRuleMaxExpansionSize(int ruleMaxExpansionSize) {
+        this.ruleMaxExpansionSize = ruleMaxExpansionSize;
+    }
+}
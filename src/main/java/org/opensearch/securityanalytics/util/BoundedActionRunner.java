@@ -0,0 +1,118 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.action.ActionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs an async action for each of a list of requests, with at most a given number of actions in flight, starting the
+ * next action as soon as one completes.
+ *
+ * The listener is notified once all the started actions have completed, with the responses in the order of the
+ * requests. After the first failure no more actions are started, and the listener is notified of the failure once the
+ * actions in flight have completed, so that the caller can compensate for the actions which succeeded.
+ */
+public class BoundedActionRunner<Request, Response> {
+
+    private final List<Request> requests;
+
+    private final BiConsumer<Request, ActionListener<Response>> action;
+
+    private final ActionListener<List<Response>> listener;
+
+    private final AtomicReferenceArray<Response> responses;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Number of actions in flight, plus one until all the initial actions are started.
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    private BoundedActionRunner(List<Request> requests, BiConsumer<Request, ActionListener<Response>> action, ActionListener<List<Response>> listener) {
+        this.requests = requests;
+        this.action = action;
+        this.listener = listener;
+        this.responses = new AtomicReferenceArray<>(requests.size());
+    }
+
+    public static <Request, Response> void run(List<Request> requests, int maxInFlight,
+                                               BiConsumer<Request, ActionListener<Response>> action,
+                                               ActionListener<List<Response>> listener) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one action should be in flight");
+        }
+        new BoundedActionRunner<>(requests, action, listener).start(maxInFlight);
+    }
+
+    private void start(int maxInFlight) {
+        for (int idx = 0; idx < Math.min(maxInFlight, requests.size()) && failure.get() == null; ++idx) {
+            startNext();
+        }
+        release();
+    }
+
+    private void startNext() {
+        int idx = next.getAndIncrement();
+        if (idx >= requests.size()) {
+            return;
+        }
+        pending.incrementAndGet();
+        try {
+            action.accept(requests.get(idx), new ActionListener<>() {
+                @Override
+                public void onResponse(Response response) {
+                    responses.set(idx, response);
+                    onActionCompleted();
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onActionFailed(e);
+                    onActionCompleted();
+                }
+            });
+        } catch (Exception e) {
+            onActionFailed(e);
+            onActionCompleted();
+        }
+    }
+
+    private void onActionFailed(Exception e) {
+        if (!failure.compareAndSet(null, e)) {
+            failure.get().addSuppressed(e);
+        }
+    }
+
+    private void onActionCompleted() {
+        if (failure.get() == null) {
+            startNext();
+        }
+        release();
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            if (failure.get() != null) {
+                listener.onFailure(failure.get());
+            } else {
+                List<Response> orderedResponses = new ArrayList<>(responses.length());
+                for (int idx = 0; idx < responses.length(); ++idx) {
+                    orderedResponses.add(responses.get(idx));
+                }
+                listener.onResponse(orderedResponses);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.CreatePitAction;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.DeletePitAction;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.slice.SliceBuilder;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Pages through all the documents of an index matching a query, with a point in time and search_after, handing each
+ * page to a consumer and fetching the next page once the consumer is done with it. Unlike a single search, the hits
+ * aren't capped by the size of the search or index.max_result_window, and only one page is held at a time.
+ *
+ * Pages are sorted by _doc, which only orders the documents of a shard, so every shard of the index is paged through
+ * on its own, as a slice of the point in time. The point in time is deleted once all the pages are consumed, or on the
+ * first failure.
+ *
+ * A query known to match no more documents than fit in a page, e.g. a lookup of a few ids, is run as a single search
+ * without a point in time, see {@link #forEachPage(Client, String, QueryBuilder, int, boolean, int, BiConsumer, ActionListener)}.
+ */
+public class PointInTimePager {
+
+    private static final Logger log = LogManager.getLogger(PointInTimePager.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final TimeValue PIT_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private final Client client;
+
+    private final String index;
+
+    private final QueryBuilder query;
+
+    private final boolean fetchSource;
+
+    private final int pageSize;
+
+    private final BiConsumer<SearchHit[], ActionListener<Void>> pageConsumer;
+
+    private final ActionListener<Void> listener;
+
+    private String pitId;
+
+    private int slices;
+
+    private PointInTimePager(Client client, String index, QueryBuilder query, boolean fetchSource, int pageSize,
+                             BiConsumer<SearchHit[], ActionListener<Void>> pageConsumer, ActionListener<Void> listener) {
+        this.client = client;
+        this.index = index;
+        this.query = query;
+        this.fetchSource = fetchSource;
+        this.pageSize = pageSize;
+        this.pageConsumer = pageConsumer;
+        this.listener = listener;
+    }
+
+    /**
+     * Hands the hits of the query to the page consumer, in pages of at most the given size, with their version, sequence
+     * number and primary term. The listener is notified once the last page is consumed.
+     */
+    public static void forEachPage(Client client, String index, QueryBuilder query, boolean fetchSource, int pageSize,
+                                   BiConsumer<SearchHit[], ActionListener<Void>> pageConsumer, ActionListener<Void> listener) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size should be at least 1");
+        }
+        new PointInTimePager(client, index, query, fetchSource, pageSize, pageConsumer, listener).start();
+    }
+
+    /**
+     * Same as {@link #forEachPage(Client, String, QueryBuilder, boolean, int, BiConsumer, ActionListener)} for a query
+     * matching at most maxHits documents, e.g. a lookup of maxHits ids. If they fit in a page, they are fetched by a
+     * single search, without the round trips of creating and deleting a point in time.
+     */
+    public static void forEachPage(Client client, String index, QueryBuilder query, int maxHits, boolean fetchSource, int pageSize,
+                                   BiConsumer<SearchHit[], ActionListener<Void>> pageConsumer, ActionListener<Void> listener) {
+        if (maxHits > pageSize) {
+            forEachPage(client, index, query, fetchSource, pageSize, pageConsumer, listener);
+            return;
+        }
+
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .query(query)
+                .seqNoAndPrimaryTerm(true)
+                .version(true)
+                .fetchSource(fetchSource)
+                .size(maxHits);
+        client.search(new SearchRequest(index).source(source), ActionListener.wrap(response -> {
+            if (response.isTimedOut()) {
+                listener.onFailure(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
+                return;
+            }
+
+            SearchHit[] hits = response.getHits().getHits();
+            if (hits.length == 0) {
+                listener.onResponse(null);
+                return;
+            }
+            pageConsumer.accept(hits, listener);
+        }, listener::onFailure));
+    }
+
+    private void start() {
+        CreatePitRequest pitRequest = new CreatePitRequest(PIT_KEEP_ALIVE, false, index);
+        client.execute(CreatePitAction.INSTANCE, pitRequest, ActionListener.wrap(pitResponse -> {
+            pitId = pitResponse.getId();
+            slices = pitResponse.getTotalShards();
+            searchPage(0, null);
+        }, listener::onFailure));
+    }
+
+    private void searchPage(int slice, Object[] searchAfter) {
+        if (slice >= slices) {
+            finish(null);
+            return;
+        }
+
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(PIT_KEEP_ALIVE))
+                .query(query)
+                .seqNoAndPrimaryTerm(true)
+                .version(true)
+                .fetchSource(fetchSource)
+                .sort("_doc")
+                .size(pageSize);
+        if (slices > 1) {
+            source.slice(new SliceBuilder(slice, slices));
+        }
+        if (searchAfter != null) {
+            source.searchAfter(searchAfter);
+        }
+
+        client.search(new SearchRequest().source(source), ActionListener.wrap(response -> {
+            if (response.isTimedOut()) {
+                finish(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
+                return;
+            }
+
+            SearchHit[] hits = response.getHits().getHits();
+            if (hits.length == 0) {
+                searchPage(slice + 1, null);
+                return;
+            }
+            pageConsumer.accept(hits, ActionListener.wrap(ignored -> {
+                if (hits.length < pageSize) {
+                    searchPage(slice + 1, null);
+                } else {
+                    searchPage(slice, hits[hits.length - 1].getSortValues());
+                }
+            }, this::finish));
+        }, this::finish));
+    }
+
+    private void finish(Exception failure) {
+        client.execute(DeletePitAction.INSTANCE, new DeletePitRequest(pitId), ActionListener.wrap(
+                response -> notifyListener(failure),
+                e -> {
+                    log.warn("Point in time of " + index + " cannot be deleted", e);
+                    notifyListener(failure);
+                }
+        ));
+    }
+
+    private void notifyListener(Exception failure) {
+        if (failure != null) {
+            listener.onFailure(failure);
+        } else {
+            listener.onResponse(null);
+        }
+    }
+}
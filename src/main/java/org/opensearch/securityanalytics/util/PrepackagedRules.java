@@ -0,0 +1,248 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.hash.MessageDigests;
+import org.opensearch.common.io.PathUtils;
+import org.opensearch.common.io.stream.InputStreamStreamInput;
+import org.opensearch.common.io.stream.OutputStreamStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.backend.QueryBackend;
+import org.opensearch.securityanalytics.rules.backend.RuleCostEstimator;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.opensearch.securityanalytics.model.Detector.NO_VERSION;
+
+/**
+ * Compiles the bundled Sigma rules into {@link Rule} docs and (de)serializes them as a single binary artifact.
+ *
+ * The artifact is produced at build time by the {@code compilePrepackagedRules} gradle task and shipped inside the
+ * plugin jar, so that initializing the pre-packaged rule index does not need to parse and convert the whole rule corpus.
+ */
+public class PrepackagedRules {
+
+    private static final Logger log = LogManager.getLogger(PrepackagedRules.class);
+
+    public static final String ARTIFACT = "prepackaged-rules/rules.bin";
+
+    private static final String FORMAT = "opensearch-sap-prepackaged-rules";
+
+    private static final int FORMAT_VERSION = 5;
+
+    private static final int COMPILE_CHUNK_SIZE = 100;
+
+    private PrepackagedRules() {}
+
+    /**
+     * Reads the rule sources of every supported log type found under the given rules folder.
+     * Log types and rule files are sorted, so that the compiled output is deterministic.
+     */
+    public static Map<String, List<String>> readRuleSources(Path rulesPath) throws IOException {
+        Map<String, List<String>> logIndexToRules = new TreeMap<>();
+
+        for (Path folderPath: listSorted(rulesPath)) {
+            String ruleCategory = folderPath.getFileName().toString();
+
+            if (Arrays.stream(Detector.DetectorType.values())
+                    .anyMatch(detectorType -> detectorType.getDetectorType().equals(ruleCategory))) {
+                List<String> rules = new ArrayList<>();
+                readRules(folderPath, rules);
+                logIndexToRules.put(ruleCategory, rules);
+            }
+        }
+        return logIndexToRules;
+    }
+
+    /**
+     * Compiles the rules of every log type in parallel on the given executor.
+     *
+     * Query backends are stateful, so the rules are split into chunks and every chunk is converted by its own backend
+     * on a single thread. The compiled chunks are merged back in input order.
+     */
+    public static void compile(Map<String, List<String>> logIndexToRules, Executor executor, ActionListener<List<Rule>> listener) {
+        List<Tuple<String, List<String>>> chunks = new ArrayList<>();
+        for (Map.Entry<String, List<String>> logIndexToRule: logIndexToRules.entrySet()) {
+            List<String> rules = logIndexToRule.getValue();
+            for (int idx = 0; idx < rules.size(); idx += COMPILE_CHUNK_SIZE) {
+                chunks.add(Tuple.tuple(logIndexToRule.getKey(), rules.subList(idx, Math.min(idx + COMPILE_CHUNK_SIZE, rules.size()))));
+            }
+        }
+
+        if (chunks.isEmpty()) {
+            listener.onResponse(List.of());
+            return;
+        }
+
+        GroupedActionListener<Tuple<Integer, List<Rule>>> chunkListener = new GroupedActionListener<>(ActionListener.wrap(compiledChunks -> {
+            List<Rule> queries = new ArrayList<>();
+            compiledChunks.stream()
+                    .sorted(Comparator.comparingInt(Tuple::v1))
+                    .forEach(compiledChunk -> queries.addAll(compiledChunk.v2()));
+            listener.onResponse(queries);
+        }, listener::onFailure), chunks.size());
+
+        for (int idx = 0; idx < chunks.size(); ++idx) {
+            final int chunkIdx = idx;
+            final String category = chunks.get(idx).v1();
+            final List<String> rules = chunks.get(idx).v2();
+
+            executor.execute(ActionRunnable.supply(chunkListener, () -> {
+                final QueryBackend backend = new OSQueryBackend(category, true, true);
+                return Tuple.tuple(chunkIdx, compile(backend, category, rules));
+            }));
+        }
+    }
+
+    public static List<Rule> compile(QueryBackend backend, String category, List<String> rules) throws SigmaError {
+        List<Rule> queries = new ArrayList<>();
+        for (String ruleStr: rules) {
+            SigmaRule rule = SigmaRule.fromYaml(ruleStr, true);
+            List<Object> ruleQueries = backend.convertRule(rule);
+            Set<String> queryFieldNames = backend.getRuleQueryFields().keySet();
+
+            Rule ruleModel = new Rule(
+                    rule.getId().toString(), NO_VERSION, rule, category,
+                    ruleQueries,
+                    new ArrayList<>(queryFieldNames),
+                    ruleStr
+            );
+            ruleModel.setCost(RuleCostEstimator.estimate(rule));
+            ruleModel.setDigest(digest(ruleModel));
+            queries.add(ruleModel);
+        }
+        return queries;
+    }
+
+    /**
+     * Content hash of a compiled rule doc, used to only re-index the pre-packaged rules which actually changed.
+     * It covers the compiled queries as well, so that rules are refreshed when the query backend output changes.
+     */
+    public static String digest(Rule rule) {
+        try {
+            BytesReference source = BytesReference.bytes(rule.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+            return MessageDigests.toHexString(MessageDigests.sha256().digest(BytesReference.toBytes(source)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public static void write(List<Rule> rules, OutputStream os) throws IOException {
+        try (StreamOutput out = new OutputStreamStreamOutput(new GZIPOutputStream(os))) {
+            out.writeString(FORMAT);
+            out.writeVInt(FORMAT_VERSION);
+            out.writeList(rules);
+        }
+    }
+
+    public static List<Rule> read(InputStream is) throws IOException {
+        try (StreamInput in = new InputStreamStreamInput(new GZIPInputStream(is))) {
+            String format = in.readString();
+            int formatVersion = in.readVInt();
+            if (!FORMAT.equals(format) || formatVersion != FORMAT_VERSION) {
+                throw new IOException(String.format(Locale.getDefault(), "Unsupported pre-packaged rules artifact [%s] version [%d]", format, formatVersion));
+            }
+            return in.readList(Rule::readFrom);
+        }
+    }
+
+    /**
+     * Loads the pre-compiled rules shipped with the plugin.
+     *
+     * @return the compiled rules, or null if the artifact is not on the classpath or cannot be read.
+     */
+    public static List<Rule> loadPrecompiledRules() {
+        try (InputStream is = PrepackagedRules.class.getClassLoader().getResourceAsStream(ARTIFACT)) {
+            if (is == null) {
+                return null;
+            }
+            return read(is);
+        } catch (IOException ex) {
+            log.warn("Pre-packaged rules artifact cannot be read", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Build time entry point: {@code PrepackagedRules <rules folder> <artifact file>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: PrepackagedRules <rules folder> <artifact file>");
+        }
+        Map<String, List<String>> logIndexToRules = readRuleSources(PathUtils.get(args[0]));
+
+        ForkJoinPool pool = new ForkJoinPool(OpenSearchExecutors.allocatedProcessors(Settings.EMPTY));
+        List<Rule> rules;
+        try {
+            PlainActionFuture<List<Rule>> future = PlainActionFuture.newFuture();
+            compile(logIndexToRules, pool, future);
+            rules = future.actionGet();
+        } finally {
+            pool.shutdown();
+        }
+
+        Path artifact = PathUtils.get(args[1]);
+        Files.createDirectories(artifact.getParent());
+        try (OutputStream os = Files.newOutputStream(artifact)) {
+            write(rules, os);
+        }
+        log.info(String.format(Locale.getDefault(), "Compiled %d pre-packaged rules into %s", rules.size(), artifact));
+    }
+
+    private static List<Path> listSorted(Path path) throws IOException {
+        try (Stream<Path> paths = Files.list(path)) {
+            return paths.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void readRules(Path path, List<String> rules) throws IOException {
+        if (Files.isDirectory(path)) {
+            for (Path child: listSorted(path)) {
+                readRules(child, rules);
+            }
+        } else {
+            rules.add(Files.readString(path, Charset.defaultCharset()));
+        }
+    }
+}
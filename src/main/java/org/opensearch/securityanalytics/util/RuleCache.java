@@ -0,0 +1,78 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.securityanalytics.model.Rule;
+
+/**
+ * Node-local cache of the rules parsed from the rule indices, so that creating and updating detectors doesn't parse the
+ * same rule documents again.
+ *
+ * Rules are cached by index and id, and a cached rule is only returned for the sequence number and primary term of
+ * the document it was parsed from. A rule indexed or deleted through another node is therefore never served stale,
+ * invalidating the rules written through this node only frees their entries early. The least recently used rules are
+ * evicted once the cache holds {@link org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings#RULE_CACHE_SIZE}
+ * rules, a size of 0 disables the cache.
+ */
+public class RuleCache {
+
+    private final Cache<Tuple<String, String>, CachedRule> cache;
+
+    private final boolean enabled;
+
+    public RuleCache(int maxSize) {
+        this.enabled = maxSize > 0;
+        this.cache = CacheBuilder.<Tuple<String, String>, CachedRule>builder()
+                .setMaximumWeight(Math.max(maxSize, 1))
+                .build();
+    }
+
+    /**
+     * The rule parsed from the given revision of a rule document, or null if it isn't cached.
+     */
+    public Rule get(String index, String id, long seqNo, long primaryTerm) {
+        CachedRule cachedRule = cache.get(Tuple.tuple(index, id));
+        if (cachedRule != null && cachedRule.seqNo == seqNo && cachedRule.primaryTerm == primaryTerm) {
+            return cachedRule.rule;
+        }
+        return null;
+    }
+
+    public void put(String index, String id, long seqNo, long primaryTerm, Rule rule) {
+        if (enabled) {
+            cache.put(Tuple.tuple(index, id), new CachedRule(seqNo, primaryTerm, rule));
+        }
+    }
+
+    public void invalidate(String index, String id) {
+        cache.invalidate(Tuple.tuple(index, id));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public int count() {
+        return cache.count();
+    }
+
+    private static class CachedRule {
+
+        private final long seqNo;
+
+        private final long primaryTerm;
+
+        private final Rule rule;
+
+        private CachedRule(long seqNo, long primaryTerm, Rule rule) {
+            this.seqNo = seqNo;
+            this.primaryTerm = primaryTerm;
+            this.rule = rule;
+        }
+    }
+}
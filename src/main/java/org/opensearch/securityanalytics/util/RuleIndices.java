@@ -4,7 +4,6 @@
  */
 package org.opensearch.securityanalytics.util;
 
-import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchStatusException;
@@ -13,11 +12,15 @@ import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
 import org.opensearch.action.admin.indices.mapping.get.GetMappingsRequest;
 import org.opensearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
 import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.GroupedActionListener;
 import org.opensearch.action.support.WriteRequest;
 import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
@@ -29,22 +32,18 @@ import org.opensearch.cluster.routing.IndexRoutingTable;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.io.PathUtils;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.ByteSizeUnit;
+import org.opensearch.common.unit.ByteSizeValue;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.ToXContent;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.index.query.QueryBuilders;
-import org.opensearch.index.reindex.BulkByScrollResponse;
-import org.opensearch.index.reindex.DeleteByQueryAction;
-import org.opensearch.index.reindex.DeleteByQueryRequestBuilder;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
 import org.opensearch.securityanalytics.mapper.MapperUtils;
-import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.Rule;
-import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
-import org.opensearch.securityanalytics.rules.backend.QueryBackend;
-import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
-import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.threadpool.ThreadPool;
 
 import java.io.IOException;
@@ -53,20 +52,22 @@ import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.opensearch.securityanalytics.model.Detector.NO_ID;
-import static org.opensearch.securityanalytics.model.Detector.NO_VERSION;
 
 public class RuleIndices {
 
@@ -78,12 +79,21 @@ public class RuleIndices {
 
     private final ThreadPool threadPool;
 
+    private final RuleCache ruleCache;
+
     private static FileSystem fs;
 
-    public RuleIndices(Client client, ClusterService clusterService, ThreadPool threadPool) {
+    private static final int MAX_PREPACKAGED_RULES = 10000;
+
+    static final ByteSizeValue BULK_CHUNK_SIZE = new ByteSizeValue(1, ByteSizeUnit.MB);
+
+    static final int MAX_IN_FLIGHT_BULK_REQUESTS = 2;
+
+    public RuleIndices(Client client, ClusterService clusterService, ThreadPool threadPool, RuleCache ruleCache) {
         this.client = client;
         this.clusterService = clusterService;
         this.threadPool = threadPool;
+        this.ruleCache = ruleCache;
     }
 
     public static String ruleMappings() throws IOException {
@@ -99,20 +109,43 @@ public class RuleIndices {
         }
     }
 
-    public void loadRules(List<Rule> rules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout,
-                          ActionListener<BulkResponse> actionListener, boolean isPrepackaged) throws IOException {
+    /**
+     * Indexes the given rules and deletes the given rule ids in size-bounded bulk chunks.
+     *
+     * Rules are only serialized when their chunk is built, at most {@link #MAX_IN_FLIGHT_BULK_REQUESTS} chunks are sent
+     * concurrently, and the rule index is refreshed once after the last chunk (unless the refresh policy is NONE).
+     * The item responses of all chunks are merged into a single {@link BulkResponse}.
+     */
+    public void loadRules(List<Rule> rules, List<String> deletedRuleIds, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout,
+                          ActionListener<BulkResponse> actionListener, boolean isPrepackaged) {
         String ruleIndex = getRuleIndex(isPrepackaged);
-        BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(refreshPolicy).timeout(indexTimeout);
-
+        if (rules.isEmpty() && deletedRuleIds.isEmpty()) {
+            actionListener.onResponse(new BulkResponse(new BulkItemResponse[]{}, 0));
+            return;
+        }
         for (Rule rule: rules) {
-            IndexRequest indexRequest = new IndexRequest(ruleIndex)
-                    .id(rule.getId())
-                    .source(rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
-                    .timeout(indexTimeout);
+            if (rule.getId() != null) {
+                ruleCache.invalidate(ruleIndex, rule.getId());
+            }
+        }
+        for (String ruleId: deletedRuleIds) {
+            ruleCache.invalidate(ruleIndex, ruleId);
+        }
 
-            bulkRequest.add(indexRequest);
+        ChunkedRuleLoader loader = new ChunkedRuleLoader(ruleIndex, rules.iterator(), deletedRuleIds.iterator(), indexTimeout);
+        GroupedActionListener<Void> chunksListener = new GroupedActionListener<>(ActionListener.wrap(ignored -> {
+            BulkResponse response = loader.response();
+            if (refreshPolicy == WriteRequest.RefreshPolicy.NONE) {
+                actionListener.onResponse(response);
+                return;
+            }
+            client.admin().indices().refresh(new RefreshRequest(ruleIndex),
+                    ActionListener.wrap(refreshResponse -> actionListener.onResponse(response), actionListener::onFailure));
+        }, actionListener::onFailure), MAX_IN_FLIGHT_BULK_REQUESTS);
+
+        for (int idx = 0; idx < MAX_IN_FLIGHT_BULK_REQUESTS; ++idx) {
+            loader.sendNextChunk(chunksListener);
         }
-        client.bulk(bulkRequest, actionListener);
     }
 
     public boolean ruleIndexExists(boolean isPrepackaged) {
@@ -188,8 +221,20 @@ public class RuleIndices {
         }
     }
 
+    /**
+     * Reconciles the pre-packaged rule index with the bundled rules: only rules which were added or whose digest
+     * changed are (re-)indexed, and rules which are no longer bundled are deleted.
+     */
     public void importRules(WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) {
         try {
+            // rules compiled at build time skip yaml parsing & query conversion entirely
+            List<Rule> precompiledRules = PrepackagedRules.loadPrecompiledRules();
+            if (precompiledRules != null) {
+                reconcileRules(precompiledRules, refreshPolicy, indexTimeout, listener);
+                return;
+            }
+            log.info("Pre-packaged rules artifact not found, compiling rules from sources");
+
             final String url = Objects.requireNonNull(getClass().getClassLoader().getResource("rules/")).toURI().toString();
 
             if (url.contains("!")) {
@@ -199,74 +244,75 @@ public class RuleIndices {
                 Path path = Path.of(url);
                 loadQueries(path, refreshPolicy, indexTimeout, listener);
             }
-        } catch (URISyntaxException | IOException | SigmaError ex) {
+        } catch (URISyntaxException | IOException ex) {
             log.info(ex.getMessage());
         }
     }
 
-    public void deleteRules(ActionListener<BulkByScrollResponse> listener) {
-        new DeleteByQueryRequestBuilder(client, DeleteByQueryAction.INSTANCE)
-                .source(Rule.PRE_PACKAGED_RULES_INDEX)
-                .filter(QueryBuilders.matchAllQuery())
-                .execute(listener);
-    }
-
     public void countRules(ActionListener<SearchResponse> listener) {
         SearchRequest request = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX)
                 .source(new SearchSourceBuilder().size(0));
         client.search(request, listener);
     }
 
-    private List<String> getRules(List<Path> listOfRules) {
-        List<String> rules = new ArrayList<>();
-
-        listOfRules.forEach(path -> {
-            try {
-                if (Files.isDirectory(path)) {
-                    rules.addAll(getRules(Files.list(path).collect(Collectors.toList())));
-                } else {
-                    rules.add(Files.readString(path, Charset.defaultCharset()));
-                }
-            } catch (IOException ex) {
-                // suppress with log
-                log.warn("rules cannot be parsed");
-            }
-        });
-        return rules;
-    }
-
-    private void loadQueries(Path path, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException, SigmaError {
-        Stream<Path> folder = Files.list(path);
-        List<Path> folderPaths = folder.collect(Collectors.toList());
-        Map<String, List<String>> logIndexToRules = new HashMap<>();
-
-        for (Path folderPath: folderPaths) {
-            List<String> rules = getRules(List.of(folderPath));
-            String ruleCategory = getRuleCategory(folderPath);
-
-            if (Arrays.stream(Detector.DetectorType.values())
-                    .anyMatch(detectorType -> detectorType.getDetectorType().equals(ruleCategory))) {
-                logIndexToRules.put(ruleCategory, rules);
-            }
-        }
+    private void loadQueries(Path path, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException {
+        Map<String, List<String>> logIndexToRules = PrepackagedRules.readRuleSources(path);
         ingestQueries(logIndexToRules, refreshPolicy, indexTimeout, listener);
     }
 
-    private String getRuleCategory(Path folderPath) {
-        return folderPath.getFileName().toString();
+    private void ingestQueries(Map<String, List<String>> logIndexToRules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) {
+        PrepackagedRules.compile(
+                logIndexToRules,
+                threadPool.executor(SecurityAnalyticsPlugin.RULE_COMPILATION_THREAD_POOL),
+                ActionListener.wrap(queries -> reconcileRules(queries, refreshPolicy, indexTimeout, listener), listener::onFailure)
+        );
     }
 
-    private void ingestQueries(Map<String, List<String>> logIndexToRules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws SigmaError, IOException {
-        List<Rule> queries = new ArrayList<>();
+    private void reconcileRules(List<Rule> rules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) {
+        getRuleDigests(ActionListener.wrap(ruleDigests -> {
+            List<Rule> changedRules = new ArrayList<>();
+            Set<String> ruleIds = new HashSet<>();
+            for (Rule rule: rules) {
+                ruleIds.add(rule.getId());
+
+                String digest = rule.getDigest() != null? rule.getDigest(): PrepackagedRules.digest(rule);
+                if (!digest.equals(ruleDigests.get(rule.getId()))) {
+                    rule.setDigest(digest);
+                    changedRules.add(rule);
+                }
+            }
+            List<String> deletedRuleIds = ruleDigests.keySet().stream()
+                    .filter(ruleId -> !ruleIds.contains(ruleId))
+                    .collect(Collectors.toList());
+
+            log.info(String.format(Locale.getDefault(), "Reconciling %s: %d rules changed, %d rules deleted out of %d",
+                    Rule.PRE_PACKAGED_RULES_INDEX, changedRules.size(), deletedRuleIds.size(), rules.size()));
+            loadRules(changedRules, deletedRuleIds, refreshPolicy, indexTimeout, listener, true);
+        }, listener::onFailure));
+    }
 
-        for (Map.Entry<String, List<String>> logIndexToRule: logIndexToRules.entrySet()) {
-            final QueryBackend backend = new OSQueryBackend(logIndexToRule.getKey(), true, true);
-            queries.addAll(getQueries(backend, logIndexToRule.getKey(), logIndexToRule.getValue()));
-        }
-        loadRules(queries, refreshPolicy, indexTimeout, listener, true);
+    /**
+     * Fetches the digest of every pre-packaged rule currently indexed, by rule id.
+     */
+    private void getRuleDigests(ActionListener<Map<String, String>> listener) {
+        SearchRequest request = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX)
+                .source(new SearchSourceBuilder()
+                        .query(QueryBuilders.matchAllQuery())
+                        .fetchSource(new String[]{ Rule.RULE + "." + Rule.DIGEST }, null)
+                        .size(MAX_PREPACKAGED_RULES));
+
+        client.search(request, ActionListener.wrap(response -> {
+            Map<String, String> ruleDigests = new HashMap<>();
+            for (SearchHit hit: response.getHits()) {
+                Object rule = hit.getSourceAsMap().get(Rule.RULE);
+                Object digest = rule instanceof Map? ((Map<?, ?>) rule).get(Rule.DIGEST): null;
+                ruleDigests.put(hit.getId(), digest != null? digest.toString(): null);
+            }
+            listener.onResponse(ruleDigests);
+        }, listener::onFailure));
     }
 
-    private void loadQueries(String[] paths, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException, SigmaError {
+    private void loadQueries(String[] paths, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException {
         getFS(paths[0]);
         Path path = fs.getPath(paths[1]);
         loadQueries(path, refreshPolicy, indexTimeout, listener);
@@ -280,21 +326,73 @@ public class RuleIndices {
         return fs;
     }
 
-    private List<Rule> getQueries(QueryBackend backend, String category, List<String> rules) throws SigmaError {
-        List<Rule> queries = new ArrayList<>();
-        for (String ruleStr: rules) {
-            SigmaRule rule = SigmaRule.fromYaml(ruleStr, true);
-            List<Object> ruleQueries = backend.convertRule(rule);
-            Set<String> queryFieldNames = backend.getQueryFields().keySet();
-
-            Rule ruleModel = new Rule(
-                    rule.getId().toString(), NO_VERSION, rule, category,
-                    ruleQueries.stream().map(Object::toString).collect(Collectors.toList()),
-                    new ArrayList<>(queryFieldNames),
-                    ruleStr
-            );
-            queries.add(ruleModel);
+    /**
+     * Serializes rules into bulk chunks of at most {@link #BULK_CHUNK_SIZE} on demand, so that only the chunks in flight are held in heap.
+     */
+    private class ChunkedRuleLoader {
+
+        private final String ruleIndex;
+
+        private final Iterator<Rule> rules;
+
+        private final Iterator<String> deletedRuleIds;
+
+        private final TimeValue indexTimeout;
+
+        private final List<BulkItemResponse> itemResponses = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicLong tookInMillis = new AtomicLong();
+
+        ChunkedRuleLoader(String ruleIndex, Iterator<Rule> rules, Iterator<String> deletedRuleIds, TimeValue indexTimeout) {
+            this.ruleIndex = ruleIndex;
+            this.rules = rules;
+            this.deletedRuleIds = deletedRuleIds;
+            this.indexTimeout = indexTimeout;
+        }
+
+        /**
+         * Sends chunks one after the other until all rules are loaded, then completes the listener.
+         */
+        void sendNextChunk(ActionListener<Void> listener) {
+            BulkRequest bulkRequest;
+            try {
+                bulkRequest = nextChunk();
+            } catch (IOException ex) {
+                listener.onFailure(ex);
+                return;
+            }
+
+            if (bulkRequest.numberOfActions() == 0) {
+                listener.onResponse(null);
+                return;
+            }
+            client.bulk(bulkRequest, ActionListener.wrap(response -> {
+                itemResponses.addAll(Arrays.asList(response.getItems()));
+                tookInMillis.addAndGet(response.getTook().millis());
+                sendNextChunk(listener);
+            }, listener::onFailure));
+        }
+
+        BulkResponse response() {
+            return new BulkResponse(itemResponses.toArray(new BulkItemResponse[]{}), tookInMillis.get());
+        }
+
+        private synchronized BulkRequest nextChunk() throws IOException {
+            BulkRequest bulkRequest = new BulkRequest().timeout(indexTimeout);
+            while (bulkRequest.estimatedSizeInBytes() < BULK_CHUNK_SIZE.getBytes()) {
+                if (rules.hasNext()) {
+                    Rule rule = rules.next();
+                    bulkRequest.add(new IndexRequest(ruleIndex)
+                            .id(rule.getId())
+                            .source(rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
+                            .timeout(indexTimeout));
+                } else if (deletedRuleIds.hasNext()) {
+                    bulkRequest.add(new DeleteRequest(ruleIndex, deletedRuleIds.next()).timeout(indexTimeout));
+                } else {
+                    break;
+                }
+            }
+            return bulkRequest;
         }
-        return queries;
     }
-}
\ No newline at end of file
+}
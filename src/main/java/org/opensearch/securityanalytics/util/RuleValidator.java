@@ -6,8 +6,12 @@ package org.opensearch.securityanalytics.util;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.StepListener;
 import org.opensearch.action.search.SearchRequest;
@@ -29,9 +33,15 @@ import org.opensearch.securityanalytics.action.SearchRuleAction;
 import org.opensearch.securityanalytics.action.SearchRuleRequest;
 import org.opensearch.securityanalytics.mapper.MapperUtils;
 import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.backend.RuleSatisfiability;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 
 public class RuleValidator
 {
+    private static final Logger log = LogManager.getLogger(RuleValidator.class);
+
     private final static int MAX_RULES_TO_VALIDATE = 1000;
 
     private final static String RULE_ID = "_id";
@@ -44,12 +54,24 @@ public class RuleValidator
         this.namedXContentRegistry = namedXContentRegistry;
     }
 
+    /**
+     * Finds the custom rules querying fields the index doesn't have. The rule ids are looked up
+     * {@link #MAX_RULES_TO_VALIDATE} at a time, so any number of rules can be validated; the field catalog of the index
+     * is collected once, for the rule topic of the first rule.
+     */
     public void validateCustomRules(List<String> ruleIds, String indexName, ActionListener<List<String>> listener) {
+        validateCustomRules(ruleIds, 0, indexName, null, new ArrayList<>(), listener);
+    }
 
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-        searchSourceBuilder.fetchSource(FetchSourceContext.FETCH_SOURCE);
+    private void validateCustomRules(List<String> ruleIds, int from, String indexName, Set<String> indexFields,
+                                     List<String> nonapplicableRuleIds, ActionListener<List<String>> listener) {
+        if (from > 0 && from >= ruleIds.size()) {
+            listener.onResponse(nonapplicableRuleIds);
+            return;
+        }
+        List<String> pageRuleIds = ruleIds.subList(from, Math.min(from + MAX_RULES_TO_VALIDATE, ruleIds.size()));
 
-        QueryBuilder queryBuilder = QueryBuilders.termsQuery( RULE_ID, ruleIds.toArray(new String[]{}));
+        QueryBuilder queryBuilder = QueryBuilders.termsQuery( RULE_ID, pageRuleIds.toArray(new String[]{}));
         SearchRequest searchRequest = new SearchRequest(Rule.CUSTOM_RULES_INDEX)
                 .source(new SearchSourceBuilder()
                         .seqNoAndPrimaryTerm(false)
@@ -64,35 +86,44 @@ public class RuleValidator
         searchRuleResponseListener.whenComplete(searchRuleResponse -> {
 
             List<Rule> rules = getRules(searchRuleResponse, namedXContentRegistry);
-            validateRules(rules, indexName, listener);
+            int next = from + MAX_RULES_TO_VALIDATE;
+            if (rules.isEmpty()) {
+                validateCustomRules(ruleIds, next, indexName, indexFields, nonapplicableRuleIds, listener);
+            } else if (indexFields != null) {
+                nonapplicableRuleIds.addAll(getNonapplicableRuleIds(rules, indexFields));
+                validateCustomRules(ruleIds, next, indexName, indexFields, nonapplicableRuleIds, listener);
+            } else {
+                String ruleTopic = rules.get(0).getCategory();
+                getIndexFieldCatalog(indexName, ruleTopic, ActionListener.wrap(fields -> {
+                    nonapplicableRuleIds.addAll(getNonapplicableRuleIds(rules, fields));
+                    validateCustomRules(ruleIds, next, indexName, fields, nonapplicableRuleIds, listener);
+                }, listener::onFailure));
+            }
 
         }, listener::onFailure);
         client.execute(SearchRuleAction.INSTANCE, new SearchRuleRequest(false, searchRequest), searchRuleResponseListener);
     }
 
-    private void validateRules(List<Rule> rules, String indexName, ActionListener<List<String>> listener) {
-        // Get index mappings
-        String ruleTopic = rules.get(0).getCategory();
+    private static List<String> getNonapplicableRuleIds(List<Rule> rules, Set<String> indexFields) {
+        List<String> nonapplicableRuleIds = new ArrayList<>();
+        for(Rule r : rules) {
+            if (getMissingFields(r, indexFields).size() > 0) {
+                nonapplicableRuleIds.add(r.getId());
+            }
+        }
+        return nonapplicableRuleIds;
+    }
+
+    /**
+     * Collects the fields rules can be matched against in an index once, as a set to check any number of rules
+     * against: all index fields and the applicable template aliases of the rule topic.
+     */
+    public void getIndexFieldCatalog(String indexName, String ruleTopic, ActionListener<Set<String>> listener) {
         StepListener<GetMappingsViewResponse> getMappingsViewResponseListener = new StepListener();
         getMappingsViewResponseListener.whenComplete(getMappingsViewResponse -> {
-
-            List<String> nonapplicableRuleIds = new ArrayList<>();
-            for(Rule r : rules) {
-                // We will check against all index fields and applicable template aliases too
-                List<String> allIndexFields = MapperUtils.extractAllFieldsFlat(getMappingsViewResponse.getAliasMappings());
-                allIndexFields.addAll(getMappingsViewResponse.getUnmappedIndexFields());
-                // check if all rule fields are present in index fields
-                List<String> missingRuleFields = r.getQueryFieldNames()
-                        .stream()
-                        .map(e -> e.getValue())
-                        .filter(e -> allIndexFields.contains(e) == false)
-                        .collect(Collectors.toList());
-
-                if (missingRuleFields.size() > 0) {
-                    nonapplicableRuleIds.add(r.getId());
-                }
-            }
-            listener.onResponse(nonapplicableRuleIds);
+            Set<String> indexFields = new HashSet<>(MapperUtils.extractAllFieldsFlat(getMappingsViewResponse.getAliasMappings()));
+            indexFields.addAll(getMappingsViewResponse.getUnmappedIndexFields());
+            listener.onResponse(indexFields);
         }, listener::onFailure);
         client.execute(
                 GetMappingsViewAction.INSTANCE,
@@ -101,6 +132,35 @@ public class RuleValidator
         );
     }
 
+    /**
+     * @return the query fields of a rule missing from a field catalog of {@link #getIndexFieldCatalog}
+     */
+    public static List<String> getMissingFields(Rule rule, Set<String> indexFields) {
+        return rule.getQueryFieldNames()
+                .stream()
+                .map(e -> e.getValue())
+                .filter(e -> indexFields.contains(e) == false)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether a rule can match documents of an index with the fields of a field catalog of {@link #getIndexFieldCatalog},
+     * see {@link RuleSatisfiability}. Rules querying no missing field, and rules that cannot be parsed within the
+     * maximum expansion size of the rule_max_expansion_size setting, are satisfiable.
+     */
+    public static boolean isSatisfiable(Rule rule, Set<String> indexFields, int maxExpansionSize) {
+        if (getMissingFields(rule, indexFields).isEmpty()) {
+            return true;
+        }
+        try {
+            OSQueryBackend backend = new OSQueryBackend(rule.getCategory(), true, true);
+            return RuleSatisfiability.isSatisfiable(SigmaRule.fromYaml(rule.getRule(), true, maxExpansionSize), field -> indexFields.contains(backend.getFinalField(field)));
+        } catch (IOException | SigmaError ex) {
+            log.debug("Satisfiability of rule " + rule.getId() + " cannot be decided", ex);
+            return true;
+        }
+    }
+
     public static List<Rule> getRules(SearchResponse response, NamedXContentRegistry xContentRegistry) throws IOException {
         List<Rule> rules = new ArrayList<>((int) response.getHits().getTotalHits().value);
         for (SearchHit hit : response.getHits()) {
@@ -399,7 +399,7 @@ public class SecurityAnalyticsRestTestCase extends OpenSearchRestTestCase {
         return entityAsMap(response);
     }
 
-    private String toJsonString(Detector detector) throws IOException {
+    protected String toJsonString(Detector detector) throws IOException {
         XContentBuilder builder = XContentFactory.jsonBuilder();
         return IndexUtilsKt.string(shuffleXContent(detector.toXContent(builder, ToXContent.EMPTY_PARAMS)));
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Assert;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.opensearch.securityanalytics.TestHelpers.randomDetector;
+
+public class BacktestDetectorRequestTests extends OpenSearchTestCase {
+
+    public void testBacktestDetectorRequest_parseXContent() throws IOException {
+
+        String source = "{" +
+                "\"start_time\": \"now-7d\"," +
+                "\"end_time\": \"now\"," +
+                "\"slices\": 4" +
+                "}";
+        BacktestDetectorRequest req;
+        try (XContentParser xcp = createParser(JsonXContent.jsonXContent, source)) {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+            req = BacktestDetectorRequest.parse(xcp, "detector_id_1");
+        }
+        assertEquals("detector_id_1", req.getDetectorId());
+        assertNull(req.getDetector());
+        assertEquals("now-7d", req.getStartTime());
+        assertEquals("now", req.getEndTime());
+        assertEquals(BacktestDetectorRequest.DEFAULT_TIMESTAMP_FIELD, req.getTimestampField());
+        assertEquals(4, req.getSlices());
+        assertEquals(BacktestDetectorRequest.DEFAULT_MAX_FINDINGS_PER_RULE, req.getMaxFindingsPerRule());
+        assertNull(req.getFindingsIndex());
+        assertNull(req.validate());
+    }
+
+    public void testBacktestDetectorRequest_streams() throws IOException {
+        BacktestDetectorRequest request = new BacktestDetectorRequest(null, randomDetector(List.of(UUID.randomUUID().toString())),
+                "2022-10-01T00:00:00Z", null, "timestamp", 2, 100, "backtest-findings");
+        Assert.assertNotNull(request);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        BacktestDetectorRequest newRequest = new BacktestDetectorRequest(sin);
+        assertNull(newRequest.getDetectorId());
+        assertNotNull(newRequest.getDetector());
+        assertEquals(request.getDetector().getName(), newRequest.getDetector().getName());
+        assertEquals("2022-10-01T00:00:00Z", newRequest.getStartTime());
+        assertNull(newRequest.getEndTime());
+        assertEquals("timestamp", newRequest.getTimestampField());
+        assertEquals(2, newRequest.getSlices());
+        assertEquals(100, newRequest.getMaxFindingsPerRule());
+        assertEquals("backtest-findings", newRequest.getFindingsIndex());
+        assertNull(newRequest.validate());
+    }
+
+    public void testBacktestDetectorRequest_validate() {
+        assertNotNull(new BacktestDetectorRequest(null, null, "now-1d", null, "@timestamp", 2, 100, null).validate());
+        assertNotNull(new BacktestDetectorRequest("detector_id_1", randomDetector(List.of()), "now-1d", null, "@timestamp", 2, 100, null).validate());
+        assertNotNull(new BacktestDetectorRequest("detector_id_1", null, null, null, "@timestamp", 2, 100, null).validate());
+        assertNotNull(new BacktestDetectorRequest("detector_id_1", null, "now-1d", null, "@timestamp", 0, 100, null).validate());
+        assertNotNull(new BacktestDetectorRequest("detector_id_1", null, "now-1d", null, "@timestamp", 2, 100000, null).validate());
+    }
+}
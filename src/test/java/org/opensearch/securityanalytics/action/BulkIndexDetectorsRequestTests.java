@@ -0,0 +1,78 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Assert;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.opensearch.securityanalytics.TestHelpers.parser;
+import static org.opensearch.securityanalytics.TestHelpers.randomDetector;
+import static org.opensearch.securityanalytics.TestHelpers.toJsonStringWithUser;
+
+public class BulkIndexDetectorsRequestTests extends OpenSearchTestCase {
+
+    public void testBulkIndexDetectorsRequest_parseXContent() throws IOException {
+        Detector detector = randomDetector(List.of(UUID.randomUUID().toString()));
+        String detectorString = toJsonStringWithUser(detector);
+
+        String source = "{" +
+                "\"detectors\": [" +
+                "{\"detector\": " + detectorString + "}," +
+                "{\"detector_id\": \"detector_id_1\", \"detector\": " + detectorString + "}" +
+                "]}";
+        BulkIndexDetectorsRequest req = BulkIndexDetectorsRequest.parse(parser(source), WriteRequest.RefreshPolicy.NONE);
+
+        Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, req.getRefreshPolicy());
+        Assert.assertEquals(2, req.getRequests().size());
+
+        IndexDetectorRequest create = req.getRequests().get(0);
+        Assert.assertEquals(RestRequest.Method.POST, create.getMethod());
+        Assert.assertEquals(Detector.NO_ID, create.getDetectorId());
+        Assert.assertEquals(detector.getName(), create.getDetector().getName());
+        Assert.assertEquals(WriteRequest.RefreshPolicy.NONE, create.getRefreshPolicy());
+
+        IndexDetectorRequest update = req.getRequests().get(1);
+        Assert.assertEquals(RestRequest.Method.PUT, update.getMethod());
+        Assert.assertEquals("detector_id_1", update.getDetectorId());
+        Assert.assertEquals("detector_id_1", update.getDetector().getId());
+        Assert.assertNull(req.validate());
+    }
+
+    public void testBulkIndexDetectorsRequest_parseWithoutDetector() {
+        String source = "{\"detectors\": [{\"detector_id\": \"detector_id_1\"}]}";
+        expectThrows(IllegalArgumentException.class, () -> BulkIndexDetectorsRequest.parse(parser(source), WriteRequest.RefreshPolicy.IMMEDIATE));
+    }
+
+    public void testBulkIndexDetectorsRequest_streams() throws IOException {
+        BulkIndexDetectorsRequest request = new BulkIndexDetectorsRequest(WriteRequest.RefreshPolicy.IMMEDIATE, List.of(
+                new IndexDetectorRequest(Detector.NO_ID, WriteRequest.RefreshPolicy.IMMEDIATE, RestRequest.Method.POST, randomDetector(List.of())),
+                new IndexDetectorRequest("detector_id_1", WriteRequest.RefreshPolicy.IMMEDIATE, RestRequest.Method.PUT, randomDetector(List.of()))
+        ));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        BulkIndexDetectorsRequest newRequest = new BulkIndexDetectorsRequest(sin);
+        Assert.assertEquals(WriteRequest.RefreshPolicy.IMMEDIATE, newRequest.getRefreshPolicy());
+        Assert.assertEquals(2, newRequest.getRequests().size());
+        Assert.assertEquals(RestRequest.Method.POST, newRequest.getRequests().get(0).getMethod());
+        Assert.assertEquals(RestRequest.Method.PUT, newRequest.getRequests().get(1).getMethod());
+        Assert.assertEquals("detector_id_1", newRequest.getRequests().get(1).getDetectorId());
+        Assert.assertNull(newRequest.validate());
+    }
+
+    public void testBulkIndexDetectorsRequest_validate() {
+        Assert.assertNotNull(new BulkIndexDetectorsRequest(WriteRequest.RefreshPolicy.IMMEDIATE, List.of()).validate());
+    }
+}
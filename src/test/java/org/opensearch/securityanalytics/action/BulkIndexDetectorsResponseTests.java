@@ -0,0 +1,80 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.opensearch.common.Strings;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.securityanalytics.action.BulkIndexDetectorsResponse.Item;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.opensearch.securityanalytics.TestHelpers.randomDetector;
+
+public class BulkIndexDetectorsResponseTests extends OpenSearchTestCase {
+
+    public void testBulkIndexDetectorsResponse_streams() throws IOException {
+        BulkIndexDetectorsResponse response = response();
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        response.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        BulkIndexDetectorsResponse newResponse = new BulkIndexDetectorsResponse(sin);
+        Assert.assertEquals(12L, newResponse.getTook());
+        Assert.assertEquals(2, newResponse.getItems().size());
+        Assert.assertTrue(newResponse.hasFailures());
+
+        Item created = newResponse.getItems().get(0);
+        Assert.assertFalse(created.isFailed());
+        Assert.assertEquals(RestRequest.Method.POST, created.getMethod());
+        Assert.assertEquals("detector_id_1", created.getDetectorId());
+        Assert.assertEquals(RestStatus.CREATED, created.getStatus());
+        Assert.assertEquals(List.of("rule_id_1"), created.getResponse().getExcludedRuleIds());
+
+        Item failed = newResponse.getItems().get(1);
+        Assert.assertTrue(failed.isFailed());
+        Assert.assertEquals(RestRequest.Method.PUT, failed.getMethod());
+        Assert.assertEquals("detector_id_2", failed.getDetectorId());
+        Assert.assertEquals(RestStatus.NOT_FOUND, failed.getStatus());
+        Assert.assertEquals("Detector not found", failed.getError());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testBulkIndexDetectorsResponse_toXContent() {
+        Map<String, Object> responseMap = XContentHelper.convertToMap(XContentType.JSON.xContent(), Strings.toString(response()), false);
+
+        Assert.assertEquals(true, responseMap.get(BulkIndexDetectorsResponse.ERRORS_FIELD));
+        List<Map<String, Object>> items = (List<Map<String, Object>>) responseMap.get(BulkIndexDetectorsResponse.ITEMS_FIELD);
+        Assert.assertEquals(2, items.size());
+
+        Map<String, Object> created = (Map<String, Object>) items.get(0).get(Item.CREATE_FIELD);
+        Assert.assertEquals(201, created.get(Item.STATUS_FIELD));
+        Assert.assertEquals("detector_id_1", created.get("_id"));
+        Assert.assertNotNull(created.get("detector"));
+
+        Map<String, Object> failed = (Map<String, Object>) items.get(1).get(Item.UPDATE_FIELD);
+        Assert.assertEquals(404, failed.get(Item.STATUS_FIELD));
+        Assert.assertEquals("detector_id_2", failed.get("_id"));
+        Assert.assertEquals("Detector not found", failed.get(Item.ERROR_FIELD));
+    }
+
+    private static BulkIndexDetectorsResponse response() {
+        Detector detector = randomDetector(List.of());
+        IndexDetectorResponse indexDetectorResponse = new IndexDetectorResponse("detector_id_1", 1L, RestStatus.CREATED, detector, List.of("rule_id_1"));
+        return new BulkIndexDetectorsResponse(12L, List.of(
+                Item.success(RestRequest.Method.POST, indexDetectorResponse),
+                Item.failure(RestRequest.Method.PUT, "detector_id_2", RestStatus.NOT_FOUND, "Detector not found")
+        ));
+    }
+}
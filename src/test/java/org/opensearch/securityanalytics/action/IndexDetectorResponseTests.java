@@ -52,7 +52,7 @@ public class IndexDetectorResponseTests extends OpenSearchTestCase {
                 DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
                 Collections.emptyMap()
         );
-        IndexDetectorResponse response = new IndexDetectorResponse("1234", 1L, RestStatus.OK, detector);
+        IndexDetectorResponse response = new IndexDetectorResponse("1234", 1L, RestStatus.OK, detector, List.of("rule_id_1"));
         Assert.assertNotNull(response);
 
         BytesStreamOutput out = new BytesStreamOutput();
@@ -69,5 +69,6 @@ public class IndexDetectorResponseTests extends OpenSearchTestCase {
         Assert.assertTrue(newResponse.getDetector().getMonitorIds().contains("1"));
         Assert.assertTrue(newResponse.getDetector().getMonitorIds().contains("2"));
         Assert.assertTrue(newResponse.getDetector().getMonitorIds().contains("3"));
+        Assert.assertEquals(List.of("rule_id_1"), newResponse.getExcludedRuleIds());
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class TestRulesRequestTests extends OpenSearchTestCase {
+
+    public void testTestRulesRequest_parseXContent() throws IOException {
+
+        String source = "{" +
+                "\"category\": \"windows\"," +
+                "\"rule_ids\": [ \"rule_id_1\" ]," +
+                "\"events\": [ { \"EventID\": 4625, \"process\": { \"name\": \"cmd.exe\" } } ]" +
+                "}";
+        TestRulesRequest req;
+        try (XContentParser xcp = createParser(JsonXContent.jsonXContent, source)) {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+            req = TestRulesRequest.parse(xcp);
+        }
+        assertEquals("windows", req.getCategory());
+        assertEquals(0, req.getRules().size());
+        assertEquals(List.of("rule_id_1"), req.getRuleIds());
+        assertEquals(1, req.getEvents().size());
+        assertEquals(Map.of("name", "cmd.exe"), req.getEvents().get(0).get("process"));
+        assertNull(req.validate());
+    }
+
+    public void testTestRulesRequest_streams() throws IOException {
+        TestRulesRequest request = new TestRulesRequest("windows", List.of("title: rule"), List.of("rule_id_1"),
+                List.of(Map.of("EventID", 4625), Map.of("EventID", 4624)));
+        Assert.assertNotNull(request);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        TestRulesRequest newRequest = new TestRulesRequest(sin);
+        assertEquals("windows", newRequest.getCategory());
+        assertEquals(List.of("title: rule"), newRequest.getRules());
+        assertEquals(List.of("rule_id_1"), newRequest.getRuleIds());
+        assertEquals(2, newRequest.getEvents().size());
+        assertEquals(4624, newRequest.getEvents().get(1).get("EventID"));
+    }
+
+    public void testTestRulesRequest_validate() {
+        assertNotNull(new TestRulesRequest(null, List.of("title: rule"), List.of(), List.of(Map.of("EventID", 4625))).validate());
+        assertNotNull(new TestRulesRequest("windows", List.of(), List.of(), List.of(Map.of("EventID", 4625))).validate());
+        assertNotNull(new TestRulesRequest("windows", List.of("title: rule"), List.of(), List.of()).validate());
+    }
+
+    public void testTestRulesRequest_validateMaximums() {
+        List<String> ruleIds = IntStream.range(0, TestRulesRequest.MAX_RULES).mapToObj(idx -> "rule_id_" + idx).collect(Collectors.toList());
+        List<Map<String, Object>> events = Collections.nCopies(TestRulesRequest.MAX_EVENTS, Map.of("EventID", 4625));
+        assertNull(new TestRulesRequest("windows", List.of(), ruleIds, events).validate());
+
+        assertNotNull(new TestRulesRequest("windows", List.of("title: rule"), ruleIds, events).validate());
+        List<Map<String, Object>> tooManyEvents = Collections.nCopies(TestRulesRequest.MAX_EVENTS + 1, Map.of("EventID", 4625));
+        assertNotNull(new TestRulesRequest("windows", List.of(), ruleIds, tooManyEvents).validate());
+    }
+}
@@ -8,12 +8,24 @@ package org.opensearch.securityanalytics.findings;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.lucene.search.TotalHits;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.PlainActionFuture;
 import org.opensearch.client.Client;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.commons.alerting.model.CronSchedule;
 import org.opensearch.commons.alerting.model.DocLevelQuery;
 import org.opensearch.commons.alerting.model.Finding;
@@ -21,6 +33,14 @@ import org.opensearch.commons.alerting.model.FindingDocument;
 import org.opensearch.commons.alerting.model.FindingWithDocs;
 import org.opensearch.commons.alerting.model.Table;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.aggregations.Aggregation;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.metrics.NumericMetricsAggregation;
 import org.opensearch.securityanalytics.action.FindingDto;
 import org.opensearch.securityanalytics.action.GetDetectorAction;
 import org.opensearch.securityanalytics.action.GetDetectorRequest;
@@ -28,6 +48,9 @@ import org.opensearch.securityanalytics.action.GetDetectorResponse;
 import org.opensearch.securityanalytics.action.GetFindingsResponse;
 import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.test.OpenSearchTestCase;
 
 
@@ -35,8 +58,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
 
 public class FindingServiceTests extends OpenSearchTestCase {
 
@@ -253,4 +278,161 @@ public class FindingServiceTests extends OpenSearchTestCase {
             }
         });
     }
+    public void testSharedMonitorFindingsAreAttributedToMatchingRules() throws Exception {
+        FindingsService findingsService = new FindingsService();
+        Client client = mock(Client.class);
+        findingsService.setIndicesAdminClient(client);
+        Detector detector = sharedMonitorDetector();
+
+        List<SearchRequest> searchRequests = new ArrayList<>();
+        doAnswer(invocation -> {
+            SearchRequest searchRequest = invocation.getArgument(0);
+            ActionListener<SearchResponse> l = invocation.getArgument(1);
+            searchRequests.add(searchRequest);
+            SearchResponse response = mock(SearchResponse.class);
+            if (searchRequests.size() == 1) {
+                when(response.getHits()).thenReturn(ruleHits(
+                        Pair.of("rule_a", "count(*) by fieldB > 1"),
+                        Pair.of("rule_b", "sum(fieldA) by fieldB > 110")));
+            } else {
+                // rule_a matches the first bucket, rule_b matches neither, though it would match both buckets together
+                when(response.getAggregations()).thenReturn(new Aggregations(List.of(buckets(
+                        List.of(filter("rule_a", 2, null), filter("rule_b", 1, 100.0)),
+                        List.of(filter("rule_a", 1, null), filter("rule_b", 2, 50.0))))));
+            }
+            l.onResponse(response);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any(ActionListener.class));
+
+        FindingWithDocs sharedFinding = bucketLevelFinding("finding_1", "monitor_shared");
+        FindingWithDocs finding = bucketLevelFinding("finding_2", "monitor_c");
+        PlainActionFuture<Map<String, List<String>>> future = PlainActionFuture.newFuture();
+        findingsService.getSharedMonitorRuleIds(List.of(sharedFinding, finding), Map.of("monitor_shared", detector, "monitor_c", detector), future);
+
+        Map<String, List<String>> ruleIdsPerFinding = future.actionGet();
+        assertEquals(Map.of("finding_1", List.of("rule_a")), ruleIdsPerFinding);
+        assertEquals(2, searchRequests.size());
+        assertArrayEquals(new String[]{"logs"}, searchRequests.get(1).indices());
+        assertEquals(0, searchRequests.get(1).source().size());
+        assertEquals(List.of("result_agg"), searchRequests.get(1).source().aggregations().getAggregatorFactories().stream()
+                .map(AggregationBuilder::getName).collect(Collectors.toList()));
+
+        FindingDto sharedFindingDto = findingsService.mapFindingWithDocsToFindingDto(sharedFinding, detector, ruleIdsPerFinding.get("finding_1"));
+        assertEquals(List.of("rule_a"), sharedFindingDto.getDocLevelQueries().stream().map(DocLevelQuery::getId).collect(Collectors.toList()));
+        FindingDto findingDto = findingsService.mapFindingWithDocsToFindingDto(finding, detector, ruleIdsPerFinding.get("finding_2"));
+        assertEquals(List.of("rule_c"), findingDto.getDocLevelQueries().stream().map(DocLevelQuery::getId).collect(Collectors.toList()));
+    }
+
+    public void testSharedMonitorFindingsAreAttributedToAllRulesWhenRulesCannotBeFetched() throws Exception {
+        FindingsService findingsService = new FindingsService();
+        Client client = mock(Client.class);
+        findingsService.setIndicesAdminClient(client);
+        Detector detector = sharedMonitorDetector();
+
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> l = invocation.getArgument(1);
+            l.onFailure(new IllegalStateException("search failed"));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any(ActionListener.class));
+
+        FindingWithDocs sharedFinding = bucketLevelFinding("finding_1", "monitor_shared");
+        PlainActionFuture<Map<String, List<String>>> future = PlainActionFuture.newFuture();
+        findingsService.getSharedMonitorRuleIds(List.of(sharedFinding), Map.of("monitor_shared", detector), future);
+
+        Map<String, List<String>> ruleIdsPerFinding = future.actionGet();
+        assertTrue(ruleIdsPerFinding.isEmpty());
+        FindingDto findingDto = findingsService.mapFindingWithDocsToFindingDto(sharedFinding, detector, ruleIdsPerFinding.get("finding_1"));
+        assertEquals(Set.of("rule_a", "rule_b"), findingDto.getDocLevelQueries().stream().map(DocLevelQuery::getId).collect(Collectors.toSet()));
+    }
+
+    private static Detector sharedMonitorDetector() {
+        return new Detector(
+                "detector_id123",
+                0L,
+                "test-monitor",
+                true,
+                new CronSchedule("31 * * * *", ZoneId.of("Asia/Kolkata"), Instant.ofEpochSecond(1538164858L)),
+                Instant.now(),
+                Instant.now(),
+                Detector.DetectorType.OTHERS_APPLICATION,
+                null,
+                List.of(),
+                List.of(),
+                List.of("monitor_doc", "monitor_shared", "monitor_c"),
+                DetectorMonitorConfig.getRuleIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                DetectorMonitorConfig.getAlertsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                null,
+                DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                // rule_a and rule_b share a bucket level monitor
+                Map.of(Detector.DOC_LEVEL_MONITOR, "monitor_doc", "rule_a", "monitor_shared", "rule_b", "monitor_shared", "rule_c", "monitor_c")
+        );
+    }
+
+    private static FindingWithDocs bucketLevelFinding(String id, String monitorId) {
+        Finding finding = new Finding(
+                id,
+                List.of("doc1", "doc2", "doc3"),
+                monitorId,
+                "monitor_name",
+                "logs",
+                List.of(),
+                Instant.now()
+        );
+        return new FindingWithDocs(finding, List.of());
+    }
+
+    @SafeVarargs
+    private static SearchHits ruleHits(Pair<String, String>... aggregations) throws Exception {
+        SearchHit[] hits = new SearchHit[aggregations.length];
+        for (int idx = 0; idx < aggregations.length; ++idx) {
+            String ruleYaml = "title: Test\n" +
+                    "id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                    "status: test\n" +
+                    "level: critical\n" +
+                    "description: Test\n" +
+                    "author: Test\n" +
+                    "date: 2017/05/15\n" +
+                    "logsource:\n" +
+                    "    category: test_category\n" +
+                    "    product: test_product\n" +
+                    "detection:\n" +
+                    "    sel:\n" +
+                    "        fieldA: valueA\n" +
+                    "    condition: sel | " + aggregations[idx].getRight();
+            Rule rule = new Rule(aggregations[idx].getLeft(), 1L, SigmaRule.fromYaml(ruleYaml, true), "windows",
+                    List.of("fieldA: \"valueA\""), List.of("fieldA"), ruleYaml);
+            XContentBuilder builder = rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true")));
+            hits[idx] = new SearchHit(idx, aggregations[idx].getLeft(), Map.of(), Map.of()).sourceRef(BytesReference.bytes(builder));
+        }
+        return new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1.0f);
+    }
+
+    @SafeVarargs
+    private static Terms buckets(List<? extends Aggregation>... filters) {
+        List<Terms.Bucket> buckets = new ArrayList<>();
+        for (List<? extends Aggregation> bucketFilters: filters) {
+            Terms.Bucket bucket = mock(Terms.Bucket.class);
+            when(bucket.getAggregations()).thenReturn(new Aggregations(bucketFilters));
+            buckets.add(bucket);
+        }
+        Terms terms = mock(Terms.class);
+        when(terms.getName()).thenReturn("result_agg");
+        doReturn(buckets).when(terms).getBuckets();
+        return terms;
+    }
+
+    private static Filter filter(String name, long docCount, Double metric) {
+        Filter filter = mock(Filter.class);
+        when(filter.getName()).thenReturn(name);
+        when(filter.getDocCount()).thenReturn(docCount);
+        if (metric != null) {
+            NumericMetricsAggregation.SingleValue value = mock(NumericMetricsAggregation.SingleValue.class);
+            when(value.getName()).thenReturn(OSQueryBackend.FILTERED_METRIC);
+            when(value.value()).thenReturn(metric);
+            when(filter.getAggregations()).thenReturn(new Aggregations(List.of(value)));
+        }
+        return filter;
+    }
 }
@@ -5,20 +5,25 @@
 package org.opensearch.securityanalytics.model;
 
 import org.junit.Assert;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.commons.authuser.User;
 import org.opensearch.test.OpenSearchTestCase;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 import static org.opensearch.securityanalytics.TestHelpers.randomDetector;
+import static org.opensearch.securityanalytics.TestHelpers.randomRule;
 import static org.opensearch.securityanalytics.TestHelpers.randomUser;
 import static org.opensearch.securityanalytics.TestHelpers.randomUserEmpty;
 
 public class WriteableTests extends OpenSearchTestCase {
 
+    private static final Version COST_BUDGET_VERSION = Version.fromString("2.5.0");
+
     public void testDetectorAsStream() throws IOException {
         Detector detector = randomDetector(List.of());
         detector.setInputs(List.of(new DetectorInput("", List.of(), List.of(), List.of())));
@@ -29,6 +34,63 @@ public class WriteableTests extends OpenSearchTestCase {
         Assert.assertEquals("Round tripping Detector doesn't work", detector, newDetector);
     }
 
+    public void testDetectorWithCostBudgetAsStream() throws IOException {
+        Detector detector = randomDetector(List.of());
+        detector.setCostBudget(new DetectorCostBudget(1000L, DetectorCostBudget.Action.WARN));
+        detector.setAlertsIndex(null);
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(COST_BUDGET_VERSION);
+        detector.writeTo(out);
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        sin.setVersion(COST_BUDGET_VERSION);
+        Detector newDetector = new Detector(sin);
+        Assert.assertEquals("Round tripping Detector doesn't work", detector, newDetector);
+        Assert.assertEquals(detector.getCostBudget(), newDetector.getCostBudget());
+        Assert.assertNull(newDetector.getAlertsIndex());
+    }
+
+    public void testDetectorWithCostBudgetAsStreamToOlderNode() throws IOException {
+        Detector detector = randomDetector(List.of());
+        detector.setCostBudget(new DetectorCostBudget(1000L, DetectorCostBudget.Action.WARN));
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(Version.V_2_4_0);
+        detector.writeTo(out);
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        sin.setVersion(Version.V_2_4_0);
+        Detector newDetector = new Detector(sin);
+        Assert.assertEquals(detector.getName(), newDetector.getName());
+        Assert.assertEquals(detector.getAlertsIndex(), newDetector.getAlertsIndex());
+        Assert.assertEquals(detector.getRuleIdMonitorIdMap(), newDetector.getRuleIdMonitorIdMap());
+        Assert.assertNull(newDetector.getCostBudget());
+    }
+
+    public void testRuleWithDigestAndCostAsStream() throws IOException {
+        Rule rule = randomRuleModel();
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(COST_BUDGET_VERSION);
+        rule.writeTo(out);
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        sin.setVersion(COST_BUDGET_VERSION);
+        Rule newRule = new Rule(sin);
+        Assert.assertEquals(rule.getId(), newRule.getId());
+        Assert.assertEquals(rule.getDigest(), newRule.getDigest());
+        Assert.assertEquals(rule.getCost(), newRule.getCost());
+    }
+
+    public void testRuleWithDigestAndCostAsStreamToOlderNode() throws IOException {
+        Rule rule = randomRuleModel();
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(Version.V_2_4_0);
+        rule.writeTo(out);
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        sin.setVersion(Version.V_2_4_0);
+        Rule newRule = new Rule(sin);
+        Assert.assertEquals(rule.getId(), newRule.getId());
+        Assert.assertEquals(rule.getRule(), newRule.getRule());
+        Assert.assertNull(newRule.getDigest());
+        Assert.assertNull(newRule.getCost());
+    }
+
     public void testUserAsStream() throws IOException {
         User user = randomUser();
         BytesStreamOutput out = new BytesStreamOutput();
@@ -46,4 +108,15 @@ public class WriteableTests extends OpenSearchTestCase {
         User newUser = new User(sin);
         Assert.assertEquals("Round tripping User doesn't work", user, newUser);
     }
-}
\ No newline at end of file
+
+    private static Rule randomRuleModel() {
+        Rule rule = new Rule(
+                "rule_id_1", 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                "author", "experimental", Instant.now(), List.of(new Value("event_uid: 22")), List.of(new Value("event_uid")),
+                randomRule(), List.of()
+        );
+        rule.setDigest("digest");
+        rule.setCost(42L);
+        return rule;
+    }
+}
@@ -450,7 +450,8 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
 
         List<String> monitorIds = ((List<String>) (updatedDetectorMap).get("monitor_id"));
 
-        assertEquals(2, monitorIds.size());
+        // the sum and max rules group by the same field, so they share the updated sum monitor
+        assertEquals(1, monitorIds.size());
 
         indexDoc(index, "1", randomDoc(2, 4, "Info"));
         indexDoc(index, "2", randomDoc(3, 4, "Info"));
@@ -467,7 +468,7 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
         Map<String, Object> getFindingsBody = entityAsMap(getFindingsResponse);
 
         assertNotNull(getFindingsBody);
-        // Two bucket monitors are executed and only one finding is generated since maxRule is not fulfilling the trigger condition
+        // The shared bucket monitor is executed and its finding is reported only for sumRule since maxRule is not fulfilling its condition
         assertEquals(1, getFindingsBody.get("total_findings"));
 
         Map<String, Object> finding = ((List<Map>) getFindingsBody.get("findings")).get(0);
@@ -475,7 +476,7 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
         Set<String> aggRulesFinding = ((List<Map<String, Object>>) finding.get("queries")).stream().map(it -> it.get("id").toString()).collect(
             Collectors.toSet());
 
-        assertEquals(sumRuleId, aggRulesFinding.iterator().next());
+        assertEquals(Set.of(sumRuleId), aggRulesFinding);
 
         List<String> findingDocs = ((List<String>) finding.get("related_doc_ids"));
 
@@ -884,7 +885,8 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
 
         List<String> monitorIds = ((List<String>) (updatedDetectorMap).get("monitor_id"));
 
-        assertEquals(6, monitorIds.size());
+        // sum, max, min and count rules share a bucket level monitor, avg rule has its own one
+        assertEquals(3, monitorIds.size());
 
         indexDoc(index, "1", randomDoc(2, 4, infoOpCode));
         indexDoc(index, "2", randomDoc(3, 4, infoOpCode));
@@ -925,7 +927,7 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
             }
         }
 
-        assertEquals(5, numberOfMonitorTypes.get(MonitorType.BUCKET_LEVEL_MONITOR.getValue()).intValue());
+        assertEquals(2, numberOfMonitorTypes.get(MonitorType.BUCKET_LEVEL_MONITOR.getValue()).intValue());
         assertEquals(1, numberOfMonitorTypes.get(MonitorType.DOC_LEVEL_MONITOR.getValue()).intValue());
 
         Map<String, String> params = new HashMap<>();
@@ -935,8 +937,8 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
 
         // Assert findings
         assertNotNull(getFindingsBody);
-        // 8 findings from doc level rules, and 3 findings for aggregation (sum, max and min)
-        assertEquals(11, getFindingsBody.get("total_findings"));
+        // 8 findings from doc level rules, and 1 finding of the shared bucket level monitor for aggregation (sum, max and min)
+        assertEquals(9, getFindingsBody.get("total_findings"));
 
         String findingDetectorId = ((Map<String, Object>)((List)getFindingsBody.get("findings")).get(0)).get("detectorId").toString();
         assertEquals(detectorId, findingDetectorId);
@@ -957,17 +959,11 @@ public class DetectorMonitorRestApiIT extends SecurityAnalyticsRestTestCase {
             if(docLevelRules.containsAll(findingRuleIds)) {
                 docLevelFinding.addAll((List<String>)finding.get("related_doc_ids"));
             } else {
-                // In the case of bucket level monitors, queries will always contain one value
-                String aggRuleId = findingRuleIds.iterator().next();
+                // The finding of the shared bucket level monitor has the documents of the buckets of sum (1, 2, 3),
+                // max (4, 5, 6, 7) and min (7) rules, and is reported for these rules only
+                assertEquals(Set.of(sumRuleId, maxRuleId, minRuleId), findingRuleIds);
                 List<String> findingDocs = (List<String>)finding.get("related_doc_ids");
-
-                if(aggRuleId.equals(sumRuleId)) {
-                    assertTrue(List.of("1", "2", "3").containsAll(findingDocs));
-                } else if(aggRuleId.equals(maxRuleId)) {
-                    assertTrue(List.of("4", "5", "6", "7").containsAll(findingDocs));
-                } else if(aggRuleId.equals( minRuleId)) {
-                    assertTrue(List.of("7").containsAll(findingDocs));
-                }
+                assertTrue(List.of("1", "2", "3", "4", "5", "6", "7").containsAll(findingDocs));
             }
         }
 
@@ -17,6 +17,8 @@ import org.junit.Assert;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.Request;
 import org.opensearch.client.Response;
+import org.opensearch.client.ResponseException;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.commons.alerting.model.Monitor.MonitorType;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.search.SearchHit;
@@ -440,6 +442,68 @@ public class DetectorRestApiIT extends SecurityAnalyticsRestTestCase {
         Assert.assertEquals(6, response.getHits().getTotalHits().value);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testBulkIndexingDetectors() throws IOException {
+        String index = createTestIndex(randomIndex(), windowsIndexMapping());
+
+        // Execute CreateMappingsAction to add alias mapping for index
+        Request createMappingRequest = new Request("POST", SecurityAnalyticsPlugin.MAPPER_BASE_URI);
+        // both req params and req body are supported
+        createMappingRequest.setJsonEntity(
+                "{ \"index_name\":\"" + index + "\"," +
+                        "  \"rule_topic\":\"" + randomDetectorType() + "\", " +
+                        "  \"partial\":true" +
+                        "}"
+        );
+
+        Response createMappingResponse = client().performRequest(createMappingRequest);
+        assertEquals(HttpStatus.SC_OK, createMappingResponse.getStatusLine().getStatusCode());
+
+        Response createResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI, Collections.emptyMap(), toHttpEntity(randomDetector(getRandomPrePackagedRules())));
+        Assert.assertEquals("Create detector failed", RestStatus.CREATED, restStatus(createResponse));
+        String detectorId = asMap(createResponse).get("_id").toString();
+
+        String bulkRequest = "{\"detectors\": [" +
+                "{\"detector\": " + toJsonString(randomDetector(getRandomPrePackagedRules())) + "}," +
+                "{\"detector\": " + toJsonString(randomDetector(getRandomPrePackagedRules())) + "}," +
+                "{\"detector_id\": \"" + detectorId + "\", \"detector\": " + toJsonString(randomDetector(getRandomPrePackagedRules())) + "}," +
+                "{\"detector_id\": \"" + detectorId + "\", \"detector\": " + toJsonString(randomDetector(getRandomPrePackagedRules())) + "}" +
+                "]}";
+        Response bulkResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/_bulk", Collections.emptyMap(),
+                new StringEntity(bulkRequest), new BasicHeader("Content-Type", "application/json"));
+        Assert.assertEquals("Bulk index detectors failed", RestStatus.OK, restStatus(bulkResponse));
+
+        Map<String, Object> responseBody = asMap(bulkResponse);
+        Assert.assertEquals(true, responseBody.get("errors"));
+
+        List<Map<String, Object>> items = (List<Map<String, Object>>) responseBody.get("items");
+        Assert.assertEquals(4, items.size());
+        for (int idx = 0; idx < 2; ++idx) {
+            Map<String, Object> created = (Map<String, Object>) items.get(idx).get("create");
+            Assert.assertEquals(RestStatus.CREATED.getStatus(), created.get("status"));
+            Assert.assertNotEquals(Detector.NO_ID, created.get("_id"));
+            Assert.assertNotNull(created.get("detector"));
+        }
+        Map<String, Object> updated = (Map<String, Object>) items.get(2).get("update");
+        Assert.assertEquals(RestStatus.OK.getStatus(), updated.get("status"));
+        Assert.assertEquals(detectorId, updated.get("_id"));
+
+        // the same detector is updated only once per request
+        Map<String, Object> duplicate = (Map<String, Object>) items.get(3).get("update");
+        Assert.assertEquals(RestStatus.BAD_REQUEST.getStatus(), duplicate.get("status"));
+        Assert.assertEquals(detectorId, duplicate.get("_id"));
+        Assert.assertNotNull(duplicate.get("error"));
+
+        String request = "{\n" +
+                "   \"query\" : {\n" +
+                "     \"match_all\":{\n" +
+                "     }\n" +
+                "   }\n" +
+                "}";
+        List<SearchHit> hits = executeSearch(Detector.DETECTORS_INDEX, request);
+        Assert.assertEquals(3, hits.size());
+    }
+
     @SuppressWarnings("unchecked")
     public void testDeletingADetector() throws IOException {
         String index = createTestIndex(randomIndex(), windowsIndexMapping());
@@ -488,4 +552,97 @@ public class DetectorRestApiIT extends SecurityAnalyticsRestTestCase {
         hits = executeSearch(Detector.DETECTORS_INDEX, request);
         Assert.assertEquals(0, hits.size());
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    public void testBacktestingADraftDetector() throws IOException {
+        String index = createTestIndex(randomIndex(), windowsIndexMapping(), Settings.builder().put("index.number_of_shards", 2).build());
+
+        // Execute CreateMappingsAction to add alias mapping for index
+        Request createMappingRequest = new Request("POST", SecurityAnalyticsPlugin.MAPPER_BASE_URI);
+        createMappingRequest.setJsonEntity(
+                "{ \"index_name\":\"" + index + "\"," +
+                        "  \"rule_topic\":\"" + randomDetectorType() + "\", " +
+                        "  \"partial\":true" +
+                        "}"
+        );
+        Response createMappingResponse = client().performRequest(createMappingRequest);
+        assertEquals(HttpStatus.SC_OK, createMappingResponse.getStatusLine().getStatusCode());
+
+        String eventIdRuleId = createRule(randomRule());
+        // the value holds a space, which the rule's query encodes as _ws_
+        String whitespaceRuleId = createRule(randomRule().replace("EventID: 22", "Domain: 'NT AUTHORITY'"));
+
+        for (int idx = 1; idx <= 5; ++idx) {
+            indexDoc(index, String.valueOf(idx), randomDoc());
+        }
+
+        DetectorInput input = new DetectorInput("windows detector for security analytics", List.of(index),
+                List.of(new DetectorRule(eventIdRuleId), new DetectorRule(whitespaceRuleId), new DetectorRule("missing_rule_id")), List.of());
+        String backtestRequest = "{" +
+                "\"detector\": " + toJsonString(randomDetectorWithInputs(List.of(input))) + "," +
+                "\"start_time\": \"2020-02-01T00:00:00Z\"," +
+                "\"timestamp_field\": \"EventTime\"," +
+                "\"slices\": 2," +
+                "\"max_findings_per_rule\": 4" +
+                "}";
+        Response backtestResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/_backtest", Collections.emptyMap(),
+                new StringEntity(backtestRequest), new BasicHeader("Content-Type", "application/json"));
+        Assert.assertEquals("Backtest detector failed", RestStatus.OK, restStatus(backtestResponse));
+
+        Map<String, Object> responseBody = asMap(backtestResponse);
+        String backtestId = responseBody.get("backtest_id").toString();
+        String findingsIndex = responseBody.get("findings_index").toString();
+        Assert.assertEquals(DetectorMonitorConfig.getBacktestFindingsIndex(randomDetectorType()), findingsIndex);
+
+        List<Map<String, Object>> rules = (List<Map<String, Object>>) responseBody.get("rules");
+        Assert.assertEquals(3, rules.size());
+        for (Map<String, Object> rule: rules.subList(0, 2)) {
+            Assert.assertNull(rule.get("error"));
+            // the hits are counted across all slices, while the findings are capped per rule
+            Assert.assertEquals(5, rule.get("hits"));
+            Assert.assertEquals(4, rule.get("findings"));
+        }
+        Assert.assertEquals(whitespaceRuleId, rules.get(1).get("id"));
+        Assert.assertEquals("missing_rule_id", rules.get(2).get("id"));
+        Assert.assertEquals(0, rules.get(2).get("hits"));
+        Assert.assertNotNull(rules.get(2).get("error"));
+
+        String request = "{\n" +
+                "   \"query\" : {\n" +
+                "     \"match_phrase\":{\n" +
+                "        \"backtest_id\": \"" + backtestId + "\"\n" +
+                "     }\n" +
+                "   }\n" +
+                "}";
+        List<SearchHit> hits = executeSearch(findingsIndex, request);
+        Assert.assertEquals(8, hits.size());
+        for (SearchHit hit: hits) {
+            Assert.assertEquals(index, hit.getSourceAsMap().get("index"));
+        }
+
+        // the point in time of the log index is deleted once the backtest is done
+        Response pitsResponse = makeRequest(client(), "GET", "/_search/point_in_time/_all", Collections.emptyMap(), null);
+        Assert.assertEquals(0, ((List<Object>) asMap(pitsResponse).get("pits")).size());
+    }
+
+    public void testBacktestingADraftDetector_findingsIndexOutsideOfBacktestIndices() throws IOException {
+        String index = createTestIndex(randomIndex(), windowsIndexMapping());
+        String ruleId = createRule(randomRule());
+
+        DetectorInput input = new DetectorInput("windows detector for security analytics", List.of(index),
+                List.of(new DetectorRule(ruleId)), List.of());
+        String backtestRequest = "{" +
+                "\"detector\": " + toJsonString(randomDetectorWithInputs(List.of(input))) + "," +
+                "\"start_time\": \"2020-02-01T00:00:00Z\"," +
+                "\"timestamp_field\": \"EventTime\"," +
+                "\"findings_index\": \"" + index + "\"" +
+                "}";
+        try {
+            makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/_backtest", Collections.emptyMap(),
+                    new StringEntity(backtestRequest), new BasicHeader("Content-Type", "application/json"));
+            fail("expected exception due to findings index outside of the backtest findings indices");
+        } catch (ResponseException e) {
+            assertEquals(HttpStatus.SC_BAD_REQUEST, e.getResponse().getStatusLine().getStatusCode());
+        }
+    }
+}
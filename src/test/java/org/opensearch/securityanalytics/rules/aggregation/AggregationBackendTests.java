@@ -4,14 +4,24 @@
  */
 package org.opensearch.securityanalytics.rules.aggregation;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.opensearch.search.aggregations.metrics.SumAggregationBuilder;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
 import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.test.OpenSearchTestCase;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class AggregationBackendTests extends OpenSearchTestCase {
 
@@ -203,4 +213,57 @@ public class AggregationBackendTests extends OpenSearchTestCase {
         Assert.assertEquals("{\"result_agg\":{\"terms\":{\"field\":\"fieldB\"},\"aggs\":{\"fieldA\":{\"avg\":{\"field\":\"fieldA\"}}}}}", aggQuery);
         Assert.assertEquals("{\"buckets_path\":{\"fieldA\":\"fieldA\"},\"parent_bucket_path\":\"result_agg\",\"script\":{\"source\":\"params.fieldA > 110.0\",\"lang\":\"painless\"}}", bucketTriggerQuery);
     }
+
+    public void testSharedAggregation() throws IOException, SigmaError {
+        OSQueryBackend queryBackend = new OSQueryBackend("windows", true, true);
+        Map<String, Pair<AggregationItem, QueryBuilder>> aggregations = new LinkedHashMap<>();
+        aggregations.put("rule-a", Pair.of(aggregation("count(*) by fieldB > 1"), QueryBuilders.termQuery("fieldA", "valueA")));
+        aggregations.put("rule-b", Pair.of(aggregation("sum(fieldA) by fieldB > 110"), QueryBuilders.termQuery("fieldA", "valueB")));
+        OSQueryBackend.AggregationQueries aggQueries = queryBackend.convertSharedAggregation("fieldB", aggregations);
+
+        Assert.assertEquals("{\"buckets_path\":{\"rule_0\":\"rule-a>_count\",\"rule_1_cnt\":\"rule-b>_count\",\"rule_1\":\"rule-b>metric\"},\"parent_bucket_path\":\"result_agg\"," +
+                "\"script\":{\"source\":\"(params.rule_0 > 0 && params.rule_0 > 1.0) || (params.rule_1_cnt > 0 && params.rule_1 > 110.0)\",\"lang\":\"painless\"}}",
+                aggQueries.getBucketTriggerQuery());
+
+        CompositeAggregationBuilder aggBuilder = (CompositeAggregationBuilder) aggQueries.getAggBuilder();
+        Assert.assertEquals("result_agg", aggBuilder.getName());
+        Assert.assertEquals(List.of("rule-a", "rule-b"),
+                aggBuilder.getSubAggregations().stream().map(AggregationBuilder::getName).collect(Collectors.toList()));
+        FilterAggregationBuilder filter = (FilterAggregationBuilder) aggBuilder.getSubAggregations().stream()
+                .filter(it -> it.getName().equals("rule-b")).findFirst().get();
+        Assert.assertEquals(QueryBuilders.termQuery("fieldA", "valueB"), filter.getFilter());
+        SumAggregationBuilder metric = (SumAggregationBuilder) filter.getSubAggregations().iterator().next();
+        Assert.assertEquals(OSQueryBackend.FILTERED_METRIC, metric.getName());
+        Assert.assertEquals("fieldA", metric.field());
+    }
+
+    public void testShareableAggregation() throws SigmaError {
+        Assert.assertTrue(OSQueryBackend.isShareableAggregation(aggregation("count(*) by fieldB > 1"), "39f919f3-980b-4e6f-a975-8af7e507ef2b"));
+        Assert.assertTrue(OSQueryBackend.isShareableAggregation(aggregation("max(fieldA) by fieldB > 1"), "rule_id"));
+        // without a group by field, or with a metric missing for buckets without documents of the rule
+        Assert.assertFalse(OSQueryBackend.isShareableAggregation(aggregation("count(*) > 1"), "rule_id"));
+        Assert.assertFalse(OSQueryBackend.isShareableAggregation(aggregation("avg(fieldA) by fieldB > 1"), "rule_id"));
+        // with an id which is not a valid buckets path element
+        Assert.assertFalse(OSQueryBackend.isShareableAggregation(aggregation("count(*) by fieldB > 1"), "rule.id"));
+        Assert.assertFalse(OSQueryBackend.isShareableAggregation(aggregation("count(*) by fieldB > 1"), "rule>id"));
+    }
+
+    private static AggregationItem aggregation(String aggregation) throws SigmaError {
+        SigmaRule rule = SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                "                    fieldA: valueA\n" +
+                "                condition: sel | " + aggregation, true);
+        return rule.getDetection().getParsedCondition().get(0).parsed().getRight();
+    }
 }
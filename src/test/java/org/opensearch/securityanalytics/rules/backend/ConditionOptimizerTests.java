@@ -0,0 +1,106 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+
+public class ConditionOptimizerTests extends OpenSearchTestCase {
+
+    public void testFlattenAndDeduplicate() throws IOException, SigmaError {
+        Assert.assertEquals("(fieldC: \"valueC\") AND (fieldD: \"valueD\") AND (fieldE: \"valueE\")", convert(
+                "                sel1:\n" +
+                "                    fieldC: valueC\n" +
+                "                    fieldD: valueD\n" +
+                "                sel2:\n" +
+                "                    fieldD: valueD\n" +
+                "                    fieldE: valueE\n" +
+                "                condition: sel1 and (sel2 and sel1)"));
+    }
+
+    public void testDoubleNegation() throws IOException, SigmaError {
+        Assert.assertEquals("fieldC: \"valueC\"", convert(
+                "                sel:\n" +
+                "                    fieldC: valueC\n" +
+                "                condition: not not sel"));
+    }
+
+    public void testPushNegationIntoNegatedClauses() throws IOException, SigmaError {
+        Assert.assertEquals("(fieldC: \"valueC\") OR (fieldD: \"valueD\")", convert(
+                "                sel1:\n" +
+                "                    fieldC: valueC\n" +
+                "                sel2:\n" +
+                "                    fieldD: valueD\n" +
+                "                condition: not (not sel1 and not sel2)"));
+        Assert.assertEquals("(NOT ((fieldC: \"valueC\") AND (fieldD: \"valueD\")))", convert(
+                "                sel1:\n" +
+                "                    fieldC: valueC\n" +
+                "                sel2:\n" +
+                "                    fieldD: valueD\n" +
+                "                condition: not (sel1 and sel2)"));
+    }
+
+    public void testAbsorption() throws IOException, SigmaError {
+        Assert.assertEquals("fieldC: \"valueC\"", convert(
+                "                sel1:\n" +
+                "                    fieldC: valueC\n" +
+                "                sel2:\n" +
+                "                    fieldC: valueC\n" +
+                "                    fieldD: valueD\n" +
+                "                condition: sel1 or sel2"));
+    }
+
+    public void testSingleSelection() throws IOException, SigmaError {
+        Assert.assertEquals("fieldC: \"valueC\"", convert(
+                "                selection_a:\n" +
+                "                    fieldC: valueC\n" +
+                "                filter:\n" +
+                "                    fieldD: valueD\n" +
+                "                condition: 1 of selection*"));
+    }
+
+    public void testGroupInExpressions() throws IOException, SigmaError {
+        Assert.assertEquals("(fieldD: \"valueD\") OR (fieldC: (\"value1\" OR \"value2\" OR \"value3\"))", convert(
+                "                sel1:\n" +
+                "                    fieldC:\n" +
+                "                        - value1\n" +
+                "                        - value2\n" +
+                "                sel2:\n" +
+                "                    fieldD: valueD\n" +
+                "                sel3:\n" +
+                "                    fieldC: value3\n" +
+                "                condition: 1 of them"));
+    }
+
+    public void testCheapestClausesFirst() throws IOException, SigmaError {
+        Assert.assertEquals("(fieldD: \"valueD\") AND (fieldE: valueE*) AND (fieldC: *valueC*)", convert(
+                "                sel:\n" +
+                "                    fieldC|contains: valueC\n" +
+                "                    fieldD: valueD\n" +
+                "                    fieldE|startswith: valueE\n" +
+                "                condition: sel"));
+    }
+
+    private static String convert(String detection) throws IOException, SigmaError {
+        SigmaRule rule = SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                detection, false);
+        return new OSQueryBackend("others_proxy", true, true).convertRule(rule).get(0).toString();
+    }
+}
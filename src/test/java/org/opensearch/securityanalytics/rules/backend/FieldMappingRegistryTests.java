@@ -0,0 +1,43 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.junit.Assert;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class FieldMappingRegistryTests extends OpenSearchTestCase {
+
+    public void testFieldMappingsAreShared() throws IOException {
+        Map<String, String> fieldMappings = FieldMappingRegistry.getFieldMappings("windows");
+
+        Assert.assertEquals("event_uid", fieldMappings.get("EventID"));
+        Assert.assertSame(fieldMappings, FieldMappingRegistry.getFieldMappings("windows"));
+        Assert.assertSame(fieldMappings, new OSQueryBackend("windows", true, true).fieldMappings);
+    }
+
+    public void testFieldMappingsAreImmutable() throws IOException {
+        Map<String, String> fieldMappings = FieldMappingRegistry.getFieldMappings("windows");
+        expectThrows(UnsupportedOperationException.class, () -> fieldMappings.put("EventID", "event_id"));
+    }
+
+    public void testReloadFieldMappings() throws IOException {
+        Map<String, String> fieldMappings = FieldMappingRegistry.getFieldMappings("windows");
+        Map<String, String> reloadedFieldMappings = FieldMappingRegistry.reload("windows");
+
+        Assert.assertNotSame(fieldMappings, reloadedFieldMappings);
+        Assert.assertEquals(fieldMappings, reloadedFieldMappings);
+        Assert.assertSame(reloadedFieldMappings, FieldMappingRegistry.getFieldMappings("windows"));
+
+        FieldMappingRegistry.invalidateAll();
+        Assert.assertNotSame(reloadedFieldMappings, FieldMappingRegistry.getFieldMappings("windows"));
+    }
+
+    public void testUnknownRuleCategory() {
+        expectThrows(IOException.class, () -> FieldMappingRegistry.getFieldMappings("unknown_category"));
+    }
+}
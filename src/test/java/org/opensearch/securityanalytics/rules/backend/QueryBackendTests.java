@@ -10,11 +10,14 @@ import org.opensearch.securityanalytics.rules.exceptions.SigmaIdentifierError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaTypeError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
 import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
 import org.opensearch.test.OpenSearchTestCase;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class QueryBackendTests extends OpenSearchTestCase {
 
@@ -224,6 +227,26 @@ public class QueryBackendTests extends OpenSearchTestCase {
         Assert.assertEquals("((CommandLine: *\\-foo*) OR (CommandLine: *\\/foo*)) AND ((CommandLine: *\\-bar*) OR (CommandLine: *\\/bar*))", queries.get(0).toString());
     }
 
+    public void testConvertValueExpansionAsRegularExpression() throws IOException, SigmaError {
+        OSQueryBackend queryBackend = testBackend();
+        List<Object> queries = queryBackend.convertRule(SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                "                    CommandLine|windash|contains: -foo -bar -baz\n" +
+                "                condition: sel", false));
+        Assert.assertEquals("CommandLine: /.*[\\\\-\\\\/]foo_ws_[\\\\-\\\\/]bar_ws_[\\\\-\\\\/]baz.*/", queries.get(0).toString());
+    }
+
     public void testConvertValueNum() throws IOException, SigmaError {
         OSQueryBackend queryBackend = testBackend();
         List<Object> queries = queryBackend.convertRule(SigmaRule.fromYaml(
@@ -408,7 +431,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                        - value2\n" +
                 "                        - value4\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("(mappedA: \"value1\") OR (mappedA: \"value2\") OR (mappedA: \"value4\")", queries.get(0).toString());
+        Assert.assertEquals("mappedA: (\"value1\" OR \"value2\" OR \"value4\")", queries.get(0).toString());
     }
 
     public void testConvertOrInListWithWildcards() throws IOException, SigmaError {
@@ -431,7 +454,70 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                        - value2*\n" +
                 "                        - val*ue3\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("(mappedA: \"value1\") OR (mappedA: value2*) OR (mappedA: val*ue3)", queries.get(0).toString());
+        Assert.assertEquals("mappedA: (\"value1\" OR value2* OR val*ue3)", queries.get(0).toString());
+    }
+
+    public void testConvertOrInListFoldsWildcards() throws IOException, SigmaError {
+        OSQueryBackend queryBackend = testBackend();
+        List<Object> queries = queryBackend.convertRule(SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                "                    fieldA1: \n" +
+                "                        - value1\n" +
+                "                        - value2*\n" +
+                "                        - '*\\cmd.exe'\n" +
+                "                        - val*ue3\n" +
+                "                        - value4*\n" +
+                "                        - '*\\powershell.exe'\n" +
+                "                        - '*value5*'\n" +
+                "                condition: sel", false));
+        Assert.assertEquals("mappedA: (\"value1\" OR /(value2|value4).*/ OR val*ue3 OR /.*(\\\\cmd\\.exe|\\\\powershell\\.exe)/ OR *value5*)",
+                queries.get(0).toString());
+    }
+
+    public void testConvertOrInListFoldsWildcardsWithinMaxRegexLength() throws IOException, SigmaError {
+        StringBuilder values = new StringBuilder();
+        for (int idx = 0; idx < 30; ++idx) {
+            values.append("                        - ").append(String.format(Locale.ROOT, "%039d", idx)).append("*\n");
+        }
+
+        OSQueryBackend queryBackend = testBackend();
+        List<Object> queries = queryBackend.convertRule(SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                "                    fieldA1: \n" +
+                values +
+                "                condition: sel", false));
+
+        String query = queries.get(0).toString();
+        String[] regexps = query.substring("mappedA: (".length(), query.length() - 1).split(" OR ");
+        // 24 alternatives of 40 chars fit in the maximum length, the remaining 6 go to a second expression
+        Assert.assertEquals(2, regexps.length);
+        Assert.assertEquals(24, regexps[0].split("\\|").length);
+        Assert.assertEquals(6, regexps[1].split("\\|").length);
+        for (String regexp: regexps) {
+            Assert.assertTrue(regexp.length() - 2 <= RegexAutomata.MAX_REGEX_LENGTH);
+        }
     }
 
     public void testConvertOrInSeparate() throws IOException, SigmaError {
@@ -455,7 +541,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                sel3:\n" +
                 "                    fieldA1: value4\n" +
                 "                condition: sel1 or sel2 or sel3", false));
-        Assert.assertEquals("((mappedA: \"value1\") OR (mappedA: \"value2\")) OR (mappedA: \"value4\")", queries.get(0).toString());
+        Assert.assertEquals("mappedA: (\"value1\" OR \"value2\" OR \"value4\")", queries.get(0).toString());
     }
 
     public void testConvertOrInMixedKeywordField() throws IOException, SigmaError {
@@ -478,7 +564,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                    fieldB: value2\n" +
                 "                sel3: value3\n" +
                 "                condition: sel1 or sel2 or sel3", false));
-        Assert.assertEquals("((fieldA: \"value1\") OR (mappedB: \"value2\")) OR (_0: \"value3\")", queries.get(0).toString());
+        Assert.assertEquals("(fieldA: \"value1\") OR (mappedB: \"value2\") OR (_0: \"value3\")", queries.get(0).toString());
     }
 
     public void testConvertOrInMixedFields() throws IOException, SigmaError {
@@ -502,7 +588,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                sel3:\n" +
                 "                    fieldA1: value4\n" +
                 "                condition: sel1 or sel2 or sel3", false));
-        Assert.assertEquals("((mappedA: \"value1\") OR (fieldB1: \"value2\")) OR (mappedA: \"value4\")", queries.get(0).toString());
+        Assert.assertEquals("(fieldB1: \"value2\") OR (mappedA: (\"value1\" OR \"value4\"))", queries.get(0).toString());
     }
 
     public void testConvertOrInUnallowedValueType() throws IOException, SigmaError {
@@ -525,7 +611,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                        - value2\n" +
                 "                        - null\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("(mappedA: \"value1\") OR (mappedA: \"value2\") OR (mappedA: null)", queries.get(0).toString());
+        Assert.assertEquals("(mappedA: null) OR (mappedA: (\"value1\" OR \"value2\"))", queries.get(0).toString());
     }
 
     public void testConvertOrInListNumbers() throws IOException, SigmaError {
@@ -548,7 +634,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                        - 2\n" +
                 "                        - 4\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("(mappedA: 1) OR (mappedA: 2) OR (mappedA: 4)", queries.get(0).toString());
+        Assert.assertEquals("mappedA: (1 OR 2 OR 4)", queries.get(0).toString());
     }
 
     public void testConvertAndInList() throws IOException, SigmaError {
@@ -781,7 +867,36 @@ public class QueryBackendTests extends OpenSearchTestCase {
                         "                        - 192.168.0.0/14\n" +
                         "                        - 10.10.10.0/24\n" +
                         "                condition: sel", false));
-        Assert.assertEquals("(fieldA: \"192.168.0.0/14\") OR (fieldA: \"10.10.10.0/24\")", queries.get(0).toString());
+        Assert.assertEquals("fieldA: (\"10.10.10.0/24\" OR \"192.168.0.0/14\")", queries.get(0).toString());
+    }
+
+    public void testConvertListCidrMerged() throws IOException, SigmaError {
+        OSQueryBackend queryBackend = testBackend();
+        List<Object> queries = queryBackend.convertRule(SigmaRule.fromYaml(
+                "            title: Test\n" +
+                        "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                        "            status: test\n" +
+                        "            level: critical\n" +
+                        "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                        "            author: Florian Roth\n" +
+                        "            date: 2017/05/15\n" +
+                        "            logsource:\n" +
+                        "                category: test_category\n" +
+                        "                product: test_product\n" +
+                        "            detection:\n" +
+                        "                sel: \n" +
+                        "                    fieldA|cidr:\n" +
+                        "                        - 10.0.0.0/24\n" +
+                        "                        - 10.0.1.0/24\n" +
+                        "                        - 10.0.0.128/25\n" +
+                        "                        - 10.0.2.0/24\n" +
+                        "                        - 10.0.4.7\n" +
+                        "                        - 2001:db8::/33\n" +
+                        "                        - 2001:db8:8000::/33\n" +
+                        "                condition: sel", false));
+        Assert.assertEquals("fieldA: ([\"10.0.0.0\" TO \"10.0.2.255\"] OR \"10.0.4.7/32\" OR \"2001:db8::/32\")",
+                queries.get(0).toString());
+        Assert.assertEquals(Map.of("type", "ip"), queryBackend.getQueryFields().get("fieldA"));
     }
 
     public void testConvertNetworkRule() throws IOException, SigmaError {
@@ -835,7 +950,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                select_tree_execution|endswith:\n" +
                 "                    Image: '/tree'\n" +
                 "                condition: 1 of select*", false));
-        Assert.assertEquals("(Image: \"\\/usr\\/bin\\/find\") OR (Image: \"\\/tree\") OR (Image: \"\\/usr\\/bin\\/mdfind\") OR ((Image: \"\\/usr\\/bin\\/file\") AND (CommandLine: /(.){200,}/)) OR ((Image: \"\\/bin\\/ls\") AND (CommandLine: *\\-R*))", queries.get(0).toString());
+        Assert.assertEquals("(Image: (\"\\/usr\\/bin\\/find\" OR \"\\/tree\" OR \"\\/usr\\/bin\\/mdfind\")) OR ((Image: \"\\/bin\\/ls\") AND (CommandLine: *\\-R*)) OR ((Image: \"\\/usr\\/bin\\/file\") AND (CommandLine: /(.){200,}/))", queries.get(0).toString());
     }
 
     public void testConvertProxyRule() throws IOException, SigmaError {
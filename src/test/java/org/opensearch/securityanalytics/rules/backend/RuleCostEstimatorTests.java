@@ -0,0 +1,77 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.FIELD_COST;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.KEYWORD_FACTOR;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.LEADING_WILDCARD_COST;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.REGEX_COST;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.REGEX_OPERATOR_COST;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.TERM_COST;
+import static org.opensearch.securityanalytics.rules.backend.RuleCostEstimator.WILDCARD_COST;
+
+public class RuleCostEstimatorTests extends OpenSearchTestCase {
+
+    public void testTermsAndWildcards() throws SigmaError {
+        long cost = RuleCostEstimator.estimate(rule(
+                "            fieldA: valueA\n" +
+                "            fieldB|startswith: valueB\n" +
+                "            fieldC|contains: valueC\n" +
+                "            fieldD|endswith: valueD\n"));
+        Assert.assertEquals(TERM_COST + WILDCARD_COST + 2 * LEADING_WILDCARD_COST + 4 * FIELD_COST, cost);
+    }
+
+    public void testRegularExpression() throws SigmaError {
+        long cost = RuleCostEstimator.estimate(rule(
+                "            fieldA|re: 'a+b*\\.c'\n"));
+        Assert.assertEquals(REGEX_COST + 2 * REGEX_OPERATOR_COST + FIELD_COST, cost);
+    }
+
+    public void testExpansionFanOut() throws SigmaError {
+        long cost = RuleCostEstimator.estimate(rule(
+                "            fieldA|base64offset|contains: value\n"));
+        Assert.assertEquals(3 * LEADING_WILDCARD_COST + FIELD_COST, cost);
+    }
+
+    public void testKeywords() throws SigmaError {
+        long cost = RuleCostEstimator.estimate(rule(
+                "            - valueA\n" +
+                "            - valueB\n"));
+        Assert.assertEquals(2 * KEYWORD_FACTOR * TERM_COST, cost);
+    }
+
+    public void testCostlierRules() throws SigmaError {
+        long termCost = RuleCostEstimator.estimate(rule("            fieldA: value\n"));
+        long containsCost = RuleCostEstimator.estimate(rule("            fieldA|contains: value\n"));
+        long listCost = RuleCostEstimator.estimate(rule("            fieldA|contains:\n" +
+                "                - valueA\n" +
+                "                - valueB\n"));
+        Assert.assertTrue(termCost < containsCost);
+        Assert.assertTrue(containsCost < listCost);
+    }
+
+    private static SigmaRule rule(String selection) throws SigmaError {
+        return SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                selection.replaceAll("(?m)^            ", "                    ") +
+                "                condition: sel", false);
+    }
+}
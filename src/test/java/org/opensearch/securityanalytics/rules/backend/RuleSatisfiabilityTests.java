@@ -0,0 +1,106 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import java.util.Set;
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class RuleSatisfiabilityTests extends OpenSearchTestCase {
+
+    public void testAllFieldsMapped() throws SigmaError {
+        SigmaRule rule = rule("sel1 and not sel2");
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule, Set.of("fieldA", "fieldB")::contains));
+    }
+
+    public void testAndWithUnmappedField() throws SigmaError {
+        SigmaRule rule = rule("sel1 and sel2");
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule, Set.of("fieldA")::contains));
+    }
+
+    public void testOrWithUnmappedField() throws SigmaError {
+        SigmaRule rule = rule("sel1 or sel2");
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule, Set.of("fieldA")::contains));
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule, Set.of()::contains));
+    }
+
+    public void testNotWithUnmappedField() throws SigmaError {
+        // the filter never matches, so its negation always does
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule("sel1 and not sel2"), Set.of("fieldA")::contains));
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule("not sel2"), Set.of()::contains));
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule("not sel1 and sel2"), Set.of("fieldA")::contains));
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule("not (not sel2)"), Set.of("fieldA")::contains));
+    }
+
+    public void testNullValueOfUnmappedField() throws SigmaError {
+        // fieldC: null searches for the term null, which a missing field never has
+        SigmaRule rule = rule("sel1 and sel3");
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule, Set.of("fieldA")::contains));
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule("sel1 and not sel3"), Set.of("fieldA")::contains));
+    }
+
+    public void testNotNullFilterOfUnmappedField() throws SigmaError {
+        // trimmed down proc_creation_win_susp_non_exe_image.yml
+        SigmaRule rule = SigmaRule.fromYaml(
+                "            title: Execution of Suspicious File Type Extension\n" +
+                "            id: c09dad97-1c78-4f71-b127-7edb2b8e491a\n" +
+                "            status: experimental\n" +
+                "            level: high\n" +
+                "            description: Checks whether the image specified in a process creation event doesn't refer to an .exe file\n" +
+                "            author: Max Altgelt\n" +
+                "            date: 2021/12/09\n" +
+                "            logsource:\n" +
+                "                category: process_creation\n" +
+                "                product: windows\n" +
+                "            detection:\n" +
+                "                known_image_extension:\n" +
+                "                    Image|endswith:\n" +
+                "                        - '.exe'\n" +
+                "                        - '.tmp'\n" +
+                "                filter_null:\n" +
+                "                    Image: null\n" +
+                "                filter_image:\n" +
+                "                    Image:\n" +
+                "                        - 'Registry'\n" +
+                "                        - 'MemCompression'\n" +
+                "                filter_pstarts:\n" +
+                "                    ParentImage|startswith: 'C:\\ProgramData\\Avira\\'\n" +
+                "                condition: not known_image_extension and not 1 of filter*", false);
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule, Set.of("Image", "ParentImage")::contains));
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule, Set.of("Image")::contains));
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule, Set.of()::contains));
+    }
+
+    public void testKeywords() throws SigmaError {
+        Assert.assertTrue(RuleSatisfiability.isSatisfiable(rule("keywords and not sel2"), Set.of()::contains));
+        Assert.assertFalse(RuleSatisfiability.isSatisfiable(rule("keywords and sel2"), Set.of()::contains));
+    }
+
+    private static SigmaRule rule(String condition) throws SigmaError {
+        return SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel1:\n" +
+                "                    fieldA: valueA\n" +
+                "                sel2:\n" +
+                "                    fieldB|contains: valueB\n" +
+                "                sel3:\n" +
+                "                    fieldC: null\n" +
+                "                keywords:\n" +
+                "                    - valueC\n" +
+                "                condition: " + condition, false);
+    }
+}
@@ -290,6 +290,26 @@ public class ConditionTests extends OpenSearchTestCase {
         Assert.assertTrue(((ConditionFieldEqualsValueExpression) conditionItem).getValue() instanceof SigmaNull);
     }
 
+    public void testParsedIsMemoized() throws SigmaError {
+        SigmaCondition sigmaCondition = new SigmaCondition("detection1 and not (detection2 or detection4)", sigmaSimpleDetections());
+        Assert.assertSame(sigmaCondition.parsed(), sigmaCondition.parsed());
+    }
+
+    public void testSameConditionWithDifferentDetections() throws SigmaError {
+        Map<String, SigmaDetection> detections = new HashMap<>();
+        detections.put("detection1", new SigmaDetection(List.of(Either.left(new SigmaDetectionItem(null, Collections.emptyList(),
+                List.of(new SigmaString("otherVal1")), null, null, false))), null));
+        detections.put("detection2", new SigmaDetection(List.of(Either.left(new SigmaDetectionItem(null, Collections.emptyList(),
+                List.of(new SigmaString("otherVal2")), null, null, false))), null));
+
+        ConditionItem conditionItem = new SigmaCondition("detection1 or detection2", sigmaSimpleDetections()).parsed().getLeft();
+        ConditionItem otherConditionItem = new SigmaCondition("detection1 or detection2", new SigmaDetections(detections, Collections.emptyList())).parsed().getLeft();
+
+        Assert.assertEquals("val1", conditionItem.getArgs().get(0).getLeft().get().getValue().toString());
+        Assert.assertEquals("otherVal1", otherConditionItem.getArgs().get(0).getLeft().get().getValue().toString());
+        Assert.assertEquals("otherVal2", otherConditionItem.getArgs().get(1).getLeft().get().getValue().toString());
+    }
+
     public void testUndefinedIdentifier() {
         Exception exception = assertThrows(SigmaConditionError.class, () -> {
             new SigmaCondition("detection", sigmaSimpleDetections()).parsed();
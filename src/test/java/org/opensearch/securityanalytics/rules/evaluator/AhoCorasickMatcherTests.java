@@ -0,0 +1,78 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import org.junit.Assert;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class AhoCorasickMatcherTests extends OpenSearchTestCase {
+
+    public void testOverlappingLiterals() {
+        AhoCorasickMatcher.Builder builder = new AhoCorasickMatcher.Builder();
+        builder.add("he");
+        builder.add("she");
+        builder.add("his");
+        builder.add("hers");
+        AhoCorasickMatcher matcher = builder.build();
+
+        List<String> matches = new ArrayList<>();
+        matcher.match("ushers", (literal, start, end) -> matches.add(literal + ":" + start + "-" + end));
+
+        Assert.assertEquals(4, matcher.size());
+        Assert.assertEquals(List.of("1:1-4", "0:2-4", "3:2-6"), matches);
+    }
+
+    public void testDuplicateLiterals() {
+        AhoCorasickMatcher.Builder builder = new AhoCorasickMatcher.Builder();
+        builder.add("powershell");
+        builder.add("powershell");
+        AhoCorasickMatcher matcher = builder.build();
+
+        List<Integer> matches = new ArrayList<>();
+        matcher.match("c:\\powershell.exe", (literal, start, end) -> matches.add(literal));
+        Assert.assertEquals(List.of(0, 1), matches);
+    }
+
+    public void testRandomLiterals() {
+        List<String> literals = new ArrayList<>();
+        AhoCorasickMatcher.Builder builder = new AhoCorasickMatcher.Builder();
+        for (int idx = 0; idx < 50; ++idx) {
+            String literal = randomText(1, 4);
+            literals.add(literal);
+            builder.add(literal);
+        }
+        AhoCorasickMatcher matcher = builder.build();
+
+        String text = randomText(0, 200);
+        List<String> expected = new ArrayList<>();
+        for (int end = 1; end <= text.length(); ++end) {
+            for (int literal = 0; literal < literals.size(); ++literal) {
+                int start = end - literals.get(literal).length();
+                if (start >= 0 && text.startsWith(literals.get(literal), start)) {
+                    expected.add(literal + ":" + start);
+                }
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        matcher.match(text, (literal, start, end) -> matches.add(literal + ":" + start));
+        Assert.assertEquals(expected.stream().sorted().collect(Collectors.toList()), matches.stream().sorted().collect(Collectors.toList()));
+    }
+
+    /**
+     * Random text over a small alphabet, so literals overlap and recur.
+     */
+    private static String randomText(int minLength, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        for (int length = randomIntBetween(minLength, maxLength); length > 0; --length) {
+            text.append((char) ('a' + randomIntBetween(0, 2)));
+        }
+        return text.toString();
+    }
+}
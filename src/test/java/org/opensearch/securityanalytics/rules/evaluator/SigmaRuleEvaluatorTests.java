@@ -0,0 +1,262 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.evaluator;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class SigmaRuleEvaluatorTests extends OpenSearchTestCase {
+
+    public void testAndOrNot() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel1:\n" +
+                "                    fieldA1: valueA\n" +
+                "                    fieldB: valueB\n" +
+                "                sel2:\n" +
+                "                    fieldC: valueC\n" +
+                "                filter:\n" +
+                "                    fieldD: valueD\n" +
+                "                condition: (sel1 or sel2) and not filter");
+
+        Assert.assertEquals(List.of(0, 2), evaluate(rule,
+                Map.of("mappedA", "valueA", "mappedB", "valueB"),
+                Map.of("mappedA", "valueA"),
+                Map.of("fieldC", "valueC"),
+                Map.of("fieldC", "valueC", "fieldD", "valueD")));
+    }
+
+    public void testModifiers() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1|contains|all:\n" +
+                "                        - ' -enc '\n" +
+                "                        - powershell\n" +
+                "                    fieldB|endswith: '.exe'\n" +
+                "                    fieldC|re: '[0-9]+'\n" +
+                "                    fieldD|cidr: 10.0.0.0/8\n" +
+                "                    fieldE|gte: 4624\n" +
+                "                condition: sel");
+
+        Map<String, Object> event = Map.of("mappedA", "c:\\powershell.exe -enc AAA", "mappedB", "cmd.exe",
+                "fieldC", "1234", "fieldD", "10.1.2.3", "fieldE", 4625);
+        Assert.assertEquals(List.of(0), evaluate(rule, event,
+                Map.of("mappedA", "c:\\powershell.exe", "mappedB", "cmd.exe", "fieldC", "1234", "fieldD", "10.1.2.3", "fieldE", 4625),
+                Map.of("mappedA", "powershell -enc AAA", "mappedB", "cmd.exe", "fieldC", "12a", "fieldD", "10.1.2.3", "fieldE", 4625),
+                Map.of("mappedA", "powershell -enc AAA", "mappedB", "cmd.exe", "fieldC", "1234", "fieldD", "11.1.2.3", "fieldE", 4625),
+                Map.of("mappedA", "powershell -enc AAA", "mappedB", "cmd.exe", "fieldC", "1234", "fieldD", "10.1.2.3", "fieldE", "4000")));
+    }
+
+    public void testNetworks() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1|cidr:\n" +
+                "                        - 10.0.0.0/24\n" +
+                "                        - 10.0.1.0/24\n" +
+                "                        - 2001:db8::/32\n" +
+                "                filter:\n" +
+                "                    fieldB|cidr: 10.0.1.128/25\n" +
+                "                condition: sel and not filter");
+
+        Assert.assertEquals(List.of(0, 2), evaluate(rule,
+                Map.of("mappedA", "10.0.1.1"),
+                Map.of("mappedA", "10.0.2.1"),
+                Map.of("mappedA", "2001:db8::1", "mappedB", "10.0.1.1"),
+                Map.of("mappedA", "10.0.0.1", "mappedB", "10.0.1.200"),
+                Map.of("mappedA", "host")));
+    }
+
+    public void testRegularExpressions() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1|re: '.*cmd.{0,5}(?:\\/c|\\/r) .+powershell'\n" +
+                "                    fieldB|re: '^\\d{2,}$'\n" +
+                "                condition: sel");
+
+        Assert.assertEquals(List.of(0), evaluate(rule,
+                Map.of("mappedA", "cmd.exe /c start powershell", "mappedB", "4624"),
+                Map.of("mappedA", "cmd.exe /c start powershell", "mappedB", "4"),
+                Map.of("mappedA", "cmd.exe /cstart powershell", "mappedB", "4624")));
+    }
+
+    public void testWildcardsAreCaseSensitive() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1: 'val?e*'\n" +
+                "                condition: sel");
+
+        Assert.assertEquals(List.of(0), evaluate(rule, Map.of("mappedA", "value A"), Map.of("mappedA", "Value A")));
+    }
+
+    public void testWindashExpansions() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1|windash|contains: '-foo -bar -baz'\n" +
+                "                    fieldB|windash: '-enc'\n" +
+                "                condition: sel");
+
+        Assert.assertEquals(List.of(0, 1), evaluate(rule,
+                Map.of("mappedA", "cmd /foo -bar /baz", "mappedB", "/enc"),
+                Map.of("mappedA", "cmd -foo -bar -baz x", "mappedB", "-enc"),
+                Map.of("mappedA", "cmd \\foo -bar /baz", "mappedB", "-enc"),
+                Map.of("mappedA", "cmd /foo -bar /baz", "mappedB", "\\enc")));
+    }
+
+    public void testNestedAndListValues() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1: valueA\n" +
+                "                    process.name: cmd.exe\n" +
+                "                condition: sel");
+
+        Assert.assertEquals(List.of(0, 1), evaluate(rule,
+                Map.of("mappedA", List.of("valueX", "valueA"), "process", Map.of("name", "cmd.exe")),
+                Map.of("mappedA", "valueA", "process.name", "cmd.exe"),
+                Map.of("mappedA", "valueA", "process", Map.of("name", "explorer.exe"))));
+    }
+
+    public void testNullAndKeywords() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1: null\n" +
+                "                keywords:\n" +
+                "                    - 'mimikatz'\n" +
+                "                condition: sel and keywords");
+
+        Assert.assertEquals(List.of(1), evaluate(rule,
+                Map.of("mappedA", "valueA", "fieldB", "mimikatz"),
+                Map.of("fieldB", Map.of("fieldC", "mimikatz")),
+                Map.of("fieldB", "valueB")));
+    }
+
+    public void testAggregation() throws IOException, SigmaError {
+        SigmaRule rule = rule(
+                "                sel:\n" +
+                "                    fieldA1: valueA\n" +
+                "                condition: sel | count() by fieldB > 1");
+
+        Assert.assertEquals(List.of(0, 2), evaluate(rule,
+                Map.of("mappedA", "valueA", "fieldB", "host1"),
+                Map.of("mappedA", "valueA", "fieldB", "host2"),
+                Map.of("mappedA", "valueA", "fieldB", "host1"),
+                Map.of("mappedA", "valueX", "fieldB", "host2")));
+    }
+
+    public void testLiteralIndex() throws IOException, SigmaError {
+        SigmaRule rule1 = rule(
+                "                sel:\n" +
+                "                    fieldA1|contains: powershell\n" +
+                "                    fieldB|endswith:\n" +
+                "                        - '.exe'\n" +
+                "                        - '.dll'\n" +
+                "                condition: sel");
+        SigmaRule rule2 = rule(
+                "                sel:\n" +
+                "                    fieldA1|startswith: powershell\n" +
+                "                    fieldC|contains|all:\n" +
+                "                        - ' -enc '\n" +
+                "                        - 'AAA'\n" +
+                "                filter:\n" +
+                "                    fieldA1|contains: 'power?hell'\n" +
+                "                condition: sel and not filter");
+        SigmaRule rule3 = rule(
+                "                sel:\n" +
+                "                    fieldA1|contains: powershell\n" +
+                "                    fieldB: 'cmd.exe'\n" +
+                "                condition: sel");
+
+        RuleLiteralIndex index = RuleLiteralIndex.build(List.of(rule1, rule2, rule3));
+        Assert.assertEquals(6, index.size());
+        Assert.assertTrue(index.hasField("fieldA1"));
+        Assert.assertFalse(index.hasField("mappedA"));
+
+        List<Map<String, Object>> events = List.of(
+                Map.of("mappedA", "c:\\powershell.exe", "mappedB", "cmd.exe", "fieldC", "x -enc AAA"),
+                Map.of("mappedA", "powershell -w hidden", "mappedB", "cmd.dll", "fieldC", "AAA -enc y"),
+                Map.of("mappedA", "powershell", "mappedB", List.of("a.exe.bak", "b.dll"), "fieldC", " -enc -enc "),
+                Map.of("mappedA", "Powershell", "mappedB", "cmd.exe", "fieldC", "-enc AAA"));
+
+        List<List<Integer>> expected = List.of(List.of(0, 1, 2), List.of(), List.of(0));
+        Assert.assertEquals(expected, new SigmaRuleEvaluator("others_proxy", true, index).evaluate(List.of(rule1, rule2, rule3), events));
+        Assert.assertEquals(expected, new SigmaRuleEvaluator("others_proxy", true).evaluate(List.of(rule1, rule2, rule3), events));
+    }
+
+    public void testPredicateGraph() throws IOException, SigmaError {
+        SigmaRule rule1 = rule(
+                "                sel:\n" +
+                "                    fieldA1|endswith: '\\powershell.exe'\n" +
+                "                    fieldB: 'cmd.exe'\n" +
+                "                condition: sel");
+        SigmaRule rule2 = rule(
+                "                sel:\n" +
+                "                    fieldB: 'cmd.exe'\n" +
+                "                    fieldA1|endswith: '\\powershell.exe'\n" +
+                "                condition: sel");
+        SigmaRule rule3 = rule(
+                "                sel:\n" +
+                "                    fieldA1|endswith: '\\powershell.exe'\n" +
+                "                    fieldB: 'cmd.exe'\n" +
+                "                filter:\n" +
+                "                    fieldC|cidr: 10.0.0.0/8\n" +
+                "                condition: sel and not filter");
+        SigmaRule rule4 = rule(
+                "                sel:\n" +
+                "                    fieldA1|endswith: '\\powershell.exe'\n" +
+                "                    fieldB: 'cmd.dll'\n" +
+                "                condition: sel");
+
+        PredicateGraph graph = PredicateGraph.build(List.of(rule1, rule2, rule3, rule4));
+        Assert.assertEquals(graph.id(root(rule1)), graph.id(root(rule2)));
+        Assert.assertNotEquals(graph.id(root(rule1)), graph.id(root(rule4)));
+        Assert.assertEquals(graph.id(root(rule1)), graph.id(root(rule3).getArgs().get(0).getLeft().getLeft()));
+        Assert.assertEquals(8, graph.size());
+        Assert.assertTrue(graph.size() < graph.nodes());
+        Assert.assertEquals(-1, graph.id(root(rule("                sel:\n                    fieldB: 'cmd.exe'\n                condition: sel"))));
+
+        List<Map<String, Object>> events = List.of(
+                Map.of("mappedA", "c:\\powershell.exe", "mappedB", "cmd.exe", "fieldC", "10.1.2.3"),
+                Map.of("mappedA", "c:\\powershell.exe", "mappedB", "cmd.exe", "fieldC", "11.1.2.3"),
+                Map.of("mappedA", "c:\\powershell.exe", "mappedB", "cmd.dll"),
+                Map.of("mappedA", "c:\\cmd.exe", "mappedB", "cmd.exe"));
+
+        List<List<Integer>> expected = List.of(List.of(0, 1), List.of(0, 1), List.of(1), List.of(2));
+        Assert.assertEquals(expected, new SigmaRuleEvaluator("others_proxy", true).evaluate(List.of(rule1, rule2, rule3, rule4), events));
+        for (int idx = 0; idx < expected.size(); ++idx) {
+            SigmaRule rule = List.of(rule1, rule2, rule3, rule4).get(idx);
+            Assert.assertEquals(expected.get(idx), new SigmaRuleEvaluator("others_proxy", true).evaluate(rule, events));
+        }
+    }
+
+    private static ConditionItem root(SigmaRule rule) throws SigmaError {
+        return rule.getDetection().getParsedCondition().get(0).parsed().getLeft();
+    }
+
+    @SafeVarargs
+    private List<Integer> evaluate(SigmaRule rule, Map<String, Object>... events) throws IOException, SigmaError {
+        return new SigmaRuleEvaluator("others_proxy", true).evaluate(rule, List.of(events));
+    }
+
+    private SigmaRule rule(String detection) throws SigmaError {
+        return SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                detection, true);
+    }
+}
@@ -6,13 +6,17 @@ package org.opensearch.securityanalytics.rules.modifiers;
 
 import org.opensearch.securityanalytics.rules.exceptions.SigmaModifierError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaTypeError;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
 import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
 import org.opensearch.securityanalytics.rules.types.SigmaString;
 import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.utils.Either;
+import org.opensearch.securityanalytics.rules.utils.RegexAutomata;
 
 import java.util.Collections;
+import java.util.List;
 
 public class SigmaWindowsDashModifierTests extends SigmaModifierTests {
 
@@ -36,4 +40,45 @@ public class SigmaWindowsDashModifierTests extends SigmaModifierTests {
                 ((SigmaExpansion) values).getValues().get(3).toString().equals("/param-1_ws_-param2") ||
                 ((SigmaExpansion) values).getValues().get(3).toString().equals("/param-1_ws_/param2"));
     }
-}
\ No newline at end of file
+
+    public void testWindashFewFlagsAreEnumerated() throws SigmaRegularExpressionError, SigmaValueError, SigmaModifierError {
+        SigmaExpansion values = (SigmaExpansion) new SigmaWindowsDashModifier(dummyDetectionItem(), Collections.emptyList()).modify(Either.left(new SigmaString("-a -b"))).getLeft();
+        assertEquals(4, values.size());
+        assertNull(values.getRegularExpression());
+        assertEquals(4, values.getValues().size());
+    }
+
+    public void testWindashManyFlagsAreOneRegularExpression() throws SigmaRegularExpressionError, SigmaValueError, SigmaModifierError {
+        SigmaExpansion values = (SigmaExpansion) new SigmaWindowsDashModifier(dummyDetectionItem(), Collections.emptyList()).modify(Either.left(new SigmaString("-a -b -c"))).getLeft();
+        assertEquals(8, values.size());
+        assertEquals("[\\-\\/]a_ws_[\\-\\/]b_ws_[\\-\\/]c", values.getRegularExpression().getRegexp());
+    }
+
+    public void testWindashContainsKeepsTemplate() throws SigmaRegularExpressionError, SigmaValueError, SigmaTypeError, SigmaModifierError {
+        SigmaType values = new SigmaWindowsDashModifier(dummyDetectionItem(), Collections.emptyList()).modify(Either.left(new SigmaString("-a -b -c"))).getLeft();
+        List<SigmaType> contains = new SigmaContainsModifier(dummyDetectionItem(), Collections.emptyList()).apply(Either.left(values));
+        assertEquals(1, contains.size());
+        assertTrue(((SigmaExpansion) contains.get(0)).isTemplate());
+        assertEquals(".*[\\-\\/]a_ws_[\\-\\/]b_ws_[\\-\\/]c.*", ((SigmaExpansion) contains.get(0)).getRegularExpression().getRegexp());
+        assertEquals("*-a_ws_-b_ws_-c*", ((SigmaExpansion) contains.get(0)).getValues().get(0).toString());
+    }
+
+    public void testWindashExpansionSizeIsCapped() throws SigmaRegularExpressionError, SigmaValueError, SigmaModifierError {
+        SigmaDetectionItem detectionItem = new SigmaDetectionItem(null, Collections.emptyList(), List.of(new SigmaString("foobar")), null, null, false, 4);
+        SigmaExpansion values = (SigmaExpansion) new SigmaWindowsDashModifier(detectionItem, Collections.emptyList()).modify(Either.left(new SigmaString("-a -b -c"))).getLeft();
+        assertNotNull(values.getRegularExpression());
+        expectThrows(SigmaValueError.class, values::getValues);
+        expectThrows(SigmaValueError.class, () -> new SigmaBase64OffsetModifier(detectionItem, Collections.emptyList()).apply(Either.left(values)));
+    }
+
+    public void testWindashExpansionSizeIsCappedWithoutRegularExpression() throws SigmaRegularExpressionError, SigmaValueError, SigmaModifierError {
+        // too long to be matched as a regular expression, so the variants have to be enumerated
+        SigmaString value = new SigmaString("-a " + "x".repeat(RegexAutomata.MAX_REGEX_LENGTH) + " -b -c");
+        SigmaExpansion values = (SigmaExpansion) new SigmaWindowsDashModifier(dummyDetectionItem(), Collections.emptyList()).modify(Either.left(value)).getLeft();
+        assertNull(values.getRegularExpression());
+        assertEquals(8, values.getValues().size());
+
+        SigmaDetectionItem detectionItem = new SigmaDetectionItem(null, Collections.emptyList(), List.of(new SigmaString("foobar")), null, null, false, 4);
+        expectThrows(SigmaValueError.class, () -> new SigmaWindowsDashModifier(detectionItem, Collections.emptyList()).modify(Either.left(value)));
+    }
+}
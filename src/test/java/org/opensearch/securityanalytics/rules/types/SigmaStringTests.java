@@ -12,6 +12,7 @@ import org.opensearch.test.OpenSearchTestCase;
 
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import static org.opensearch.securityanalytics.rules.types.SigmaString.SpecialChars.WILDCARD_MULTI;
 import static org.opensearch.securityanalytics.rules.types.SigmaString.SpecialChars.WILDCARD_SINGLE;
@@ -206,6 +207,31 @@ public class SigmaStringTests extends OpenSearchTestCase {
         });
     }
 
+    public void testStringsConvertReserved() throws SigmaValueError {
+        SigmaString s = new SigmaString("&&*a b");
+        Assert.assertEquals("\\&&*a_ws_b", s.convert("\\", "*", "?", "", "&& ||", ""));
+    }
+
+    public void testStringsValueEquality() {
+        Assert.assertNotEquals(new SigmaString("foo*bar"), new SigmaString("baz*bar"));
+        Assert.assertEquals(new SigmaString("foo*bar").hashCode(), new SigmaString("foo*bar").hashCode());
+    }
+
+    public void testStringsReplaceWithPlaceholder() {
+        SigmaString s = new SigmaString("cmd -a*/b").replaceWithPlaceholder(Pattern.compile("\\B[-/]\\b"), "_windash");
+        Assert.assertTrue(s.containsPlaceholder(List.of("_windash"), null));
+        Assert.assertEquals(6, s.getsOpt().size());
+        Assert.assertEquals("_windash", s.getsOpt().get(1).get().getName());
+
+        List<SigmaString> expanded = s.replacePlaceholders(p -> List.of(AnyOneOf.leftVal("-"), AnyOneOf.leftVal("/")));
+        Assert.assertEquals(4, expanded.size());
+        Assert.assertEquals("cmd_ws_-a*-b", expanded.get(0).toString());
+        Assert.assertEquals("cmd_ws_/a*-b", expanded.get(1).toString());
+        Assert.assertEquals("cmd_ws_-a*/b", expanded.get(2).toString());
+        Assert.assertEquals("cmd_ws_/a*/b", expanded.get(3).toString());
+        Assert.assertTrue(expanded.get(3).containsWildcard());
+    }
+
     private SigmaString sigmaString() {
         return new SigmaString("*Test*Str\\*ing*");
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.utils;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaTypeError;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CidrTrieTests extends OpenSearchTestCase {
+
+    public void testMergeCoveredAndSiblingNetworks() throws SigmaTypeError {
+        CidrTrie trie = trie("192.168.1.0/24", "192.168.0.0/24", "192.168.1.64/26", "192.168.2.0/23");
+
+        Assert.assertEquals(List.of("192.168.0.0/22"), ranges(trie));
+        Assert.assertTrue(trie.contains("192.168.3.255"));
+        Assert.assertFalse(trie.contains("192.168.4.0"));
+    }
+
+    public void testMergeAdjacentNetworksIntoRange() throws SigmaTypeError {
+        CidrTrie trie = trie("10.0.2.0/24", "10.0.1.0/24", "10.0.3.0/24", "10.0.8.1");
+
+        Assert.assertEquals(List.of("10.0.1.0-10.0.3.255", "10.0.8.1/32"), ranges(trie));
+        Assert.assertFalse(trie.contains("10.0.0.255"));
+        Assert.assertTrue(trie.contains("10.0.1.0"));
+        Assert.assertTrue(trie.contains("10.0.8.1"));
+        Assert.assertFalse(trie.contains("10.0.8.2"));
+    }
+
+    public void testIPv6() throws SigmaTypeError {
+        CidrTrie trie = trie("2001:db8::/33", "2001:db8:8000::/33", "fe80::/10");
+
+        Assert.assertEquals(List.of("2001:db8::/32", "fe80::/10"), ranges(trie));
+        Assert.assertTrue(trie.contains("2001:db8:ffff::1"));
+        Assert.assertTrue(trie.contains("fe80::1"));
+        Assert.assertFalse(trie.contains("2001:db9::"));
+        Assert.assertFalse(trie.contains("10.0.0.1"));
+        Assert.assertFalse(trie.contains("not an address"));
+    }
+
+    public void testInvalidExpressions() {
+        for (String cidr: List.of("192.168.0/16", "192.168.0.0/33", "2001:db8::/129", "192.168.0.0/", "10.0.0.0/8/8", "host")) {
+            assertThrows(SigmaTypeError.class, () -> new SigmaCIDRExpression(cidr));
+        }
+    }
+
+    private static CidrTrie trie(String... cidrs) throws SigmaTypeError {
+        CidrTrie trie = new CidrTrie();
+        for (String cidr: cidrs) {
+            trie.add(new SigmaCIDRExpression(cidr));
+        }
+        return trie;
+    }
+
+    private static List<String> ranges(CidrTrie trie) {
+        return trie.ranges().stream().map(CidrTrie.Range::toString).collect(Collectors.toList());
+    }
+}
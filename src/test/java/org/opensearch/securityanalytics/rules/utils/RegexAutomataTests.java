@@ -0,0 +1,53 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.utils;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class RegexAutomataTests extends OpenSearchTestCase {
+
+    public void testToLuceneSyntax() {
+        Assert.assertEquals(".*cmd.{0,5}(\\/c|\\/r)[ \t\n\r\f\u000B]+\\\"", RegexAutomata.toLuceneSyntax(".*cmd.{0,5}(?:\\/c|\\/r)\\s+?\\\""));
+        Assert.assertEquals("[0-9]{1,3}[^a-zA-Z0-9_]\\@\\#\\<\\>\\~\\&", RegexAutomata.toLuceneSyntax("^\\d{1,3}\\W@#<>~&$"));
+        Assert.assertEquals("[a\\-z0-9]{0,2}\\{x\\}", RegexAutomata.toLuceneSyntax("[a\\-z\\d]{,2}{x}"));
+        Assert.assertEquals("([a-z]{4})|([a-z]{8})", RegexAutomata.toLuceneSyntax("(^[a-z]{4}$)|(^[a-z]{8}$)"));
+        Assert.assertEquals("AB ", RegexAutomata.toLuceneSyntax("\\x41\\u0042\\x20"));
+    }
+
+    public void testUnsupportedConstructs() {
+        for (String regexp: new String[]{"(a)\\1", "a(?=b)", "(?<!a)b", "\\bword\\b", "a^b", "a$b", "(a$)b", "[\\S]", "(?i)a(?i)b"}) {
+            assertThrows(IllegalArgumentException.class, () -> RegexAutomata.toLuceneSyntax(regexp));
+        }
+    }
+
+    public void testCompile() {
+        Assert.assertTrue(RegexAutomata.compile("\\$PSHome\\[\\s*\\d{1,3}\\s*\\]").run("$PSHome[ 21 ]"));
+        Assert.assertFalse(RegexAutomata.compile("\\$PSHome\\[\\s*\\d{1,3}\\s*\\]").run("x$PSHome[21]"));
+        Assert.assertTrue(RegexAutomata.compile("(?i)powershell.*?-enc").run("PowerShell.exe -enc"));
+        Assert.assertTrue(RegexAutomata.compile("(^ab$)|(^cd$)").run("cd"));
+        Assert.assertSame(RegexAutomata.compile("a+b"), RegexAutomata.compile("a+b"));
+    }
+
+    public void testCatastrophicBacktrackingIsLinear() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 10000; ++i) {
+            value.append('a');
+        }
+        value.append('!');
+        Assert.assertFalse(RegexAutomata.compile("(a|aa)+b").run(value.toString()));
+    }
+
+    public void testQueryComplexity() throws SigmaRegularExpressionError {
+        Assert.assertNull(RegexAutomata.checkQueryComplexity("(.){200,}"));
+        Assert.assertNotNull(RegexAutomata.checkQueryComplexity("(?:\\/c|\\/r)"));
+
+        assertThrows(SigmaRegularExpressionError.class, () -> new SigmaRegularExpression(".*a.{20}"));
+        assertThrows(SigmaRegularExpressionError.class, () -> new SigmaRegularExpression("a".repeat(RegexAutomata.MAX_REGEX_LENGTH + 1)));
+        new SigmaRegularExpression("(?:\\/c|\\/r)");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.ActionListener;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BoundedActionRunnerTests extends OpenSearchTestCase {
+
+    public void testResponsesInRequestOrder() throws InterruptedException {
+        List<Integer> requests = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicReference<List<Integer>> responses = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            BoundedActionRunner.<Integer, Integer>run(requests, 4, (request, listener) -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                executor.execute(() -> {
+                    inFlight.decrementAndGet();
+                    listener.onResponse(request * 2);
+                });
+            }, ActionListener.wrap(it -> {
+                responses.set(it);
+                latch.countDown();
+            }, e -> latch.countDown()));
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(requests.stream().map(it -> it * 2).collect(Collectors.toList()), responses.get());
+        Assert.assertTrue(maxInFlight.get() <= 4);
+    }
+
+    public void testNoActionsStartedAfterFailure() {
+        List<Integer> started = new ArrayList<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        BoundedActionRunner.<Integer, Integer>run(List.of(0, 1, 2, 3, 4), 2, (request, listener) -> {
+            started.add(request);
+            if (request == 1) {
+                listener.onFailure(new IllegalStateException("failed " + request));
+            } else {
+                listener.onResponse(request);
+            }
+        }, ActionListener.wrap(it -> Assert.fail(), failure::set));
+
+        Assert.assertEquals(List.of(0, 1), started);
+        Assert.assertEquals("failed 1", failure.get().getMessage());
+    }
+
+    public void testNoRequests() {
+        AtomicReference<List<Integer>> responses = new AtomicReference<>();
+        BoundedActionRunner.<Integer, Integer>run(List.of(), 2, (request, listener) -> Assert.fail(),
+                ActionListener.wrap(responses::set, e -> Assert.fail()));
+        Assert.assertEquals(List.of(), responses.get());
+    }
+}
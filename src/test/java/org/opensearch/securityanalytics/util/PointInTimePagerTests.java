@@ -0,0 +1,242 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.apache.lucene.search.TotalHits;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.CreatePitAction;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.CreatePitResponse;
+import org.opensearch.action.search.DeletePitAction;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.DeletePitResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.client.Client;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PointInTimePagerTests extends OpenSearchTestCase {
+
+    private static final String PIT_ID = "pit_id";
+
+    private Client client;
+
+    private final List<SearchRequest> searchRequests = new ArrayList<>();
+
+    private final List<DeletePitRequest> deletePitRequests = new ArrayList<>();
+
+    private final List<List<String>> pages = new ArrayList<>();
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = mock(Client.class);
+    }
+
+    public void testPagesThroughEverySlice() {
+        // the documents of each shard, i.e. of each slice of the point in time
+        List<List<String>> docs = List.of(List.of("a", "b", "c", "d", "e"), List.of("f", "g"));
+        mockCreatePit(docs.size());
+        mockSearch(docs, -1);
+        mockDeletePit(true);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.matchAllQuery(), false, 2, consumePages(-1), future);
+        future.actionGet();
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e"), List.of("f", "g")), pages);
+        // the last page of a slice is the first one with less hits than the page size
+        assertEquals(5, searchRequests.size());
+        List<Integer> slices = searchRequests.stream().map(r -> r.source().slice().getId()).collect(Collectors.toList());
+        assertEquals(List.of(0, 0, 0, 1, 1), slices);
+        List<String> searchAfter = searchRequests.stream().map(r -> Arrays.toString(r.source().searchAfter())).collect(Collectors.toList());
+        assertEquals(List.of("null", "[1]", "[3]", "null", "[1]"), searchAfter);
+        for (SearchRequest searchRequest: searchRequests) {
+            assertEquals(PIT_ID, searchRequest.source().pointInTimeBuilder().getId());
+            assertEquals(2, searchRequest.source().slice().getMax());
+            assertEquals(2, searchRequest.source().size());
+            assertEquals(0, searchRequest.indices().length);
+        }
+        assertEquals(1, deletePitRequests.size());
+        assertEquals(List.of(PIT_ID), deletePitRequests.get(0).getPitIds());
+    }
+
+    public void testSingleShardIsNotSliced() {
+        mockCreatePit(1);
+        mockSearch(List.of(List.of("a", "b", "c")), -1);
+        mockDeletePit(true);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.matchAllQuery(), false, 2, consumePages(-1), future);
+        future.actionGet();
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), pages);
+        assertTrue(searchRequests.stream().allMatch(r -> r.source().slice() == null));
+        assertEquals(1, deletePitRequests.size());
+    }
+
+    public void testPointInTimeIsDeletedOnSearchFailure() {
+        mockCreatePit(1);
+        mockSearch(List.of(List.of("a", "b", "c", "d", "e")), 1);
+        mockDeletePit(true);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.matchAllQuery(), false, 2, consumePages(-1), future);
+
+        expectThrows(IllegalStateException.class, future::actionGet);
+        assertEquals(List.of(List.of("a", "b")), pages);
+        assertEquals(1, deletePitRequests.size());
+    }
+
+    public void testPointInTimeIsDeletedOnPageConsumerFailure() {
+        mockCreatePit(1);
+        mockSearch(List.of(List.of("a", "b", "c", "d", "e")), -1);
+        mockDeletePit(true);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.matchAllQuery(), false, 2, consumePages(0), future);
+
+        expectThrows(IllegalStateException.class, future::actionGet);
+        assertEquals(1, searchRequests.size());
+        assertEquals(1, deletePitRequests.size());
+    }
+
+    public void testFailureToDeletePointInTimeIsNotReported() {
+        mockCreatePit(1);
+        mockSearch(List.of(List.of("a")), -1);
+        mockDeletePit(false);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.matchAllQuery(), false, 2, consumePages(-1), future);
+        future.actionGet();
+
+        assertEquals(List.of(List.of("a")), pages);
+        assertEquals(1, deletePitRequests.size());
+    }
+
+    public void testIdsFittingInOnePageAreSearchedWithoutPointInTime() {
+        mockSearch(List.of(List.of("a", "b", "c")), -1);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.idsQuery().addIds("a", "b", "c"), 3, false, 10, consumePages(-1), future);
+        future.actionGet();
+
+        assertEquals(List.of(List.of("a", "b", "c")), pages);
+        assertEquals(1, searchRequests.size());
+        SearchRequest searchRequest = searchRequests.get(0);
+        assertArrayEquals(new String[]{"index"}, searchRequest.indices());
+        assertNull(searchRequest.source().pointInTimeBuilder());
+        assertEquals(3, searchRequest.source().size());
+        verify(client, never()).execute(eq(CreatePitAction.INSTANCE), any(CreatePitRequest.class), any(ActionListener.class));
+        verify(client, never()).execute(eq(DeletePitAction.INSTANCE), any(DeletePitRequest.class), any(ActionListener.class));
+    }
+
+    public void testIdsNotFittingInOnePageArePagedThrough() {
+        mockCreatePit(1);
+        mockSearch(List.of(List.of("a", "b", "c")), -1);
+        mockDeletePit(true);
+
+        PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        PointInTimePager.forEachPage(client, "index", QueryBuilders.idsQuery().addIds("a", "b", "c"), 3, false, 2, consumePages(-1), future);
+        future.actionGet();
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), pages);
+        verify(client, times(1)).execute(eq(CreatePitAction.INSTANCE), any(CreatePitRequest.class), any(ActionListener.class));
+        assertEquals(1, deletePitRequests.size());
+    }
+
+    /**
+     * Records the ids of each page, failing the page at {@code failingPage}.
+     */
+    private BiConsumer<SearchHit[], ActionListener<Void>> consumePages(int failingPage) {
+        return (hits, pageListener) -> {
+            if (pages.size() == failingPage) {
+                pageListener.onFailure(new IllegalStateException("page failed"));
+                return;
+            }
+            pages.add(Arrays.stream(hits).map(SearchHit::getId).collect(Collectors.toList()));
+            pageListener.onResponse(null);
+        };
+    }
+
+    private void mockCreatePit(int totalShards) {
+        doAnswer(invocation -> {
+            ActionListener<CreatePitResponse> l = invocation.getArgument(2);
+            CreatePitResponse response = mock(CreatePitResponse.class);
+            when(response.getId()).thenReturn(PIT_ID);
+            when(response.getTotalShards()).thenReturn(totalShards);
+            l.onResponse(response);
+            return null;
+        }).when(client).execute(eq(CreatePitAction.INSTANCE), any(CreatePitRequest.class), any(ActionListener.class));
+    }
+
+    private void mockDeletePit(boolean succeeds) {
+        doAnswer(invocation -> {
+            deletePitRequests.add(invocation.getArgument(1));
+            ActionListener<DeletePitResponse> l = invocation.getArgument(2);
+            if (succeeds) {
+                l.onResponse(mock(DeletePitResponse.class));
+            } else {
+                l.onFailure(new IllegalStateException("point in time not found"));
+            }
+            return null;
+        }).when(client).execute(eq(DeletePitAction.INSTANCE), any(DeletePitRequest.class), any(ActionListener.class));
+    }
+
+    /**
+     * Answers searches with the documents of the requested slice following the search_after value, sorted by their
+     * position in the slice. The search at {@code failingSearch} fails.
+     */
+    private void mockSearch(List<List<String>> docs, int failingSearch) {
+        doAnswer(invocation -> {
+            SearchRequest searchRequest = invocation.getArgument(0);
+            ActionListener<SearchResponse> l = invocation.getArgument(1);
+            int search = searchRequests.size();
+            searchRequests.add(searchRequest);
+            if (search == failingSearch) {
+                l.onFailure(new IllegalStateException("search failed"));
+                return null;
+            }
+
+            SearchSourceBuilder source = searchRequest.source();
+            List<String> sliceDocs = docs.get(source.slice() != null? source.slice().getId(): 0);
+            int from = source.searchAfter() != null? ((Number) source.searchAfter()[0]).intValue() + 1: 0;
+            int to = Math.min(sliceDocs.size(), from + source.size());
+            SearchHit[] hits = new SearchHit[Math.max(to - from, 0)];
+            for (int idx = from; idx < to; ++idx) {
+                SearchHit hit = new SearchHit(idx, sliceDocs.get(idx), Map.of(), Map.of());
+                hit.sortValues(new Object[]{idx}, new DocValueFormat[]{DocValueFormat.RAW});
+                hits[idx - from] = hit;
+            }
+
+            SearchResponse response = mock(SearchResponse.class);
+            when(response.isTimedOut()).thenReturn(false);
+            when(response.getHits()).thenReturn(new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1.0f));
+            l.onResponse(response);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any(ActionListener.class));
+    }
+}
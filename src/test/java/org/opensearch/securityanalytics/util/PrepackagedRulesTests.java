@@ -0,0 +1,131 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.common.UUIDs;
+import org.opensearch.common.io.stream.OutputStreamStreamOutput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.opensearch.securityanalytics.TestHelpers.randomRule;
+
+public class PrepackagedRulesTests extends OpenSearchTestCase {
+
+    public void testCompile() {
+        List<Rule> rules = compile(Map.of("windows", List.of(randomRule())));
+
+        Assert.assertEquals(1, rules.size());
+        Rule rule = rules.get(0);
+        Assert.assertEquals("5f92fff9-82e2-48eb-8fc1-8b133556a551", rule.getId());
+        Assert.assertEquals("windows", rule.getCategory());
+        Assert.assertEquals(1, rule.getQueries().size());
+        Assert.assertEquals("event_uid: 22", rule.getQueries().get(0).getValue());
+        Assert.assertEquals("event_uid", rule.getQueryFieldNames().get(0).getValue());
+        Assert.assertEquals(randomRule(), rule.getRule());
+    }
+
+    public void testCompileMergesChunksInOrder() {
+        List<String> windowsRules = new ArrayList<>();
+        for (int idx = 0; idx < 250; ++idx) {
+            windowsRules.add(randomRule().replace("5f92fff9-82e2-48eb-8fc1-8b133556a551", UUIDs.randomBase64UUID()));
+        }
+        Map<String, List<String>> logIndexToRules = new TreeMap<>(Map.of("others_proxy", List.of(randomRule()), "windows", windowsRules));
+
+        List<Rule> sequential = new ArrayList<>();
+        sequential.addAll(compile(Map.of("others_proxy", List.of(randomRule()))));
+        sequential.addAll(compile(Map.of("windows", windowsRules)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PlainActionFuture<List<Rule>> future = PlainActionFuture.newFuture();
+            PrepackagedRules.compile(logIndexToRules, executor, future);
+            List<Rule> parallel = future.actionGet();
+
+            Assert.assertEquals(251, parallel.size());
+            for (int idx = 0; idx < parallel.size(); ++idx) {
+                Assert.assertEquals(sequential.get(idx).getId(), parallel.get(idx).getId());
+                Assert.assertEquals(sequential.get(idx).getCategory(), parallel.get(idx).getCategory());
+                Assert.assertEquals(values(sequential.get(idx).getQueries()), values(parallel.get(idx).getQueries()));
+                Assert.assertEquals(values(sequential.get(idx).getQueryFieldNames()), values(parallel.get(idx).getQueryFieldNames()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testCompileFailure() {
+        PlainActionFuture<List<Rule>> future = PlainActionFuture.newFuture();
+        PrepackagedRules.compile(Map.of("windows", List.of("title: invalid")), OpenSearchExecutors.newDirectExecutorService(), future);
+        expectThrows(Exception.class, future::actionGet);
+    }
+
+    public void testDigest() {
+        Rule rule = compile(Map.of("windows", List.of(randomRule()))).get(0);
+        Rule recompiledRule = compile(Map.of("windows", List.of(randomRule()))).get(0);
+        Rule changedRule = compile(Map.of("windows", List.of(randomRule().replace("EventID: 22", "EventID: 23")))).get(0);
+
+        Assert.assertNotNull(rule.getDigest());
+        Assert.assertEquals(rule.getDigest(), recompiledRule.getDigest());
+        Assert.assertNotEquals(rule.getDigest(), changedRule.getDigest());
+        Assert.assertEquals(rule.getId(), changedRule.getId());
+    }
+
+    public void testArtifactRoundTrip() throws IOException {
+        List<Rule> rules = compile(Map.of("windows", List.of(randomRule())));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PrepackagedRules.write(rules, os);
+        List<Rule> readRules = PrepackagedRules.read(new ByteArrayInputStream(os.toByteArray()));
+
+        Assert.assertEquals(rules.size(), readRules.size());
+        Rule rule = rules.get(0);
+        Rule readRule = readRules.get(0);
+        Assert.assertEquals(rule.getId(), readRule.getId());
+        Assert.assertEquals(rule.getTitle(), readRule.getTitle());
+        Assert.assertEquals(rule.getCategory(), readRule.getCategory());
+        Assert.assertEquals(rule.getDate(), readRule.getDate());
+        Assert.assertEquals(values(rule.getQueries()), values(readRule.getQueries()));
+        Assert.assertEquals(values(rule.getQueryFieldNames()), values(readRule.getQueryFieldNames()));
+        Assert.assertEquals(values(rule.getAggregationQueries()), values(readRule.getAggregationQueries()));
+        Assert.assertEquals(rule.getRule(), readRule.getRule());
+        Assert.assertEquals(rule.getDigest(), readRule.getDigest());
+    }
+
+    public void testReadRejectsUnknownArtifact() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (StreamOutput out = new OutputStreamStreamOutput(new GZIPOutputStream(os))) {
+            out.writeString("unknown");
+            out.writeVInt(1);
+        }
+        expectThrows(IOException.class, () -> PrepackagedRules.read(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    private static List<Rule> compile(Map<String, List<String>> logIndexToRules) {
+        PlainActionFuture<List<Rule>> future = PlainActionFuture.newFuture();
+        PrepackagedRules.compile(logIndexToRules, OpenSearchExecutors.newDirectExecutorService(), future);
+        return future.actionGet();
+    }
+
+    private static List<String> values(List<Value> values) {
+        return values.stream().map(Value::getValue).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import java.time.Instant;
+import java.util.List;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class RuleCacheTests extends OpenSearchTestCase {
+
+    public void testGetCachedRevision() {
+        RuleCache cache = new RuleCache(10);
+        Rule rule = rule("rule_id_1");
+        cache.put(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 1L, rule);
+
+        assertSame(rule, cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 1L));
+        // the rule was updated, or the primary changed
+        assertNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 4L, 1L));
+        assertNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 2L));
+        assertNull(cache.get(Rule.PRE_PACKAGED_RULES_INDEX, "rule_id_1", 3L, 1L));
+
+        cache.invalidate(Rule.CUSTOM_RULES_INDEX, "rule_id_1");
+        assertNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 1L));
+    }
+
+    public void testEviction() {
+        RuleCache cache = new RuleCache(2);
+        for (int idx = 0; idx < 5; ++idx) {
+            cache.put(Rule.CUSTOM_RULES_INDEX, "rule_id_" + idx, idx, 1L, rule("rule_id_" + idx));
+        }
+
+        assertEquals(2, cache.count());
+        assertNotNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_4", 4L, 1L));
+        assertNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_0", 0L, 1L));
+    }
+
+    public void testDisabled() {
+        RuleCache cache = new RuleCache(0);
+        cache.put(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 1L, rule("rule_id_1"));
+
+        assertEquals(0, cache.count());
+        assertNull(cache.get(Rule.CUSTOM_RULES_INDEX, "rule_id_1", 3L, 1L));
+    }
+
+    private static Rule rule(String id) {
+        return new Rule(
+                id, 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                "author", "experimental", Instant.now(), List.of(), List.of(), "rule", List.of()
+        );
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshResponse;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.AdminClient;
+import org.opensearch.client.Client;
+import org.opensearch.client.IndicesAdminClient;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RuleIndicesTests extends OpenSearchTestCase {
+
+    private Client client;
+
+    private IndicesAdminClient indicesAdminClient;
+
+    private final List<BulkRequest> bulkRequests = new ArrayList<>();
+
+    private final Queue<Runnable> pendingBulkResponses = new ArrayDeque<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = mock(Client.class);
+        AdminClient adminClient = mock(AdminClient.class);
+        indicesAdminClient = mock(IndicesAdminClient.class);
+        when(client.admin()).thenReturn(adminClient);
+        when(adminClient.indices()).thenReturn(indicesAdminClient);
+
+        doAnswer(invocation -> {
+            ActionListener<RefreshResponse> l = invocation.getArgument(1);
+            l.onResponse(mock(RefreshResponse.class));
+            return null;
+        }).when(indicesAdminClient).refresh(any(RefreshRequest.class), any(ActionListener.class));
+    }
+
+    public void testChunksAreBoundedBySize() {
+        // ~100kb per rule, so the 1mb limit is crossed every ~10 rules
+        List<Rule> rules = rules(35, 100 * 1024);
+        mockBulk(-1);
+
+        BulkResponse response = loadRules(rules, List.of(), WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        assertFalse(response.hasFailures());
+        assertEquals(rules.size(), response.getItems().length);
+        assertTrue(bulkRequests.size() > 1);
+
+        long chunkSize = RuleIndices.BULK_CHUNK_SIZE.getBytes();
+        int numberOfActions = 0;
+        for (int idx = 0; idx < bulkRequests.size(); ++idx) {
+            BulkRequest bulkRequest = bulkRequests.get(idx);
+            numberOfActions += bulkRequest.numberOfActions();
+            long lastRequestSize = bulkRequest.estimatedSizeInBytes() - sizeWithoutLastRequest(bulkRequest);
+            // a chunk is closed by the first request that reaches the limit
+            assertTrue(bulkRequest.estimatedSizeInBytes() - lastRequestSize < chunkSize);
+            if (idx < bulkRequests.size() - 1) {
+                assertTrue(bulkRequest.estimatedSizeInBytes() >= chunkSize);
+            }
+            assertEquals(WriteRequest.RefreshPolicy.NONE, bulkRequest.getRefreshPolicy());
+        }
+        assertEquals(rules.size(), numberOfActions);
+    }
+
+    public void testAtMostTwoChunksInFlight() {
+        List<Rule> rules = rules(60, 100 * 1024);
+        mockBulk(-1);
+
+        PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+        ruleIndices().loadRules(rules, List.of("deleted_rule_1", "deleted_rule_2"), WriteRequest.RefreshPolicy.IMMEDIATE,
+                TimeValue.timeValueMinutes(1), future, false);
+        assertEquals(RuleIndices.MAX_IN_FLIGHT_BULK_REQUESTS, pendingBulkResponses.size());
+        completePendingBulks();
+
+        BulkResponse response = future.actionGet();
+        assertEquals(RuleIndices.MAX_IN_FLIGHT_BULK_REQUESTS, maxInFlight.get());
+        assertEquals(rules.size() + 2, response.getItems().length);
+        long deletes = bulkRequests.stream().flatMap(r -> r.requests().stream())
+                .filter(r -> r.opType() == DocWriteRequest.OpType.DELETE)
+                .count();
+        assertEquals(2, deletes);
+    }
+
+    public void testItemFailuresAreMerged() {
+        List<Rule> rules = rules(25, 100 * 1024);
+        mockBulk(1);
+
+        BulkResponse response = loadRules(rules, List.of(), WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        assertTrue(response.hasFailures());
+        assertEquals(rules.size(), response.getItems().length);
+        List<String> failedIds = IntStream.range(0, response.getItems().length)
+                .mapToObj(idx -> response.getItems()[idx])
+                .filter(BulkItemResponse::isFailed)
+                .map(BulkItemResponse::getId)
+                .collect(Collectors.toList());
+        List<String> secondChunkIds = bulkRequests.get(1).requests().stream().map(DocWriteRequest::id).collect(Collectors.toList());
+        assertEquals(secondChunkIds.size(), failedIds.size());
+        assertTrue(failedIds.containsAll(secondChunkIds));
+    }
+
+    public void testSingleRefreshAfterLastChunk() {
+        mockBulk(-1);
+
+        loadRules(rules(35, 100 * 1024), List.of(), WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        assertTrue(bulkRequests.size() > 1);
+        verify(indicesAdminClient, times(1)).refresh(any(RefreshRequest.class), any(ActionListener.class));
+    }
+
+    public void testNoRefreshWithRefreshPolicyNone() {
+        mockBulk(-1);
+
+        loadRules(rules(35, 100 * 1024), List.of(), WriteRequest.RefreshPolicy.NONE);
+
+        assertTrue(bulkRequests.size() > 1);
+        verify(indicesAdminClient, never()).refresh(any(RefreshRequest.class), any(ActionListener.class));
+    }
+
+    public void testNothingToLoad() {
+        mockBulk(-1);
+
+        BulkResponse response = loadRules(List.of(), List.of(), WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        assertEquals(0, response.getItems().length);
+        assertTrue(bulkRequests.isEmpty());
+        verify(indicesAdminClient, never()).refresh(any(RefreshRequest.class), any(ActionListener.class));
+    }
+
+    private BulkResponse loadRules(List<Rule> rules, List<String> deletedRuleIds, WriteRequest.RefreshPolicy refreshPolicy) {
+        PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+        ruleIndices().loadRules(rules, deletedRuleIds, refreshPolicy, TimeValue.timeValueMinutes(1), future, false);
+        completePendingBulks();
+        return future.actionGet();
+    }
+
+    private RuleIndices ruleIndices() {
+        return new RuleIndices(client, mock(ClusterService.class), null, new RuleCache(10));
+    }
+
+    /**
+     * Holds the bulk responses until {@link #completePendingBulks()} so that concurrent chunks can be observed.
+     * Every item of the chunk at {@code failingChunk} is reported as failed.
+     */
+    private void mockBulk(int failingChunk) {
+        doAnswer(invocation -> {
+            BulkRequest bulkRequest = invocation.getArgument(0);
+            ActionListener<BulkResponse> l = invocation.getArgument(1);
+            int chunk = bulkRequests.size();
+            bulkRequests.add(bulkRequest);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            BulkItemResponse[] items = new BulkItemResponse[bulkRequest.numberOfActions()];
+            for (int idx = 0; idx < items.length; ++idx) {
+                DocWriteRequest<?> request = bulkRequest.requests().get(idx);
+                if (chunk == failingChunk) {
+                    items[idx] = BulkItemResponse.failure(idx, request.opType(),
+                            new BulkItemResponse.Failure(request.index(), request.id(), new IllegalStateException("failed")));
+                } else {
+                    items[idx] = BulkItemResponse.success(idx, request.opType(),
+                            new IndexResponse(new ShardId(request.index(), "uuid", 0), request.id(), idx, 1L, 1L, true));
+                }
+            }
+            pendingBulkResponses.add(() -> {
+                inFlight.decrementAndGet();
+                l.onResponse(new BulkResponse(items, 1L));
+            });
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any(ActionListener.class));
+    }
+
+    private void completePendingBulks() {
+        Runnable pending;
+        while ((pending = pendingBulkResponses.poll()) != null) {
+            pending.run();
+        }
+    }
+
+    private static long sizeWithoutLastRequest(BulkRequest bulkRequest) {
+        BulkRequest withoutLast = new BulkRequest();
+        List<DocWriteRequest<?>> requests = bulkRequest.requests();
+        for (int idx = 0; idx < requests.size() - 1; ++idx) {
+            withoutLast.add(requests.get(idx));
+        }
+        return withoutLast.estimatedSizeInBytes();
+    }
+
+    private static List<Rule> rules(int count, int ruleSize) {
+        String ruleText = "a".repeat(ruleSize);
+        return IntStream.range(0, count)
+                .mapToObj(idx -> new Rule(
+                        "rule_id_" + idx, 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                        "author", "experimental", Instant.now(), List.of(), List.of(), ruleText, List.of()
+                ))
+                .collect(Collectors.toList());
+    }
+}
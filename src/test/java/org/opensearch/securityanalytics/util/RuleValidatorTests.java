@@ -0,0 +1,82 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.rules.types.SigmaExpansion;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class RuleValidatorTests extends OpenSearchTestCase {
+
+    public void testGetMissingFields() {
+        Rule rule = new Rule(
+                "rule_id_1", 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                "author", "experimental", Instant.now(), List.of(), List.of(new Value("EventID"), new Value("CommandLine")),
+                "rule", List.of()
+        );
+
+        assertEquals(List.of(), RuleValidator.getMissingFields(rule, Set.of("EventID", "CommandLine", "Image")));
+        assertEquals(List.of("CommandLine"), RuleValidator.getMissingFields(rule, Set.of("EventID")));
+        assertEquals(List.of("EventID", "CommandLine"), RuleValidator.getMissingFields(rule, Set.of()));
+    }
+
+    public void testIsSatisfiable() {
+        String yaml = "title: Test\n" +
+                "id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "status: test\n" +
+                "level: critical\n" +
+                "description: Detects QuarksPwDump clearing access history in hive\n" +
+                "author: Florian Roth\n" +
+                "date: 2017/05/15\n" +
+                "logsource:\n" +
+                "    product: windows\n" +
+                "detection:\n" +
+                "    selection:\n" +
+                "        EventID: 22\n" +
+                "    filter:\n" +
+                "        CommandLine|contains: test\n" +
+                "    condition: selection and not filter";
+        Rule rule = new Rule(
+                "rule_id_1", 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                "author", "experimental", Instant.now(), List.of(), List.of(new Value("event_uid"), new Value("windows-event_data-CommandLine")),
+                yaml, List.of()
+        );
+
+        // the filter can't match without its field, the selection still can
+        assertTrue(RuleValidator.isSatisfiable(rule, Set.of("event_uid"), SigmaExpansion.DEFAULT_MAX_SIZE));
+        assertFalse(RuleValidator.isSatisfiable(rule, Set.of("windows-event_data-CommandLine"), SigmaExpansion.DEFAULT_MAX_SIZE));
+        assertTrue(RuleValidator.isSatisfiable(rule, Set.of("event_uid", "windows-event_data-CommandLine"), SigmaExpansion.DEFAULT_MAX_SIZE));
+    }
+
+    public void testIsSatisfiableOverMaxExpansionSize() {
+        String yaml = "title: Test\n" +
+                "id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "status: test\n" +
+                "level: critical\n" +
+                "description: Detects QuarksPwDump clearing access history in hive\n" +
+                "author: Florian Roth\n" +
+                "date: 2017/05/15\n" +
+                "logsource:\n" +
+                "    product: windows\n" +
+                "detection:\n" +
+                "    selection:\n" +
+                "        EventID: 22\n" +
+                "        CommandLine|windash|contains: -enc\n" +
+                "    condition: selection";
+        Rule rule = new Rule(
+                "rule_id_1", 1L, "title", "windows", "windows", "description", List.of(), List.of(), "high", List.of(),
+                "author", "experimental", Instant.now(), List.of(), List.of(new Value("event_uid"), new Value("windows-event_data-CommandLine")),
+                yaml, List.of()
+        );
+
+        assertFalse(RuleValidator.isSatisfiable(rule, Set.of("event_uid"), SigmaExpansion.DEFAULT_MAX_SIZE));
+        // the windash variants of the value don't fit in the maximum expansion size, so the rule cannot be decided
+        assertTrue(RuleValidator.isSatisfiable(rule, Set.of("event_uid"), 1));
+    }
+}